@@ -0,0 +1,61 @@
+// 要素の型の組み合わせごとにプリミティブの要素を持つTupleを生成する．
+// 両方の要素がオブジェクトである組み合わせはTuple2そのものなので生成しない．
+
+import groovy.text.SimpleTemplateEngine
+
+def kinds = [
+	[name: 'Int', type: 'int', boxed: 'Integer', description: 'int', columnType: 'ints', add: 'addInt',
+		compare: { i -> "Integer.compare(o1.v${i}, o2.v${i})" },
+		equality: { i -> "v${i} == subject.v${i}" },
+		hash: { i -> "Integer.hashCode(v${i})" },
+		hash64: { i -> "Integer.hashCode(v${i})" }],
+	[name: 'Long', type: 'long', boxed: 'Long', description: 'long', columnType: 'longs', add: 'addLong',
+		compare: { i -> "Long.compare(o1.v${i}, o2.v${i})" },
+		equality: { i -> "v${i} == subject.v${i}" },
+		hash: { i -> "Long.hashCode(v${i})" },
+		hash64: { i -> "v${i}" }],
+	[name: 'Double', type: 'double', boxed: 'Double', description: 'double', columnType: 'doubles', add: 'addDouble',
+		compare: { i -> "Double.compare(o1.v${i}, o2.v${i})" },
+		equality: { i -> "Double.doubleToLongBits(v${i}) == Double.doubleToLongBits(subject.v${i})" },
+		hash: { i -> "Double.hashCode(v${i})" },
+		hash64: { i -> "Double.doubleToLongBits(v${i})" }],
+	[name: 'Obj', type: 'T', boxed: 'T', description: 'オブジェクト', columnType: 'objects', add: 'add',
+		compare: { i -> "comparator.compare(o1.v${i}, o2.v${i})" },
+		equality: { i -> "Objects.equals(v${i}, subject.v${i})" },
+		hash: { i -> "(v${i} == null) ? 0 : v${i}.hashCode()" },
+		hash64: { i -> "Hashing.hash64Of(v${i})" }],
+]
+
+def slot = { kind, i ->
+	[type: kind.type, boxed: kind.boxed, description: kind.description, columnType: kind.columnType, add: kind.add,
+		compare: kind.compare(i), equality: kind.equality(i), hash: kind.hash(i), hash64: kind.hash64(i)]
+}
+
+def baseDir = project.basedir
+def template = new SimpleTemplateEngine().createTemplate(
+		new File(baseDir, 'src/main/templates/PrimitiveTuple2.java.template').getText('UTF-8'))
+def outputDir = new File(project.build.directory, 'generated-sources/tuples/com/lethe_river/morelambda/algebra')
+outputDir.mkdirs()
+
+for(k1 in kinds) {
+	for(k2 in kinds) {
+		if(k1.name == 'Obj' && k2.name == 'Obj') {
+			continue
+		}
+		def name = k1.name + k2.name + 'Tuple'
+		def generic = k1.name == 'Obj' || k2.name == 'Obj'
+		def binding = [
+			name: name,
+			generic: generic,
+			objectIndex: k1.name == 'Obj' ? 1 : 2,
+			typeParameters: generic ? '<T>' : '',
+			typeParametersDeclaration: generic ? '<T> ' : '',
+			diamond: generic ? '<>' : '',
+			comparatorParameter: generic ? 'Comparator<? super T> comparator' : '',
+			serialVersionUID: name.hashCode() * 0x9E3779B97F4A7C15L,
+			s1: slot(k1, 1),
+			s2: slot(k2, 2),
+		]
+		new File(outputDir, name + '.java').setText(template.make(binding).toString(), 'UTF-8')
+	}
+}
@@ -0,0 +1,54 @@
+// 要素の数が5を超えるTuple，Unionと，それらに対するTuple，Unionのメソッドを生成する．
+// 生成するすべての要素数で同じテンプレートを用いるので，実装は要素数によらず揃う．
+// Tuple2..Tuple5とUnion2..Union5は既存の公開クラスとして手で書いたままとし，
+// ハッシュ値や比較の規則がテンプレートと揃っていることをHigherArityTupleTestで確かめる．
+
+import groovy.text.SimpleTemplateEngine
+
+def tupleArities = 6..12
+def unionArities = 6..8
+
+def engine = new SimpleTemplateEngine()
+def templateDir = new File(project.basedir, 'src/main/templates')
+def outputDir = new File(project.build.directory, 'generated-sources/tuples/com/lethe_river/morelambda/algebra')
+outputDir.mkdirs()
+
+def generate = { String templateName, String className, Map binding ->
+	def template = engine.createTemplate(new File(templateDir, templateName).getText('UTF-8'))
+	def common = [
+		each: { int n, String pattern, String separator ->
+			(1..n).collect { i -> pattern.replace('#', i as String) }.join(separator)
+		},
+		sep3: ',\n\t\t\t',
+		sep4: ',\n\t\t\t\t',
+		sep5: ',\n\t\t\t\t\t',
+		sep6: ',\n\t\t\t\t\t\t',
+		sep7: ',\n\t\t\t\t\t\t\t',
+		sep3and: '\n\t\t\t\t&& ',
+	]
+	new File(outputDir, className + '.java').setText(template.make(common + binding).toString(), 'UTF-8')
+}
+
+def serialVersionUID = { String name -> name.hashCode() * 0x9E3779B97F4A7C15L }
+
+for(n in tupleArities) {
+	generate('TupleN.java.template', "Tuple${n}", [
+		n: n,
+		count: n < 10 ? "${n}つ" : "${n}個",
+		serialVersionUID: serialVersionUID("Tuple${n}"),
+	])
+	generate('TupleNComparator.java.template', "Tuple${n}Comparator", [n: n])
+}
+
+for(n in unionArities) {
+	generate('UnionN.java.template', "Union${n}", [
+		n: n,
+		serialVersionUID: serialVersionUID("Union${n}"),
+		memberSerialVersionUIDs: (1..n).collect { i -> serialVersionUID("Union${n}.Member${i}") },
+	])
+}
+
+generate('GeneratedTuples.java.template', 'GeneratedTuples', [
+	arities: tupleArities, minArity: tupleArities.from, maxArity: tupleArities.to])
+generate('GeneratedUnions.java.template', 'GeneratedUnions', [
+	arities: unionArities, minArity: unionArities.from, maxArity: unionArities.to])
@@ -0,0 +1,19 @@
+package com.lethe_river.morelambda.algebra;
+
+/**
+ * いくつかの型のうちいずれかの要素を持つオブジェクト
+ *
+ * 要素の値が等しくても型の位置が異なるものを区別する場合に用いる．
+ *
+ * @see TupleInterner
+ * @author YuyaAizawa
+ */
+interface Alternative {
+
+	/**
+	 * 要素が何番目の型のものかを返す．
+	 *
+	 * @return 1から始まる型の位置
+	 */
+	int index();
+}
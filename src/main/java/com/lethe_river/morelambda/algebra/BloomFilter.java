@@ -0,0 +1,198 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+/**
+ * キーの集合を近似的に表すブルームフィルタ
+ *
+ * 追加したキーに対しては必ず{@code true}を返し，追加していないキーに対しては
+ * 指定した偽陽性率程度の確率で{@code true}を返す．
+ * 結合の前に探索側のStreamを絞り込むといった用途で利用する．
+ * nullは追加されず，nullに対しては常に{@code false}を返す．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ */
+public final class BloomFilter<K> implements Predicate<K>, Serializable {
+	private static final long serialVersionUID = -3403651958207405536L;
+
+	private final long[] bits;
+	private final long bitSize;
+	private final int hashCount;
+	private final KeyHasher<? super K> hasher;
+
+	private BloomFilter(long bitSize, int hashCount, KeyHasher<? super K> hasher) {
+		this.bits = new long[(int) ((bitSize + 63) / 64)];
+		this.bitSize = bitSize;
+		this.hashCount = hashCount;
+		this.hasher = hasher;
+	}
+
+	/**
+	 * 標準のハッシュ関数を用いる空のブルームフィルタを返す．
+	 *
+	 * @param expectedInsertions 追加するキーの数の見込み
+	 * @param fpp 見込みの数のキーを追加したときの偽陽性率
+	 * @param <K> キーの型
+	 * @return 空のブルームフィルタ
+	 * @exception IllegalArgumentException 偽陽性率が0より大きく1より小さくない場合
+	 * @see KeyHasher#standard()
+	 */
+	public static <K> BloomFilter<K> create(long expectedInsertions, double fpp) {
+		return create(expectedInsertions, fpp, KeyHasher.standard());
+	}
+
+	/**
+	 * 空のブルームフィルタを返す．
+	 *
+	 * @param expectedInsertions 追加するキーの数の見込み
+	 * @param fpp 見込みの数のキーを追加したときの偽陽性率
+	 * @param hasher キーのハッシュ関数
+	 * @param <K> キーの型
+	 * @return 空のブルームフィルタ
+	 * @exception IllegalArgumentException 偽陽性率が0より大きく1より小さくない場合
+	 */
+	public static <K> BloomFilter<K> create(long expectedInsertions, double fpp, KeyHasher<? super K> hasher) {
+		Objects.requireNonNull(hasher);
+		checkFpp(fpp);
+		long n = Math.max(1, expectedInsertions);
+		double ln2 = Math.log(2);
+		long bitSize = (long) Math.ceil(-n * Math.log(fpp) / (ln2 * ln2));
+		bitSize = Math.max(64, Math.min(bitSize, 64L * (Integer.MAX_VALUE - 8)));
+		int hashCount = (int) Math.max(1, Math.round((double) bitSize / n * ln2));
+		return new BloomFilter<>(bitSize, hashCount, hasher);
+	}
+
+	/**
+	 * キーをブルームフィルタに追加するCollectorを返す．
+	 * 並列に処理する場合はスレッドごとに作ったブルームフィルタを論理和で合成する．
+	 *
+	 * @param expectedInsertions 追加するキーの数の見込み
+	 * @param fpp 見込みの数のキーを追加したときの偽陽性率
+	 * @param hasher キーのハッシュ関数
+	 * @param <K> キーの型
+	 * @return キーを追加したブルームフィルタを返すCollector
+	 */
+	public static <K> Collector<K, ?, BloomFilter<K>> toBloomFilter(
+			long expectedInsertions, double fpp, KeyHasher<? super K> hasher) {
+		Objects.requireNonNull(hasher);
+		checkFpp(fpp);
+		return Collector.of(
+				() -> BloomFilter.<K>create(expectedInsertions, fpp, hasher),
+				BloomFilter::put,
+				(left, right) -> {
+					left.putAll(right);
+					return left;},
+				Collector.Characteristics.UNORDERED,
+				Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	private static void checkFpp(double fpp) {
+		if(!(0.0 < fpp && fpp < 1.0)) {
+			throw new IllegalArgumentException("fpp must be in (0, 1): " + fpp);
+		}
+	}
+
+	/**
+	 * キーを追加する．
+	 *
+	 * @param key キー
+	 */
+	public void put(K key) {
+		if(key == null) {
+			return;
+		}
+		long h1 = hasher.hash64(key);
+		long h2 = Hashing.mix64(h1) | 1;
+		long combined = h1;
+		for(int i = 0; i < hashCount; i++) {
+			long index = (combined & Long.MAX_VALUE) % bitSize;
+			bits[(int) (index >>> 6)] |= 1L << index;
+			combined += h2;
+		}
+	}
+
+	/**
+	 * キーが追加されている可能性があるか調べる．
+	 *
+	 * @param key キー
+	 * @return 追加されている可能性がある場合はtrue，確実に追加されていない場合はfalse
+	 */
+	public boolean mightContain(K key) {
+		if(key == null) {
+			return false;
+		}
+		long h1 = hasher.hash64(key);
+		long h2 = Hashing.mix64(h1) | 1;
+		long combined = h1;
+		for(int i = 0; i < hashCount; i++) {
+			long index = (combined & Long.MAX_VALUE) % bitSize;
+			if((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+				return false;
+			}
+			combined += h2;
+		}
+		return true;
+	}
+
+	/**
+	 * {@link #mightContain(Object)}と同じ．
+	 *
+	 * @param key キー
+	 * @return 追加されている可能性がある場合はtrue
+	 */
+	@Override
+	public boolean test(K key) {
+		return mightContain(key);
+	}
+
+	/**
+	 * 他のブルームフィルタに追加されたキーをすべてこのブルームフィルタに追加する．
+	 *
+	 * @param other 同じ設定で作られたブルームフィルタ
+	 * @exception IllegalArgumentException 設定が異なる場合
+	 */
+	public void putAll(BloomFilter<? extends K> other) {
+		if(other.bitSize != bitSize || other.hashCount != hashCount || !other.hasher.equals(hasher)) {
+			throw new IllegalArgumentException("incompatible bloom filter");
+		}
+		for(int i = 0; i < bits.length; i++) {
+			bits[i] |= other.bits[i];
+		}
+	}
+
+	/**
+	 * ビット配列の大きさを返す．
+	 *
+	 * @return ビット数
+	 */
+	public long bitSize() {
+		return bitSize;
+	}
+
+	/**
+	 * キーごとに設定するビットの数を返す．
+	 *
+	 * @return ハッシュ関数の数
+	 */
+	public int hashCount() {
+		return hashCount;
+	}
+
+	/**
+	 * 現在設定されているビットの割合から偽陽性率を見積もる．
+	 *
+	 * @return 偽陽性率の見積もり
+	 */
+	public double expectedFpp() {
+		long set = 0;
+		for(long word : bits) {
+			set += Long.bitCount(word);
+		}
+		return Math.pow((double) set / bitSize, hashCount);
+	}
+}
@@ -0,0 +1,365 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * もとのSpliteratorの要素を決まった数ずつまとめたチャンクを要素とするSpliterator
+ *
+ * もとのSpliteratorが{@link Spliterator#SIZED}，{@link Spliterator#SUBSIZED}であれば，
+ * チャンクの境界で分割する．もとのSpliteratorの分割位置がチャンクの境界でない場合は，
+ * 後半の先頭から境界までの要素を前半の末尾に移す．このため並列に処理しても
+ * 最後のチャンク以外はすべて指定した数の要素を持つ．
+ * それ以外の場合は，いくつかのチャンクを読み込んで配列にまとめたものを前半として分割する．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <S> もとのSpliteratorの型
+ * @param <A> 要素を保持する配列の型
+ * @param <C> チャンクの型
+ */
+abstract class ChunkSpliterator<S extends Spliterator<?>, A, C> implements Spliterator<C> {
+	private static final int SIZED = Spliterator.SIZED | Spliterator.SUBSIZED;
+	private static final int INITIAL_CAPACITY = 1 << 10;
+	private static final int MAX_BATCH = 1 << 10;
+
+	final S source;
+	final int size;
+	private final A tail;
+	private int tailPosition;
+	private final int tailLength;
+	private int batch;
+
+	/**
+	 * @param source もとのSpliterator
+	 * @param size チャンクの要素の数
+	 * @param tail もとのSpliteratorの要素のあとに続く要素
+	 * @param tailLength 続く要素の数
+	 */
+	ChunkSpliterator(S source, int size, A tail, int tailLength) {
+		this.source = source;
+		this.size = size;
+		this.tail = tail;
+		this.tailLength = tailLength;
+	}
+
+	/**
+	 * もとのSpliteratorから1つ要素を読み込み，配列の指定した位置に格納する．
+	 *
+	 * @return 要素がなかった場合はfalse
+	 */
+	abstract boolean read(S source, A array, int index);
+
+	abstract A newArray(int length);
+
+	abstract A copyOf(A array, int length);
+
+	abstract C toChunk(A array, int length);
+
+	abstract S trySplitSource();
+
+	abstract ChunkSpliterator<S, A, C> newSpliterator(S source, A tail, int tailLength);
+
+	@Override
+	public boolean tryAdvance(Consumer<? super C> action) {
+		A array = newArray(Math.min(size, INITIAL_CAPACITY));
+		int capacity = Math.min(size, INITIAL_CAPACITY);
+		int length = 0;
+		while(length < size) {
+			if(length == capacity) {
+				capacity = (int) Math.min(size, capacity * 2L);
+				array = copyOf(array, capacity);
+			}
+			if(!read(source, array, length)) {
+				break;
+			}
+			length++;
+		}
+		if(length < size && tailPosition < tailLength) {
+			int n = Math.min(size - length, tailLength - tailPosition);
+			if(length + n > capacity) {
+				capacity = length + n;
+				array = copyOf(array, capacity);
+			}
+			System.arraycopy(tail, tailPosition, array, length, n);
+			tailPosition += n;
+			length += n;
+		}
+		if(length == 0) {
+			return false;
+		}
+		action.accept(toChunk(array, length));
+		return true;
+	}
+
+	@Override
+	public Spliterator<C> trySplit() {
+		if(!source.hasCharacteristics(SIZED)) {
+			return trySplitBatch();
+		}
+		S prefix = trySplitSource();
+		if(prefix == null) {
+			return null;
+		}
+		long prefixSize = prefix.getExactSizeIfKnown();
+		int carry = (int) ((size - prefixSize % size) % size);
+		A carried = newArray(carry);
+		int n = 0;
+		while(n < carry && read(source, carried, n)) {
+			n++;
+		}
+		if(n < carry) {
+			// 後半が尽きた場合は続く要素も前半に移す
+			int m = Math.min(carry - n, tailLength - tailPosition);
+			System.arraycopy(tail, tailPosition, carried, n, m);
+			tailPosition += m;
+			n += m;
+		}
+		return newSpliterator(prefix, carried, n);
+	}
+
+	private Spliterator<C> trySplitBatch() {
+		batch = Math.min(Math.max(1, batch * 2), MAX_BATCH);
+		Object[] chunks = new Object[batch];
+		int n = 0;
+		Holder<C> holder = new Holder<>();
+		while(n < batch && tryAdvance(holder)) {
+			chunks[n++] = holder.value;
+		}
+		if(n == 0) {
+			return null;
+		}
+		return Spliterators.spliterator(chunks, 0, n, Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+
+	@Override
+	public long estimateSize() {
+		long sourceSize = source.estimateSize();
+		if(sourceSize == Long.MAX_VALUE) {
+			return Long.MAX_VALUE;
+		}
+		long elements = sourceSize + (tailLength - tailPosition);
+		return (elements + size - 1) / size;
+	}
+
+	@Override
+	public int characteristics() {
+		return (source.characteristics() & (Spliterator.ORDERED | SIZED)) | Spliterator.NONNULL;
+	}
+
+	private static final class Holder<C> implements Consumer<C> {
+		C value;
+
+		@Override
+		public void accept(C value) {
+			this.value = value;
+		}
+	}
+
+	static final class OfRef<T> extends ChunkSpliterator<Spliterator<T>, Object[], List<T>> implements Consumer<T> {
+		private Object[] target;
+		private int index;
+
+		OfRef(Spliterator<T> source, int size) {
+			this(source, size, new Object[0], 0);
+		}
+
+		private OfRef(Spliterator<T> source, int size, Object[] tail, int tailLength) {
+			super(source, size, tail, tailLength);
+		}
+
+		@Override
+		public void accept(T t) {
+			target[index] = t;
+		}
+
+		@Override
+		boolean read(Spliterator<T> source, Object[] array, int index) {
+			this.target = array;
+			this.index = index;
+			return source.tryAdvance(this);
+		}
+
+		@Override
+		Object[] newArray(int length) {
+			return new Object[length];
+		}
+
+		@Override
+		Object[] copyOf(Object[] array, int length) {
+			return Arrays.copyOf(array, length);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		List<T> toChunk(Object[] array, int length) {
+			return (List<T>) Arrays.asList(length == array.length ? array : Arrays.copyOf(array, length));
+		}
+
+		@Override
+		Spliterator<T> trySplitSource() {
+			return source.trySplit();
+		}
+
+		@Override
+		OfRef<T> newSpliterator(Spliterator<T> source, Object[] tail, int tailLength) {
+			return new OfRef<>(source, size, tail, tailLength);
+		}
+	}
+
+	static final class OfInt extends ChunkSpliterator<Spliterator.OfInt, int[], int[]> implements IntConsumer {
+		private int[] target;
+		private int index;
+
+		OfInt(Spliterator.OfInt source, int size) {
+			this(source, size, new int[0], 0);
+		}
+
+		private OfInt(Spliterator.OfInt source, int size, int[] tail, int tailLength) {
+			super(source, size, tail, tailLength);
+		}
+
+		@Override
+		public void accept(int value) {
+			target[index] = value;
+		}
+
+		@Override
+		boolean read(Spliterator.OfInt source, int[] array, int index) {
+			this.target = array;
+			this.index = index;
+			return source.tryAdvance(this);
+		}
+
+		@Override
+		int[] newArray(int length) {
+			return new int[length];
+		}
+
+		@Override
+		int[] copyOf(int[] array, int length) {
+			return Arrays.copyOf(array, length);
+		}
+
+		@Override
+		int[] toChunk(int[] array, int length) {
+			return length == array.length ? array : Arrays.copyOf(array, length);
+		}
+
+		@Override
+		Spliterator.OfInt trySplitSource() {
+			return source.trySplit();
+		}
+
+		@Override
+		OfInt newSpliterator(Spliterator.OfInt source, int[] tail, int tailLength) {
+			return new OfInt(source, size, tail, tailLength);
+		}
+	}
+
+	static final class OfLong extends ChunkSpliterator<Spliterator.OfLong, long[], long[]> implements LongConsumer {
+		private long[] target;
+		private int index;
+
+		OfLong(Spliterator.OfLong source, int size) {
+			this(source, size, new long[0], 0);
+		}
+
+		private OfLong(Spliterator.OfLong source, int size, long[] tail, int tailLength) {
+			super(source, size, tail, tailLength);
+		}
+
+		@Override
+		public void accept(long value) {
+			target[index] = value;
+		}
+
+		@Override
+		boolean read(Spliterator.OfLong source, long[] array, int index) {
+			this.target = array;
+			this.index = index;
+			return source.tryAdvance(this);
+		}
+
+		@Override
+		long[] newArray(int length) {
+			return new long[length];
+		}
+
+		@Override
+		long[] copyOf(long[] array, int length) {
+			return Arrays.copyOf(array, length);
+		}
+
+		@Override
+		long[] toChunk(long[] array, int length) {
+			return length == array.length ? array : Arrays.copyOf(array, length);
+		}
+
+		@Override
+		Spliterator.OfLong trySplitSource() {
+			return source.trySplit();
+		}
+
+		@Override
+		OfLong newSpliterator(Spliterator.OfLong source, long[] tail, int tailLength) {
+			return new OfLong(source, size, tail, tailLength);
+		}
+	}
+
+	static final class OfDouble extends ChunkSpliterator<Spliterator.OfDouble, double[], double[]> implements DoubleConsumer {
+		private double[] target;
+		private int index;
+
+		OfDouble(Spliterator.OfDouble source, int size) {
+			this(source, size, new double[0], 0);
+		}
+
+		private OfDouble(Spliterator.OfDouble source, int size, double[] tail, int tailLength) {
+			super(source, size, tail, tailLength);
+		}
+
+		@Override
+		public void accept(double value) {
+			target[index] = value;
+		}
+
+		@Override
+		boolean read(Spliterator.OfDouble source, double[] array, int index) {
+			this.target = array;
+			this.index = index;
+			return source.tryAdvance(this);
+		}
+
+		@Override
+		double[] newArray(int length) {
+			return new double[length];
+		}
+
+		@Override
+		double[] copyOf(double[] array, int length) {
+			return Arrays.copyOf(array, length);
+		}
+
+		@Override
+		double[] toChunk(double[] array, int length) {
+			return length == array.length ? array : Arrays.copyOf(array, length);
+		}
+
+		@Override
+		Spliterator.OfDouble trySplitSource() {
+			return source.trySplit();
+		}
+
+		@Override
+		OfDouble newSpliterator(Spliterator.OfDouble source, double[] tail, int tailLength) {
+			return new OfDouble(source, size, tail, tailLength);
+		}
+	}
+}
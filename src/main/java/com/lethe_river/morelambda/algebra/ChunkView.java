@@ -0,0 +1,58 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * 1つの配列を使い回して要素をまとめるListのビュー
+ *
+ * {@link Tuple#forEachChunk(java.util.stream.Stream, int, java.util.function.Consumer)}で用いる．
+ * 要素の追加と消去はこのパッケージの中からのみ行い，Listとしては変更できない．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 要素の型
+ */
+final class ChunkView<T> extends AbstractList<T> implements RandomAccess {
+	private final Object[] elements;
+	private int size;
+
+	ChunkView(int capacity) {
+		this.elements = new Object[capacity];
+	}
+
+	/**
+	 * 要素を追加する．
+	 *
+	 * @param value 要素
+	 * @return 追加した結果いっぱいになった場合はtrue
+	 */
+	boolean addElement(T value) {
+		elements[size++] = value;
+		return size == elements.length;
+	}
+
+	/**
+	 * 要素をすべて取り除く．
+	 */
+	void reset() {
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+		return (T) elements[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+}
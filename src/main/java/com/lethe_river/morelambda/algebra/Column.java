@@ -0,0 +1,524 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 列指向の表の1つの列
+ *
+ * 値は{@link ColumnType}に応じた配列で保持する．
+ * {@link #longArray()}などで得られる配列は列が保持している配列そのものであり，
+ * 先頭から{@link #size()}個の要素が列の値である．
+ * 表に行が追加されると配列は作り直されることがあるため，得られた配列は表を変更するまでの間のみ有効である．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <V> 列の値の型
+ */
+public abstract class Column<V> {
+	int size;
+
+	Column() {}
+
+	/**
+	 * 列の型を返す．
+	 *
+	 * @return 列の型
+	 */
+	public abstract ColumnType<V> type();
+
+	/**
+	 * 値の数を返す．
+	 *
+	 * @return 値の数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 指定した行の値を返す．プリミティブの列では値をボクシングする．
+	 *
+	 * @param row 行
+	 * @return 値
+	 * @exception IndexOutOfBoundsException 行が範囲外の場合
+	 */
+	public abstract V get(int row);
+
+	/**
+	 * 指定した行の値をlongとして返す．
+	 *
+	 * @param row 行
+	 * @return 値
+	 * @exception IndexOutOfBoundsException 行が範囲外の場合
+	 * @exception UnsupportedOperationException longの列でない場合
+	 */
+	public long getLong(int row) {
+		throw unsupported("long");
+	}
+
+	/**
+	 * 指定した行の値をintとして返す．
+	 *
+	 * @param row 行
+	 * @return 値
+	 * @exception IndexOutOfBoundsException 行が範囲外の場合
+	 * @exception UnsupportedOperationException intの列でない場合
+	 */
+	public int getInt(int row) {
+		throw unsupported("int");
+	}
+
+	/**
+	 * 指定した行の値をdoubleとして返す．
+	 *
+	 * @param row 行
+	 * @return 値
+	 * @exception IndexOutOfBoundsException 行が範囲外の場合
+	 * @exception UnsupportedOperationException doubleの列でない場合
+	 */
+	public double getDouble(int row) {
+		throw unsupported("double");
+	}
+
+	/**
+	 * 値を保持している配列をコピーせずに返す．
+	 *
+	 * @return 値を保持している配列
+	 * @exception UnsupportedOperationException longの列でない場合
+	 */
+	public long[] longArray() {
+		throw unsupported("long");
+	}
+
+	/**
+	 * 値を保持している配列をコピーせずに返す．
+	 *
+	 * @return 値を保持している配列
+	 * @exception UnsupportedOperationException intの列でない場合
+	 */
+	public int[] intArray() {
+		throw unsupported("int");
+	}
+
+	/**
+	 * 値を保持している配列をコピーせずに返す．
+	 *
+	 * @return 値を保持している配列
+	 * @exception UnsupportedOperationException doubleの列でない場合
+	 */
+	public double[] doubleArray() {
+		throw unsupported("double");
+	}
+
+	/**
+	 * 値を保持している配列をコピーせずに返す．
+	 *
+	 * @return 値を保持している配列
+	 * @exception UnsupportedOperationException オブジェクトの列でない場合
+	 */
+	public Object[] objectArray() {
+		throw unsupported("Object");
+	}
+
+	/**
+	 * 連続する指定した数の値ごとに処理を行う．
+	 * 例えば列の値が[1, 2, 3, 4]で，数が3であるとき，[1, 2, 3]と[2, 3, 4]に対して処理を行う．
+	 * ウィンドウごとに同じ{@link Window}をずらして処理に渡すため，オブジェクトを作らない．
+	 * 渡されたWindowは処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 *
+	 * @param width ウィンドウの値の数
+	 * @param action ウィンドウに対する処理
+	 * @exception IllegalArgumentException widthが正でない場合
+	 */
+	public void forEachWindow(int width, Consumer<? super Window> action) {
+		if(width <= 0) {
+			throw new IllegalArgumentException("width must be positive: " + width);
+		}
+		Objects.requireNonNull(action);
+		Window window = new Window(this, width);
+		for(int start = 0; start + width <= size; start++) {
+			window.start = start;
+			action.accept(window);
+		}
+	}
+
+	/**
+	 * 値を追加できるか確かめる．プリミティブの列にnullは追加できない．
+	 */
+	void checkValue(V value) {
+		Objects.requireNonNull(value);
+	}
+
+	/**
+	 * 末尾に値を追加する．
+	 */
+	abstract void add(V value);
+
+	/**
+	 * 末尾にプリミティブの値をボクシングせずに追加する．longの列でない場合は例外を投げる．
+	 */
+	void addLong(long value) {
+		throw unsupported("long");
+	}
+
+	/**
+	 * 末尾にプリミティブの値をボクシングせずに追加する．intの列でない場合は例外を投げる．
+	 */
+	void addInt(int value) {
+		throw unsupported("int");
+	}
+
+	/**
+	 * 末尾にプリミティブの値をボクシングせずに追加する．doubleの列でない場合は例外を投げる．
+	 */
+	void addDouble(double value) {
+		throw unsupported("double");
+	}
+
+	/**
+	 * 末尾に他の列の値をすべて追加する．
+	 */
+	abstract void addAll(Column<V> other);
+
+	/**
+	 * 値を保持する配列の長さを少なくとも指定した値にする．
+	 */
+	abstract void ensureCapacity(int capacity);
+
+	void checkRow(int row) {
+		if(row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+		}
+	}
+
+	static int grownCapacity(int capacity, int required) {
+		if(required < 0) {
+			throw new OutOfMemoryError("too many rows");
+		}
+		long grown = Math.max(required, Math.max(16, capacity + (capacity >> 1)));
+		return (int) Math.min(grown, Integer.MAX_VALUE - 8);
+	}
+
+	private UnsupportedOperationException unsupported(String requested) {
+		return new UnsupportedOperationException("not a " + requested + " column: " + type());
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for(int i = 0; i < size; i++) {
+			if(i > 0) {
+				sb.append(", ");
+			}
+			sb.append(get(i));
+		}
+		return sb.append("]").toString();
+	}
+
+	/**
+	 * 列の連続する値の範囲
+	 *
+	 * 位置はウィンドウの先頭を0として数える．値を取り出す際にオブジェクトを作らない．
+	 *
+	 * @see Column#forEachWindow(int, Consumer)
+	 * @author YuyaAizawa
+	 */
+	public static final class Window {
+		private final Column<?> column;
+		private final int width;
+		private int start;
+
+		Window(Column<?> column, int width) {
+			this.column = column;
+			this.width = width;
+		}
+
+		/**
+		 * ウィンドウの先頭の行を返す．
+		 *
+		 * @return 先頭の行
+		 */
+		public int start() {
+			return start;
+		}
+
+		/**
+		 * ウィンドウの値の数を返す．
+		 *
+		 * @return 値の数
+		 */
+		public int width() {
+			return width;
+		}
+
+		/**
+		 * 指定した位置の値を返す．
+		 *
+		 * @param offset ウィンドウの先頭からの位置
+		 * @return 値
+		 * @exception UnsupportedOperationException longの列でない場合
+		 */
+		public long getLong(int offset) {
+			return column.getLong(row(offset));
+		}
+
+		/**
+		 * 指定した位置の値を返す．
+		 *
+		 * @param offset ウィンドウの先頭からの位置
+		 * @return 値
+		 * @exception UnsupportedOperationException intの列でない場合
+		 */
+		public int getInt(int offset) {
+			return column.getInt(row(offset));
+		}
+
+		/**
+		 * 指定した位置の値を返す．
+		 *
+		 * @param offset ウィンドウの先頭からの位置
+		 * @return 値
+		 * @exception UnsupportedOperationException doubleの列でない場合
+		 */
+		public double getDouble(int offset) {
+			return column.getDouble(row(offset));
+		}
+
+		/**
+		 * 指定した位置の値を返す．プリミティブの列では値をボクシングする．
+		 *
+		 * @param offset ウィンドウの先頭からの位置
+		 * @return 値
+		 */
+		public Object get(int offset) {
+			return column.get(row(offset));
+		}
+
+		private int row(int offset) {
+			if(offset < 0 || offset >= width) {
+				throw new IndexOutOfBoundsException("offset: " + offset + ", width: " + width);
+			}
+			return start + offset;
+		}
+	}
+
+	static final class OfLong extends Column<Long> {
+		private long[] values;
+
+		OfLong(int capacity) {
+			values = new long[capacity];
+		}
+
+		@Override
+		public ColumnType<Long> type() {
+			return ColumnType.longs();
+		}
+
+		@Override
+		public Long get(int row) {
+			return getLong(row);
+		}
+
+		@Override
+		public long getLong(int row) {
+			checkRow(row);
+			return values[row];
+		}
+
+		@Override
+		public long[] longArray() {
+			return values;
+		}
+
+		@Override
+		void add(Long value) {
+			addLong(value.longValue());
+		}
+
+		@Override
+		void addLong(long value) {
+			if(size == values.length) {
+				ensureCapacity(size + 1);
+			}
+			values[size++] = value;
+		}
+
+		@Override
+		void addAll(Column<Long> other) {
+			ensureCapacity(size + other.size);
+			System.arraycopy(other.longArray(), 0, values, size, other.size);
+			size += other.size;
+		}
+
+		@Override
+		void ensureCapacity(int capacity) {
+			if(capacity > values.length) {
+				values = Arrays.copyOf(values, grownCapacity(values.length, capacity));
+			}
+		}
+	}
+
+	static final class OfInt extends Column<Integer> {
+		private int[] values;
+
+		OfInt(int capacity) {
+			values = new int[capacity];
+		}
+
+		@Override
+		public ColumnType<Integer> type() {
+			return ColumnType.ints();
+		}
+
+		@Override
+		public Integer get(int row) {
+			return getInt(row);
+		}
+
+		@Override
+		public int getInt(int row) {
+			checkRow(row);
+			return values[row];
+		}
+
+		@Override
+		public int[] intArray() {
+			return values;
+		}
+
+		@Override
+		void add(Integer value) {
+			addInt(value.intValue());
+		}
+
+		@Override
+		void addInt(int value) {
+			if(size == values.length) {
+				ensureCapacity(size + 1);
+			}
+			values[size++] = value;
+		}
+
+		@Override
+		void addAll(Column<Integer> other) {
+			ensureCapacity(size + other.size);
+			System.arraycopy(other.intArray(), 0, values, size, other.size);
+			size += other.size;
+		}
+
+		@Override
+		void ensureCapacity(int capacity) {
+			if(capacity > values.length) {
+				values = Arrays.copyOf(values, grownCapacity(values.length, capacity));
+			}
+		}
+	}
+
+	static final class OfDouble extends Column<Double> {
+		private double[] values;
+
+		OfDouble(int capacity) {
+			values = new double[capacity];
+		}
+
+		@Override
+		public ColumnType<Double> type() {
+			return ColumnType.doubles();
+		}
+
+		@Override
+		public Double get(int row) {
+			return getDouble(row);
+		}
+
+		@Override
+		public double getDouble(int row) {
+			checkRow(row);
+			return values[row];
+		}
+
+		@Override
+		public double[] doubleArray() {
+			return values;
+		}
+
+		@Override
+		void add(Double value) {
+			addDouble(value.doubleValue());
+		}
+
+		@Override
+		void addDouble(double value) {
+			if(size == values.length) {
+				ensureCapacity(size + 1);
+			}
+			values[size++] = value;
+		}
+
+		@Override
+		void addAll(Column<Double> other) {
+			ensureCapacity(size + other.size);
+			System.arraycopy(other.doubleArray(), 0, values, size, other.size);
+			size += other.size;
+		}
+
+		@Override
+		void ensureCapacity(int capacity) {
+			if(capacity > values.length) {
+				values = Arrays.copyOf(values, grownCapacity(values.length, capacity));
+			}
+		}
+	}
+
+	static final class OfObject<V> extends Column<V> {
+		private Object[] values;
+
+		OfObject(int capacity) {
+			values = new Object[capacity];
+		}
+
+		@Override
+		public ColumnType<V> type() {
+			return ColumnType.objects();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(int row) {
+			checkRow(row);
+			return (V) values[row];
+		}
+
+		@Override
+		public Object[] objectArray() {
+			return values;
+		}
+
+		@Override
+		void checkValue(V value) {}
+
+		@Override
+		void add(V value) {
+			if(size == values.length) {
+				ensureCapacity(size + 1);
+			}
+			values[size++] = value;
+		}
+
+		@Override
+		void addAll(Column<V> other) {
+			ensureCapacity(size + other.size);
+			System.arraycopy(other.objectArray(), 0, values, size, other.size);
+			size += other.size;
+		}
+
+		@Override
+		void ensureCapacity(int capacity) {
+			if(capacity > values.length) {
+				values = Arrays.copyOf(values, grownCapacity(values.length, capacity));
+			}
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.lethe_river.morelambda.algebra;
+
+/**
+ * 列指向の表の列の型
+ *
+ * 型がlong，int，doubleの列は値をプリミティブの配列で保持するため，行ごとのオブジェクトを作らない．
+ * それ以外の型の列は値を{@code Object[]}で保持する．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <V> 列の値の型
+ */
+public final class ColumnType<V> {
+	private static final ColumnType<Long> LONGS = new ColumnType<>("long");
+	private static final ColumnType<Integer> INTS = new ColumnType<>("int");
+	private static final ColumnType<Double> DOUBLES = new ColumnType<>("double");
+	private static final ColumnType<Object> OBJECTS = new ColumnType<>("Object");
+
+	private final String name;
+
+	private ColumnType(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * 値をlongの配列で保持する列の型を返す．nullは扱えない．
+	 *
+	 * @return longの列の型
+	 */
+	public static ColumnType<Long> longs() {
+		return LONGS;
+	}
+
+	/**
+	 * 値をintの配列で保持する列の型を返す．nullは扱えない．
+	 *
+	 * @return intの列の型
+	 */
+	public static ColumnType<Integer> ints() {
+		return INTS;
+	}
+
+	/**
+	 * 値をdoubleの配列で保持する列の型を返す．nullは扱えない．
+	 *
+	 * @return doubleの列の型
+	 */
+	public static ColumnType<Double> doubles() {
+		return DOUBLES;
+	}
+
+	/**
+	 * 値を{@code Object[]}で保持する列の型を返す．
+	 *
+	 * @param <V> 列の値の型
+	 * @return オブジェクトの列の型
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> ColumnType<V> objects() {
+		return (ColumnType<V>) OBJECTS;
+	}
+
+	/**
+	 * この型の空の列を作る．
+	 */
+	@SuppressWarnings("unchecked")
+	Column<V> newColumn(int capacity) {
+		if(this == LONGS) {
+			return (Column<V>) new Column.OfLong(capacity);
+		}
+		if(this == INTS) {
+			return (Column<V>) new Column.OfInt(capacity);
+		}
+		if(this == DOUBLES) {
+			return (Column<V>) new Column.OfDouble(capacity);
+		}
+		return new Column.OfObject<>(capacity);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
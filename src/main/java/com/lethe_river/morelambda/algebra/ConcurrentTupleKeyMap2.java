@@ -0,0 +1,534 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 2つの要素からなるキーで値を保持するスレッドセーフなマップ
+ *
+ * {@link TupleKeyMap2}と同じく検索の際に{@link Tuple2}を作る必要がない．
+ * ハッシュ値の上位ビットで要素を複数のストライプに振り分け，更新はストライプごとにロックを取る．
+ * 異なるストライプへの操作は互いに待たない．
+ * 検索はロックを取らずに読み，読んでいる間に同じストライプが更新された場合だけロックを取って読み直すので，
+ * 読み込みが多い場合も検索どうしが互いに待つことはない．
+ * キーの要素にはnullを指定できるが，値にはnullを指定できない．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K1> キーの1番目の要素の型
+ * @param <K2> キーの2番目の要素の型
+ * @param <V> 値の型
+ */
+public final class ConcurrentTupleKeyMap2<K1, K2, V> {
+	private final TupleKeyTable[] stripes;
+	private final StampedLock[] locks;
+	private final int shift;
+	private ConcurrentMap<Tuple2<K1, K2>, V> map;
+
+	private ConcurrentTupleKeyMap2(int stripeCount) {
+		int count = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+		stripes = new TupleKeyTable[count];
+		locks = new StampedLock[count];
+		for(int i = 0; i < count; i++) {
+			stripes[i] = new TupleKeyTable(2, 16);
+			locks[i] = new StampedLock();
+		}
+		shift = 32 - Integer.numberOfTrailingZeros(count);
+	}
+
+	/**
+	 * 利用可能なプロセッサ数に応じたストライプ数で空のマップを作る．
+	 *
+	 * @param <K1> キーの1番目の要素の型
+	 * @param <K2> キーの2番目の要素の型
+	 * @param <V> 値の型
+	 * @return 作られたマップ
+	 */
+	public static <K1, K2, V> ConcurrentTupleKeyMap2<K1, K2, V> create() {
+		return new ConcurrentTupleKeyMap2<>(4 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * ストライプ数を指定して空のマップを作る．
+	 * ストライプ数は2の冪に切り上げられる．
+	 *
+	 * @param stripeCount ストライプ数
+	 * @param <K1> キーの1番目の要素の型
+	 * @param <K2> キーの2番目の要素の型
+	 * @param <V> 値の型
+	 * @return 作られたマップ
+	 * @exception IllegalArgumentException stripeCountが1未満または2^16より大きい場合
+	 */
+	public static <K1, K2, V> ConcurrentTupleKeyMap2<K1, K2, V> create(int stripeCount) {
+		if(stripeCount < 1 || stripeCount > (1 << 16)) {
+			throw new IllegalArgumentException("stripeCount must be in [1, 65536]: " + stripeCount);
+		}
+		return new ConcurrentTupleKeyMap2<>(stripeCount);
+	}
+
+	/**
+	 * 指定したキーに対応する値を返す．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @return 対応する値，存在しない場合はnull
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(Object k1, Object k2) {
+		int hash = Hashing.hash(k1, k2);
+		int index = hash >>> shift;
+		TupleKeyTable stripe = stripes[index];
+		StampedLock lock = locks[index];
+		// ロックを取らずに読み，その間に更新がなかったことを確かめる
+		long stamp = lock.tryOptimisticRead();
+		if(stamp != 0) {
+			try {
+				int row = stripe.find(hash, k1, k2, null);
+				Object value = row == TupleKeyTable.NONE ? null : stripe.value(row);
+				if(lock.validate(stamp)) {
+					return (V) value;
+				}
+			} catch(RuntimeException e) {
+				// 更新途中の表を読んで失敗した．ロックを取って読み直す
+			}
+		}
+		stamp = lock.readLock();
+		try {
+			int row = stripe.find(hash, k1, k2, null);
+			return row == TupleKeyTable.NONE ? null : (V) stripe.value(row);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * 指定したキーが存在するか調べる．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @return 存在する場合true
+	 */
+	public boolean containsKey(Object k1, Object k2) {
+		return get(k1, k2) != null;
+	}
+
+	/**
+	 * 指定したキーに値を対応付ける．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @param value 値
+	 * @return 以前に対応付けられていた値，存在しない場合はnull
+	 * @exception NullPointerException valueがnullの場合
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(K1 k1, K2 k2, V value) {
+		Objects.requireNonNull(value);
+		int hash = Hashing.hash(k1, k2);
+		int index = hash >>> shift;
+		TupleKeyTable stripe = stripes[index];
+		StampedLock lock = locks[index];
+		long stamp = lock.writeLock();
+		try {
+			int row = stripe.find(hash, k1, k2, null);
+			if(row == TupleKeyTable.NONE) {
+				stripe.insert(hash, k1, k2, null, value);
+				return null;
+			}
+			V old = (V) stripe.value(row);
+			stripe.setValue(row, value);
+			return old;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * 指定したキーが存在しない場合に値を対応付ける．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @param value 値
+	 * @return 既に対応付けられていた値，存在しない場合はnull
+	 * @exception NullPointerException valueがnullの場合
+	 */
+	@SuppressWarnings("unchecked")
+	public V putIfAbsent(K1 k1, K2 k2, V value) {
+		Objects.requireNonNull(value);
+		int hash = Hashing.hash(k1, k2);
+		int index = hash >>> shift;
+		TupleKeyTable stripe = stripes[index];
+		StampedLock lock = locks[index];
+		long stamp = lock.writeLock();
+		try {
+			int row = stripe.find(hash, k1, k2, null);
+			if(row == TupleKeyTable.NONE) {
+				stripe.insert(hash, k1, k2, null, value);
+				return null;
+			}
+			return (V) stripe.value(row);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * 指定したキーが存在しない場合に関数で値を求めて対応付ける．
+	 * 関数はストライプのロックを取ったまま高々1回呼ばれるので，短く単純でなければならず，
+	 * このマップを参照したり更新したりしてはならない．関数がnullを返した場合は何も対応付けない．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @param mappingFunction キーの要素から値を求める関数
+	 * @return 対応付けられている値
+	 */
+	@SuppressWarnings("unchecked")
+	public V computeIfAbsent(K1 k1, K2 k2, BiFunction<? super K1, ? super K2, ? extends V> mappingFunction) {
+		Objects.requireNonNull(mappingFunction);
+		int hash = Hashing.hash(k1, k2);
+		int index = hash >>> shift;
+		TupleKeyTable stripe = stripes[index];
+		StampedLock lock = locks[index];
+		long stamp = lock.writeLock();
+		try {
+			int row = stripe.find(hash, k1, k2, null);
+			if(row != TupleKeyTable.NONE) {
+				return (V) stripe.value(row);
+			}
+			V value = mappingFunction.apply(k1, k2);
+			if(value != null) {
+				stripe.insert(hash, k1, k2, null, value);
+			}
+			return value;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * 指定したキーを削除する．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @return 対応付けられていた値，存在しない場合はnull
+	 */
+	public V remove(Object k1, Object k2) {
+		return remove(k1, k2, null);
+	}
+
+	/**
+	 * 指定したキーに指定した値が対応付けられている場合に削除する．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @param expected 期待する値，nullの場合は値によらず削除する
+	 * @return 対応付けられていた値，存在しない場合はnull
+	 */
+	@SuppressWarnings("unchecked")
+	private V remove(Object k1, Object k2, Object expected) {
+		int hash = Hashing.hash(k1, k2);
+		int index = hash >>> shift;
+		TupleKeyTable stripe = stripes[index];
+		StampedLock lock = locks[index];
+		long stamp = lock.writeLock();
+		try {
+			int row = stripe.find(hash, k1, k2, null);
+			if(row == TupleKeyTable.NONE) {
+				return null;
+			}
+			V old = (V) stripe.value(row);
+			if(expected != null && !expected.equals(old)) {
+				return null;
+			}
+			stripe.remove(row);
+			return old;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * 指定したキーに指定した値が対応付けられている場合に値を置き換える．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @param expected 期待する値，nullの場合は値によらず置き換える
+	 * @param value 新しい値
+	 * @return 対応付けられていた値，置き換えなかった場合はnull
+	 */
+	@SuppressWarnings("unchecked")
+	private V replace(Object k1, Object k2, Object expected, V value) {
+		Objects.requireNonNull(value);
+		int hash = Hashing.hash(k1, k2);
+		int index = hash >>> shift;
+		TupleKeyTable stripe = stripes[index];
+		StampedLock lock = locks[index];
+		long stamp = lock.writeLock();
+		try {
+			int row = stripe.find(hash, k1, k2, null);
+			if(row == TupleKeyTable.NONE) {
+				return null;
+			}
+			V old = (V) stripe.value(row);
+			if(expected != null && !expected.equals(old)) {
+				return null;
+			}
+			stripe.setValue(row, value);
+			return old;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * 要素数を返す．
+	 * 他のスレッドによる更新と並行して呼ばれた場合の結果は概算である．
+	 *
+	 * @return 要素数
+	 */
+	public int size() {
+		long size = 0;
+		for(int i = 0; i < stripes.length; i++) {
+			TupleKeyTable stripe = stripes[i];
+			StampedLock lock = locks[i];
+			long stamp = lock.readLock();
+			try {
+				size += stripe.size();
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * 要素が存在しないか調べる．
+	 *
+	 * @return 要素が存在しない場合true
+	 */
+	public boolean isEmpty() {
+		for(int i = 0; i < stripes.length; i++) {
+			TupleKeyTable stripe = stripes[i];
+			StampedLock lock = locks[i];
+			long stamp = lock.readLock();
+			try {
+				if(stripe.size() != 0) {
+					return false;
+				}
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * すべての要素を削除する．
+	 */
+	public void clear() {
+		for(int i = 0; i < stripes.length; i++) {
+			TupleKeyTable stripe = stripes[i];
+			StampedLock lock = locks[i];
+			long stamp = lock.writeLock();
+			try {
+				stripe.clear();
+			} finally {
+				lock.unlockWrite(stamp);
+			}
+		}
+	}
+
+	/**
+	 * このマップを{@code ConcurrentMap<Tuple2<K1, K2>, V>}として扱うビューを返す．
+	 * ビューへの変更はこのマップに反映される．
+	 * ビューの走査はストライプごとの複製に対して行われ，走査中の更新を反映するとは限らない．
+	 *
+	 * @return ビュー
+	 */
+	public ConcurrentMap<Tuple2<K1, K2>, V> asMap() {
+		ConcurrentMap<Tuple2<K1, K2>, V> m = map;
+		return m != null ? m : (map = new MapView());
+	}
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map.Entry<Tuple2<K1, K2>, V>> snapshot(int index) {
+		TupleKeyTable stripe = stripes[index];
+		StampedLock lock = locks[index];
+		long stamp = lock.readLock();
+		try {
+			List<Map.Entry<Tuple2<K1, K2>, V>> entries = new ArrayList<>(stripe.size());
+			for(int row = 0; row < stripe.size(); row++) {
+				Tuple2<K1, K2> key = new Tuple2<>((K1) stripe.key(row, 0), (K2) stripe.key(row, 1));
+				entries.add(new Entry(key, (V) stripe.value(row)));
+			}
+			return entries;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private final class MapView extends AbstractMap<Tuple2<K1, K2>, V> implements ConcurrentMap<Tuple2<K1, K2>, V> {
+		private Set<Map.Entry<Tuple2<K1, K2>, V>> entrySet;
+
+		@Override
+		public V get(Object key) {
+			if(!(key instanceof Tuple2)) {
+				return null;
+			}
+			Tuple2<?, ?> t = (Tuple2<?, ?>) key;
+			return ConcurrentTupleKeyMap2.this.get(t.v1, t.v2);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public V put(Tuple2<K1, K2> key, V value) {
+			return ConcurrentTupleKeyMap2.this.put(key.v1, key.v2, value);
+		}
+
+		@Override
+		public V putIfAbsent(Tuple2<K1, K2> key, V value) {
+			return ConcurrentTupleKeyMap2.this.putIfAbsent(key.v1, key.v2, value);
+		}
+
+		@Override
+		public V computeIfAbsent(Tuple2<K1, K2> key, Function<? super Tuple2<K1, K2>, ? extends V> mappingFunction) {
+			Objects.requireNonNull(mappingFunction);
+			return ConcurrentTupleKeyMap2.this.computeIfAbsent(key.v1, key.v2, (k1, k2) -> mappingFunction.apply(key));
+		}
+
+		@Override
+		public V remove(Object key) {
+			if(!(key instanceof Tuple2)) {
+				return null;
+			}
+			Tuple2<?, ?> t = (Tuple2<?, ?>) key;
+			return ConcurrentTupleKeyMap2.this.remove(t.v1, t.v2);
+		}
+
+		@Override
+		public boolean remove(Object key, Object value) {
+			if(!(key instanceof Tuple2) || value == null) {
+				return false;
+			}
+			Tuple2<?, ?> t = (Tuple2<?, ?>) key;
+			return ConcurrentTupleKeyMap2.this.remove(t.v1, t.v2, value) != null;
+		}
+
+		@Override
+		public boolean replace(Tuple2<K1, K2> key, V oldValue, V newValue) {
+			Objects.requireNonNull(oldValue);
+			return ConcurrentTupleKeyMap2.this.replace(key.v1, key.v2, oldValue, newValue) != null;
+		}
+
+		@Override
+		public V replace(Tuple2<K1, K2> key, V value) {
+			return ConcurrentTupleKeyMap2.this.replace(key.v1, key.v2, null, value);
+		}
+
+		@Override
+		public int size() {
+			return ConcurrentTupleKeyMap2.this.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return ConcurrentTupleKeyMap2.this.isEmpty();
+		}
+
+		@Override
+		public void clear() {
+			ConcurrentTupleKeyMap2.this.clear();
+		}
+
+		@Override
+		public Set<Map.Entry<Tuple2<K1, K2>, V>> entrySet() {
+			Set<Map.Entry<Tuple2<K1, K2>, V>> s = entrySet;
+			return s != null ? s : (entrySet = new EntrySet());
+		}
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<Tuple2<K1, K2>, V>> {
+		@Override
+		public Iterator<Map.Entry<Tuple2<K1, K2>, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return ConcurrentTupleKeyMap2.this.size();
+		}
+
+		@Override
+		public void clear() {
+			ConcurrentTupleKeyMap2.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<Tuple2<K1, K2>, V>> {
+		private int stripe = 0;
+		private Iterator<Map.Entry<Tuple2<K1, K2>, V>> current = null;
+		private Map.Entry<Tuple2<K1, K2>, V> last = null;
+
+		@Override
+		public boolean hasNext() {
+			while(current == null || !current.hasNext()) {
+				if(stripe == stripes.length) {
+					return false;
+				}
+				current = snapshot(stripe++).iterator();
+			}
+			return true;
+		}
+
+		@Override
+		public Map.Entry<Tuple2<K1, K2>, V> next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return last = current.next();
+		}
+
+		@Override
+		public void remove() {
+			if(last == null) {
+				throw new IllegalStateException();
+			}
+			ConcurrentTupleKeyMap2.this.remove(last.getKey().v1, last.getKey().v2);
+			last = null;
+		}
+	}
+
+	private final class Entry extends AbstractMap.SimpleEntry<Tuple2<K1, K2>, V> {
+		private static final long serialVersionUID = 1L;
+
+		Entry(Tuple2<K1, K2> key, V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(V value) {
+			put(getKey().v1, getKey().v2, value);
+			return super.setValue(value);
+		}
+	}
+}
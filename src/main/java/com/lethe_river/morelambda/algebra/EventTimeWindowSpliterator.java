@@ -0,0 +1,219 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * 時刻と値の組のStreamを，時刻にもとづくウィンドウごとに集約するSpliterator
+ *
+ * 入力を要素が要求されるたびに読み進め，それまでに現れた最大の時刻から許容する遅延を引いた値を
+ * ウォーターマークとする．終了時刻がウォーターマーク以下になったウィンドウは，
+ * それ以降に値が加わることはないものとして集約結果を返し，破棄する．
+ * このため保持するのは開いているウィンドウの集約途中の値のみである．
+ * 終了時刻がすでにウォーターマーク以下であるウィンドウに属する値は遅れて届いたものとして捨てる．
+ * 入力が尽きた場合は開いているウィンドウをすべて開始時刻の順に返す．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 値の型
+ * @param <A> 集約途中の値の型
+ * @param <R> 集約結果の型
+ */
+abstract class EventTimeWindowSpliterator<T, A, R>
+		extends Spliterators.AbstractSpliterator<Tuple2<Long, R>> implements Consumer<Tuple2<Long, T>> {
+	private final Spliterator<Tuple2<Long, T>> source;
+	private final long allowedLateness;
+	final Supplier<A> supplier;
+	final BiConsumer<A, ? super T> accumulator;
+	final BinaryOperator<A> combiner;
+	private final Function<A, R> finisher;
+
+	private long maxTimestamp = Long.MIN_VALUE;
+	private final ArrayDeque<Tuple2<Long, R>> ready = new ArrayDeque<>();
+	private boolean exhausted;
+
+	EventTimeWindowSpliterator(Spliterator<Tuple2<Long, T>> source, long allowedLateness,
+			Collector<? super T, A, R> collector) {
+		super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+		this.source = source;
+		this.allowedLateness = allowedLateness;
+		this.supplier = collector.supplier();
+		this.accumulator = collector.accumulator();
+		this.combiner = collector.combiner();
+		this.finisher = collector.finisher();
+	}
+
+	/**
+	 * 値をそれが属する開いているウィンドウに加える．
+	 *
+	 * @param timestamp 時刻
+	 * @param value 値
+	 * @param watermark 現在のウォーターマーク
+	 */
+	abstract void add(long timestamp, T value, long watermark);
+
+	/**
+	 * 終了時刻がウォーターマーク以下のウィンドウを開始時刻の順に閉じる．
+	 *
+	 * @param watermark 現在のウォーターマーク，入力が尽きた場合は{@link Long#MAX_VALUE}
+	 */
+	abstract void fire(long watermark);
+
+	@Override
+	public void accept(Tuple2<Long, T> t) {
+		long timestamp = t.v1;
+		if(timestamp > maxTimestamp) {
+			maxTimestamp = timestamp;
+		}
+		long watermark = watermark();
+		add(timestamp, t.v2, watermark);
+		fire(watermark);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super Tuple2<Long, R>> action) {
+		while(ready.isEmpty()) {
+			if(exhausted) {
+				return false;
+			}
+			if(!source.tryAdvance(this)) {
+				exhausted = true;
+				fire(Long.MAX_VALUE);
+			}
+		}
+		action.accept(ready.poll());
+		return true;
+	}
+
+	/**
+	 * 閉じたウィンドウの集約結果を返す要素に加える．
+	 *
+	 * @param start ウィンドウの開始時刻
+	 * @param accumulated 集約途中の値
+	 */
+	void emit(long start, A accumulated) {
+		ready.add(Tuple.of(start, finisher.apply(accumulated)));
+	}
+
+	private long watermark() {
+		long watermark = maxTimestamp - allowedLateness;
+		// 桁あふれした場合は最小値とする
+		return watermark > maxTimestamp ? Long.MIN_VALUE : watermark;
+	}
+
+	/**
+	 * 開始時刻が幅の倍数である，決まった幅のウィンドウ
+	 * 間隔と幅が等しい場合はタンブリングウィンドウ，異なる場合はスライディングウィンドウとなる．
+	 */
+	static final class Aligned<T, A, R> extends EventTimeWindowSpliterator<T, A, R> {
+		private final long size;
+		private final long slide;
+		private final TreeMap<Long, A> windows = new TreeMap<>();
+
+		Aligned(Spliterator<Tuple2<Long, T>> source, long size, long slide, long allowedLateness,
+				Collector<? super T, A, R> collector) {
+			super(source, allowedLateness, collector);
+			this.size = size;
+			this.slide = slide;
+		}
+
+		@Override
+		void add(long timestamp, T value, long watermark) {
+			for(long start = Math.floorDiv(timestamp, slide) * slide; start > timestamp - size; start -= slide) {
+				if(start + size <= watermark) {
+					break;
+				}
+				A accumulated = windows.get(start);
+				if(accumulated == null) {
+					accumulated = supplier.get();
+					windows.put(start, accumulated);
+				}
+				accumulator.accept(accumulated, value);
+			}
+		}
+
+		@Override
+		void fire(long watermark) {
+			while(!windows.isEmpty()) {
+				Map.Entry<Long, A> first = windows.firstEntry();
+				if(watermark != Long.MAX_VALUE && first.getKey() + size > watermark) {
+					return;
+				}
+				windows.pollFirstEntry();
+				emit(first.getKey(), first.getValue());
+			}
+		}
+	}
+
+	/**
+	 * 値の時刻の間隔が一定以上空くまで続くセッションウィンドウ
+	 * セッションの終了時刻は最後の値の時刻に間隔を足したものとなる．
+	 * 値の時刻から間隔の分の範囲が開いているセッションに重なる場合は，遅れて届いた値も捨てずに併合する．
+	 */
+	static final class Session<T, A, R> extends EventTimeWindowSpliterator<T, A, R> {
+		private final long gap;
+		/** 開始時刻から終了時刻と集約途中の値の組への対応 */
+		private final TreeMap<Long, Tuple2<Long, A>> sessions = new TreeMap<>();
+
+		Session(Spliterator<Tuple2<Long, T>> source, long gap, long allowedLateness,
+				Collector<? super T, A, R> collector) {
+			super(source, allowedLateness, collector);
+			this.gap = gap;
+		}
+
+		@Override
+		void add(long timestamp, T value, long watermark) {
+			long start = timestamp;
+			long end = timestamp + gap;
+			if(end <= watermark) {
+				// 遅れて届いた値でも，開いているセッションに重なれば併合する
+				Map.Entry<Long, Tuple2<Long, A>> last = sessions.lowerEntry(end);
+				if(last == null || last.getValue().v1 < start) {
+					return;
+				}
+			}
+			A accumulated = supplier.get();
+			accumulator.accept(accumulated, value);
+
+			// 重なるセッションを開始時刻の降順に併合する
+			Iterator<Map.Entry<Long, Tuple2<Long, A>>> overlapping =
+					sessions.headMap(end, false).descendingMap().entrySet().iterator();
+			while(overlapping.hasNext()) {
+				Map.Entry<Long, Tuple2<Long, A>> entry = overlapping.next();
+				if(entry.getValue().v1 < start) {
+					break;
+				}
+				start = Math.min(start, entry.getKey());
+				end = Math.max(end, entry.getValue().v1);
+				accumulated = entry.getKey() <= timestamp
+						? combiner.apply(entry.getValue().v2, accumulated)
+						: combiner.apply(accumulated, entry.getValue().v2);
+				overlapping.remove();
+			}
+			sessions.put(start, Tuple.of(end, accumulated));
+		}
+
+		@Override
+		void fire(long watermark) {
+			// セッションは重ならないため，開始時刻の順と終了時刻の順は一致する
+			while(!sessions.isEmpty()) {
+				Map.Entry<Long, Tuple2<Long, A>> first = sessions.firstEntry();
+				if(watermark != Long.MAX_VALUE && first.getValue().v1 > watermark) {
+					return;
+				}
+				sessions.pollFirstEntry();
+				emit(first.getKey(), first.getValue().v2);
+			}
+		}
+	}
+}
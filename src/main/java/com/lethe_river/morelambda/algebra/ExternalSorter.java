@@ -0,0 +1,208 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * メモリに収まらないStreamを一時ファイルを用いて整列する外部整列
+ *
+ * 入力されたStreamの要素をメモリ使用量の上限まで読み込んで並列に整列し，
+ * 整列済みの列として一時ファイルに書き出す．
+ * 入力をすべて読み込んだあと，一時ファイルの列とメモリに残った最後の列を
+ * {@link Tuple#merge(List, Comparator)}で併合する．
+ * 併合は要素が要求されるたびに進むため，同時にメモリに置かれるのは各列の先頭の要素のみである．
+ * 整列は安定であり，比較結果が等しい要素は入力された順に並ぶ．
+ *
+ * メモリ使用量は要素ごとの推定サイズの合計で見積もる．
+ * 設定を変更するメソッドは{@link #sort(Stream)}を呼ぶ前に呼ばなければならない．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 要素の型
+ */
+public final class ExternalSorter<T> {
+	private static final long DEFAULT_RECORD_SIZE = 64;
+
+	private final Comparator<? super T> comparator;
+	private final TupleCodec<T> codec;
+	private long memoryBudget = Runtime.getRuntime().maxMemory() / 4;
+	private ToLongFunction<? super T> recordSize = t -> DEFAULT_RECORD_SIZE;
+	private Path directory;
+
+	private final AtomicLong fileCount = new AtomicLong();
+	private final AtomicLong recordCount = new AtomicLong();
+	private final AtomicLong byteCount = new AtomicLong();
+
+	private ExternalSorter(Comparator<? super T> comparator, TupleCodec<T> codec) {
+		this.comparator = comparator;
+		this.codec = codec;
+	}
+
+	/**
+	 * 外部整列を作る．
+	 * メモリ使用量の上限はJava仮想マシンの最大メモリ量の4分の1，要素の推定サイズは64バイトとなる．
+	 *
+	 * @param comparator 比較関数
+	 * @param codec 一時ファイルに書き出すときの要素の符号化方式
+	 * @param <T> 要素の型
+	 * @return 外部整列
+	 */
+	public static <T> ExternalSorter<T> of(Comparator<? super T> comparator, TupleCodec<T> codec) {
+		Objects.requireNonNull(comparator);
+		Objects.requireNonNull(codec);
+		return new ExternalSorter<>(comparator, codec);
+	}
+
+	/**
+	 * メモリに保持する要素の推定サイズの合計の上限を設定する．
+	 *
+	 * @param bytes バイト数
+	 * @return この外部整列
+	 * @exception IllegalArgumentException bytesが正でない場合
+	 */
+	public ExternalSorter<T> memoryBudget(long bytes) {
+		if(bytes <= 0) {
+			throw new IllegalArgumentException("memory budget must be positive: " + bytes);
+		}
+		this.memoryBudget = bytes;
+		return this;
+	}
+
+	/**
+	 * 要素ごとの推定サイズを設定する．
+	 *
+	 * @param bytes 要素1つあたりのバイト数
+	 * @return この外部整列
+	 * @exception IllegalArgumentException bytesが正でない場合
+	 */
+	public ExternalSorter<T> recordSize(long bytes) {
+		if(bytes <= 0) {
+			throw new IllegalArgumentException("record size must be positive: " + bytes);
+		}
+		this.recordSize = t -> bytes;
+		return this;
+	}
+
+	/**
+	 * 要素ごとの推定サイズを求める関数を設定する．
+	 *
+	 * @param estimator 要素のバイト数を推定する関数
+	 * @return この外部整列
+	 */
+	public ExternalSorter<T> recordSize(ToLongFunction<? super T> estimator) {
+		this.recordSize = Objects.requireNonNull(estimator);
+		return this;
+	}
+
+	/**
+	 * 一時ファイルを作るディレクトリを設定する．
+	 *
+	 * @param directory ディレクトリ，nullの場合は既定の一時ディレクトリ
+	 * @return この外部整列
+	 */
+	public ExternalSorter<T> directory(Path directory) {
+		this.directory = directory;
+		return this;
+	}
+
+	/**
+	 * 入力されたStreamを整列したStreamを作る．
+	 * このメソッドは入力されたStreamをすべて読み込み，必要に応じて一時ファイルに書き出してから戻る．
+	 * 作られたStreamを最後まで読むか閉じると一時ファイルは削除され，入力されたStreamも閉じられる．
+	 *
+	 * @param stream 入力Stream
+	 * @return 整列したStream
+	 */
+	public Stream<T> sort(Stream<? extends T> stream) {
+		Objects.requireNonNull(stream);
+		final List<SpillFile<T>> runs = new ArrayList<>();
+		Object[] buffer = new Object[16];
+		int size = 0;
+		long used = 0;
+		try {
+			Iterator<? extends T> iterator = stream.iterator();
+			while(iterator.hasNext()) {
+				T value = iterator.next();
+				long bytes = recordSize.applyAsLong(value);
+				if(size > 0 && used + bytes > memoryBudget) {
+					runs.add(spill(buffer, size));
+					Arrays.fill(buffer, 0, size, null);
+					size = 0;
+					used = 0;
+				}
+				if(size == buffer.length) {
+					buffer = Arrays.copyOf(buffer, size + (size >> 1));
+				}
+				buffer[size++] = value;
+				used += bytes;
+			}
+		} catch(RuntimeException | Error e) {
+			for(SpillFile<T> run : runs) {
+				try {
+					run.delete();
+				} catch(RuntimeException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+			}
+			throw e;
+		}
+
+		Stream<T> last = Arrays.stream(sortRun(buffer, size), 0, size);
+		if(runs.isEmpty()) {
+			return last.onClose(stream::close);
+		}
+		List<Stream<T>> streams = new ArrayList<>(runs.size() + 1);
+		for(SpillFile<T> run : runs) {
+			streams.add(run.stream());
+		}
+		streams.add(last);
+		return Tuple.merge(streams, comparator).onClose(stream::close);
+	}
+
+	/**
+	 * これまでにこの外部整列で行われた一時ファイルへの退避の統計を返す．
+	 *
+	 * @return 統計
+	 */
+	public SpillStatistics statistics() {
+		long files = fileCount.get();
+		return new SpillStatistics(files, recordCount.get(), byteCount.get(), files > 0 ? 1 : 0);
+	}
+
+	private SpillFile<T> spill(Object[] buffer, int size) {
+		SpillFile<T> run = SpillFile.create(directory, codec);
+		try {
+			T[] values = sortRun(buffer, size);
+			for(int i = 0; i < size; i++) {
+				run.write(values[i]);
+			}
+			run.finish();
+		} catch(RuntimeException | Error e) {
+			try {
+				run.delete();
+			} catch(RuntimeException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw e;
+		}
+		fileCount.incrementAndGet();
+		recordCount.addAndGet(run.count());
+		byteCount.addAndGet(run.bytes());
+		return run;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T[] sortRun(Object[] buffer, int size) {
+		T[] values = (T[]) buffer;
+		Arrays.parallelSort(values, 0, size, comparator);
+		return values;
+	}
+}
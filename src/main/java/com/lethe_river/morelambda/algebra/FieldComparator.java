@@ -0,0 +1,218 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Tupleの要素ごとの比較関数
+ *
+ * 比較関数，自然順序，または要素から取り出したプリミティブ値のキーで比較する．
+ * プリミティブ値のキーはボクシングせずに比較する．
+ * nullの扱いは{@link #nullsFirst()}，{@link #nullsLast()}で指定し，
+ * 指定しない場合にnullを比較すると{@link NullPointerException}が発生する．
+ * {@link #reversed()}はnullの位置を変えずに，null以外の要素の順序を逆にする．
+ *
+ * {@link Tuple#comparing(FieldComparator, FieldComparator)}などで組み合わせて用いる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <V> 比較する要素の型
+ */
+public abstract class FieldComparator<V> implements Comparator<V> {
+	private static final int NULLS_REJECTED = 0;
+	private static final int NULLS_FIRST = -1;
+	private static final int NULLS_LAST = 1;
+
+	private final int nulls;
+	private final boolean descending;
+
+	private FieldComparator(int nulls, boolean descending) {
+		this.nulls = nulls;
+		this.descending = descending;
+	}
+
+	/**
+	 * 自然順序で比較する比較関数を返す．
+	 *
+	 * @param <V> 比較する要素の型
+	 * @return 比較関数
+	 */
+	public static <V extends Comparable<? super V>> FieldComparator<V> natural() {
+		return new ByComparator<V>(Comparator.naturalOrder(), NULLS_REJECTED, false);
+	}
+
+	/**
+	 * 指定した比較関数で比較する比較関数を返す．
+	 * 指定した比較関数にnullが渡されることはない．
+	 *
+	 * @param comparator 比較関数
+	 * @param <V> 比較する要素の型
+	 * @return 比較関数
+	 */
+	public static <V> FieldComparator<V> of(Comparator<? super V> comparator) {
+		Objects.requireNonNull(comparator);
+		return new ByComparator<V>(comparator, NULLS_REJECTED, false);
+	}
+
+	/**
+	 * 要素から取り出したlongのキーで比較する比較関数を返す．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <V> 比較する要素の型
+	 * @return 比較関数
+	 */
+	public static <V> FieldComparator<V> comparingLong(ToLongFunction<? super V> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		return new ByLong<V>(keyExtractor, NULLS_REJECTED, false);
+	}
+
+	/**
+	 * 要素から取り出したintのキーで比較する比較関数を返す．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <V> 比較する要素の型
+	 * @return 比較関数
+	 */
+	public static <V> FieldComparator<V> comparingInt(ToIntFunction<? super V> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		return new ByInt<V>(keyExtractor, NULLS_REJECTED, false);
+	}
+
+	/**
+	 * 要素から取り出したdoubleのキーで比較する比較関数を返す．
+	 * キーは{@link Double#compare(double, double)}で比較する．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <V> 比較する要素の型
+	 * @return 比較関数
+	 */
+	public static <V> FieldComparator<V> comparingDouble(ToDoubleFunction<? super V> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		return new ByDouble<V>(keyExtractor, NULLS_REJECTED, false);
+	}
+
+	/**
+	 * nullをnull以外の要素より前に並べる比較関数を返す．
+	 *
+	 * @return 比較関数
+	 */
+	public FieldComparator<V> nullsFirst() {
+		return with(NULLS_FIRST, descending);
+	}
+
+	/**
+	 * nullをnull以外の要素より後に並べる比較関数を返す．
+	 *
+	 * @return 比較関数
+	 */
+	public FieldComparator<V> nullsLast() {
+		return with(NULLS_LAST, descending);
+	}
+
+	/**
+	 * null以外の要素の順序を逆にした比較関数を返す．
+	 *
+	 * @return 比較関数
+	 */
+	@Override
+	public FieldComparator<V> reversed() {
+		return with(nulls, !descending);
+	}
+
+	@Override
+	public final int compare(V o1, V o2) {
+		if(o1 == null || o2 == null) {
+			if(o1 == o2) {
+				return 0;
+			}
+			if(nulls == NULLS_REJECTED) {
+				throw new NullPointerException();
+			}
+			return o1 == null ? nulls : -nulls;
+		}
+		return descending ? compareNonNull(o2, o1) : compareNonNull(o1, o2);
+	}
+
+	abstract int compareNonNull(V o1, V o2);
+
+	abstract FieldComparator<V> with(int nulls, boolean descending);
+
+	private static final class ByComparator<V> extends FieldComparator<V> {
+		private final Comparator<? super V> comparator;
+
+		ByComparator(Comparator<? super V> comparator, int nulls, boolean descending) {
+			super(nulls, descending);
+			this.comparator = comparator;
+		}
+
+		@Override
+		int compareNonNull(V o1, V o2) {
+			return comparator.compare(o1, o2);
+		}
+
+		@Override
+		FieldComparator<V> with(int nulls, boolean descending) {
+			return new ByComparator<>(comparator, nulls, descending);
+		}
+	}
+
+	private static final class ByLong<V> extends FieldComparator<V> {
+		private final ToLongFunction<? super V> keyExtractor;
+
+		ByLong(ToLongFunction<? super V> keyExtractor, int nulls, boolean descending) {
+			super(nulls, descending);
+			this.keyExtractor = keyExtractor;
+		}
+
+		@Override
+		int compareNonNull(V o1, V o2) {
+			return Long.compare(keyExtractor.applyAsLong(o1), keyExtractor.applyAsLong(o2));
+		}
+
+		@Override
+		FieldComparator<V> with(int nulls, boolean descending) {
+			return new ByLong<>(keyExtractor, nulls, descending);
+		}
+	}
+
+	private static final class ByInt<V> extends FieldComparator<V> {
+		private final ToIntFunction<? super V> keyExtractor;
+
+		ByInt(ToIntFunction<? super V> keyExtractor, int nulls, boolean descending) {
+			super(nulls, descending);
+			this.keyExtractor = keyExtractor;
+		}
+
+		@Override
+		int compareNonNull(V o1, V o2) {
+			return Integer.compare(keyExtractor.applyAsInt(o1), keyExtractor.applyAsInt(o2));
+		}
+
+		@Override
+		FieldComparator<V> with(int nulls, boolean descending) {
+			return new ByInt<>(keyExtractor, nulls, descending);
+		}
+	}
+
+	private static final class ByDouble<V> extends FieldComparator<V> {
+		private final ToDoubleFunction<? super V> keyExtractor;
+
+		ByDouble(ToDoubleFunction<? super V> keyExtractor, int nulls, boolean descending) {
+			super(nulls, descending);
+			this.keyExtractor = keyExtractor;
+		}
+
+		@Override
+		int compareNonNull(V o1, V o2) {
+			return Double.compare(keyExtractor.applyAsDouble(o1), keyExtractor.applyAsDouble(o2));
+		}
+
+		@Override
+		FieldComparator<V> with(int nulls, boolean descending) {
+			return new ByDouble<>(keyExtractor, nulls, descending);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.lethe_river.morelambda.throwable.ThrowableSupplier;
+
+/**
+ * 複数のサプライヤを並行して実行し，すべての結果を集める処理
+ *
+ * いずれかのサプライヤが例外を投げると，結果はその例外で完了し，実行中の他のサプライヤは割り込みで取り消される．
+ * 結果を取り消した場合はすべてのサプライヤを取り消す．
+ *
+ * @see Tuple#forkJoinAsync(Executor, ThrowableSupplier, ThrowableSupplier)
+ * @author YuyaAizawa
+ */
+final class ForkJoinSuppliers {
+	private final Object[] results;
+	private final FutureTask<?>[] tasks;
+	private final AtomicInteger remaining;
+	private final CompletableFuture<Object[]> result = new CompletableFuture<>();
+
+	private ForkJoinSuppliers(ThrowableSupplier<?, ?>[] suppliers) {
+		results = new Object[suppliers.length];
+		tasks = new FutureTask<?>[suppliers.length];
+		remaining = new AtomicInteger(suppliers.length);
+		for(int i = 0; i < suppliers.length; i++) {
+			int index = i;
+			ThrowableSupplier<?, ?> supplier = Objects.requireNonNull(suppliers[i]);
+			tasks[i] = new FutureTask<Void>(() -> {
+				run(index, supplier);
+				return null;
+			});
+		}
+		result.whenComplete((r, e) -> {
+			if(e instanceof CancellationException) {
+				cancelExcept(-1);
+			}
+		});
+	}
+
+	/**
+	 * サプライヤを指定したExecutorで実行し，結果を順に並べた配列を変換した値で完了するCompletableFutureを返す．
+	 * 返したCompletableFutureを取り消すとすべてのサプライヤを取り消す．
+	 */
+	static <R> CompletableFuture<R> fork(Executor executor, Function<Object[], ? extends R> finisher,
+			ThrowableSupplier<?, ?>... suppliers) {
+		CompletableFuture<Object[]> source = fork(executor, suppliers);
+		CompletableFuture<R> derived = source.thenApply(finisher);
+		// 派生したCompletableFutureの取り消しは元に伝わらないので，明示的に伝える
+		derived.whenComplete((r, e) -> {
+			if(e instanceof CancellationException) {
+				source.cancel(true);
+			}
+		});
+		return derived;
+	}
+
+	private static CompletableFuture<Object[]> fork(Executor executor, ThrowableSupplier<?, ?>... suppliers) {
+		Objects.requireNonNull(executor);
+		ForkJoinSuppliers fork = new ForkJoinSuppliers(suppliers);
+		for(FutureTask<?> task : fork.tasks) {
+			try {
+				executor.execute(task);
+			} catch(RejectedExecutionException e) {
+				fork.fail(-1, e);
+				break;
+			}
+		}
+		return fork.result;
+	}
+
+	private void run(int index, ThrowableSupplier<?, ?> supplier) {
+		try {
+			results[index] = supplier.get();
+		} catch(Throwable e) {
+			fail(index, e);
+			return;
+		}
+		// 減算が書き込みを他のスレッドに公開するので，最後に完了したスレッドは全結果を読める
+		if(remaining.decrementAndGet() == 0) {
+			result.complete(results);
+		}
+	}
+
+	private void fail(int index, Throwable e) {
+		if(result.completeExceptionally(e)) {
+			cancelExcept(index);
+		}
+	}
+
+	/**
+	 * 指定したもの以外のサプライヤを取り消す．失敗したサプライヤ自身のスレッドには割り込まない．
+	 */
+	private void cancelExcept(int index) {
+		for(int i = 0; i < tasks.length; i++) {
+			if(i != index) {
+				tasks[i].cancel(true);
+			}
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * キーごとにlong値を集約した結果
+ *
+ * 集約結果はキーごとの件数，合計，最小，最大を列ごとのlongの配列として保持している．
+ * 列の配列の同じ位置にある値は{@link #keys()}の同じ位置にあるキーの集約結果である．
+ * キーは最初に現れた順に並ぶ．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ * @see Tuple#summarizingLong(java.util.function.Function, java.util.function.ToLongFunction)
+ */
+public final class GroupedLongSummary<K> {
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static final Map<Object, LongAggregate>[] NO_LAYERS = new Map[0];
+
+	private final LongGroupTable<K> base;
+	private final Map<Object, LongAggregate>[] layers;
+	private final int size;
+	private volatile LongGroupTable<K> table;
+
+	GroupedLongSummary(LongGroupTable<K> table) {
+		this(table, NO_LAYERS, table.size);
+	}
+
+	/**
+	 * 基底の表に，その後に変更されたキーの集約結果を重ねた集約結果を作る．
+	 * 表と層は他の集約結果と共有するので変更してはならない．
+	 *
+	 * @param base 基底の表
+	 * @param layers 変更されたキーの集約結果を古い順に並べたもの．削除されたキーの値はnull
+	 * @param size キーの数
+	 */
+	GroupedLongSummary(LongGroupTable<K> base, Map<Object, LongAggregate>[] layers, int size) {
+		this.base = base;
+		this.layers = layers;
+		this.size = size;
+		this.table = layers.length == 0 ? base : null;
+	}
+
+	/**
+	 * キーの数を返す．
+	 *
+	 * @return キーの数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 指定したキーの集約結果を返す．
+	 *
+	 * @param key キー
+	 * @return 集約結果，キーが存在しない場合はnull
+	 */
+	public LongAggregate get(Object key) {
+		for(int i = layers.length - 1; i >= 0; i--) {
+			if(layers[i].containsKey(key)) {
+				return layers[i].get(key);
+			}
+		}
+		int row = base.find(key);
+		return row < 0 ? null : base.aggregate(row);
+	}
+
+	/**
+	 * 層を重ねた結果の表を返す．層がある場合は最初に呼ばれたときに作る．
+	 */
+	@SuppressWarnings("unchecked")
+	private LongGroupTable<K> table() {
+		LongGroupTable<K> t = table;
+		if(t != null) {
+			return t;
+		}
+		synchronized(this) {
+			if(table == null) {
+				t = base.copy();
+				for(Map<Object, LongAggregate> layer : layers) {
+					for(Map.Entry<Object, LongAggregate> e : layer.entrySet()) {
+						LongAggregate aggregate = e.getValue();
+						if(aggregate == null) {
+							int row = t.find(e.getKey());
+							if(row >= 0) {
+								t.remove(row);
+							}
+							continue;
+						}
+						int row = t.rowOf((K) e.getKey());
+						t.counts[row] = aggregate.getCount();
+						t.sums[row] = aggregate.getSum();
+						t.mins[row] = aggregate.getMin();
+						t.maxes[row] = aggregate.getMax();
+					}
+				}
+				table = t;
+			}
+			return table;
+		}
+	}
+
+	/**
+	 * キーと集約結果の組を要素とするStreamを作る．
+	 *
+	 * @return キーと集約結果の組を要素とするStream
+	 */
+	public Stream<Tuple2<K, LongAggregate>> stream() {
+		LongGroupTable<K> table = table();
+		return IntStream.range(0, table.size)
+				.mapToObj(row -> Tuple.of(key(table, row), table.aggregate(row)));
+	}
+
+	/**
+	 * キーのListを返す．
+	 *
+	 * @return 変更不可能なキーのList
+	 */
+	@SuppressWarnings("unchecked")
+	public List<K> keys() {
+		LongGroupTable<K> table = table();
+		return (List<K>) Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(table.keys, table.size)));
+	}
+
+	/**
+	 * 件数の列を返す．
+	 *
+	 * @return 件数の配列
+	 */
+	public long[] counts() {
+		LongGroupTable<K> table = table();
+		return Arrays.copyOf(table.counts, table.size);
+	}
+
+	/**
+	 * 合計の列を返す．
+	 *
+	 * @return 合計の配列
+	 */
+	public long[] sums() {
+		LongGroupTable<K> table = table();
+		return Arrays.copyOf(table.sums, table.size);
+	}
+
+	/**
+	 * 最小値の列を返す．
+	 *
+	 * @return 最小値の配列
+	 */
+	public long[] mins() {
+		LongGroupTable<K> table = table();
+		return Arrays.copyOf(table.mins, table.size);
+	}
+
+	/**
+	 * 最大値の列を返す．
+	 *
+	 * @return 最大値の配列
+	 */
+	public long[] maxes() {
+		LongGroupTable<K> table = table();
+		return Arrays.copyOf(table.maxes, table.size);
+	}
+
+	/**
+	 * 平均値の列を返す．
+	 *
+	 * @return 平均値の配列
+	 */
+	public double[] averages() {
+		LongGroupTable<K> table = table();
+		double[] averages = new double[table.size];
+		for(int row = 0; row < averages.length; row++) {
+			averages[row] = table.counts[row] > 0 ? (double) table.sums[row] / table.counts[row] : 0.0;
+		}
+		return averages;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K> K key(LongGroupTable<K> table, int row) {
+		return (K) table.keys[row];
+	}
+
+	@Override
+	public String toString() {
+		LongGroupTable<K> table = table();
+		StringBuilder sb = new StringBuilder("{");
+		for(int row = 0; row < table.size; row++) {
+			if(row > 0) {
+				sb.append(", ");
+			}
+			sb.append(table.keys[row]).append('=').append(table.aggregate(row));
+		}
+		return sb.append('}').toString();
+	}
+}
@@ -0,0 +1,21 @@
+package com.lethe_river.morelambda.algebra;
+
+/**
+ * 64ビットのハッシュ値を持つオブジェクト
+ *
+ * 要素として含まれる場合に，{@link Object#hashCode()}の代わりにこのハッシュ値を用いて
+ * 外側のオブジェクトの64ビットのハッシュ値を計算する．
+ *
+ * @see Hashing#hash64Of(Object)
+ * @author YuyaAizawa
+ */
+interface Hash64 {
+
+	/**
+	 * 64ビットのハッシュ値を返す．
+	 * 等しいオブジェクトは等しいハッシュ値を返さなければならない．
+	 *
+	 * @return 64ビットのハッシュ値
+	 */
+	long hash64();
+}
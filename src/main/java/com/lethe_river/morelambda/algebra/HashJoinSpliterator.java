@@ -0,0 +1,92 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * ハッシュ表を探索しながらプローブ側の行を結合するSpliterator
+ *
+ * ハッシュ表は読み取り専用なので，プローブ側のSpliteratorを分割すれば並列に探索できる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ * @param <P> プローブ側の値の型
+ * @param <B> ビルド側の値の型
+ * @param <R> 結合結果の型
+ */
+class HashJoinSpliterator<K, P, B, R> implements Spliterator<R>, Consumer<Tuple2<K, P>> {
+	private final Spliterator<Tuple2<K, P>> probe;
+	private final HashJoinTable<K, B> table;
+	private final BiFunction<? super Tuple2<K, P>, ? super B, ? extends R> combiner;
+	private final boolean outer;
+
+	private Tuple2<K, P> current;
+	private int row = -1;
+
+	/**
+	 * @param probe プローブ側の行
+	 * @param table ビルド側のハッシュ表
+	 * @param combiner プローブ側の行とビルド側の値から結果を作る関数
+	 * @param outer 一致する行がないプローブ側の行も，ビルド側の値をnullとして結果に含める場合はtrue
+	 */
+	HashJoinSpliterator(
+			Spliterator<Tuple2<K, P>> probe,
+			HashJoinTable<K, B> table,
+			BiFunction<? super Tuple2<K, P>, ? super B, ? extends R> combiner,
+			boolean outer) {
+		this.probe = probe;
+		this.table = table;
+		this.combiner = combiner;
+		this.outer = outer;
+	}
+
+	@Override
+	public void accept(Tuple2<K, P> t) {
+		current = t;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super R> action) {
+		while(true) {
+			if(row >= 0) {
+				R result = combiner.apply(current, table.value(row));
+				row = table.next(row);
+				action.accept(result);
+				return true;
+			}
+			if(!probe.tryAdvance(this)) {
+				return false;
+			}
+			row = table.find(current.v1);
+			if(row < 0 && outer) {
+				action.accept(combiner.apply(current, null));
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public Spliterator<R> trySplit() {
+		if(row >= 0) {
+			// 結合途中の行より前の要素を切り出すことはできない
+			return null;
+		}
+		Spliterator<Tuple2<K, P>> prefix = probe.trySplit();
+		if(prefix == null) {
+			return null;
+		}
+		return new HashJoinSpliterator<>(prefix, table, combiner, outer);
+	}
+
+	@Override
+	public long estimateSize() {
+		return probe.estimateSize();
+	}
+
+	@Override
+	public int characteristics() {
+		return (probe.characteristics() & Spliterator.ORDERED) | Spliterator.NONNULL;
+	}
+}
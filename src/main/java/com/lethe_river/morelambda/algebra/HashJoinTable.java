@@ -0,0 +1,174 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+
+/**
+ * ハッシュ結合のビルド側の行を保持する開番地法のハッシュ表
+ *
+ * 行ごとのオブジェクトは生成せず，キー，値，ハッシュ値と同じキーを持つ次の行の位置を配列で保持する．
+ * 同じキーを持つ行は入力順に辿ることができる．
+ * キーがnullの行はどの行とも一致しないため格納しない．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ * @param <V> 値の型
+ */
+final class HashJoinTable<K, V> {
+	private static final int NONE = -1;
+
+	private final Object[] keys;
+	private final Object[] values;
+	private final int[] hashes;
+	private final int[] next;
+	private final int[] slots;
+	private final int mask;
+
+	private HashJoinTable(Object[] keys, Object[] values, int[] hashes, int size, boolean distinct) {
+		this.keys = keys;
+		this.values = values;
+		this.hashes = hashes;
+		this.next = new int[size];
+		this.slots = new int[Hashing.tableSizeFor(size)];
+		this.mask = slots.length - 1;
+
+		// 同じキーの行が入力順に連なるよう，末尾の行から先頭に挿入する
+		for(int row = size - 1; row >= 0; row--) {
+			int slot = hashes[row] & mask;
+			while(true) {
+				int head = slots[slot] - 1;
+				if(head == NONE) {
+					next[row] = NONE;
+					slots[slot] = row + 1;
+					break;
+				}
+				if(hashes[head] == hashes[row] && keys[head].equals(keys[row])) {
+					next[row] = NONE;
+					if(!distinct) {
+						next[row] = head;
+						slots[slot] = row + 1;
+					}
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+	}
+
+	/**
+	 * Spliteratorの残りの要素をすべて読み込み，ハッシュ表を構築する．
+	 *
+	 * @param spliterator ビルド側の行
+	 * @return ハッシュ表
+	 */
+	static <K, V> HashJoinTable<K, V> build(Spliterator<? extends Tuple2<? extends K, ? extends V>> spliterator) {
+		Loader loader = new Loader(spliterator.getExactSizeIfKnown(), true);
+		spliterator.forEachRemaining(t -> loader.add(t.v1, t.v2));
+		return new HashJoinTable<>(loader.keys, loader.values, loader.hashes, loader.size, false);
+	}
+
+	/**
+	 * Spliteratorの残りの要素をすべて読み込み，キーのみを保持するハッシュ表を構築する．
+	 *
+	 * @param spliterator ビルド側の行
+	 * @return ハッシュ表
+	 */
+	static <K> HashJoinTable<K, Void> buildKeys(Spliterator<? extends Tuple2<? extends K, ?>> spliterator) {
+		Loader loader = new Loader(spliterator.getExactSizeIfKnown(), false);
+		spliterator.forEachRemaining(t -> loader.add(t.v1, null));
+		return new HashJoinTable<>(loader.keys, null, loader.hashes, loader.size, true);
+	}
+
+	/**
+	 * 指定したキーを持つ最初の行の位置を返す．
+	 *
+	 * @param key キー
+	 * @return 行の位置，存在しない場合は負の値
+	 */
+	int find(Object key) {
+		if(key == null) {
+			return NONE;
+		}
+		int hash = Hashing.mix(key.hashCode());
+		int slot = hash & mask;
+		while(true) {
+			int row = slots[slot] - 1;
+			if(row == NONE) {
+				return NONE;
+			}
+			if(hashes[row] == hash && keys[row].equals(key)) {
+				return row;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * 指定したキーを持つ行が存在するか調べる．
+	 *
+	 * @param key キー
+	 * @return 存在する場合はtrue
+	 */
+	boolean contains(Object key) {
+		return find(key) != NONE;
+	}
+
+	/**
+	 * 指定した行と同じキーを持つ次の行の位置を返す．
+	 *
+	 * @param row 行の位置
+	 * @return 次の行の位置，存在しない場合は負の値
+	 */
+	int next(int row) {
+		return next[row];
+	}
+
+	/**
+	 * 指定した行の値を返す．
+	 *
+	 * @param row 行の位置
+	 * @return 値
+	 */
+	@SuppressWarnings("unchecked")
+	V value(int row) {
+		return (V) values[row];
+	}
+
+	private static class Loader {
+		private Object[] keys;
+		private Object[] values;
+		private int[] hashes;
+		private int size;
+
+		Loader(long exactSize, boolean withValues) {
+			int capacity = 0 <= exactSize && exactSize < Integer.MAX_VALUE - 8 ? (int) exactSize : 16;
+			keys = new Object[capacity];
+			values = withValues ? new Object[capacity] : null;
+			hashes = new int[capacity];
+		}
+
+		void add(Object key, Object value) {
+			if(key == null) {
+				return;
+			}
+			if(size == keys.length) {
+				if(size >= (1 << 29)) {
+					throw new IllegalStateException("too many rows to build a hash table");
+				}
+				int capacity = Math.max(16, size + (size >> 1));
+				keys = Arrays.copyOf(keys, capacity);
+				if(values != null) {
+					values = Arrays.copyOf(values, capacity);
+				}
+				hashes = Arrays.copyOf(hashes, capacity);
+			}
+			keys[size] = key;
+			if(values != null) {
+				values[size] = value;
+			}
+			hashes[size] = Hashing.mix(key.hashCode());
+			size++;
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Objects;
+
+/**
+ * ハッシュ表やハッシュ値を用いる構造で共通して利用するハッシュ値の操作
+ * @author YuyaAizawa
+ *
+ */
+final class Hashing {
+	private Hashing() {}
+
+	private static final int MAX_TABLE_SIZE = 1 << 30;
+
+	/**
+	 * ハッシュ値の各ビットを攪拌する．
+	 * 下位ビットだけを使って表の位置を決めるため，上位ビットの影響を全体に行き渡らせる．
+	 *
+	 * @param h ハッシュ値
+	 * @return 攪拌したハッシュ値
+	 */
+	static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * ハッシュ値の列を1つのハッシュ値にまとめる途中の値を返す．
+	 * 最後に要素の数との排他的論理和を{@link #mix(int)}で攪拌したものをハッシュ値とする．
+	 * {@code 31 * h + v}と異なり，小さい値の組み合わせでも衝突しにくい．
+	 *
+	 * @param h これまでにまとめたハッシュ値
+	 * @param v 新たに加えるハッシュ値
+	 * @return まとめたハッシュ値
+	 */
+	static int combine(int h, int v) {
+		v *= 0xcc9e2d51;
+		v = Integer.rotateLeft(v, 15);
+		v *= 0x1b873593;
+		h ^= v;
+		h = Integer.rotateLeft(h, 13);
+		return h * 5 + 0xe6546b64;
+	}
+
+	/**
+	 * 2つの要素を持つTupleのハッシュ値を計算する．
+	 *
+	 * @param v1 1番目の要素
+	 * @param v2 2番目の要素
+	 * @return {@link Tuple2#hashCode()}と同じハッシュ値
+	 */
+	static int hash(Object v1, Object v2) {
+		int result = 0;
+		result = combine(result, Objects.hashCode(v1));
+		result = combine(result, Objects.hashCode(v2));
+		return mix(result ^ 2);
+	}
+
+	/**
+	 * 3つの要素を持つTupleのハッシュ値を計算する．
+	 *
+	 * @param v1 1番目の要素
+	 * @param v2 2番目の要素
+	 * @param v3 3番目の要素
+	 * @return {@link Tuple3#hashCode()}と同じハッシュ値
+	 */
+	static int hash(Object v1, Object v2, Object v3) {
+		int result = 0;
+		result = combine(result, Objects.hashCode(v1));
+		result = combine(result, Objects.hashCode(v2));
+		result = combine(result, Objects.hashCode(v3));
+		return mix(result ^ 3);
+	}
+
+	/**
+	 * 要素数の上限から，負荷率が1/2以下となる2の冪の表の大きさを返す．
+	 *
+	 * @param expected 格納する要素数の上限
+	 * @return 表の大きさ
+	 */
+	static int tableSizeFor(int expected) {
+		if(expected >= MAX_TABLE_SIZE / 2) {
+			return MAX_TABLE_SIZE;
+		}
+		int size = 2;
+		while(size < expected * 2) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+	/**
+	 * 64ビットのハッシュ値の各ビットを攪拌する．
+	 *
+	 * @param h ハッシュ値
+	 * @return 攪拌したハッシュ値
+	 */
+	static long mix64(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * 64ビットのハッシュ値の列を1つのハッシュ値にまとめる途中の値を返す．
+	 *
+	 * @param h これまでにまとめたハッシュ値
+	 * @param v 新たに加えるハッシュ値
+	 * @return まとめたハッシュ値
+	 */
+	static long combine64(long h, long v) {
+		return Long.rotateLeft(h ^ v, 27) * 0x9e3779b97f4a7c15L + 0x52dce729L;
+	}
+
+	/**
+	 * Tupleなどの要素から，64ビットのハッシュ値にまとめるための値を得る．
+	 * {@link Hash64}はそのハッシュ値を，Long，Doubleは値の64ビット全体を用いる．
+	 * それ以外は{@link Object#hashCode()}を用いる．
+	 *
+	 * @param o 要素
+	 * @return まとめるための値
+	 */
+	static long hash64Of(Object o) {
+		if(o == null) {
+			return 0;
+		}
+		if(o instanceof Hash64) {
+			return ((Hash64) o).hash64();
+		}
+		if(o instanceof Long) {
+			return (Long) o;
+		}
+		if(o instanceof Double) {
+			return Double.doubleToLongBits((Double) o);
+		}
+		return o.hashCode();
+	}
+
+	/**
+	 * 要素の数と要素ごとの値から64ビットのハッシュ値をまとめる最初の値を返す．
+	 *
+	 * @param arity 要素の数
+	 * @return まとめる最初の値
+	 */
+	static long seed64(int arity) {
+		return 0x2545f4914f6cdd1dL ^ arity;
+	}
+
+	/**
+	 * 文字列の内容から64ビットのハッシュ値を計算する．
+	 *
+	 * @param s 文字列
+	 * @return ハッシュ値
+	 */
+	static long hash64(CharSequence s) {
+		final int length = s.length();
+		long h = 0x2545f4914f6cdd1dL ^ length;
+		int i = 0;
+		for(; i + 4 <= length; i += 4) {
+			long block = s.charAt(i)
+					| (long) s.charAt(i + 1) << 16
+					| (long) s.charAt(i + 2) << 32
+					| (long) s.charAt(i + 3) << 48;
+			h = combine64(h, block);
+		}
+		long rest = 0;
+		for(int shift = 0; i < length; i++, shift += 16) {
+			rest |= (long) s.charAt(i) << shift;
+		}
+		return mix64(combine64(h, rest));
+	}
+
+	/**
+	 * バイト列の内容から64ビットのハッシュ値を計算する．
+	 *
+	 * @param bytes バイト列
+	 * @return ハッシュ値
+	 */
+	static long hash64(byte[] bytes) {
+		long h = 0x2545f4914f6cdd1dL ^ bytes.length;
+		int i = 0;
+		for(; i + 8 <= bytes.length; i += 8) {
+			long block = 0;
+			for(int j = 7; j >= 0; j--) {
+				block = block << 8 | (bytes[i + j] & 0xff);
+			}
+			h = combine64(h, block);
+		}
+		long rest = 0;
+		for(int shift = 0; i < bytes.length; i++, shift += 8) {
+			rest |= (long) (bytes[i] & 0xff) << shift;
+		}
+		return mix64(combine64(h, rest));
+	}
+}
@@ -0,0 +1,170 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * キーの異なり数を近似的に数えるHyperLogLog
+ *
+ * キーのハッシュ値の上位ビットでレジスタを選び，残りのビットの先頭の0の数の最大値を記録する．
+ * 保持するのは2<sup>precision</sup>バイトのレジスタのみで，追加したキーの数によらない．
+ * 相対誤差の標準偏差はおよそ{@code 1.04 / sqrt(2^precision)}である．
+ * 同じ設定で作ったものはレジスタごとの最大値をとることで合成できる．
+ * nullは追加されない．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ */
+public final class HyperLogLog<K> implements Serializable {
+	private static final long serialVersionUID = 6148724150419738273L;
+
+	/**
+	 * 精度の最小値
+	 */
+	public static final int MIN_PRECISION = 4;
+
+	/**
+	 * 精度の最大値
+	 */
+	public static final int MAX_PRECISION = 18;
+
+	private final byte[] registers;
+	private final int precision;
+	private final KeyHasher<? super K> hasher;
+
+	private HyperLogLog(int precision, KeyHasher<? super K> hasher) {
+		this.registers = new byte[1 << precision];
+		this.precision = precision;
+		this.hasher = hasher;
+	}
+
+	/**
+	 * 標準のハッシュ関数を用いる空のHyperLogLogを返す．
+	 *
+	 * @param precision レジスタの数の2を底とする対数
+	 * @param <K> キーの型
+	 * @return 空のHyperLogLog
+	 * @exception IllegalArgumentException 精度が範囲外の場合
+	 * @see KeyHasher#standard()
+	 */
+	public static <K> HyperLogLog<K> create(int precision) {
+		return create(precision, KeyHasher.standard());
+	}
+
+	/**
+	 * 空のHyperLogLogを返す．
+	 *
+	 * @param precision レジスタの数の2を底とする対数
+	 * @param hasher キーのハッシュ関数
+	 * @param <K> キーの型
+	 * @return 空のHyperLogLog
+	 * @exception IllegalArgumentException 精度が範囲外の場合
+	 */
+	public static <K> HyperLogLog<K> create(int precision, KeyHasher<? super K> hasher) {
+		Objects.requireNonNull(hasher);
+		checkPrecision(precision);
+		return new HyperLogLog<>(precision, hasher);
+	}
+
+	static void checkPrecision(int precision) {
+		if(precision < MIN_PRECISION || MAX_PRECISION < precision) {
+			throw new IllegalArgumentException(
+					"precision must be in [" + MIN_PRECISION + ", " + MAX_PRECISION + "]: " + precision);
+		}
+	}
+
+	/**
+	 * キーを追加する．
+	 *
+	 * @param key キー
+	 */
+	public void add(K key) {
+		if(key == null) {
+			return;
+		}
+		long hash = hasher.hash64(key);
+		int index = (int) (hash >>> (64 - precision));
+		// 番兵のビットにより，残りのビットがすべて0でも64-precision+1を超えない
+		byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+		if(registers[index] < rank) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * 他のHyperLogLogに追加されたキーをすべてこのHyperLogLogに追加する．
+	 *
+	 * @param other 同じ設定で作られたHyperLogLog
+	 * @exception IllegalArgumentException 設定が異なる場合
+	 */
+	public void addAll(HyperLogLog<? extends K> other) {
+		if(other.precision != precision || !other.hasher.equals(hasher)) {
+			throw new IllegalArgumentException("incompatible hyperloglog");
+		}
+		for(int i = 0; i < registers.length; i++) {
+			if(registers[i] < other.registers[i]) {
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * 追加されたキーの異なり数を見積もる．
+	 *
+	 * @return 異なり数の見積もり
+	 */
+	public long cardinality() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for(byte register : registers) {
+			sum += Double.longBitsToDouble((1023L - register) << 52);
+			if(register == 0) {
+				zeros++;
+			}
+		}
+		double estimate = alpha(m) * m * m / sum;
+		if(estimate <= 2.5 * m && zeros > 0) {
+			// 小さい異なり数では線形計数の方が正確である
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * レジスタの数の2を底とする対数を返す．
+	 *
+	 * @return 精度
+	 */
+	public int precision() {
+		return precision;
+	}
+
+	/**
+	 * 異なり数の見積もりの相対誤差の標準偏差を返す．
+	 *
+	 * @return 相対誤差
+	 */
+	public double relativeError() {
+		return 1.04 / Math.sqrt(registers.length);
+	}
+
+	private static double alpha(int m) {
+		switch(m) {
+		case 16:
+			return 0.673;
+		case 32:
+			return 0.697;
+		case 64:
+			return 0.709;
+		default:
+			return 0.7213 / (1 + 1.079 / m);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "HyperLogLog[precision=" + precision + ", cardinality=" + cardinality() + "]";
+	}
+}
@@ -0,0 +1,275 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * 追加と取り消しの差分によって更新される，キーごとのlong値の集約結果
+ *
+ * 件数と合計は差分から直接更新する．最小と最大を追跡する場合は，
+ * キーごとに値の多重集合を保持し，現在の最小値や最大値が取り消されたときに次の値を求める．
+ * 更新にかかる時間は集約済みのデータの量ではなく差分の量に比例する．
+ * 件数が0になったキーは削除され，その後のキーの順序は保たれない．
+ *
+ * 更新と参照はスレッドセーフである．
+ * {@link #snapshot()}は集約結果全体を複製せず，前回のスナップショットから変更されたキーの集約結果だけを
+ * 複製して，共有する基底の表に層として重ねる．層は大きさの近いものどうしを併合し，
+ * 層の合計が基底の表の半分を超えると基底の表を作り直す．
+ * このためスナップショットを作る時間は，償却すると前回から変更されたキーの数とその対数の積に比例する．
+ * 最後の更新後に初めて呼ばれたときだけ作り，以降は更新されるまで同じ結果を返す．
+ * スナップショットのキーの並びは最初に現れた順とは限らない．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ */
+public final class IncrementalLongAggregation<K> {
+	private final LongGroupTable<K> table;
+	private final boolean trackExtrema;
+
+	private final Lock readLock;
+	private final Lock writeLock;
+	private volatile GroupedLongSummary<K> snapshot;
+
+	// 以下は書き込みのロックを取って触る
+	private final Set<Object> changed = new HashSet<>();
+	private final List<Map<Object, LongAggregate>> layers = new ArrayList<>();
+	private int layeredCount = 0;
+	private LongGroupTable<K> base = new LongGroupTable<>(4);
+
+	private IncrementalLongAggregation(boolean trackExtrema) {
+		this.table = new LongGroupTable<>(16, trackExtrema);
+		this.trackExtrema = trackExtrema;
+		ReadWriteLock lock = new ReentrantReadWriteLock();
+		this.readLock = lock.readLock();
+		this.writeLock = lock.writeLock();
+	}
+
+	/**
+	 * 件数，合計，最小，最大を追跡する空の集約結果を作る．
+	 *
+	 * @param <K> キーの型
+	 * @return 空の集約結果
+	 */
+	public static <K> IncrementalLongAggregation<K> create() {
+		return new IncrementalLongAggregation<>(true);
+	}
+
+	/**
+	 * 空の集約結果を作る．
+	 * 最小と最大を追跡しない場合はキーごとに値を保持しないが，
+	 * 集約結果の最小は{@link Long#MAX_VALUE}，最大は{@link Long#MIN_VALUE}となる．
+	 *
+	 * @param trackExtrema 最小と最大を追跡する場合はtrue
+	 * @param <K> キーの型
+	 * @return 空の集約結果
+	 */
+	public static <K> IncrementalLongAggregation<K> create(boolean trackExtrema) {
+		return new IncrementalLongAggregation<>(trackExtrema);
+	}
+
+	/**
+	 * 追加と取り消しの差分をまとめて反映する．
+	 * 追加を反映したあとに取り消しを反映する．
+	 * 反映している間，他のスレッドからの参照は待たされる．
+	 * 取り消す値が集約されていない場合は{@link IllegalArgumentException}が発生し，
+	 * それまでに反映した差分はそのまま残る．
+	 *
+	 * @param insertions 追加するキーと値の組
+	 * @param retractions 取り消すキーと値の組
+	 */
+	public void apply(Stream<? extends Tuple2<K, Long>> insertions, Stream<? extends Tuple2<K, Long>> retractions) {
+		Objects.requireNonNull(insertions);
+		Objects.requireNonNull(retractions);
+		writeLock.lock();
+		try {
+			snapshot = null;
+			insertions.sequential().forEach(t -> insertLocked(t.v1, t.v2));
+			retractions.sequential().forEach(t -> retractLocked(t.v1, t.v2));
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * 値を追加する．
+	 *
+	 * @param key キー
+	 * @param value 値
+	 */
+	public void insert(K key, long value) {
+		writeLock.lock();
+		try {
+			snapshot = null;
+			insertLocked(key, value);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * 追加した値を取り消す．
+	 *
+	 * @param key キー
+	 * @param value 値
+	 * @exception IllegalArgumentException 値が集約されていない場合
+	 */
+	public void retract(K key, long value) {
+		writeLock.lock();
+		try {
+			snapshot = null;
+			retractLocked(key, value);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * 指定したキーの集約結果を返す．
+	 *
+	 * @param key キー
+	 * @return 集約結果，キーが存在しない場合はnull
+	 */
+	public LongAggregate get(Object key) {
+		readLock.lock();
+		try {
+			int row = table.find(key);
+			return row < 0 ? null : table.aggregate(row);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * キーの数を返す．
+	 *
+	 * @return キーの数
+	 */
+	public int size() {
+		readLock.lock();
+		try {
+			return table.size;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * 現在の集約結果の複製を返す．
+	 * 返された結果はその後の更新の影響を受けない．
+	 *
+	 * @return 集約結果
+	 */
+	public GroupedLongSummary<K> snapshot() {
+		GroupedLongSummary<K> result = snapshot;
+		if(result != null) {
+			return result;
+		}
+		writeLock.lock();
+		try {
+			result = snapshot;
+			if(result == null) {
+				result = newSnapshot();
+				snapshot = result;
+			}
+			return result;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private GroupedLongSummary<K> newSnapshot() {
+		Map<Object, LongAggregate> layer = new HashMap<>();
+		for(Object key : changed) {
+			int row = table.find(key);
+			layer.put(key, row < 0 ? null : table.aggregate(row));
+		}
+		changed.clear();
+		layers.add(layer);
+		layeredCount += layer.size();
+		// 二進数の繰り上がりのように，新しい層より小さくない古い層だけが残るよう併合する．
+		// 層は以前のスナップショットと共有するので，併合した層は新しく作る
+		while(layers.size() >= 2
+				&& layers.get(layers.size() - 2).size() <= layers.get(layers.size() - 1).size()) {
+			Map<Object, LongAggregate> newer = layers.remove(layers.size() - 1);
+			Map<Object, LongAggregate> older = layers.remove(layers.size() - 1);
+			Map<Object, LongAggregate> merged = new HashMap<>(older);
+			merged.putAll(newer);
+			layers.add(merged);
+			layeredCount += merged.size() - older.size() - newer.size();
+		}
+		if(layeredCount > base.size / 2) {
+			base = table.copy();
+			layers.clear();
+			layeredCount = 0;
+		}
+		return new GroupedLongSummary<>(base, layers.toArray(new Map[layers.size()]), table.size);
+	}
+
+	private void insertLocked(K key, long value) {
+		changed.add(key);
+		int row = table.rowOf(key);
+		table.counts[row]++;
+		table.sums[row] += value;
+		if(trackExtrema) {
+			values(row).merge(value, 1L, Long::sum);
+			table.mins[row] = Math.min(table.mins[row], value);
+			table.maxes[row] = Math.max(table.maxes[row], value);
+		}
+	}
+
+	private void retractLocked(K key, long value) {
+		changed.add(key);
+		int row = table.find(key);
+		if(row < 0) {
+			throw new IllegalArgumentException("not aggregated: (" + key + ", " + value + ")");
+		}
+		if(trackExtrema) {
+			TreeMap<Long, Long> values = values(row);
+			Long count = values.get(value);
+			if(count == null) {
+				throw new IllegalArgumentException("not aggregated: (" + key + ", " + value + ")");
+			}
+			if(count == 1) {
+				values.remove(value);
+			} else {
+				values.put(value, count - 1);
+			}
+			if(!values.isEmpty()) {
+				table.mins[row] = values.firstKey();
+				table.maxes[row] = values.lastKey();
+			}
+		}
+		if(--table.counts[row] == 0) {
+			table.remove(row);
+			return;
+		}
+		table.sums[row] -= value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private TreeMap<Long, Long> values(int row) {
+		Object values = table.attachments[row];
+		if(values == null) {
+			values = new TreeMap<Long, Long>();
+			table.attachments[row] = values;
+		}
+		return (TreeMap<Long, Long>) values;
+	}
+
+	@Override
+	public String toString() {
+		return snapshot().toString();
+	}
+}
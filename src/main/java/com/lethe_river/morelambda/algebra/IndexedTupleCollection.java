@@ -0,0 +1,642 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 要素から取り出したキーの索引を持つTupleのコレクション
+ *
+ * {@link #addHashIndex(Function)}で等価比較の索引を，{@link #addSortedIndex(Function, Comparator)}で
+ * 範囲検索の索引を加えると，その索引による検索は全要素を走査せずに行われる．
+ * キーは{@code t -> t.v1}のように，Tuple2～Tuple5の要素を取り出す関数で指定する．
+ * 同じ要素を複数回追加することができる．
+ *
+ * 更新はロックを取って1つずつ行い，更新ごとに版を1つ進める．
+ * 検索は呼び出した時点の版を見るので，ロックを取らず，更新を待たせることもない．
+ * 検索結果のストリームは遅延評価されるが，走査中に行われた更新は反映されない．
+ * 複数の検索を同じ版に対して行う場合は{@link #snapshot()}を用いる．
+ *
+ * 削除した要素は索引に残り，検索の際に読み飛ばされる．削除した要素が残っている要素より多くなると，
+ * 残っている要素だけで索引を作り直す．それまでの版を見ている検索は作り直す前の索引を使い続ける．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 要素の型
+ */
+public final class IndexedTupleCollection<T> {
+	private static final Object NULL_KEY = new Object();
+
+	private final Object writeLock = new Object();
+	private final HashIndex<T, T> identity = new HashIndex<>(this, 0, Function.identity());
+	private Index<T>[] indexes;
+	private int removedCount = 0;
+	private volatile State<T> state;
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private IndexedTupleCollection() {
+		indexes = new Index[] { identity };
+		state = new State<>(0, 0, new ConcurrentLinkedQueue<>(), new Object[] { identity.newData() });
+	}
+
+	/**
+	 * 索引を持たない空のコレクションを作る．
+	 *
+	 * @param <T> 要素の型
+	 * @return 作られたコレクション
+	 */
+	public static <T> IndexedTupleCollection<T> create() {
+		return new IndexedTupleCollection<>();
+	}
+
+	/**
+	 * 要素から取り出したキーの等価比較の索引を加える．既に存在する要素も索引に加える．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <K> キーの型
+	 * @return 加えた索引
+	 */
+	public <K> HashIndex<T, K> addHashIndex(Function<? super T, ? extends K> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		synchronized(writeLock) {
+			return register(new HashIndex<>(this, indexes.length, keyExtractor));
+		}
+	}
+
+	/**
+	 * 要素から取り出したキーの範囲検索の索引を加える．既に存在する要素も索引に加える．
+	 * キーがnullの要素は索引に含めない．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param comparator キーの比較関数
+	 * @param <K> キーの型
+	 * @return 加えた索引
+	 */
+	public <K> SortedIndex<T, K> addSortedIndex(Function<? super T, ? extends K> keyExtractor, Comparator<? super K> comparator) {
+		Objects.requireNonNull(keyExtractor);
+		Objects.requireNonNull(comparator);
+		synchronized(writeLock) {
+			return register(new SortedIndex<>(this, indexes.length, keyExtractor, comparator));
+		}
+	}
+
+	/**
+	 * 要素から取り出した自然順序を持つキーの範囲検索の索引を加える．既に存在する要素も索引に加える．
+	 * キーがnullの要素は索引に含めない．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <K> キーの型
+	 * @return 加えた索引
+	 */
+	public <K extends Comparable<? super K>> SortedIndex<T, K> addSortedIndex(Function<? super T, ? extends K> keyExtractor) {
+		return addSortedIndex(keyExtractor, Comparator.naturalOrder());
+	}
+
+	private <I extends Index<T>> I register(I index) {
+		State<T> current = state;
+		Object data = index.newData();
+		// 古い版を見る検索のため，削除済みの要素も加える
+		for(Row<T> row : current.rows) {
+			index.insert(data, row);
+		}
+		indexes = Arrays.copyOf(indexes, indexes.length + 1);
+		indexes[index.id] = index;
+		Object[] indexData = Arrays.copyOf(current.indexData, current.indexData.length + 1);
+		indexData[index.id] = data;
+		state = new State<>(current.version, current.size, current.rows, indexData);
+		return index;
+	}
+
+	/**
+	 * 要素を追加する．
+	 *
+	 * @param value 追加する要素
+	 */
+	public void add(T value) {
+		addAll(Collections.singletonList(value));
+	}
+
+	/**
+	 * 要素をまとめて追加する．追加した要素は同じ版から見えるようになる．
+	 *
+	 * @param values 追加する要素
+	 */
+	@SuppressWarnings("unchecked")
+	public void addAll(Collection<? extends T> values) {
+		synchronized(writeLock) {
+			State<T> current = state;
+			long version = current.version + 1;
+			// 索引と要素の並びは次の版と共有するので，キーを取り出す関数が例外を投げても
+			// 途中まで追加された状態が残らないよう，先にすべてのキーを取り出す
+			Object[] array = values.toArray();
+			Object[][] keys = new Object[array.length][];
+			for(int i = 0; i < array.length; i++) {
+				keys[i] = new Object[indexes.length];
+				for(Index<T> index : indexes) {
+					keys[i][index.id] = index.key((T) array[i]);
+				}
+			}
+			for(int i = 0; i < array.length; i++) {
+				Row<T> row = new Row<>((T) array[i], version);
+				current.rows.add(row);
+				for(Index<T> index : indexes) {
+					index.insert(current.indexData[index.id], row, keys[i][index.id]);
+				}
+			}
+			state = current.next(version, current.size + array.length);
+		}
+	}
+
+	/**
+	 * ストリームの要素をまとめて追加する．追加した要素は同じ版から見えるようになる．
+	 *
+	 * @param values 追加する要素のストリーム
+	 */
+	public void addAll(Stream<? extends T> values) {
+		addAll(values.collect(Collectors.toList()));
+	}
+
+	/**
+	 * 指定した要素と等しい要素を1つ削除する．
+	 *
+	 * @param value 削除する要素
+	 * @return 削除した場合true
+	 */
+	public boolean remove(Object value) {
+		synchronized(writeLock) {
+			State<T> current = state;
+			Queue<Row<T>> candidates = identity.data(current).get(HashIndex.mask(value));
+			if(candidates == null) {
+				return false;
+			}
+			for(Row<T> row : candidates) {
+				if(row.removed == Long.MAX_VALUE) {
+					publishRemoval(Collections.singletonList(row), current);
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * すべての要素を削除する．
+	 */
+	public void clear() {
+		synchronized(writeLock) {
+			State<T> current = state;
+			List<Row<T>> live = current.rows.stream()
+					.filter(row -> row.removed == Long.MAX_VALUE)
+					.collect(Collectors.toList());
+			publishRemoval(live, current);
+		}
+	}
+
+	private void publishRemoval(List<Row<T>> removing, State<T> current) {
+		long version = current.version + 1;
+		for(Row<T> row : removing) {
+			row.removed = version;
+		}
+		int size = current.size - removing.size();
+		removedCount += removing.size();
+		if(removedCount > size) {
+			state = rebuild(version, size, current.rows);
+			removedCount = 0;
+		} else {
+			state = current.next(version, size);
+		}
+	}
+
+	/**
+	 * 削除されていない要素だけで新しい索引を作る．既存の索引は古い版を見る検索のために残す．
+	 */
+	private State<T> rebuild(long version, int size, Queue<Row<T>> rows) {
+		Queue<Row<T>> live = new ConcurrentLinkedQueue<>();
+		Object[] indexData = new Object[indexes.length];
+		for(Index<T> index : indexes) {
+			indexData[index.id] = index.newData();
+		}
+		for(Row<T> row : rows) {
+			if(row.removed == Long.MAX_VALUE) {
+				live.add(row);
+				for(Index<T> index : indexes) {
+					index.insert(indexData[index.id], row);
+				}
+			}
+		}
+		return new State<>(version, size, live, indexData);
+	}
+
+	/**
+	 * 要素数を返す．
+	 *
+	 * @return 要素数
+	 */
+	public int size() {
+		return state.size;
+	}
+
+	/**
+	 * 要素が存在しないか調べる．
+	 *
+	 * @return 要素が存在しない場合true
+	 */
+	public boolean isEmpty() {
+		return state.size == 0;
+	}
+
+	/**
+	 * すべての要素を追加した順に並べたストリームを返す．
+	 *
+	 * @return ストリーム
+	 */
+	public Stream<T> stream() {
+		return snapshot().stream();
+	}
+
+	/**
+	 * 現在の版のスナップショットを作る．
+	 *
+	 * @return スナップショット
+	 */
+	public Snapshot<T> snapshot() {
+		return new Snapshot<>(this, state);
+	}
+
+	private static <T> Stream<T> visible(Stream<Row<T>> rows, long version) {
+		return rows.filter(row -> row.isVisibleAt(version)).map(row -> row.value);
+	}
+
+	@Override
+	public String toString() {
+		return stream().map(String::valueOf).collect(Collectors.joining(", ", "[", "]"));
+	}
+
+	/**
+	 * ある版のコレクションの内容
+	 *
+	 * 作った後にコレクションを更新しても内容は変わらない．
+	 *
+	 * @param <T> 要素の型
+	 */
+	public static final class Snapshot<T> {
+		private final IndexedTupleCollection<T> collection;
+		private final State<T> state;
+
+		private Snapshot(IndexedTupleCollection<T> collection, State<T> state) {
+			this.collection = collection;
+			this.state = state;
+		}
+
+		/**
+		 * 要素数を返す．
+		 *
+		 * @return 要素数
+		 */
+		public int size() {
+			return state.size;
+		}
+
+		/**
+		 * すべての要素を追加した順に並べたストリームを返す．
+		 *
+		 * @return ストリーム
+		 */
+		public Stream<T> stream() {
+			return visible(state.rows.stream(), state.version);
+		}
+
+		/**
+		 * 指定したキーを持つ要素を追加した順に並べたストリームを返す．
+		 *
+		 * @param index 検索に用いる索引
+		 * @param key キー
+		 * @return ストリーム
+		 */
+		public Stream<T> lookup(HashIndex<T, ?> index, Object key) {
+			checkOwner(index);
+			return index.lookup(key, state);
+		}
+
+		/**
+		 * キーが指定した範囲にある要素をキーの順に並べたストリームを返す．
+		 *
+		 * @param index 検索に用いる索引
+		 * @param from 範囲の下限
+		 * @param fromInclusive 下限を含む場合true
+		 * @param to 範囲の上限
+		 * @param toInclusive 上限を含む場合true
+		 * @param <K> キーの型
+		 * @return ストリーム
+		 */
+		public <K> Stream<T> range(SortedIndex<T, K> index, K from, boolean fromInclusive, K to, boolean toInclusive) {
+			checkOwner(index);
+			return index.range(from, fromInclusive, to, toInclusive, state);
+		}
+
+		private void checkOwner(Index<T> index) {
+			if(index.collection != collection) {
+				throw new IllegalArgumentException("index of another collection");
+			}
+		}
+	}
+
+	/**
+	 * キーの等価比較による索引
+	 *
+	 * @param <T> 要素の型
+	 * @param <K> キーの型
+	 */
+	public static final class HashIndex<T, K> extends Index<T> {
+		private final Function<? super T, ? extends K> keyExtractor;
+
+		private HashIndex(IndexedTupleCollection<T> collection, int id, Function<? super T, ? extends K> keyExtractor) {
+			super(collection, id);
+			this.keyExtractor = keyExtractor;
+		}
+
+		private static Object mask(Object key) {
+			return key == null ? NULL_KEY : key;
+		}
+
+		/**
+		 * 現在の版で指定したキーを持つ要素を追加した順に並べたストリームを返す．
+		 *
+		 * @param key キー
+		 * @return ストリーム
+		 */
+		public Stream<T> lookup(Object key) {
+			return lookup(key, collection.state);
+		}
+
+		private Stream<T> lookup(Object key, State<T> state) {
+			Map<Object, Queue<Row<T>>> data = data(state);
+			if(data == null) {
+				// 索引を加える前の版では全要素を走査する
+				return visible(state.rows.stream(), state.version)
+						.filter(value -> Objects.equals(keyExtractor.apply(value), key));
+			}
+			Queue<Row<T>> found = data.get(mask(key));
+			return found == null ? Stream.empty() : visible(found.stream(), state.version);
+		}
+
+		@SuppressWarnings("unchecked")
+		private Map<Object, Queue<Row<T>>> data(State<T> state) {
+			return (Map<Object, Queue<Row<T>>>) state.data(id);
+		}
+
+		@Override
+		Object newData() {
+			return new ConcurrentHashMap<Object, Queue<Row<T>>>();
+		}
+
+		@Override
+		Object key(T value) {
+			return mask(keyExtractor.apply(value));
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		void insert(Object data, Row<T> row, Object key) {
+			((Map<Object, Queue<Row<T>>>) data)
+					.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>())
+					.add(row);
+		}
+	}
+
+	/**
+	 * キーの順序による索引
+	 *
+	 * @param <T> 要素の型
+	 * @param <K> キーの型
+	 */
+	public static final class SortedIndex<T, K> extends Index<T> {
+		private final Function<? super T, ? extends K> keyExtractor;
+		private final Comparator<? super K> comparator;
+
+		private SortedIndex(IndexedTupleCollection<T> collection, int id,
+				Function<? super T, ? extends K> keyExtractor, Comparator<? super K> comparator) {
+			super(collection, id);
+			this.keyExtractor = keyExtractor;
+			this.comparator = comparator;
+		}
+
+		/**
+		 * 現在の版ですべての要素をキーの順に並べたストリームを返す．キーがnullの要素は含まない．
+		 *
+		 * @return ストリーム
+		 */
+		public Stream<T> stream() {
+			State<T> state = collection.state;
+			NavigableMap<K, Queue<Row<T>>> data = data(state);
+			return data == null ? scan(state, key -> true) : flatten(data, state);
+		}
+
+		/**
+		 * 現在の版でキーが指定した範囲にある要素をキーの順に並べたストリームを返す．
+		 * 下限を含み，上限を含まない．
+		 *
+		 * @param from 範囲の下限
+		 * @param to 範囲の上限
+		 * @return ストリーム
+		 */
+		public Stream<T> range(K from, K to) {
+			return range(from, true, to, false);
+		}
+
+		/**
+		 * 現在の版でキーが指定した範囲にある要素をキーの順に並べたストリームを返す．
+		 *
+		 * @param from 範囲の下限
+		 * @param fromInclusive 下限を含む場合true
+		 * @param to 範囲の上限
+		 * @param toInclusive 上限を含む場合true
+		 * @return ストリーム
+		 */
+		public Stream<T> range(K from, boolean fromInclusive, K to, boolean toInclusive) {
+			return range(from, fromInclusive, to, toInclusive, collection.state);
+		}
+
+		/**
+		 * 現在の版でキーが指定した値以上の要素をキーの順に並べたストリームを返す．
+		 *
+		 * @param from 範囲の下限
+		 * @return ストリーム
+		 */
+		public Stream<T> atLeast(K from) {
+			Objects.requireNonNull(from);
+			State<T> state = collection.state;
+			NavigableMap<K, Queue<Row<T>>> data = data(state);
+			return data == null
+					? scan(state, key -> comparator.compare(key, from) >= 0)
+					: flatten(data.tailMap(from, true), state);
+		}
+
+		/**
+		 * 現在の版でキーが指定した値未満の要素をキーの順に並べたストリームを返す．
+		 *
+		 * @param to 範囲の上限
+		 * @return ストリーム
+		 */
+		public Stream<T> lessThan(K to) {
+			Objects.requireNonNull(to);
+			State<T> state = collection.state;
+			NavigableMap<K, Queue<Row<T>>> data = data(state);
+			return data == null
+					? scan(state, key -> comparator.compare(key, to) < 0)
+					: flatten(data.headMap(to, false), state);
+		}
+
+		private Stream<T> range(K from, boolean fromInclusive, K to, boolean toInclusive, State<T> state) {
+			Objects.requireNonNull(from);
+			Objects.requireNonNull(to);
+			if(comparator.compare(from, to) > 0) {
+				return Stream.empty();
+			}
+			NavigableMap<K, Queue<Row<T>>> data = data(state);
+			if(data == null) {
+				return scan(state, key -> {
+					int lower = comparator.compare(key, from);
+					int upper = comparator.compare(key, to);
+					return (fromInclusive ? lower >= 0 : lower > 0) && (toInclusive ? upper <= 0 : upper < 0);
+				});
+			}
+			return flatten(data.subMap(from, fromInclusive, to, toInclusive), state);
+		}
+
+		private Stream<T> flatten(NavigableMap<K, Queue<Row<T>>> data, State<T> state) {
+			return visible(data.values().stream().flatMap(Queue::stream), state.version);
+		}
+
+		/**
+		 * 索引を加える前の版では全要素を走査して並べ替える．
+		 */
+		private Stream<T> scan(State<T> state, Predicate<K> inRange) {
+			return visible(state.rows.stream(), state.version)
+					.filter(value -> {
+						K key = keyExtractor.apply(value);
+						return key != null && inRange.test(key);
+					})
+					.sorted((o1, o2) -> comparator.compare(keyExtractor.apply(o1), keyExtractor.apply(o2)));
+		}
+
+		@SuppressWarnings("unchecked")
+		private NavigableMap<K, Queue<Row<T>>> data(State<T> state) {
+			return (NavigableMap<K, Queue<Row<T>>>) state.data(id);
+		}
+
+		@Override
+		Object newData() {
+			return new ConcurrentSkipListMap<K, Queue<Row<T>>>(comparator);
+		}
+
+		@Override
+		Object key(T value) {
+			return keyExtractor.apply(value);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		void insert(Object data, Row<T> row, Object key) {
+			if(key != null) {
+				((NavigableMap<K, Queue<Row<T>>>) data)
+						.computeIfAbsent((K) key, k -> new ConcurrentLinkedQueue<>())
+						.add(row);
+			}
+		}
+	}
+
+	/**
+	 * 索引の共通部分
+	 *
+	 * 索引の内容は版ごとの{@link State}が持ち，索引自体はキーの取り出し方と位置だけを持つ．
+	 *
+	 * @param <T> 要素の型
+	 */
+	abstract static class Index<T> {
+		final IndexedTupleCollection<T> collection;
+		final int id;
+
+		Index(IndexedTupleCollection<T> collection, int id) {
+			this.collection = collection;
+			this.id = id;
+		}
+
+		/**
+		 * 空の索引の内容を作る．
+		 */
+		abstract Object newData();
+
+		/**
+		 * 要素から索引に用いるキーを取り出す．
+		 */
+		abstract Object key(T value);
+
+		/**
+		 * 取り出したキーで要素を索引の内容に加える．更新のロックを取って呼ばれる．
+		 */
+		abstract void insert(Object data, Row<T> row, Object key);
+
+		/**
+		 * 要素を索引の内容に加える．更新のロックを取って呼ばれる．
+		 */
+		final void insert(Object data, Row<T> row) {
+			insert(data, row, key(row.value));
+		}
+	}
+
+	static final class Row<T> {
+		final T value;
+		final long added;
+		volatile long removed = Long.MAX_VALUE;
+
+		Row(T value, long added) {
+			this.value = value;
+			this.added = added;
+		}
+
+		boolean isVisibleAt(long version) {
+			return added <= version && version < removed;
+		}
+	}
+
+	/**
+	 * ある版の要素数と，その版の要素を含む索引の内容
+	 *
+	 * 索引の内容は次の版にも引き継がれ，追加された要素は版で読み飛ばす．
+	 */
+	private static final class State<T> {
+		final long version;
+		final int size;
+		final Queue<Row<T>> rows;
+		final Object[] indexData;
+
+		State(long version, int size, Queue<Row<T>> rows, Object[] indexData) {
+			this.version = version;
+			this.size = size;
+			this.rows = rows;
+			this.indexData = indexData;
+		}
+
+		State<T> next(long version, int size) {
+			return new State<>(version, size, rows, indexData);
+		}
+
+		Object data(int id) {
+			return id < indexData.length ? indexData[id] : null;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.io.Serializable;
+
+/**
+ * {@link TupleInterner}による正準化の統計
+ *
+ * @author YuyaAizawa
+ */
+public final class InternStatistics implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final long lookupCount;
+	private final long hitCount;
+	private final long savedBytes;
+	private final long size;
+
+	InternStatistics(long lookupCount, long hitCount, long savedBytes, long size) {
+		this.lookupCount = lookupCount;
+		this.hitCount = hitCount;
+		this.savedBytes = savedBytes;
+		this.size = size;
+	}
+
+	/**
+	 * 正準化を求められた回数を返す．
+	 *
+	 * @return 回数
+	 */
+	public long getLookupCount() {
+		return lookupCount;
+	}
+
+	/**
+	 * 登録済みのインスタンスを返した回数を返す．
+	 *
+	 * @return 回数
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * 登録済みのインスタンスを返した割合を返す．
+	 * 正準化を求められていない場合は0を返す．
+	 *
+	 * @return 割合
+	 */
+	public double getHitRate() {
+		return lookupCount == 0 ? 0.0 : (double) hitCount / lookupCount;
+	}
+
+	/**
+	 * 重複したインスタンスを保持せずに済んだバイト数の見積もりを返す．
+	 * 64ビットJVMで参照を圧縮した場合の，重複したインスタンス自身の大きさの合計である．
+	 * インスタンスから参照される他のオブジェクトの大きさは含まない．
+	 *
+	 * @return バイト数
+	 */
+	public long getSavedBytes() {
+		return savedBytes;
+	}
+
+	/**
+	 * 登録されていて回収されていないインスタンスの数を返す．
+	 *
+	 * @return インスタンスの数
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Long.hashCode(lookupCount);
+		result = prime * result + Long.hashCode(hitCount);
+		result = prime * result + Long.hashCode(savedBytes);
+		result = prime * result + Long.hashCode(size);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+
+		InternStatistics subject = (InternStatistics) obj;
+		return lookupCount == subject.lookupCount
+				&& hitCount == subject.hitCount
+				&& savedBytes == subject.savedBytes
+				&& size == subject.size;
+	}
+
+	@Override
+	public String toString() {
+		return "{lookups="+lookupCount+", hits="+hitCount+", savedBytes="+savedBytes+", size="+size+"}";
+	}
+}
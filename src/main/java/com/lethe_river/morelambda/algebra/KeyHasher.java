@@ -0,0 +1,53 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.io.Serializable;
+
+/**
+ * キーから64ビットのハッシュ値を計算する関数
+ *
+ * {@link Object#hashCode()}は32ビットしかなく，型によっては値の偏りも大きいため，
+ * 大きなハッシュ構造や確率的なデータ構造ではこの関数で計算したハッシュ値を用いる．
+ * 等しいキーに対しては常に等しいハッシュ値を返さなければならない．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ */
+@FunctionalInterface
+public interface KeyHasher<K> extends Serializable {
+
+	/**
+	 * 標準のハッシュ関数を返す．
+	 * 文字列，数値，文字，真偽値，列挙型，バイト配列，{@link Tuple2}から{@link Tuple5}については
+	 * {@link Object#hashCode()}を用いずに内容から直接ハッシュ値を計算する．
+	 * Tupleの要素も同様に計算される．
+	 * その他の型は{@link Object#hashCode()}の値を攪拌して用いる．
+	 * nullに対しては定数を返す．
+	 *
+	 * @param <K> キーの型
+	 * @return 標準のハッシュ関数
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K> KeyHasher<K> standard() {
+		return (KeyHasher<K>) KeyHashers.STANDARD;
+	}
+
+	/**
+	 * {@link Object#hashCode()}の値を攪拌して用いるハッシュ関数を返す．
+	 *
+	 * @param <K> キーの型
+	 * @return {@link Object#hashCode()}にもとづくハッシュ関数
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K> KeyHasher<K> ofHashCode() {
+		return (KeyHasher<K>) KeyHashers.HASH_CODE;
+	}
+
+	/**
+	 * キーのハッシュ値を返す．
+	 *
+	 * @param key キー
+	 * @return 64ビットのハッシュ値
+	 */
+	public long hash64(K key);
+}
@@ -0,0 +1,98 @@
+package com.lethe_river.morelambda.algebra;
+
+/**
+ * {@link KeyHasher}の実装
+ *
+ * @author YuyaAizawa
+ *
+ */
+enum KeyHashers implements KeyHasher<Object> {
+	/**
+	 * {@link KeyHasher#standard()}
+	 */
+	STANDARD {
+		@Override
+		public long hash64(Object key) {
+			return standardHash64(key);
+		}
+	},
+
+	/**
+	 * {@link KeyHasher#ofHashCode()}
+	 */
+	HASH_CODE {
+		@Override
+		public long hash64(Object key) {
+			return key == null ? NULL_HASH : Hashing.mix64(key.hashCode());
+		}
+	};
+
+	private static final long NULL_HASH = 0x6a09e667f3bcc908L;
+	private static final long TRUE_HASH = 0xbb67ae8584caa73bL;
+	private static final long FALSE_HASH = 0x3c6ef372fe94f82bL;
+
+	private static long standardHash64(Object key) {
+		if(key == null) {
+			return NULL_HASH;
+		}
+		if(key instanceof String) {
+			return Hashing.hash64((String) key);
+		}
+		if(key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+			return Hashing.mix64(((Number) key).longValue() ^ 0x9e3779b97f4a7c15L);
+		}
+		if(key instanceof Double || key instanceof Float) {
+			// 整数と同じ値を持つ浮動小数点数も区別できるようにビット列を用いる
+			double d = ((Number) key).doubleValue();
+			return Hashing.mix64(Double.doubleToLongBits(d) ^ 0x510e527fade682d1L);
+		}
+		if(key instanceof Character) {
+			return Hashing.mix64((Character) key ^ 0x9b05688c2b3e6c1fL);
+		}
+		if(key instanceof Boolean) {
+			return (Boolean) key ? TRUE_HASH : FALSE_HASH;
+		}
+		if(key instanceof Enum) {
+			Enum<?> e = (Enum<?>) key;
+			return Hashing.combine64(Hashing.hash64(e.getDeclaringClass().getName()), e.ordinal());
+		}
+		if(key instanceof byte[]) {
+			return Hashing.hash64((byte[]) key);
+		}
+		if(key instanceof Tuple2) {
+			Tuple2<?, ?> t = (Tuple2<?, ?>) key;
+			long h = 2;
+			h = Hashing.combine64(h, standardHash64(t.v1));
+			h = Hashing.combine64(h, standardHash64(t.v2));
+			return Hashing.mix64(h);
+		}
+		if(key instanceof Tuple3) {
+			Tuple3<?, ?, ?> t = (Tuple3<?, ?, ?>) key;
+			long h = 3;
+			h = Hashing.combine64(h, standardHash64(t.v1));
+			h = Hashing.combine64(h, standardHash64(t.v2));
+			h = Hashing.combine64(h, standardHash64(t.v3));
+			return Hashing.mix64(h);
+		}
+		if(key instanceof Tuple4) {
+			Tuple4<?, ?, ?, ?> t = (Tuple4<?, ?, ?, ?>) key;
+			long h = 4;
+			h = Hashing.combine64(h, standardHash64(t.v1));
+			h = Hashing.combine64(h, standardHash64(t.v2));
+			h = Hashing.combine64(h, standardHash64(t.v3));
+			h = Hashing.combine64(h, standardHash64(t.v4));
+			return Hashing.mix64(h);
+		}
+		if(key instanceof Tuple5) {
+			Tuple5<?, ?, ?, ?, ?> t = (Tuple5<?, ?, ?, ?, ?>) key;
+			long h = 5;
+			h = Hashing.combine64(h, standardHash64(t.v1));
+			h = Hashing.combine64(h, standardHash64(t.v2));
+			h = Hashing.combine64(h, standardHash64(t.v3));
+			h = Hashing.combine64(h, standardHash64(t.v4));
+			h = Hashing.combine64(h, standardHash64(t.v5));
+			return Hashing.mix64(h);
+		}
+		return Hashing.mix64(key.hashCode());
+	}
+}
@@ -0,0 +1,111 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * 要素を必要になったときに計算する2つの要素を持つコンテナオブジェクト
+ *
+ * 各要素は最初に取り出された際に一度だけ計算され，以後は同じ値を返す．
+ * 取り出されない要素は計算されないため，計算の重い要素の一部しか使わない場合に無駄な計算を省ける．
+ * {@link #forceAll(Executor)}は計算されていない要素を並行して計算し，{@link Tuple2}に変換する．
+ * 要素の計算が例外を投げた場合，その要素は計算されていない状態に留まる．
+ * 複数のスレッドから同時に用いることができる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T1> 1番目の要素の型
+ * @param <T2> 2番目の要素の型
+ */
+public final class LazyTuple2<T1, T2> {
+	private final Memo<T1> m1;
+	private final Memo<T2> m2;
+
+	private LazyTuple2(Supplier<? extends T1> s1, Supplier<? extends T2> s2) {
+		m1 = new Memo<>(s1);
+		m2 = new Memo<>(s2);
+	}
+
+	/**
+	 * 要素を計算する関数を指定してインスタンスを作る．関数はこの時点では呼ばれない．
+	 *
+	 * @param s1 1番目の要素を計算する関数
+	 * @param s2 2番目の要素を計算する関数
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @return 作られたインスタンス
+	 */
+	public static <T1, T2> LazyTuple2<T1, T2> of(
+			Supplier<? extends T1> s1, Supplier<? extends T2> s2) {
+		return new LazyTuple2<>(s1, s2);
+	}
+
+	/**
+	 * 1番目の要素を返す．計算されていなければ呼び出したスレッドで計算する．
+	 *
+	 * @return 1番目の要素
+	 */
+	public T1 v1() {
+		return m1.get();
+	}
+
+	/**
+	 * 2番目の要素を返す．計算されていなければ呼び出したスレッドで計算する．
+	 *
+	 * @return 2番目の要素
+	 */
+	public T2 v2() {
+		return m2.get();
+	}
+
+	/**
+	 * すべての要素が計算済みか調べる．
+	 *
+	 * @return すべての要素が計算済みの場合true
+	 */
+	public boolean isForced() {
+		return m1.isDone() && m2.isDone();
+	}
+
+	/**
+	 * 計算されていない要素を指定したExecutorで並行して計算し，{@link Tuple2}に変換する．
+	 * 最後の1つの要素は呼び出したスレッドで計算する．すべての計算が終わるまで待つ．
+	 *
+	 * @param executor 要素の計算に用いるExecutor
+	 * @return すべての要素を持つTuple
+	 * @exception RuntimeException 要素の計算が例外を投げた場合，その例外
+	 */
+	public Tuple2<T1, T2> forceAll(Executor executor) {
+		Memo.forceAll(executor, m1, m2);
+		return toTuple();
+	}
+
+	/**
+	 * 計算されていない要素を{@link ForkJoinPool#commonPool()}で並行して計算し，{@link Tuple2}に変換する．
+	 *
+	 * @see #forceAll(Executor)
+	 * @return すべての要素を持つTuple
+	 */
+	public Tuple2<T1, T2> forceAll() {
+		return forceAll(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * {@link Tuple2}に変換する．計算されていない要素は呼び出したスレッドで順に計算する．
+	 *
+	 * @return すべての要素を持つTuple
+	 */
+	public Tuple2<T1, T2> toTuple() {
+		return new Tuple2<>(m1.get(), m2.get());
+	}
+
+	@Override
+	public String toString() {
+		return "("+show(m1)+", "+show(m2)+")";
+	}
+
+	private static String show(Memo<?> memo) {
+		return memo.isDone() ? String.valueOf(memo.get()) : "?";
+	}
+}
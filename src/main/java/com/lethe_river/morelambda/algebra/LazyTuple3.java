@@ -0,0 +1,125 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * 要素を必要になったときに計算する3つの要素を持つコンテナオブジェクト
+ *
+ * 各要素は最初に取り出された際に一度だけ計算され，以後は同じ値を返す．
+ * 取り出されない要素は計算されないため，計算の重い要素の一部しか使わない場合に無駄な計算を省ける．
+ * {@link #forceAll(Executor)}は計算されていない要素を並行して計算し，{@link Tuple3}に変換する．
+ * 要素の計算が例外を投げた場合，その要素は計算されていない状態に留まる．
+ * 複数のスレッドから同時に用いることができる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T1> 1番目の要素の型
+ * @param <T2> 2番目の要素の型
+ * @param <T3> 3番目の要素の型
+ */
+public final class LazyTuple3<T1, T2, T3> {
+	private final Memo<T1> m1;
+	private final Memo<T2> m2;
+	private final Memo<T3> m3;
+
+	private LazyTuple3(Supplier<? extends T1> s1, Supplier<? extends T2> s2, Supplier<? extends T3> s3) {
+		m1 = new Memo<>(s1);
+		m2 = new Memo<>(s2);
+		m3 = new Memo<>(s3);
+	}
+
+	/**
+	 * 要素を計算する関数を指定してインスタンスを作る．関数はこの時点では呼ばれない．
+	 *
+	 * @param s1 1番目の要素を計算する関数
+	 * @param s2 2番目の要素を計算する関数
+	 * @param s3 3番目の要素を計算する関数
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @return 作られたインスタンス
+	 */
+	public static <T1, T2, T3> LazyTuple3<T1, T2, T3> of(
+			Supplier<? extends T1> s1, Supplier<? extends T2> s2, Supplier<? extends T3> s3) {
+		return new LazyTuple3<>(s1, s2, s3);
+	}
+
+	/**
+	 * 1番目の要素を返す．計算されていなければ呼び出したスレッドで計算する．
+	 *
+	 * @return 1番目の要素
+	 */
+	public T1 v1() {
+		return m1.get();
+	}
+
+	/**
+	 * 2番目の要素を返す．計算されていなければ呼び出したスレッドで計算する．
+	 *
+	 * @return 2番目の要素
+	 */
+	public T2 v2() {
+		return m2.get();
+	}
+
+	/**
+	 * 3番目の要素を返す．計算されていなければ呼び出したスレッドで計算する．
+	 *
+	 * @return 3番目の要素
+	 */
+	public T3 v3() {
+		return m3.get();
+	}
+
+	/**
+	 * すべての要素が計算済みか調べる．
+	 *
+	 * @return すべての要素が計算済みの場合true
+	 */
+	public boolean isForced() {
+		return m1.isDone() && m2.isDone() && m3.isDone();
+	}
+
+	/**
+	 * 計算されていない要素を指定したExecutorで並行して計算し，{@link Tuple3}に変換する．
+	 * 最後の1つの要素は呼び出したスレッドで計算する．すべての計算が終わるまで待つ．
+	 *
+	 * @param executor 要素の計算に用いるExecutor
+	 * @return すべての要素を持つTuple
+	 * @exception RuntimeException 要素の計算が例外を投げた場合，その例外
+	 */
+	public Tuple3<T1, T2, T3> forceAll(Executor executor) {
+		Memo.forceAll(executor, m1, m2, m3);
+		return toTuple();
+	}
+
+	/**
+	 * 計算されていない要素を{@link ForkJoinPool#commonPool()}で並行して計算し，{@link Tuple3}に変換する．
+	 *
+	 * @see #forceAll(Executor)
+	 * @return すべての要素を持つTuple
+	 */
+	public Tuple3<T1, T2, T3> forceAll() {
+		return forceAll(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * {@link Tuple3}に変換する．計算されていない要素は呼び出したスレッドで順に計算する．
+	 *
+	 * @return すべての要素を持つTuple
+	 */
+	public Tuple3<T1, T2, T3> toTuple() {
+		return new Tuple3<>(m1.get(), m2.get(), m3.get());
+	}
+
+	@Override
+	public String toString() {
+		return "("+show(m1)+", "+show(m2)+", "+show(m3)+")";
+	}
+
+	private static String show(Memo<?> memo) {
+		return memo.isDone() ? String.valueOf(memo.get()) : "?";
+	}
+}
@@ -0,0 +1,112 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.io.Serializable;
+
+/**
+ * long値の集約結果(件数，合計，最小，最大)を持つ不変オブジェクト
+ *
+ * 件数が0の場合，最小は{@link Long#MAX_VALUE}，最大は{@link Long#MIN_VALUE}となる．
+ *
+ * @author YuyaAizawa
+ *
+ */
+public final class LongAggregate implements Serializable {
+	private static final long serialVersionUID = 4312078251520316735L;
+
+	private final long count;
+	private final long sum;
+	private final long min;
+	private final long max;
+
+	/**
+	 * 指定した値を持つ集約結果を作る．
+	 *
+	 * @param count 件数
+	 * @param sum 合計
+	 * @param min 最小
+	 * @param max 最大
+	 */
+	public LongAggregate(long count, long sum, long min, long max) {
+		this.count = count;
+		this.sum = sum;
+		this.min = min;
+		this.max = max;
+	}
+
+	/**
+	 * 件数を返す．
+	 *
+	 * @return 件数
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * 合計を返す．
+	 *
+	 * @return 合計
+	 */
+	public long getSum() {
+		return sum;
+	}
+
+	/**
+	 * 最小値を返す．
+	 *
+	 * @return 最小値
+	 */
+	public long getMin() {
+		return min;
+	}
+
+	/**
+	 * 最大値を返す．
+	 *
+	 * @return 最大値
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * 平均値を返す．件数が0の場合は0を返す．
+	 *
+	 * @return 平均値
+	 */
+	public double getAverage() {
+		return count > 0 ? (double) sum / count : 0.0;
+	}
+
+	@Override
+	public String toString() {
+		return "{count="+count+", sum="+sum+", min="+min+", average="+getAverage()+", max="+max+"}";
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+
+		LongAggregate subject = (LongAggregate) obj;
+		return count == subject.count
+				&& sum == subject.sum
+				&& min == subject.min
+				&& max == subject.max;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Long.hashCode(count);
+		result = prime * result + Long.hashCode(sum);
+		result = prime * result + Long.hashCode(min);
+		result = prime * result + Long.hashCode(max);
+		return result;
+	}
+}
@@ -0,0 +1,303 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * キーごとのlong値の集約結果を保持する開番地法のハッシュ表
+ *
+ * 集約結果はキーごとのオブジェクトを作らず，件数，合計，最小，最大をそれぞれlongの配列で保持する．
+ * 行は最初にキーが現れた順に並ぶ．ただし行を削除すると最後の行が削除した位置に移動する．
+ * 集約結果のほかにキーごとのオブジェクトを付随させる場合は{@link #attachments}を用いる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ */
+final class LongGroupTable<K> {
+	private static final int NONE = -1;
+
+	Object[] keys;
+	int[] hashes;
+	long[] counts;
+	long[] sums;
+	long[] mins;
+	long[] maxes;
+	Object[] attachments;
+	int size;
+
+	private int[] slots;
+	private int mask;
+
+	LongGroupTable() {
+		this(16);
+	}
+
+	LongGroupTable(int initialCapacity) {
+		this(initialCapacity, false);
+	}
+
+	LongGroupTable(int initialCapacity, boolean withAttachments) {
+		int capacity = Math.max(initialCapacity, 4);
+		keys = new Object[capacity];
+		hashes = new int[capacity];
+		counts = new long[capacity];
+		sums = new long[capacity];
+		mins = new long[capacity];
+		maxes = new long[capacity];
+		attachments = withAttachments ? new Object[capacity] : null;
+		slots = new int[Hashing.tableSizeFor(capacity)];
+		mask = slots.length - 1;
+	}
+
+	/**
+	 * 指定したキーの集約結果に値を加える．
+	 *
+	 * @param key キー
+	 * @param value 値
+	 */
+	void add(K key, long value) {
+		add(rowOf(key), value);
+	}
+
+	/**
+	 * 指定した行の集約結果に値を加える．
+	 *
+	 * @param row 行の位置
+	 * @param value 値
+	 */
+	void add(int row, long value) {
+		counts[row]++;
+		sums[row] += value;
+		if(value < mins[row]) {
+			mins[row] = value;
+		}
+		if(value > maxes[row]) {
+			maxes[row] = value;
+		}
+	}
+
+	/**
+	 * 他の表の集約結果をすべてこの表に加える．
+	 *
+	 * @param other 加える表
+	 */
+	void addAll(LongGroupTable<? extends K> other) {
+		for(int r = 0; r < other.size; r++) {
+			@SuppressWarnings("unchecked")
+			K key = (K) other.keys[r];
+			int row = rowOf(key, other.hashes[r]);
+			counts[row] += other.counts[r];
+			sums[row] += other.sums[r];
+			mins[row] = Math.min(mins[row], other.mins[r]);
+			maxes[row] = Math.max(maxes[row], other.maxes[r]);
+		}
+	}
+
+	/**
+	 * 指定したキーの行の位置を返す．
+	 *
+	 * @param key キー
+	 * @return 行の位置，存在しない場合は負の値
+	 */
+	int find(Object key) {
+		int hash = hash(key);
+		int slot = hash & mask;
+		while(true) {
+			int row = slots[slot] - 1;
+			if(row == NONE) {
+				return NONE;
+			}
+			if(hashes[row] == hash && Objects.equals(keys[row], key)) {
+				return row;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * 指定した行の集約結果を返す．
+	 *
+	 * @param row 行の位置
+	 * @return 集約結果
+	 */
+	LongAggregate aggregate(int row) {
+		return new LongAggregate(counts[row], sums[row], mins[row], maxes[row]);
+	}
+
+	/**
+	 * 格納している行の数を返す．
+	 *
+	 * @return 行の数
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * 格納している行のおおよそのメモリ使用量を返す．
+	 *
+	 * @return バイト数
+	 */
+	long estimatedBytes() {
+		return (long) keys.length * (4 + 4 + 8 * 4) + (long) slots.length * 4;
+	}
+
+	/**
+	 * 新しいキーを追加したときのおおよそのメモリ使用量を返す．
+	 *
+	 * @return バイト数
+	 */
+	long estimatedBytesOnInsert() {
+		if(size < keys.length) {
+			return estimatedBytes();
+		}
+		int capacity = size + (size >> 1);
+		return (long) capacity * (4 + 4 + 8 * 4) + (long) Hashing.tableSizeFor(capacity) * 4;
+	}
+
+	/**
+	 * 指定した行を削除する．最後の行が削除した位置に移動する．
+	 *
+	 * @param row 行の位置
+	 */
+	void remove(int row) {
+		int hole = slotOf(row);
+		// 線形探索の列が途切れないよう，後続の要素を空いた位置に詰める
+		int slot = (hole + 1) & mask;
+		while(slots[slot] != 0) {
+			int ideal = hashes[slots[slot] - 1] & mask;
+			if(((slot - ideal) & mask) >= ((slot - hole) & mask)) {
+				slots[hole] = slots[slot];
+				hole = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		slots[hole] = 0;
+
+		int last = size - 1;
+		if(row != last) {
+			slots[slotOf(last)] = row + 1;
+			keys[row] = keys[last];
+			hashes[row] = hashes[last];
+			counts[row] = counts[last];
+			sums[row] = sums[last];
+			mins[row] = mins[last];
+			maxes[row] = maxes[last];
+			if(attachments != null) {
+				attachments[row] = attachments[last];
+			}
+		}
+		keys[last] = null;
+		if(attachments != null) {
+			attachments[last] = null;
+		}
+		size = last;
+	}
+
+	/**
+	 * 付随するオブジェクトを除いた，この表の複製を返す．
+	 *
+	 * @return 複製
+	 */
+	LongGroupTable<K> copy() {
+		LongGroupTable<K> copy = new LongGroupTable<>(size);
+		for(int row = 0; row < size; row++) {
+			@SuppressWarnings("unchecked")
+			K key = (K) keys[row];
+			int r = copy.rowOf(key, hashes[row]);
+			copy.counts[r] = counts[row];
+			copy.sums[r] = sums[row];
+			copy.mins[r] = mins[row];
+			copy.maxes[r] = maxes[row];
+		}
+		return copy;
+	}
+
+	private int slotOf(int row) {
+		int slot = hashes[row] & mask;
+		while(slots[slot] != row + 1) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * 指定したキーの行の位置を返す．存在しない場合は空の集約結果を持つ行を追加する．
+	 *
+	 * @param key キー
+	 * @return 行の位置
+	 */
+	int rowOf(K key) {
+		return rowOf(key, hash(key));
+	}
+
+	private int rowOf(K key, int hash) {
+		int slot = hash & mask;
+		while(true) {
+			int row = slots[slot] - 1;
+			if(row == NONE) {
+				return insert(key, hash, slot);
+			}
+			if(hashes[row] == hash && Objects.equals(keys[row], key)) {
+				return row;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private int insert(K key, int hash, int slot) {
+		if(size == keys.length) {
+			grow();
+			slot = hash & mask;
+			while(slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+		}
+		int row = size++;
+		keys[row] = key;
+		hashes[row] = hash;
+		counts[row] = 0;
+		sums[row] = 0;
+		mins[row] = Long.MAX_VALUE;
+		maxes[row] = Long.MIN_VALUE;
+		if(attachments != null) {
+			attachments[row] = null;
+		}
+		slots[slot] = row + 1;
+		return row;
+	}
+
+	private void grow() {
+		if(size >= (1 << 29)) {
+			throw new IllegalStateException("too many groups");
+		}
+		int capacity = size + (size >> 1);
+		keys = Arrays.copyOf(keys, capacity);
+		hashes = Arrays.copyOf(hashes, capacity);
+		counts = Arrays.copyOf(counts, capacity);
+		sums = Arrays.copyOf(sums, capacity);
+		mins = Arrays.copyOf(mins, capacity);
+		maxes = Arrays.copyOf(maxes, capacity);
+		if(attachments != null) {
+			attachments = Arrays.copyOf(attachments, capacity);
+		}
+
+		int tableSize = Hashing.tableSizeFor(capacity);
+		if(tableSize != slots.length) {
+			slots = new int[tableSize];
+			mask = tableSize - 1;
+			for(int row = 0; row < size; row++) {
+				int slot = hashes[row] & mask;
+				while(slots[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				slots[slot] = row + 1;
+			}
+		}
+	}
+
+	static int hash(Object key) {
+		return Hashing.mix(Objects.hashCode(key));
+	}
+}
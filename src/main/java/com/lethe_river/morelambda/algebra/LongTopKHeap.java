@@ -0,0 +1,134 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 要素から取り出したlongのキーが大きい順に上位k個の要素を保持する，大きさに上限のあるヒープ
+ *
+ * キーは要素と並べてlongの配列で保持し，ボクシングせずに比較する．
+ * 要素を加えた順番も並べて保持し，キーが等しい要素は後に加えたものを小さいとみなすので，
+ * キーが等しい要素は先に加えたものが残る．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 要素の型
+ */
+final class LongTopKHeap<T> {
+	private final int k;
+	private long[] keys;
+	private long[] sequences;
+	private Object[] values;
+	private int size;
+	private long nextSequence;
+
+	LongTopKHeap(int k) {
+		this.k = k;
+		int capacity = Math.min(k, 16);
+		this.keys = new long[capacity];
+		this.sequences = new long[capacity];
+		this.values = new Object[capacity];
+	}
+
+	void add(long key, T value) {
+		add(key, nextSequence++, value);
+	}
+
+	private void add(long key, long sequence, Object value) {
+		if(size < k) {
+			if(size == keys.length) {
+				int capacity = (int) Math.min(k, size * 2L);
+				keys = Arrays.copyOf(keys, capacity);
+				sequences = Arrays.copyOf(sequences, capacity);
+				values = Arrays.copyOf(values, capacity);
+			}
+			siftUp(size++, key, sequence, value);
+		} else if(k > 0 && less(keys[0], sequences[0], key, sequence)) {
+			siftDown(0, size, key, sequence, value);
+		}
+	}
+
+	/**
+	 * 他のヒープの要素を加える．他のヒープの要素はすべてこのヒープの要素より後に加えたものとみなす．
+	 */
+	LongTopKHeap<T> addAll(LongTopKHeap<? extends T> other) {
+		for(int i = 0; i < other.size; i++) {
+			add(other.keys[i], nextSequence + other.sequences[i], other.values[i]);
+		}
+		nextSequence += other.nextSequence;
+		return this;
+	}
+
+	/**
+	 * 保持している要素をキーが大きい順に並べたListを返す．このヒープは使えなくなる．
+	 *
+	 * @return 要素のList
+	 */
+	List<T> toList() {
+		for(int end = size - 1; end > 0; end--) {
+			long rootKey = keys[0];
+			long rootSequence = sequences[0];
+			Object rootValue = values[0];
+			siftDown(0, end, keys[end], sequences[end], values[end]);
+			keys[end] = rootKey;
+			sequences[end] = rootSequence;
+			values[end] = rootValue;
+		}
+		List<T> list = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			list.add(get(i));
+		}
+		return list;
+	}
+
+	private void siftUp(int i, long key, long sequence, Object value) {
+		while(i > 0) {
+			int parent = (i - 1) >>> 1;
+			if(!less(key, sequence, keys[parent], sequences[parent])) {
+				break;
+			}
+			keys[i] = keys[parent];
+			sequences[i] = sequences[parent];
+			values[i] = values[parent];
+			i = parent;
+		}
+		keys[i] = key;
+		sequences[i] = sequence;
+		values[i] = value;
+	}
+
+	private void siftDown(int i, int end, long key, long sequence, Object value) {
+		while(true) {
+			int child = 2 * i + 1;
+			if(child >= end) {
+				break;
+			}
+			if(child + 1 < end && less(keys[child + 1], sequences[child + 1], keys[child], sequences[child])) {
+				child++;
+			}
+			if(!less(keys[child], sequences[child], key, sequence)) {
+				break;
+			}
+			keys[i] = keys[child];
+			sequences[i] = sequences[child];
+			values[i] = values[child];
+			i = child;
+		}
+		keys[i] = key;
+		sequences[i] = sequence;
+		values[i] = value;
+	}
+
+	/**
+	 * キーが小さいか，キーが等しく後に加えたものであればtrue
+	 */
+	private static boolean less(long key, long sequence, long otherKey, long otherSequence) {
+		return key < otherKey || key == otherKey && sequence > otherSequence;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T get(int i) {
+		return (T) values[i];
+	}
+}
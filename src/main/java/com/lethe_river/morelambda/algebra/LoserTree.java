@@ -0,0 +1,114 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 整列済みの複数のIteratorを1つに併合する敗者木
+ *
+ * 各Iteratorの先頭要素のみを保持するため，状態の大きさは併合するIteratorの数に比例する．
+ * 比較結果が等しい要素は，リストで前にあるIteratorの要素が先に返される．
+ * 各Iteratorの先頭要素は最初に要素を要求されたときに読み込まれる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 要素の型
+ */
+final class LoserTree<T> implements Iterator<T> {
+	private final List<? extends Iterator<? extends T>> sources;
+	private final Comparator<? super T> comparator;
+	private final int k;
+
+	private final Object[] heads;
+	private final boolean[] exhausted;
+	private final int[] tree;
+	private boolean initialized;
+
+	/**
+	 * @param sources 併合するIterator
+	 * @param comparator 各Iteratorの整列に用いられている比較関数
+	 */
+	LoserTree(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator) {
+		this.sources = sources;
+		this.comparator = comparator;
+		this.k = sources.size();
+		this.heads = new Object[k];
+		this.exhausted = new boolean[k];
+		this.tree = new int[Math.max(k, 1)];
+	}
+
+	@Override
+	public boolean hasNext() {
+		initialize();
+		return k > 0 && !exhausted[tree[0]];
+	}
+
+	@Override
+	public T next() {
+		if(!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		int winner = tree[0];
+		@SuppressWarnings("unchecked")
+		T result = (T) heads[winner];
+		advance(winner);
+		adjust(winner);
+		return result;
+	}
+
+	private void initialize() {
+		if(initialized) {
+			return;
+		}
+		initialized = true;
+		for(int i = 0; i < k; i++) {
+			tree[i] = -1;
+			advance(i);
+		}
+		for(int i = k - 1; i >= 0; i--) {
+			adjust(i);
+		}
+	}
+
+	private void advance(int source) {
+		Iterator<? extends T> iterator = sources.get(source);
+		if(iterator.hasNext()) {
+			heads[source] = iterator.next();
+		} else {
+			heads[source] = null;
+			exhausted[source] = true;
+		}
+	}
+
+	/**
+	 * 指定した葉から根までの試合をやり直す．
+	 */
+	private void adjust(int source) {
+		int winner = source;
+		for(int node = (source + k) / 2; node > 0; node /= 2) {
+			if(beats(tree[node], winner)) {
+				int loser = winner;
+				winner = tree[node];
+				tree[node] = loser;
+			}
+		}
+		tree[0] = winner;
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean beats(int a, int b) {
+		if(a == -1) {
+			return true;
+		}
+		if(b == -1) {
+			return false;
+		}
+		if(exhausted[a] || exhausted[b]) {
+			return !exhausted[a] || (exhausted[b] && a < b);
+		}
+		int c = comparator.compare((T) heads[a], (T) heads[b]);
+		return c < 0 || (c == 0 && a < b);
+	}
+}
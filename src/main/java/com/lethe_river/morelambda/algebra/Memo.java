@@ -0,0 +1,99 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 最初に取り出された際に一度だけ値を計算して保持するSupplier
+ *
+ * 計算が例外を投げた場合は値を保持せず，次に取り出された際に再び計算する．
+ * 複数のスレッドから同時に取り出された場合も計算は一度だけ行われる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 値の型
+ */
+final class Memo<T> implements Supplier<T> {
+	private Supplier<? extends T> supplier;
+	private T value;
+	private volatile boolean done;
+
+	Memo(Supplier<? extends T> supplier) {
+		this.supplier = Objects.requireNonNull(supplier);
+	}
+
+	@Override
+	public T get() {
+		if(!done) {
+			synchronized(this) {
+				if(!done) {
+					value = supplier.get();
+					supplier = null;
+					done = true;
+				}
+			}
+		}
+		return value;
+	}
+
+	boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * 計算されていない値を指定したExecutorで並行して計算し，すべて終わるまで待つ．
+	 * 最後の値は呼び出したスレッドで計算する．
+	 *
+	 * @exception RuntimeException 計算が投げた例外
+	 */
+	static void forceAll(Executor executor, Memo<?>... memos) {
+		Objects.requireNonNull(executor);
+		List<Memo<?>> pending = new ArrayList<>(memos.length);
+		for(Memo<?> memo : memos) {
+			if(!memo.isDone()) {
+				pending.add(memo);
+			}
+		}
+		if(pending.isEmpty()) {
+			return;
+		}
+		List<CompletableFuture<?>> futures = new ArrayList<>(pending.size() - 1);
+		for(Memo<?> memo : pending.subList(0, pending.size() - 1)) {
+			futures.add(CompletableFuture.runAsync(memo::get, executor));
+		}
+		RuntimeException failure = null;
+		try {
+			pending.get(pending.size() - 1).get();
+		} catch(RuntimeException e) {
+			failure = e;
+		}
+		for(CompletableFuture<?> future : futures) {
+			try {
+				future.join();
+			} catch(CompletionException e) {
+				if(failure == null) {
+					failure = unwrap(e);
+				}
+			}
+		}
+		if(failure != null) {
+			throw failure;
+		}
+	}
+
+	private static RuntimeException unwrap(CompletionException e) {
+		Throwable cause = e.getCause();
+		if(cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		if(cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return e;
+	}
+}
@@ -0,0 +1,130 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * キーで整列済みの2つのIteratorをマージ結合するIterator
+ *
+ * 右側で同じキーを持つ連続した要素の値のみを保持し，左側の要素ごとにそれらと組み合わせる．
+ * 入力が整列されていないことを検出した場合は{@link IllegalStateException}を発生させる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ * @param <A> 左側の値の型
+ * @param <B> 右側の値の型
+ */
+class MergeJoinIterator<K, A, B> implements Iterator<Tuple3<K, A, B>> {
+	private final Iterator<Tuple2<K, A>> left;
+	private final Iterator<Tuple2<K, B>> right;
+	private final Comparator<? super K> comparator;
+	private final boolean outer;
+
+	private Tuple2<K, A> current;
+	private int index;
+	private Tuple3<K, A, B> next;
+
+	private Tuple2<K, B> rightHead;
+	private boolean rightStarted;
+
+	private final List<B> group = new ArrayList<>();
+	private K groupKey;
+	private boolean hasGroup;
+
+	private K previousLeftKey;
+	private boolean hasPreviousLeft;
+
+	/**
+	 * @param left 左側の要素
+	 * @param right 右側の要素
+	 * @param comparator 両側のキーの整列に用いられている比較関数
+	 * @param outer 一致する要素がない左側の要素も，右側の値をnullとして結果に含める場合はtrue
+	 */
+	MergeJoinIterator(
+			Iterator<Tuple2<K, A>> left,
+			Iterator<Tuple2<K, B>> right,
+			Comparator<? super K> comparator,
+			boolean outer) {
+		this.left = left;
+		this.right = right;
+		this.comparator = comparator;
+		this.outer = outer;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while(next == null) {
+			if(current != null) {
+				if(index < group.size()) {
+					next = Tuple.of(current.v1, current.v2, group.get(index++));
+					break;
+				}
+				if(outer && group.isEmpty()) {
+					next = Tuple.of(current.v1, current.v2, null);
+				}
+				current = null;
+				continue;
+			}
+			if(!left.hasNext()) {
+				return false;
+			}
+			current = left.next();
+			index = 0;
+			if(hasPreviousLeft && comparator.compare(previousLeftKey, current.v1) > 0) {
+				throw new IllegalStateException("left stream is not sorted");
+			}
+			previousLeftKey = current.v1;
+			hasPreviousLeft = true;
+			if(!hasGroup || comparator.compare(groupKey, current.v1) != 0) {
+				loadGroup(current.v1);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Tuple3<K, A, B> next() {
+		if(!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Tuple3<K, A, B> result = next;
+		next = null;
+		return result;
+	}
+
+	private void loadGroup(K key) {
+		group.clear();
+		groupKey = key;
+		hasGroup = true;
+		if(!rightStarted) {
+			rightStarted = true;
+			advanceRight();
+		}
+		while(rightHead != null) {
+			int c = comparator.compare(rightHead.v1, key);
+			if(c > 0) {
+				break;
+			}
+			if(c == 0) {
+				group.add(rightHead.v2);
+			}
+			advanceRight();
+		}
+	}
+
+	private void advanceRight() {
+		if(!right.hasNext()) {
+			rightHead = null;
+			return;
+		}
+		Tuple2<K, B> t = right.next();
+		if(rightHead != null && comparator.compare(rightHead.v1, t.v1) > 0) {
+			throw new IllegalStateException("right stream is not sorted");
+		}
+		rightHead = t;
+	}
+}
@@ -0,0 +1,54 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.function.Consumer;
+
+/**
+ * 要素を書き換えられる2つの要素を持つコンテナオブジェクト
+ *
+ * {@link Tuple#forEachZipped(Iterable, Iterable, Consumer)}などで，要素の組ごとに
+ * 新しい{@link Tuple2}を作らずに同じインスタンスを書き換えて処理に渡すために用いる．
+ * 渡されたインスタンスは処理の中でのみ有効であり，処理の外に持ち出してはならない．
+ * 持ち出す必要がある場合は{@link #toTuple()}で複製する．
+ * {@link #equals(Object)}と{@link #hashCode()}はインスタンスの同一性に基づく．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T1> 1番目の要素の型
+ * @param <T2> 2番目の要素の型
+ */
+public final class MutableTuple2<T1, T2> {
+	public T1 v1;
+	public T2 v2;
+
+	/**
+	 * すべての要素がnullのインスタンスを作る．
+	 */
+	public MutableTuple2() {}
+
+	/**
+	 * 要素を書き換える．
+	 *
+	 * @param v1 1番目の要素
+	 * @param v2 2番目の要素
+	 * @return このインスタンス
+	 */
+	public MutableTuple2<T1, T2> set(T1 v1, T2 v2) {
+		this.v1 = v1;
+		this.v2 = v2;
+		return this;
+	}
+
+	/**
+	 * 現在の要素を持つ{@link Tuple2}を返す．
+	 *
+	 * @return 現在の要素を持つTuple
+	 */
+	public Tuple2<T1, T2> toTuple() {
+		return new Tuple2<>(v1, v2);
+	}
+
+	@Override
+	public String toString() {
+		return "("+v1+", "+v2+")";
+	}
+}
@@ -0,0 +1,62 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.function.Consumer;
+
+/**
+ * 要素を書き換えられる4つの要素を持つコンテナオブジェクト
+ *
+ * {@link Tuple#forEachZipped(Iterable, Iterable, Iterable, Iterable, Consumer)}などで，要素の組ごとに
+ * 新しい{@link Tuple4}を作らずに同じインスタンスを書き換えて処理に渡すために用いる．
+ * 渡されたインスタンスは処理の中でのみ有効であり，処理の外に持ち出してはならない．
+ * 持ち出す必要がある場合は{@link #toTuple()}で複製する．
+ * {@link #equals(Object)}と{@link #hashCode()}はインスタンスの同一性に基づく．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T1> 1番目の要素の型
+ * @param <T2> 2番目の要素の型
+ * @param <T3> 3番目の要素の型
+ * @param <T4> 4番目の要素の型
+ */
+public final class MutableTuple4<T1, T2, T3, T4> {
+	public T1 v1;
+	public T2 v2;
+	public T3 v3;
+	public T4 v4;
+
+	/**
+	 * すべての要素がnullのインスタンスを作る．
+	 */
+	public MutableTuple4() {}
+
+	/**
+	 * 要素を書き換える．
+	 *
+	 * @param v1 1番目の要素
+	 * @param v2 2番目の要素
+	 * @param v3 3番目の要素
+	 * @param v4 4番目の要素
+	 * @return このインスタンス
+	 */
+	public MutableTuple4<T1, T2, T3, T4> set(T1 v1, T2 v2, T3 v3, T4 v4) {
+		this.v1 = v1;
+		this.v2 = v2;
+		this.v3 = v3;
+		this.v4 = v4;
+		return this;
+	}
+
+	/**
+	 * 現在の要素を持つ{@link Tuple4}を返す．
+	 *
+	 * @return 現在の要素を持つTuple
+	 */
+	public Tuple4<T1, T2, T3, T4> toTuple() {
+		return new Tuple4<>(v1, v2, v3, v4);
+	}
+
+	@Override
+	public String toString() {
+		return "("+v1+", "+v2+", "+v3+", "+v4+")";
+	}
+}
@@ -0,0 +1,66 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.function.Consumer;
+
+/**
+ * 要素を書き換えられる5つの要素を持つコンテナオブジェクト
+ *
+ * {@link Tuple#forEachZipped(Iterable, Iterable, Iterable, Iterable, Iterable, Consumer)}などで，要素の組ごとに
+ * 新しい{@link Tuple5}を作らずに同じインスタンスを書き換えて処理に渡すために用いる．
+ * 渡されたインスタンスは処理の中でのみ有効であり，処理の外に持ち出してはならない．
+ * 持ち出す必要がある場合は{@link #toTuple()}で複製する．
+ * {@link #equals(Object)}と{@link #hashCode()}はインスタンスの同一性に基づく．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T1> 1番目の要素の型
+ * @param <T2> 2番目の要素の型
+ * @param <T3> 3番目の要素の型
+ * @param <T4> 4番目の要素の型
+ * @param <T5> 5番目の要素の型
+ */
+public final class MutableTuple5<T1, T2, T3, T4, T5> {
+	public T1 v1;
+	public T2 v2;
+	public T3 v3;
+	public T4 v4;
+	public T5 v5;
+
+	/**
+	 * すべての要素がnullのインスタンスを作る．
+	 */
+	public MutableTuple5() {}
+
+	/**
+	 * 要素を書き換える．
+	 *
+	 * @param v1 1番目の要素
+	 * @param v2 2番目の要素
+	 * @param v3 3番目の要素
+	 * @param v4 4番目の要素
+	 * @param v5 5番目の要素
+	 * @return このインスタンス
+	 */
+	public MutableTuple5<T1, T2, T3, T4, T5> set(T1 v1, T2 v2, T3 v3, T4 v4, T5 v5) {
+		this.v1 = v1;
+		this.v2 = v2;
+		this.v3 = v3;
+		this.v4 = v4;
+		this.v5 = v5;
+		return this;
+	}
+
+	/**
+	 * 現在の要素を持つ{@link Tuple5}を返す．
+	 *
+	 * @return 現在の要素を持つTuple
+	 */
+	public Tuple5<T1, T2, T3, T4, T5> toTuple() {
+		return new Tuple5<>(v1, v2, v3, v4, v5);
+	}
+
+	@Override
+	public String toString() {
+		return "("+v1+", "+v2+", "+v3+", "+v4+", "+v5+")";
+	}
+}
@@ -0,0 +1,208 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streamの累積(prefix scan)の実装
+ *
+ * 入力が並列かつ{@link Spliterator#SIZED}，{@link Spliterator#SUBSIZED}であれば，
+ * 配列に読み込んでから{@link Arrays#parallelPrefix(Object[], BinaryOperator)}で
+ * 区間ごとの累積と区間の先頭への反映の2段階で並列に累積する．
+ * それ以外の場合は要素が要求されるたびに1つずつ累積する．
+ *
+ * @author YuyaAizawa
+ */
+final class PrefixScan {
+	private static final int SIZED = Spliterator.SIZED | Spliterator.SUBSIZED;
+
+	private PrefixScan() {}
+
+	static <T> Stream<T> scan(Stream<T> stream, T identity, BinaryOperator<T> op) {
+		Spliterator<T> spliterator = stream.spliterator();
+		if(isParallelSized(stream.isParallel(), spliterator)) {
+			T[] prefix = prefix(spliterator, identity, op);
+			return Arrays.stream(prefix).parallel().onClose(stream::close);
+		}
+		return StreamSupport.stream(new ScanSpliterator<T, T>(spliterator, identity, op, (e, p) -> p), false)
+				.onClose(stream::close);
+	}
+
+	static <T> Stream<Tuple2<T, T>> scanWithElements(Stream<T> stream, T identity, BinaryOperator<T> op) {
+		Spliterator<T> spliterator = stream.spliterator();
+		if(isParallelSized(stream.isParallel(), spliterator)) {
+			T[] elements = toArray(spliterator);
+			T[] prefix = elements.clone();
+			prefix(prefix, identity, op);
+			return IntStream.range(0, elements.length).parallel()
+					.mapToObj(i -> Tuple.of(elements[i], prefix[i]))
+					.onClose(stream::close);
+		}
+		return StreamSupport.stream(new ScanSpliterator<T, Tuple2<T, T>>(spliterator, identity, op, Tuple::of), false)
+				.onClose(stream::close);
+	}
+
+	static LongStream scan(LongStream stream, long identity, LongBinaryOperator op) {
+		Spliterator.OfLong spliterator = stream.spliterator();
+		if(isParallelSized(stream.isParallel(), spliterator)) {
+			long[] prefix = StreamSupport.longStream(spliterator, true).toArray();
+			if(prefix.length > 0) {
+				prefix[0] = op.applyAsLong(identity, prefix[0]);
+				Arrays.parallelPrefix(prefix, op);
+			}
+			return Arrays.stream(prefix).parallel().onClose(stream::close);
+		}
+		return StreamSupport.longStream(new Spliterators.AbstractLongSpliterator(
+				spliterator.estimateSize(), characteristics(spliterator)) {
+			long accumulated = identity;
+
+			@Override
+			public boolean tryAdvance(LongConsumer action) {
+				return spliterator.tryAdvance((long value) -> {
+					accumulated = op.applyAsLong(accumulated, value);
+					action.accept(accumulated);
+				});
+			}
+		}, false).onClose(stream::close);
+	}
+
+	static IntStream scan(IntStream stream, int identity, IntBinaryOperator op) {
+		Spliterator.OfInt spliterator = stream.spliterator();
+		if(isParallelSized(stream.isParallel(), spliterator)) {
+			int[] prefix = StreamSupport.intStream(spliterator, true).toArray();
+			if(prefix.length > 0) {
+				prefix[0] = op.applyAsInt(identity, prefix[0]);
+				Arrays.parallelPrefix(prefix, op);
+			}
+			return Arrays.stream(prefix).parallel().onClose(stream::close);
+		}
+		return StreamSupport.intStream(new Spliterators.AbstractIntSpliterator(
+				spliterator.estimateSize(), characteristics(spliterator)) {
+			int accumulated = identity;
+
+			@Override
+			public boolean tryAdvance(IntConsumer action) {
+				return spliterator.tryAdvance((int value) -> {
+					accumulated = op.applyAsInt(accumulated, value);
+					action.accept(accumulated);
+				});
+			}
+		}, false).onClose(stream::close);
+	}
+
+	static DoubleStream scan(DoubleStream stream, double identity, DoubleBinaryOperator op) {
+		Spliterator.OfDouble spliterator = stream.spliterator();
+		if(isParallelSized(stream.isParallel(), spliterator)) {
+			double[] prefix = StreamSupport.doubleStream(spliterator, true).toArray();
+			if(prefix.length > 0) {
+				prefix[0] = op.applyAsDouble(identity, prefix[0]);
+				Arrays.parallelPrefix(prefix, op);
+			}
+			return Arrays.stream(prefix).parallel().onClose(stream::close);
+		}
+		return StreamSupport.doubleStream(new Spliterators.AbstractDoubleSpliterator(
+				spliterator.estimateSize(), characteristics(spliterator)) {
+			double accumulated = identity;
+
+			@Override
+			public boolean tryAdvance(DoubleConsumer action) {
+				return spliterator.tryAdvance((double value) -> {
+					accumulated = op.applyAsDouble(accumulated, value);
+					action.accept(accumulated);
+				});
+			}
+		}, false).onClose(stream::close);
+	}
+
+	private static boolean isParallelSized(boolean parallel, Spliterator<?> spliterator) {
+		return parallel && spliterator.hasCharacteristics(SIZED);
+	}
+
+	private static int characteristics(Spliterator<?> spliterator) {
+		return spliterator.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED);
+	}
+
+	private static <T> T[] prefix(Spliterator<T> spliterator, T identity, BinaryOperator<T> op) {
+		T[] prefix = toArray(spliterator);
+		prefix(prefix, identity, op);
+		return prefix;
+	}
+
+	private static <T> void prefix(T[] array, T identity, BinaryOperator<T> op) {
+		if(array.length > 0) {
+			array[0] = op.apply(identity, array[0]);
+			Arrays.parallelPrefix(array, op);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T[] toArray(Spliterator<T> spliterator) {
+		// SIZED，SUBSIZEDな並列Streamは分割された区間ごとに配列の該当位置へ直接書き込まれる
+		return (T[]) StreamSupport.stream(spliterator, true).toArray();
+	}
+
+	/**
+	 * 要素が要求されるたびに累積するSpliterator
+	 * 累積した結果と要素から返す値を作る．
+	 */
+	private static final class ScanSpliterator<T, R> implements Spliterator<R>, Consumer<T> {
+		private final Spliterator<T> source;
+		private final BinaryOperator<T> op;
+		private final BiFunction<? super T, ? super T, ? extends R> output;
+		private T accumulated;
+		private T element;
+
+		ScanSpliterator(Spliterator<T> source, T identity, BinaryOperator<T> op,
+				BiFunction<? super T, ? super T, ? extends R> output) {
+			this.source = source;
+			this.op = op;
+			this.output = output;
+			this.accumulated = identity;
+		}
+
+		@Override
+		public void accept(T t) {
+			element = t;
+			accumulated = op.apply(accumulated, t);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super R> action) {
+			if(!source.tryAdvance(this)) {
+				return false;
+			}
+			action.accept(output.apply(element, accumulated));
+			return true;
+		}
+
+		@Override
+		public Spliterator<R> trySplit() {
+			return null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return source.estimateSize();
+		}
+
+		@Override
+		public int characteristics() {
+			return PrefixScan.characteristics(source);
+		}
+	}
+}
@@ -0,0 +1,319 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * doubleの値の分位数を近似的に求めるKLLスケッチ
+ *
+ * 値を高さごとの圧縮器に保持する．高さhの圧縮器にある値はそれぞれ2<sup>h</sup>個の値を代表する．
+ * 圧縮器が容量を超えると値を整列し，1つおきに選んだ半分を1つ上の高さに移す．
+ * 保持する値の数はおよそ{@code 3k}で，追加した値の数に対しては対数的にしか増えない．
+ * 順位の誤差はおよそ{@code 1.7 / k}である．
+ * 同じkで作ったものは高さごとに値を連結して圧縮することで合成できる．
+ * NaNは追加されない．
+ *
+ * @author YuyaAizawa
+ */
+public final class QuantileSketch implements Serializable {
+	private static final long serialVersionUID = -2350929167355245124L;
+	private static final double CAPACITY_RATIO = 2.0 / 3.0;
+	private static final AtomicLong SEEDS = new AtomicLong(System.nanoTime());
+
+	/**
+	 * 既定のk
+	 */
+	public static final int DEFAULT_K = 200;
+
+	private final int k;
+	private double[][] levels;
+	private int[] sizes;
+	private int retained;
+	private int maxRetained;
+	private long count;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+	private long random;
+
+	private QuantileSketch(int k) {
+		this.k = k;
+		this.levels = new double[][] {new double[k + 1]};
+		this.sizes = new int[1];
+		this.maxRetained = k + 1;
+		this.random = Hashing.mix64(SEEDS.getAndAdd(0x9E3779B97F4A7C15L)) | 1;
+	}
+
+	/**
+	 * k={@value #DEFAULT_K}の空のスケッチを返す．
+	 *
+	 * @return 空のスケッチ
+	 */
+	public static QuantileSketch create() {
+		return new QuantileSketch(DEFAULT_K);
+	}
+
+	/**
+	 * 空のスケッチを返す．
+	 *
+	 * @param k 最も高い圧縮器の容量，大きいほど正確になる
+	 * @return 空のスケッチ
+	 * @exception IllegalArgumentException kが8以上65536以下でない場合
+	 */
+	public static QuantileSketch create(int k) {
+		checkK(k);
+		return new QuantileSketch(k);
+	}
+
+	static void checkK(int k) {
+		if(k < 8 || k > (1 << 16)) {
+			throw new IllegalArgumentException("k must be in [8, 65536]: " + k);
+		}
+	}
+
+	/**
+	 * 値を追加する．
+	 *
+	 * @param value 値
+	 */
+	public void add(double value) {
+		if(Double.isNaN(value)) {
+			return;
+		}
+		if(count == 0) {
+			min = value;
+			max = value;
+		} else {
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		count++;
+		append(0, value);
+		retained++;
+		if(retained >= maxRetained) {
+			compress();
+		}
+	}
+
+	/**
+	 * 他のスケッチに追加された値をすべてこのスケッチに追加する．
+	 *
+	 * @param other 同じkで作られたスケッチ
+	 * @exception IllegalArgumentException kが異なる場合
+	 */
+	public void addAll(QuantileSketch other) {
+		if(other.k != k) {
+			throw new IllegalArgumentException("incompatible quantile sketch");
+		}
+		if(other.count == 0) {
+			return;
+		}
+		while(levels.length < other.levels.length) {
+			grow();
+		}
+		for(int h = 0; h < other.levels.length; h++) {
+			for(int i = 0; i < other.sizes[h]; i++) {
+				append(h, other.levels[h][i]);
+			}
+		}
+		retained += other.retained;
+		if(count == 0) {
+			min = other.min;
+			max = other.max;
+		} else {
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+		}
+		count += other.count;
+		while(retained >= maxRetained) {
+			compress();
+		}
+	}
+
+	/**
+	 * 指定した割合の順位にある値を見積もる．
+	 *
+	 * @param fraction 順位の割合，0なら最小値，1なら最大値
+	 * @return 値の見積もり，値が追加されていない場合はNaN
+	 * @exception IllegalArgumentException 割合が0以上1以下でない場合
+	 */
+	public double quantile(double fraction) {
+		if(!(0.0 <= fraction && fraction <= 1.0)) {
+			throw new IllegalArgumentException("fraction must be in [0, 1]: " + fraction);
+		}
+		if(count == 0) {
+			return Double.NaN;
+		}
+		if(fraction == 0.0) {
+			return min;
+		}
+		if(fraction == 1.0) {
+			return max;
+		}
+		double[] values = new double[retained];
+		long[] weights = new long[retained];
+		sortedItems(values, weights);
+		long target = (long) Math.ceil(fraction * count);
+		long cumulative = 0;
+		for(int i = 0; i < values.length; i++) {
+			cumulative += weights[i];
+			if(cumulative >= target) {
+				return values[i];
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * 指定した値以下の値の割合を見積もる．
+	 *
+	 * @param value 値
+	 * @return 割合の見積もり，値が追加されていない場合はNaN
+	 */
+	public double rank(double value) {
+		if(count == 0) {
+			return Double.NaN;
+		}
+		long weight = 0;
+		for(int h = 0; h < levels.length; h++) {
+			for(int i = 0; i < sizes[h]; i++) {
+				if(levels[h][i] <= value) {
+					weight += 1L << h;
+				}
+			}
+		}
+		return (double) weight / count;
+	}
+
+	/**
+	 * 追加された値の数を返す．
+	 *
+	 * @return 値の数
+	 */
+	public long count() {
+		return count;
+	}
+
+	/**
+	 * 追加された値の最小値を返す．
+	 *
+	 * @return 最小値，値が追加されていない場合はNaN
+	 */
+	public double min() {
+		return min;
+	}
+
+	/**
+	 * 追加された値の最大値を返す．
+	 *
+	 * @return 最大値，値が追加されていない場合はNaN
+	 */
+	public double max() {
+		return max;
+	}
+
+	/**
+	 * 保持している値の数を返す．
+	 *
+	 * @return 値の数
+	 */
+	public int retained() {
+		return retained;
+	}
+
+	/**
+	 * 保持している値とその重みを値の順に並べる．
+	 * 各圧縮器を整列してから，圧縮器の先頭のうち最小の値を順に取り出して併合する．
+	 */
+	private void sortedItems(double[] values, long[] weights) {
+		int height = levels.length;
+		int[] positions = new int[height];
+		for(int h = 0; h < height; h++) {
+			Arrays.sort(levels[h], 0, sizes[h]);
+		}
+		for(int n = 0; n < values.length; n++) {
+			int next = -1;
+			for(int h = 0; h < height; h++) {
+				if(positions[h] < sizes[h]
+						&& (next < 0 || levels[h][positions[h]] < levels[next][positions[next]])) {
+					next = h;
+				}
+			}
+			values[n] = levels[next][positions[next]++];
+			weights[n] = 1L << next;
+		}
+	}
+
+	private int capacity(int h) {
+		int depth = levels.length - h - 1;
+		return (int) Math.ceil(k * Math.pow(CAPACITY_RATIO, depth)) + 1;
+	}
+
+	private void grow() {
+		int height = levels.length;
+		levels = Arrays.copyOf(levels, height + 1);
+		sizes = Arrays.copyOf(sizes, height + 1);
+		levels[height] = new double[k + 1];
+		maxRetained = 0;
+		for(int h = 0; h <= height; h++) {
+			maxRetained += capacity(h);
+		}
+	}
+
+	private void append(int h, double value) {
+		double[] level = levels[h];
+		if(sizes[h] == level.length) {
+			level = Arrays.copyOf(level, level.length * 2);
+			levels[h] = level;
+		}
+		level[sizes[h]++] = value;
+	}
+
+	private void compress() {
+		for(int h = 0; h < levels.length; h++) {
+			if(sizes[h] >= capacity(h)) {
+				if(h + 1 == levels.length) {
+					grow();
+				}
+				compact(h);
+				if(retained < maxRetained) {
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 高さhの圧縮器を整列し，1つおきに選んだ値を1つ上の高さに移す．
+	 * 要素の数が奇数の場合は最大の値を残す．
+	 */
+	private void compact(int h) {
+		double[] level = levels[h];
+		int size = sizes[h];
+		Arrays.sort(level, 0, size);
+		int pairs = size / 2;
+		int offset = nextBit();
+		for(int i = 0; i < pairs; i++) {
+			append(h + 1, level[2 * i + offset]);
+		}
+		if(size % 2 == 1) {
+			level[0] = level[size - 1];
+			sizes[h] = 1;
+		} else {
+			sizes[h] = 0;
+		}
+		retained -= pairs;
+	}
+
+	private int nextBit() {
+		random ^= random << 13;
+		random ^= random >>> 7;
+		random ^= random << 17;
+		return (int) (random >>> 63);
+	}
+
+	@Override
+	public String toString() {
+		return "QuantileSketch[k=" + k + ", count=" + count + ", retained=" + retained + "]";
+	}
+}
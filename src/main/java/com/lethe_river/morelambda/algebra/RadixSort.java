@@ -0,0 +1,302 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * 要素から取り出したプリミティブ値のキーによる基数整列
+ *
+ * 整列の前にすべての要素からキーを取り出し，符号なしで比較できるlongの列に変換する．
+ * キーの列と要素の位置の順列をLSD基数整列で1バイトずつ整列し，最後に順列を要素に一度だけ適用する．
+ * 整列中に要素を参照したり，比較のためにキーをボクシングしたりすることはない．
+ * 大きな入力ではキーの取り出しと各桁の分配を並列に行う．
+ * すべての要素で同じ値を持つ桁は読み飛ばされる．
+ *
+ * 複数のキーを指定した場合は前に指定したキーから順に辞書式に比較する．
+ * 整列は安定であり，キーが等しい要素は整列前の順に並ぶ．
+ * doubleのキーは{@link Double#compare(double, double)}と同じ順に並ぶ．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 要素の型
+ */
+public final class RadixSort<T> {
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+	private static final int RADIX = 256;
+
+	private final Key<? super T>[] keys;
+
+	private RadixSort(Key<? super T>[] keys) {
+		this.keys = keys;
+	}
+
+	/**
+	 * longのキーで整列する基数整列を作る．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <T> 要素の型
+	 * @return 基数整列
+	 */
+	public static <T> RadixSort<T> comparingLong(ToLongFunction<? super T> keyExtractor) {
+		return new RadixSort<T>(newKeys(0)).thenComparingLong(keyExtractor);
+	}
+
+	/**
+	 * intのキーで整列する基数整列を作る．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <T> 要素の型
+	 * @return 基数整列
+	 */
+	public static <T> RadixSort<T> comparingInt(ToIntFunction<? super T> keyExtractor) {
+		return new RadixSort<T>(newKeys(0)).thenComparingInt(keyExtractor);
+	}
+
+	/**
+	 * doubleのキーで整列する基数整列を作る．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <T> 要素の型
+	 * @return 基数整列
+	 */
+	public static <T> RadixSort<T> comparingDouble(ToDoubleFunction<? super T> keyExtractor) {
+		return new RadixSort<T>(newKeys(0)).thenComparingDouble(keyExtractor);
+	}
+
+	/**
+	 * これまでのキーが等しい要素をさらにlongのキーで整列する基数整列を作る．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @return 基数整列
+	 */
+	public RadixSort<T> thenComparingLong(ToLongFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		return then(new Key<T>(Long.BYTES, false) {
+			@Override
+			long encode(T t) {
+				return keyExtractor.applyAsLong(t) ^ Long.MIN_VALUE;
+			}
+		});
+	}
+
+	/**
+	 * これまでのキーが等しい要素をさらにintのキーで整列する基数整列を作る．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @return 基数整列
+	 */
+	public RadixSort<T> thenComparingInt(ToIntFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		return then(new Key<T>(Integer.BYTES, false) {
+			@Override
+			long encode(T t) {
+				return (keyExtractor.applyAsInt(t) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+			}
+		});
+	}
+
+	/**
+	 * これまでのキーが等しい要素をさらにdoubleのキーで整列する基数整列を作る．
+	 *
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @return 基数整列
+	 */
+	public RadixSort<T> thenComparingDouble(ToDoubleFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		return then(new Key<T>(Double.BYTES, false) {
+			@Override
+			long encode(T t) {
+				long bits = Double.doubleToLongBits(keyExtractor.applyAsDouble(t));
+				return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+			}
+		});
+	}
+
+	/**
+	 * 最後に指定したキーの順序を逆にした基数整列を作る．
+	 *
+	 * @return 基数整列
+	 */
+	public RadixSort<T> reversed() {
+		Key<? super T>[] reversed = keys.clone();
+		reversed[keys.length - 1] = keys[keys.length - 1].reversed();
+		return new RadixSort<>(reversed);
+	}
+
+	/**
+	 * Listを整列する．
+	 * Listは要素の取得と設定が可能でなければならない．
+	 *
+	 * @param list 整列するList
+	 */
+	public void sort(List<T> list) {
+		Objects.requireNonNull(list);
+		@SuppressWarnings("unchecked")
+		T[] values = (T[]) list.toArray();
+		sort(values);
+		ListIterator<T> i = list.listIterator();
+		for(T value : values) {
+			i.next();
+			i.set(value);
+		}
+	}
+
+	/**
+	 * 配列を整列する．
+	 *
+	 * @param array 整列する配列
+	 */
+	public void sort(T[] array) {
+		Objects.requireNonNull(array);
+		int[] permutation = permutation(array);
+		T[] values = array.clone();
+		for(int i = 0; i < array.length; i++) {
+			array[i] = values[permutation[i]];
+		}
+	}
+
+	/**
+	 * 配列を整列したときの要素の位置の順列を返す．配列は変更しない．
+	 * 戻り値の{@code i}番目の値は，整列後に{@code i}番目に並ぶ要素の整列前の位置である．
+	 *
+	 * @param array 配列
+	 * @return 順列
+	 */
+	public int[] permutation(T[] array) {
+		Objects.requireNonNull(array);
+		final int n = array.length;
+		final boolean parallel = n >= PARALLEL_THRESHOLD;
+		int[] permutation = new int[n];
+		int[] permutationBuffer = new int[n];
+		long[] current = new long[n];
+		long[] currentBuffer = new long[n];
+		int[] identity = permutation;
+		range(n, parallel).forEach(i -> identity[i] = i);
+
+		for(int k = keys.length - 1; k >= 0; k--) {
+			Key<? super T> key = keys[k];
+			// 前のキーまでの順列の順にキーを取り出す
+			int[] p = permutation;
+			long[] c = current;
+			range(n, parallel).forEach(i -> c[i] = key.extract(array[p[i]]));
+			for(int shift = 0; shift < key.bytes * 8; shift += 8) {
+				if(pass(current, permutation, currentBuffer, permutationBuffer, shift, parallel)) {
+					long[] tc = current;
+					current = currentBuffer;
+					currentBuffer = tc;
+					int[] tp = permutation;
+					permutation = permutationBuffer;
+					permutationBuffer = tp;
+				}
+			}
+		}
+		return permutation;
+	}
+
+	/**
+	 * 1桁分の安定な分配を行う．すべての要素の桁が同じ場合は何もしない．
+	 *
+	 * @return 分配した場合はtrue
+	 */
+	private static boolean pass(long[] keys, int[] permutation, long[] keysOut, int[] permutationOut,
+			int shift, boolean parallel) {
+		final int n = keys.length;
+		final int chunks = parallel
+				? Math.min(n / (PARALLEL_THRESHOLD >> 2), Runtime.getRuntime().availableProcessors() * 4)
+				: 1;
+		final int chunkSize = (n + chunks - 1) / chunks;
+		final int[][] counts = new int[chunks][RADIX];
+
+		range(counts.length, parallel).forEach(c -> {
+			int[] count = counts[c];
+			int to = Math.min(n, (c + 1) * chunkSize);
+			for(int i = c * chunkSize; i < to; i++) {
+				count[(int) (keys[i] >>> shift) & 0xFF]++;
+			}
+		});
+
+		for(int digit = 0; digit < RADIX; digit++) {
+			int total = 0;
+			for(int[] count : counts) {
+				total += count[digit];
+			}
+			if(total == n) {
+				return false;
+			}
+		}
+		int offset = 0;
+		for(int digit = 0; digit < RADIX; digit++) {
+			for(int[] count : counts) {
+				int c = count[digit];
+				count[digit] = offset;
+				offset += c;
+			}
+		}
+
+		range(counts.length, parallel).forEach(c -> {
+			int[] position = counts[c];
+			int to = Math.min(n, (c + 1) * chunkSize);
+			for(int i = c * chunkSize; i < to; i++) {
+				int pos = position[(int) (keys[i] >>> shift) & 0xFF]++;
+				keysOut[pos] = keys[i];
+				permutationOut[pos] = permutation[i];
+			}
+		});
+		return true;
+	}
+
+	private static IntStream range(int n, boolean parallel) {
+		IntStream range = IntStream.range(0, n);
+		return parallel ? range.parallel() : range;
+	}
+
+	private RadixSort<T> then(Key<? super T> key) {
+		Key<? super T>[] next = Arrays.copyOf(keys, keys.length + 1);
+		next[keys.length] = key;
+		return new RadixSort<>(next);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <T> Key<? super T>[] newKeys(int length) {
+		return new Key[length];
+	}
+
+	/**
+	 * 要素から取り出した，符号なしで比較できるキー
+	 */
+	private static abstract class Key<T> {
+		final int bytes;
+		final boolean descending;
+
+		Key(int bytes, boolean descending) {
+			this.bytes = bytes;
+			this.descending = descending;
+		}
+
+		abstract long encode(T t);
+
+		long extract(T t) {
+			long key = encode(t);
+			if(descending) {
+				key = bytes == Long.BYTES ? ~key : ~key & ((1L << (bytes * 8)) - 1);
+			}
+			return key;
+		}
+
+		Key<T> reversed() {
+			Key<T> original = this;
+			return new Key<T>(bytes, !descending) {
+				@Override
+				long encode(T t) {
+					return original.encode(t);
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 要素を退避する一時ファイル
+ *
+ * 要素を{@link #write(Object)}で書き出し，{@link #finish()}で書き出しを終えてから
+ * {@link #stream()}で書き出した順に読み戻す．
+ * 読み戻したStreamを最後まで読むか閉じると一時ファイルは削除される．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 要素の型
+ */
+final class SpillFile<T> {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Path path;
+	private final TupleCodec<T> codec;
+	private DataOutputStream out;
+	private long count;
+	private long bytes;
+
+	private SpillFile(Path path, TupleCodec<T> codec, DataOutputStream out) {
+		this.path = path;
+		this.codec = codec;
+		this.out = out;
+	}
+
+	/**
+	 * 一時ファイルを作り，書き出しを始める．
+	 *
+	 * @param directory 一時ファイルを作るディレクトリ，nullの場合は既定の一時ディレクトリ
+	 * @param codec 要素の符号化方式
+	 * @param <T> 要素の型
+	 * @return 一時ファイル
+	 */
+	static <T> SpillFile<T> create(Path directory, TupleCodec<T> codec) {
+		try {
+			Path path = directory == null
+					? Files.createTempFile("morelambda-", ".spill")
+					: Files.createTempFile(directory, "morelambda-", ".spill");
+			try {
+				DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+				return new SpillFile<>(path, codec, out);
+			} catch(IOException e) {
+				Files.deleteIfExists(path);
+				throw e;
+			}
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 要素を書き出す．
+	 *
+	 * @param value 要素
+	 */
+	void write(T value) {
+		try {
+			codec.write(out, value);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		count++;
+	}
+
+	/**
+	 * 書き出しを終える．
+	 */
+	void finish() {
+		try {
+			out.close();
+			out = null;
+			bytes = Files.size(path);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 書き出した要素の数を返す．
+	 *
+	 * @return 要素の数
+	 */
+	long count() {
+		return count;
+	}
+
+	/**
+	 * 書き出しを終えた一時ファイルの大きさを返す．
+	 *
+	 * @return バイト数
+	 */
+	long bytes() {
+		return bytes;
+	}
+
+	/**
+	 * 書き出した要素を書き出した順に読み戻すStreamを作る．
+	 * 一時ファイルは最初に要素が要求されたときに開かれる．
+	 *
+	 * @return 読み戻すStream
+	 */
+	Stream<T> stream() {
+		Reader reader = new Reader();
+		return StreamSupport.stream(Spliterators.spliterator(reader, count, Spliterator.ORDERED), false)
+				.onClose(reader::close);
+	}
+
+	/**
+	 * 一時ファイルを削除する．書き出し中であれば書き出しを中断する．
+	 */
+	void delete() {
+		try {
+			if(out != null) {
+				try {
+					out.close();
+				} finally {
+					out = null;
+				}
+			}
+		} catch(IOException e) {
+			// 削除するので書き出しの失敗は無視する
+		}
+		try {
+			Files.deleteIfExists(path);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private final class Reader implements Iterator<T> {
+		private DataInputStream in;
+		private long remaining = count;
+		private boolean closed;
+
+		@Override
+		public boolean hasNext() {
+			if(remaining > 0) {
+				return true;
+			}
+			close();
+			return false;
+		}
+
+		@Override
+		public T next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				if(in == null) {
+					in = new DataInputStream(
+							new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+				}
+				T value = codec.read(in);
+				remaining--;
+				return value;
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		void close() {
+			if(closed) {
+				return;
+			}
+			closed = true;
+			remaining = 0;
+			try {
+				if(in != null) {
+					in.close();
+				}
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				delete();
+			}
+		}
+	}
+}
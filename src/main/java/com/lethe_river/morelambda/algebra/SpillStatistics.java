@@ -0,0 +1,93 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.io.Serializable;
+
+/**
+ * 一時ファイルへの退避の統計
+ *
+ * @author YuyaAizawa
+ */
+public final class SpillStatistics implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final long fileCount;
+	private final long recordCount;
+	private final long byteCount;
+	private final int depth;
+
+	SpillStatistics(long fileCount, long recordCount, long byteCount, int depth) {
+		this.fileCount = fileCount;
+		this.recordCount = recordCount;
+		this.byteCount = byteCount;
+		this.depth = depth;
+	}
+
+	/**
+	 * 作られた一時ファイルの数を返す．
+	 *
+	 * @return 一時ファイルの数
+	 */
+	public long getFileCount() {
+		return fileCount;
+	}
+
+	/**
+	 * 一時ファイルに書き出された要素の数を返す．
+	 *
+	 * @return 要素の数
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * 一時ファイルに書き出されたバイト数を返す．
+	 *
+	 * @return バイト数
+	 */
+	public long getByteCount() {
+		return byteCount;
+	}
+
+	/**
+	 * 一時ファイルへの書き出しが重なった段数の最大値を返す．
+	 * 退避しなかった場合は0，退避した要素を読み戻す際にさらに退避しなかった場合は1となる．
+	 *
+	 * @return 段数
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Long.hashCode(fileCount);
+		result = prime * result + Long.hashCode(recordCount);
+		result = prime * result + Long.hashCode(byteCount);
+		result = prime * result + depth;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+
+		SpillStatistics subject = (SpillStatistics) obj;
+		return fileCount == subject.fileCount
+				&& recordCount == subject.recordCount
+				&& byteCount == subject.byteCount
+				&& depth == subject.depth;
+	}
+
+	@Override
+	public String toString() {
+		return "{files="+fileCount+", records="+recordCount+", bytes="+byteCount+", depth="+depth+"}";
+	}
+}
@@ -0,0 +1,185 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * メモリ使用量の上限を超えると一時ファイルに退避する，キーごとのlong値の集約
+ *
+ * 集約結果は{@link Tuple#summarizingLong()}と同様に開番地法のハッシュ表で保持する．
+ * 表のおおよそのメモリ使用量が上限に達すると，それ以降は表にあるキーの値のみを表に集約し，
+ * 新しいキーの値はキーのハッシュ値によって分割した一時ファイルに書き出す．
+ * 入力をすべて読み込んだあと，表の集約結果に続いて一時ファイルごとに同じ方法で集約した結果を返す．
+ * 分割にはキーのハッシュ値を段ごとに異なる値で混ぜたものを用いるため，
+ * 偏った分割が読み戻す段で再び同じように偏ることはない．
+ *
+ * 集約結果は退避しなかった場合には{@link GroupedLongSummary#stream()}と同じ順序で並ぶ．
+ * 退避した場合，表に残ったキーは最初に現れた順に並び，退避したキーはそのあとに並ぶ．
+ * キーにnullを使用する場合は，nullを扱える符号化方式を指定しなければならない．
+ * 表のメモリ使用量にはキー自体の大きさは含まれない．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K> キーの型
+ */
+public final class SpillingLongAggregation<K> {
+	private static final int PARTITION_BITS = 4;
+	private static final int PARTITIONS = 1 << PARTITION_BITS;
+
+	private final TupleCodec<Tuple2<K, Long>> codec;
+	private long memoryBudget = Runtime.getRuntime().maxMemory() / 4;
+	private Path directory;
+
+	private final AtomicLong fileCount = new AtomicLong();
+	private final AtomicLong recordCount = new AtomicLong();
+	private final AtomicLong byteCount = new AtomicLong();
+	private final AtomicInteger depth = new AtomicInteger();
+
+	private SpillingLongAggregation(TupleCodec<K> keyCodec) {
+		this.codec = TupleCodec.tuple2(keyCodec, TupleCodec.longs());
+	}
+
+	/**
+	 * 集約を作る．
+	 * メモリ使用量の上限はJava仮想マシンの最大メモリ量の4分の1となる．
+	 *
+	 * @param keyCodec 一時ファイルに書き出すときのキーの符号化方式
+	 * @param <K> キーの型
+	 * @return 集約
+	 */
+	public static <K> SpillingLongAggregation<K> create(TupleCodec<K> keyCodec) {
+		Objects.requireNonNull(keyCodec);
+		return new SpillingLongAggregation<>(keyCodec);
+	}
+
+	/**
+	 * 集約結果を保持する表のメモリ使用量の上限を設定する．
+	 *
+	 * @param bytes バイト数
+	 * @return この集約
+	 * @exception IllegalArgumentException bytesが正でない場合
+	 */
+	public SpillingLongAggregation<K> memoryBudget(long bytes) {
+		if(bytes <= 0) {
+			throw new IllegalArgumentException("memory budget must be positive: " + bytes);
+		}
+		this.memoryBudget = bytes;
+		return this;
+	}
+
+	/**
+	 * 一時ファイルを作るディレクトリを設定する．
+	 *
+	 * @param directory ディレクトリ，nullの場合は既定の一時ディレクトリ
+	 * @return この集約
+	 */
+	public SpillingLongAggregation<K> directory(Path directory) {
+		this.directory = directory;
+		return this;
+	}
+
+	/**
+	 * Tuple2&lt;K, Long&gt;の1番目の要素をキーとして，2番目の要素の件数，合計，最小，最大を集約する．
+	 * このメソッドは入力されたStreamをすべて読み込んでから戻る．
+	 * 退避した一時ファイルは作られたStreamが要求されるたびに読み戻され，
+	 * 読み終えるか作られたStreamを閉じると削除される．
+	 *
+	 * @param stream 入力Stream
+	 * @return キーと集約結果の組のStream
+	 */
+	public Stream<Tuple2<K, LongAggregate>> aggregate(Stream<? extends Tuple2<K, Long>> stream) {
+		Objects.requireNonNull(stream);
+		final List<SpillFile<Tuple2<K, Long>>> created = new ArrayList<>();
+		try {
+			return aggregate(stream.iterator(), 0, created)
+					.onClose(() -> deleteAll(created))
+					.onClose(stream::close);
+		} catch(RuntimeException | Error e) {
+			try {
+				deleteAll(created);
+			} catch(RuntimeException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * これまでにこの集約で行われた一時ファイルへの退避の統計を返す．
+	 *
+	 * @return 統計
+	 */
+	public SpillStatistics statistics() {
+		return new SpillStatistics(fileCount.get(), recordCount.get(), byteCount.get(), depth.get());
+	}
+
+	private Stream<Tuple2<K, LongAggregate>> aggregate(
+			Iterator<? extends Tuple2<K, Long>> input, int level, List<SpillFile<Tuple2<K, Long>>> created) {
+		LongGroupTable<K> table = new LongGroupTable<>();
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		SpillFile<Tuple2<K, Long>>[] partitions = new SpillFile[PARTITIONS];
+		int seed = (level + 1) * 0x9E3779B9;
+		boolean spilled = false;
+
+		while(input.hasNext()) {
+			Tuple2<K, Long> t = input.next();
+			int row = table.find(t.v1);
+			if(row < 0) {
+				if(table.size() > 0 && table.estimatedBytesOnInsert() > memoryBudget) {
+					int partition = Hashing.mix(LongGroupTable.hash(t.v1) ^ seed) >>> (32 - PARTITION_BITS);
+					if(partitions[partition] == null) {
+						partitions[partition] = SpillFile.create(directory, codec);
+						created.add(partitions[partition]);
+					}
+					partitions[partition].write(Tuple.of(t.v1, t.v2));
+					spilled = true;
+					continue;
+				}
+				row = table.rowOf(t.v1);
+			}
+			table.add(row, t.v2);
+		}
+
+		Stream<Tuple2<K, LongAggregate>> rows = new GroupedLongSummary<>(table).stream();
+		if(!spilled) {
+			return rows;
+		}
+		for(SpillFile<Tuple2<K, Long>> partition : partitions) {
+			if(partition != null) {
+				partition.finish();
+				fileCount.incrementAndGet();
+				recordCount.addAndGet(partition.count());
+				byteCount.addAndGet(partition.bytes());
+			}
+		}
+		depth.accumulateAndGet(level + 1, Math::max);
+		return Stream.concat(rows, Arrays.stream(partitions)
+				.filter(Objects::nonNull)
+				.flatMap(partition -> aggregate(partition.stream().iterator(), level + 1, created)));
+	}
+
+	private static void deleteAll(List<? extends SpillFile<?>> files) {
+		RuntimeException failure = null;
+		for(SpillFile<?> file : files) {
+			try {
+				file.delete();
+			} catch(RuntimeException e) {
+				if(failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if(failure != null) {
+			throw failure;
+		}
+	}
+}
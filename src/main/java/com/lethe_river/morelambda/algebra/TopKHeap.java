@@ -0,0 +1,130 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 比較関数で大きい順に上位k個の要素を保持する，大きさに上限のあるヒープ
+ *
+ * 根に保持している要素のうち最小のものを置き，それより大きい要素が来たときだけ入れ替える．
+ * 要素には加えた順番を並べて保持し，比較結果が等しい要素は後に加えたものを小さいとみなすので，
+ * 比較結果が等しい要素は先に加えたものが残る．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 要素の型
+ */
+final class TopKHeap<T> {
+	private final int k;
+	private final Comparator<? super T> comparator;
+	private Object[] heap;
+	private long[] sequences;
+	private int size;
+	private long nextSequence;
+
+	TopKHeap(int k, Comparator<? super T> comparator) {
+		this.k = k;
+		this.comparator = comparator;
+		int capacity = Math.min(k, 16);
+		this.heap = new Object[capacity];
+		this.sequences = new long[capacity];
+	}
+
+	void add(T value) {
+		add(value, nextSequence++);
+	}
+
+	private void add(Object value, long sequence) {
+		if(size < k) {
+			if(size == heap.length) {
+				int capacity = (int) Math.min(k, size * 2L);
+				heap = Arrays.copyOf(heap, capacity);
+				sequences = Arrays.copyOf(sequences, capacity);
+			}
+			siftUp(size++, value, sequence);
+		} else if(k > 0 && compare(value, sequence, 0) > 0) {
+			siftDown(0, size, value, sequence);
+		}
+	}
+
+	/**
+	 * 他のヒープの要素を加える．他のヒープの要素はすべてこのヒープの要素より後に加えたものとみなす．
+	 */
+	TopKHeap<T> addAll(TopKHeap<? extends T> other) {
+		for(int i = 0; i < other.size; i++) {
+			add(other.heap[i], nextSequence + other.sequences[i]);
+		}
+		nextSequence += other.nextSequence;
+		return this;
+	}
+
+	/**
+	 * 保持している要素を大きい順に並べたListを返す．このヒープは使えなくなる．
+	 *
+	 * @return 要素のList
+	 */
+	List<T> toList() {
+		for(int end = size - 1; end > 0; end--) {
+			Object rootValue = heap[0];
+			long rootSequence = sequences[0];
+			siftDown(0, end, heap[end], sequences[end]);
+			heap[end] = rootValue;
+			sequences[end] = rootSequence;
+		}
+		List<T> list = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			list.add(get(i));
+		}
+		return list;
+	}
+
+	private void siftUp(int i, Object value, long sequence) {
+		while(i > 0) {
+			int parent = (i - 1) >>> 1;
+			if(compare(value, sequence, parent) >= 0) {
+				break;
+			}
+			heap[i] = heap[parent];
+			sequences[i] = sequences[parent];
+			i = parent;
+		}
+		heap[i] = value;
+		sequences[i] = sequence;
+	}
+
+	private void siftDown(int i, int end, Object value, long sequence) {
+		while(true) {
+			int child = 2 * i + 1;
+			if(child >= end) {
+				break;
+			}
+			if(child + 1 < end && compare(heap[child + 1], sequences[child + 1], child) < 0) {
+				child++;
+			}
+			if(compare(value, sequence, child) <= 0) {
+				break;
+			}
+			heap[i] = heap[child];
+			sequences[i] = sequences[child];
+			i = child;
+		}
+		heap[i] = value;
+		sequences[i] = sequence;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T get(int i) {
+		return (T) heap[i];
+	}
+
+	/**
+	 * 要素と指定した位置の要素を比較する．比較結果が等しい場合は後に加えたものを小さいとする．
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Object value, long sequence, int i) {
+		int c = comparator.compare((T) value, (T) heap[i]);
+		return c != 0 ? c : Long.compare(sequences[i], sequence);
+	}
+}
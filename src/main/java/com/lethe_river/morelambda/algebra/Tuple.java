@@ -3,6 +3,7 @@ package com.lethe_river.morelambda.algebra;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
@@ -12,21 +13,34 @@ import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import com.lethe_river.morelambda.throwable.ThrowableSupplier;
+
 /**
  * Tupleのユーティリティクラス
  * @author YuyaAizawa
  *
  */
-public final class Tuple {
+public final class Tuple extends GeneratedTuples {
 	private Tuple() {}
 	
 	/**
@@ -231,6 +245,90 @@ public final class Tuple {
 			}
 		};
 	}
+
+	/**
+	 * 要素ごとの比較関数を前の要素から順に適用するTupleの比較関数を返す．
+	 *
+	 * @param f1 Tupleの1番目の要素の比較関数
+	 * @param f2 Tupleの2番目の要素の比較関数
+	 * @param <T1> Tupleの1番目の要素の型
+	 * @param <T2> Tupleの2番目の要素の型
+	 * @return Tupleの比較関数
+	 */
+	public static <T1, T2> Tuple2Comparator<T1, T2> comparing(
+			FieldComparator<? super T1> f1, FieldComparator<? super T2> f2) {
+		Objects.requireNonNull(f1);
+		Objects.requireNonNull(f2);
+		return new Tuple2Comparator<>(f1, f2);
+	}
+
+	/**
+	 * 要素ごとの比較関数を前の要素から順に適用するTupleの比較関数を返す．
+	 *
+	 * @param f1 Tupleの1番目の要素の比較関数
+	 * @param f2 Tupleの2番目の要素の比較関数
+	 * @param f3 Tupleの3番目の要素の比較関数
+	 * @param <T1> Tupleの1番目の要素の型
+	 * @param <T2> Tupleの2番目の要素の型
+	 * @param <T3> Tupleの3番目の要素の型
+	 * @return Tupleの比較関数
+	 */
+	public static <T1, T2, T3> Tuple3Comparator<T1, T2, T3> comparing(
+			FieldComparator<? super T1> f1, FieldComparator<? super T2> f2, FieldComparator<? super T3> f3) {
+		Objects.requireNonNull(f1);
+		Objects.requireNonNull(f2);
+		Objects.requireNonNull(f3);
+		return new Tuple3Comparator<>(f1, f2, f3);
+	}
+
+	/**
+	 * 要素ごとの比較関数を前の要素から順に適用するTupleの比較関数を返す．
+	 *
+	 * @param f1 Tupleの1番目の要素の比較関数
+	 * @param f2 Tupleの2番目の要素の比較関数
+	 * @param f3 Tupleの3番目の要素の比較関数
+	 * @param f4 Tupleの4番目の要素の比較関数
+	 * @param <T1> Tupleの1番目の要素の型
+	 * @param <T2> Tupleの2番目の要素の型
+	 * @param <T3> Tupleの3番目の要素の型
+	 * @param <T4> Tupleの4番目の要素の型
+	 * @return Tupleの比較関数
+	 */
+	public static <T1, T2, T3, T4> Tuple4Comparator<T1, T2, T3, T4> comparing(
+			FieldComparator<? super T1> f1, FieldComparator<? super T2> f2,
+			FieldComparator<? super T3> f3, FieldComparator<? super T4> f4) {
+		Objects.requireNonNull(f1);
+		Objects.requireNonNull(f2);
+		Objects.requireNonNull(f3);
+		Objects.requireNonNull(f4);
+		return new Tuple4Comparator<>(f1, f2, f3, f4);
+	}
+
+	/**
+	 * 要素ごとの比較関数を前の要素から順に適用するTupleの比較関数を返す．
+	 *
+	 * @param f1 Tupleの1番目の要素の比較関数
+	 * @param f2 Tupleの2番目の要素の比較関数
+	 * @param f3 Tupleの3番目の要素の比較関数
+	 * @param f4 Tupleの4番目の要素の比較関数
+	 * @param f5 Tupleの5番目の要素の比較関数
+	 * @param <T1> Tupleの1番目の要素の型
+	 * @param <T2> Tupleの2番目の要素の型
+	 * @param <T3> Tupleの3番目の要素の型
+	 * @param <T4> Tupleの4番目の要素の型
+	 * @param <T5> Tupleの5番目の要素の型
+	 * @return Tupleの比較関数
+	 */
+	public static <T1, T2, T3, T4, T5> Tuple5Comparator<T1, T2, T3, T4, T5> comparing(
+			FieldComparator<? super T1> f1, FieldComparator<? super T2> f2,
+			FieldComparator<? super T3> f3, FieldComparator<? super T4> f4, FieldComparator<? super T5> f5) {
+		Objects.requireNonNull(f1);
+		Objects.requireNonNull(f2);
+		Objects.requireNonNull(f3);
+		Objects.requireNonNull(f4);
+		Objects.requireNonNull(f5);
+		return new Tuple5Comparator<>(f1, f2, f3, f4, f5);
+	}
 	
 	/**
 	 * 入力されたStreamの同じ位置にある要素をTupleで結合したStreamを作る．
@@ -512,7 +610,246 @@ public final class Tuple {
 	private static <T1, T2> Stream<Tuple2<T1, T2>> productStream(Stream<T1> s1, Collection<T2> s2) {
 		return s1.flatMap(v1 -> s2.stream().map(v2 -> Tuple.of(v1, v2)));
 	}
-	
+
+	/**
+	 * 入力されたStreamの1番目の要素をキーとして等結合したStreamを作る．
+	 * 要素数の見積もりが小さい方のStreamからハッシュ表を構築し，もう一方のStreamで探索する．
+	 * ハッシュ表はこのメソッドの呼び出し時に構築され，探索側のStreamが並列であれば探索も並列に行われる．
+	 * キーがnullの要素はどの要素とも一致しない．
+	 * @param left 結合する左側のStream
+	 * @param right 結合する右側のStream
+	 * @param <K> キーの型
+	 * @param <A> 左側の値の型
+	 * @param <B> 右側の値の型
+	 * @return キーと左右の値を要素とするStream
+	 */
+	public static <K, A, B> Stream<Tuple3<K, A, B>> hashJoin(Stream<Tuple2<K, A>> left, Stream<Tuple2<K, B>> right) {
+		Objects.requireNonNull(left);
+		Objects.requireNonNull(right);
+		final Spliterator<Tuple2<K, A>> sp1 = left.spliterator();
+		final Spliterator<Tuple2<K, B>> sp2 = right.spliterator();
+
+		if(sp1.estimateSize() < sp2.estimateSize()) {
+			HashJoinTable<K, A> table = HashJoinTable.build(sp1);
+			return StreamSupport.stream(new HashJoinSpliterator<K, B, A, Tuple3<K, A, B>>(
+					sp2, table, (t, a) -> Tuple.of(t.v1, a, t.v2), false), right.isParallel());
+		}
+		HashJoinTable<K, B> table = HashJoinTable.build(sp2);
+		return StreamSupport.stream(new HashJoinSpliterator<K, A, B, Tuple3<K, A, B>>(
+				sp1, table, (t, b) -> Tuple.of(t.v1, t.v2, b), false), left.isParallel());
+	}
+
+	/**
+	 * 入力されたStreamの1番目の要素をキーとして左外部結合したStreamを作る．
+	 * 右側のStreamからハッシュ表を構築し，左側のStreamで探索する．
+	 * 一致する要素がない左側の要素は，右側の値をnullとして結果に含まれる．
+	 * @see Tuple#hashJoin(Stream, Stream)
+	 * @param left 結合する左側のStream
+	 * @param right 結合する右側のStream
+	 * @param <K> キーの型
+	 * @param <A> 左側の値の型
+	 * @param <B> 右側の値の型
+	 * @return キーと左右の値を要素とするStream
+	 */
+	public static <K, A, B> Stream<Tuple3<K, A, B>> leftHashJoin(Stream<Tuple2<K, A>> left, Stream<Tuple2<K, B>> right) {
+		Objects.requireNonNull(left);
+		Objects.requireNonNull(right);
+		HashJoinTable<K, B> table = HashJoinTable.build(right.spliterator());
+		return StreamSupport.stream(new HashJoinSpliterator<K, A, B, Tuple3<K, A, B>>(
+				left.spliterator(), table, (t, b) -> Tuple.of(t.v1, t.v2, b), true), left.isParallel());
+	}
+
+	/**
+	 * 右側のStreamに同じキーを持つ要素が存在する，左側のStreamの要素からなるStreamを作る(準結合)．
+	 * 右側のStreamのキーからハッシュ表を構築し，左側の要素を絞り込む．
+	 * @see Tuple#hashJoin(Stream, Stream)
+	 * @param left 絞り込まれる左側のStream
+	 * @param right キーを与える右側のStream
+	 * @param <K> キーの型
+	 * @param <A> 左側の値の型
+	 * @return 絞り込まれた左側の要素からなるStream
+	 */
+	public static <K, A> Stream<Tuple2<K, A>> semiJoin(Stream<Tuple2<K, A>> left, Stream<? extends Tuple2<K, ?>> right) {
+		Objects.requireNonNull(left);
+		Objects.requireNonNull(right);
+		HashJoinTable<K, Void> table = HashJoinTable.buildKeys(right.spliterator());
+		return left.filter(t -> table.contains(t.v1));
+	}
+
+	/**
+	 * 右側のStreamに同じキーを持つ要素が存在しない，左側のStreamの要素からなるStreamを作る(反結合)．
+	 * 右側のStreamのキーからハッシュ表を構築し，左側の要素を絞り込む．
+	 * キーがnullの左側の要素は結果に含まれる．
+	 * @see Tuple#hashJoin(Stream, Stream)
+	 * @param left 絞り込まれる左側のStream
+	 * @param right キーを与える右側のStream
+	 * @param <K> キーの型
+	 * @param <A> 左側の値の型
+	 * @return 絞り込まれた左側の要素からなるStream
+	 */
+	public static <K, A> Stream<Tuple2<K, A>> antiJoin(Stream<Tuple2<K, A>> left, Stream<? extends Tuple2<K, ?>> right) {
+		Objects.requireNonNull(left);
+		Objects.requireNonNull(right);
+		HashJoinTable<K, Void> table = HashJoinTable.buildKeys(right.spliterator());
+		return left.filter(t -> !table.contains(t.v1));
+	}
+
+	/**
+	 * 入力されたStreamの1番目の要素をキーとするブルームフィルタを作る．
+	 * 入力されたStreamが並列であれば，並列に作られたブルームフィルタが合成される．
+	 * @see Tuple#approximateSemiJoin(Stream, BloomFilter)
+	 * @param stream キーのソースとなるStream
+	 * @param expectedInsertions キーの数の見込み
+	 * @param fpp 見込みの数のキーを追加したときの偽陽性率
+	 * @param <K> キーの型
+	 * @return キーを追加したブルームフィルタ
+	 */
+	public static <K> BloomFilter<K> bloomFilter(
+			Stream<? extends Tuple2<K, ?>> stream, long expectedInsertions, double fpp) {
+		return bloomFilter(stream, expectedInsertions, fpp, KeyHasher.standard());
+	}
+
+	/**
+	 * 入力されたStreamの1番目の要素をキーとするブルームフィルタを作る．
+	 * 入力されたStreamが並列であれば，並列に作られたブルームフィルタが合成される．
+	 * @see Tuple#approximateSemiJoin(Stream, BloomFilter)
+	 * @param stream キーのソースとなるStream
+	 * @param expectedInsertions キーの数の見込み
+	 * @param fpp 見込みの数のキーを追加したときの偽陽性率
+	 * @param hasher キーのハッシュ関数
+	 * @param <K> キーの型
+	 * @return キーを追加したブルームフィルタ
+	 */
+	public static <K> BloomFilter<K> bloomFilter(
+			Stream<? extends Tuple2<K, ?>> stream, long expectedInsertions, double fpp, KeyHasher<? super K> hasher) {
+		Objects.requireNonNull(stream);
+		return stream.<K>map(t -> t.v1)
+				.collect(BloomFilter.toBloomFilter(expectedInsertions, fpp, hasher));
+	}
+
+	/**
+	 * ブルームフィルタに含まれる可能性のあるキーを持つ要素に絞り込んだStreamを作る．
+	 * {@link Tuple#hashJoin(Stream, Stream)}などの正確な結合の前に，
+	 * 結合相手がないことが確実な要素を安価に取り除くために用いる．
+	 * 結果には結合相手のない要素が偽陽性率程度の割合で残る．
+	 * @param stream 絞り込まれるStream
+	 * @param filter 結合相手のキーから作ったブルームフィルタ
+	 * @param <K> キーの型
+	 * @param <V> 値の型
+	 * @return 絞り込まれたStream
+	 */
+	public static <K, V> Stream<Tuple2<K, V>> approximateSemiJoin(
+			Stream<Tuple2<K, V>> stream, BloomFilter<? super K> filter) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(filter);
+		return stream.filter(t -> filter.mightContain(t.v1));
+	}
+
+	/**
+	 * キーで整列済みの入力されたStreamの1番目の要素をキーとして等結合したStreamを作る(マージ結合)．
+	 * 入力されたStreamは作られたStreamの要素が要求されるたびに読み進められ，
+	 * 右側のStreamで同じキーを持つ連続した要素の値のみが保持される．
+	 * 入力が整列されていないことを検出した場合は{@link IllegalStateException}が発生する．
+	 * 作られたStreamを閉じると入力されたStreamも閉じられる．
+	 * @param left 結合する左側のStream
+	 * @param right 結合する右側のStream
+	 * @param comparator 両側のStreamのキーの整列に用いられている比較関数
+	 * @param <K> キーの型
+	 * @param <A> 左側の値の型
+	 * @param <B> 右側の値の型
+	 * @return キーと左右の値を要素とするStream
+	 */
+	public static <K, A, B> Stream<Tuple3<K, A, B>> mergeJoin(
+			Stream<Tuple2<K, A>> left, Stream<Tuple2<K, B>> right, Comparator<? super K> comparator) {
+		return mergeJoin(left, right, comparator, false);
+	}
+
+	/**
+	 * キーで整列済みの入力されたStreamの1番目の要素をキーとして左外部結合したStreamを作る(マージ結合)．
+	 * 一致する要素がない左側の要素は，右側の値をnullとして結果に含まれる．
+	 * @see Tuple#mergeJoin(Stream, Stream, Comparator)
+	 * @param left 結合する左側のStream
+	 * @param right 結合する右側のStream
+	 * @param comparator 両側のStreamのキーの整列に用いられている比較関数
+	 * @param <K> キーの型
+	 * @param <A> 左側の値の型
+	 * @param <B> 右側の値の型
+	 * @return キーと左右の値を要素とするStream
+	 */
+	public static <K, A, B> Stream<Tuple3<K, A, B>> leftMergeJoin(
+			Stream<Tuple2<K, A>> left, Stream<Tuple2<K, B>> right, Comparator<? super K> comparator) {
+		return mergeJoin(left, right, comparator, true);
+	}
+
+	private static <K, A, B> Stream<Tuple3<K, A, B>> mergeJoin(
+			Stream<Tuple2<K, A>> left, Stream<Tuple2<K, B>> right, Comparator<? super K> comparator, boolean outer) {
+		Objects.requireNonNull(left);
+		Objects.requireNonNull(right);
+		Objects.requireNonNull(comparator);
+		final Iterator<Tuple3<K, A, B>> i = new MergeJoinIterator<>(
+				Spliterators.iterator(left.spliterator()),
+				Spliterators.iterator(right.spliterator()),
+				comparator,
+				outer);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+				i, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(() -> {
+					try {
+						left.close();
+					} finally {
+						right.close();
+					}
+				});
+	}
+
+	/**
+	 * 整列済みの入力されたStreamを，整列を保ったまま1つのStreamに併合する．
+	 * 入力されたStreamは作られたStreamの要素が要求されるたびに読み進められ，
+	 * 入力されたStreamそれぞれの先頭の要素のみが保持される．
+	 * 比較結果が等しい要素は，入力されたStreamのうち前にあるものの要素が先に並ぶ．
+	 * 作られたStreamを閉じると入力されたStreamもすべて閉じられる．
+	 * @param streams 併合するStream
+	 * @param comparator 入力されたStreamの整列に用いられている比較関数
+	 * @param <T> 要素の型
+	 * @return 併合したStream
+	 */
+	public static <T> Stream<T> merge(List<? extends Stream<? extends T>> streams, Comparator<? super T> comparator) {
+		Objects.requireNonNull(streams);
+		Objects.requireNonNull(comparator);
+		final List<Iterator<? extends T>> iterators = new ArrayList<>(streams.size());
+		long size = 0;
+		for(Stream<? extends T> stream : streams) {
+			Spliterator<? extends T> spliterator = stream.spliterator();
+			long s = spliterator.getExactSizeIfKnown();
+			size = (size < 0 || s < 0) ? -1 : size + s;
+			iterators.add(Spliterators.iterator(spliterator));
+		}
+		final Iterator<T> i = new LoserTree<T>(iterators, comparator);
+		final Spliterator<T> spliterator = size >= 0
+				? Spliterators.spliterator(i, size, Spliterator.ORDERED)
+				: Spliterators.spliteratorUnknownSize(i, Spliterator.ORDERED);
+		return StreamSupport.stream(spliterator, false)
+				.onClose(() -> closeAll(streams));
+	}
+
+	private static void closeAll(List<? extends Stream<?>> streams) {
+		RuntimeException failure = null;
+		for(Stream<?> stream : streams) {
+			try {
+				stream.close();
+			} catch(RuntimeException e) {
+				if(failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if(failure != null) {
+			throw failure;
+		}
+	}
+
 	/**
 	 * 入力されたCollectionの要素と指定した初期値から増加するインデックスの組のStreamを作る.
 	 * 例えば，List["A", "B", "C"]と初期値2を入力としたとき，作られるStreamの要素は[("A", 2), ("B", 3), ("C", 4)]である.
@@ -566,6 +903,267 @@ public final class Tuple {
 		return Collectors.toMap(t -> t.v1, t -> t.v2, mergeFunction, mapSupplier);
 	}
 	
+	/**
+	 * キーごとに件数，合計，最小，最大を集約するCollectorを得る．
+	 * {@code Collectors.groupingBy(classifier, Collectors.summarizingLong(mapper))}と異なり，
+	 * キーごとの集約結果をオブジェクトではなく開番地法のハッシュ表の中のlongの配列で保持する．
+	 * 並列に処理する場合はスレッドごとの表が合成される．
+	 * キーにはnullも使用できる．
+	 * @param classifier 要素からキーを得る関数
+	 * @param mapper 要素から集約する値を得る関数
+	 * @param <T> 要素の型
+	 * @param <K> キーの型
+	 * @return Collector
+	 */
+	public static <T, K> Collector<T, ?, GroupedLongSummary<K>> summarizingLong(
+			Function<? super T, ? extends K> classifier, ToLongFunction<? super T> mapper) {
+		Objects.requireNonNull(classifier);
+		Objects.requireNonNull(mapper);
+		return Collector.<T, LongGroupTable<K>, GroupedLongSummary<K>>of(
+				LongGroupTable::new,
+				(table, t) -> table.add(classifier.apply(t), mapper.applyAsLong(t)),
+				(left, right) -> {
+					left.addAll(right);
+					return left;},
+				GroupedLongSummary::new);
+	}
+
+	/**
+	 * Tuple2&lt;K, Long&gt;の1番目の要素をキーとして，2番目の要素の件数，合計，最小，最大を集約するCollectorを得る．
+	 * @see Tuple#summarizingLong(Function, ToLongFunction)
+	 * @param <K> キーの型
+	 * @return Collector
+	 */
+	public static <K> Collector<Tuple2<K, Long>, ?, GroupedLongSummary<K>> summarizingLong() {
+		return summarizingLong(t -> t.v1, t -> t.v2);
+	}
+
+	/**
+	 * 比較関数で大きい順に上位k個の要素を大きい順に並べたListを得るCollectorを得る．
+	 * {@code sorted(comparator.reversed()).limit(k)}と異なり，
+	 * 大きさがkのヒープのみを保持するためメモリ使用量は入力の大きさによらない．
+	 * 並列に処理する場合はスレッドごとのヒープが合成される．
+	 * 比較結果が等しい要素は前にあるものが優先して残り，結果の中でも前にあったものが先に並ぶ．
+	 * @param k 要素の数
+	 * @param comparator 比較関数
+	 * @param <T> 要素の型
+	 * @return Collector
+	 * @exception IllegalArgumentException kが負の場合
+	 */
+	public static <T> Collector<T, ?, List<T>> topK(int k, Comparator<? super T> comparator) {
+		checkK(k);
+		Objects.requireNonNull(comparator);
+		return Collector.<T, TopKHeap<T>, List<T>>of(
+				() -> new TopKHeap<>(k, comparator),
+				TopKHeap::add,
+				TopKHeap::addAll,
+				TopKHeap::toList);
+	}
+
+	/**
+	 * 比較関数で小さい順に下位k個の要素を小さい順に並べたListを得るCollectorを得る．
+	 * @see Tuple#topK(int, Comparator)
+	 * @param k 要素の数
+	 * @param comparator 比較関数
+	 * @param <T> 要素の型
+	 * @return Collector
+	 * @exception IllegalArgumentException kが負の場合
+	 */
+	public static <T> Collector<T, ?, List<T>> bottomK(int k, Comparator<? super T> comparator) {
+		Objects.requireNonNull(comparator);
+		return topK(k, Collections.reverseOrder(comparator));
+	}
+
+	/**
+	 * 要素から取り出したlongのキーが大きい順に上位k個の要素を，キーが大きい順に並べたListを得るCollectorを得る．
+	 * キーはボクシングせずにヒープの中のlongの配列で保持する．
+	 * @see Tuple#topK(int, Comparator)
+	 * @param k 要素の数
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <T> 要素の型
+	 * @return Collector
+	 * @exception IllegalArgumentException kが負の場合
+	 */
+	public static <T> Collector<T, ?, List<T>> topKByLong(int k, ToLongFunction<? super T> keyExtractor) {
+		checkK(k);
+		Objects.requireNonNull(keyExtractor);
+		return Collector.<T, LongTopKHeap<T>, List<T>>of(
+				() -> new LongTopKHeap<>(k),
+				(heap, t) -> heap.add(keyExtractor.applyAsLong(t), t),
+				LongTopKHeap::addAll,
+				LongTopKHeap::toList);
+	}
+
+	/**
+	 * 要素から取り出したlongのキーが小さい順に下位k個の要素を，キーが小さい順に並べたListを得るCollectorを得る．
+	 * @see Tuple#topKByLong(int, ToLongFunction)
+	 * @param k 要素の数
+	 * @param keyExtractor 要素からキーを取り出す関数
+	 * @param <T> 要素の型
+	 * @return Collector
+	 * @exception IllegalArgumentException kが負の場合
+	 */
+	public static <T> Collector<T, ?, List<T>> bottomKByLong(int k, ToLongFunction<? super T> keyExtractor) {
+		Objects.requireNonNull(keyExtractor);
+		// ビット反転はlongの順序をちょうど逆にする
+		return topKByLong(k, t -> ~keyExtractor.applyAsLong(t));
+	}
+
+	private static void checkK(int k) {
+		if(k < 0) {
+			throw new IllegalArgumentException("k must not be negative: " + k);
+		}
+	}
+
+	/**
+	 * 要素の異なり数をHyperLogLogで近似的に数えるCollectorを得る．
+	 * Tupleの要素は{@link KeyHasher#standard()}によって内容からハッシュ値が計算される．
+	 * 並列に処理する場合はスレッドごとのHyperLogLogが合成される．
+	 * @param precision レジスタの数の2を底とする対数
+	 * @param <T> 要素の型
+	 * @return Collector
+	 * @exception IllegalArgumentException 精度が範囲外の場合
+	 */
+	public static <T> Collector<T, ?, HyperLogLog<T>> approximateDistinct(int precision) {
+		return approximateDistinct(Function.identity(), precision);
+	}
+
+	/**
+	 * 要素から取り出した値の異なり数をHyperLogLogで近似的に数えるCollectorを得る．
+	 * @see Tuple#approximateDistinct(int)
+	 * @param field 要素から値を取り出す関数
+	 * @param precision レジスタの数の2を底とする対数
+	 * @param <T> 要素の型
+	 * @param <K> 値の型
+	 * @return Collector
+	 * @exception IllegalArgumentException 精度が範囲外の場合
+	 */
+	public static <T, K> Collector<T, ?, HyperLogLog<K>> approximateDistinct(
+			Function<? super T, ? extends K> field, int precision) {
+		Objects.requireNonNull(field);
+		HyperLogLog.checkPrecision(precision);
+		return Collector.<T, HyperLogLog<K>>of(
+				() -> HyperLogLog.<K>create(precision),
+				(sketch, t) -> sketch.add(field.apply(t)),
+				(left, right) -> {
+					left.addAll(right);
+					return left;},
+				Collector.Characteristics.UNORDERED,
+				Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	/**
+	 * 要素から取り出したdoubleの値の分位数をKLLスケッチで近似的に求めるCollectorを得る．
+	 * kは{@value QuantileSketch#DEFAULT_K}となる．
+	 * @see Tuple#approximateQuantiles(ToDoubleFunction, int)
+	 * @param field 要素から値を取り出す関数
+	 * @param <T> 要素の型
+	 * @return Collector
+	 */
+	public static <T> Collector<T, ?, QuantileSketch> approximateQuantiles(ToDoubleFunction<? super T> field) {
+		return approximateQuantiles(field, QuantileSketch.DEFAULT_K);
+	}
+
+	/**
+	 * 要素から取り出したdoubleの値の分位数をKLLスケッチで近似的に求めるCollectorを得る．
+	 * 並列に処理する場合はスレッドごとのスケッチが合成される．
+	 * @param field 要素から値を取り出す関数
+	 * @param k スケッチの最も高い圧縮器の容量
+	 * @param <T> 要素の型
+	 * @return Collector
+	 * @exception IllegalArgumentException kが8以上65536以下でない場合
+	 */
+	public static <T> Collector<T, ?, QuantileSketch> approximateQuantiles(ToDoubleFunction<? super T> field, int k) {
+		Objects.requireNonNull(field);
+		QuantileSketch.checkK(k);
+		return Collector.<T, QuantileSketch>of(
+				() -> QuantileSketch.create(k),
+				(sketch, t) -> sketch.add(field.applyAsDouble(t)),
+				(left, right) -> {
+					left.addAll(right);
+					return left;},
+				Collector.Characteristics.UNORDERED,
+				Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	/**
+	 * 入力されたStreamの先頭からその要素までを累積した値を要素とするStreamを作る．
+	 * 例えば，[1, 2, 3]と初期値0，加算を入力としたとき，作られるStreamの要素は[1, 3, 6]である．
+	 * 入力されたStreamが並列かつ{@link Spliterator#SIZED}，{@link Spliterator#SUBSIZED}であれば，
+	 * このメソッドは入力をすべて配列に読み込んで並列に累積してから戻り，作られるStreamも並列となる．
+	 * それ以外の場合は作られたStreamの要素が要求されるたびに入力を読み進め，作られるStreamは逐次となる．
+	 * 並列に累積する場合は演算の適用順序が変わるため，演算は結合的でなければならない．
+	 * @param stream 入力Stream
+	 * @param identity 初期値
+	 * @param op 結合的な演算
+	 * @param <T> 要素の型
+	 * @return 累積した値のStream
+	 */
+	public static <T> Stream<T> scan(Stream<T> stream, T identity, BinaryOperator<T> op) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(op);
+		return PrefixScan.scan(stream, identity, op);
+	}
+
+	/**
+	 * 入力されたStreamの要素と，先頭からその要素までを累積した値の組を要素とするStreamを作る．
+	 * 例えば，[1, 2, 3]と初期値0，加算を入力としたとき，作られるStreamの要素は[(1, 1), (2, 3), (3, 6)]である．
+	 * @see Tuple#scan(Stream, Object, BinaryOperator)
+	 * @param stream 入力Stream
+	 * @param identity 初期値
+	 * @param op 結合的な演算
+	 * @param <T> 要素の型
+	 * @return 要素と累積した値の組のStream
+	 */
+	public static <T> Stream<Tuple2<T, T>> scanWithElements(Stream<T> stream, T identity, BinaryOperator<T> op) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(op);
+		return PrefixScan.scanWithElements(stream, identity, op);
+	}
+
+	/**
+	 * 入力されたLongStreamの先頭からその要素までを累積した値を要素とするLongStreamを作る．
+	 * @see Tuple#scan(Stream, Object, BinaryOperator)
+	 * @param stream 入力Stream
+	 * @param identity 初期値
+	 * @param op 結合的な演算
+	 * @return 累積した値のStream
+	 */
+	public static LongStream scan(LongStream stream, long identity, LongBinaryOperator op) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(op);
+		return PrefixScan.scan(stream, identity, op);
+	}
+
+	/**
+	 * 入力されたIntStreamの先頭からその要素までを累積した値を要素とするIntStreamを作る．
+	 * @see Tuple#scan(Stream, Object, BinaryOperator)
+	 * @param stream 入力Stream
+	 * @param identity 初期値
+	 * @param op 結合的な演算
+	 * @return 累積した値のStream
+	 */
+	public static IntStream scan(IntStream stream, int identity, IntBinaryOperator op) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(op);
+		return PrefixScan.scan(stream, identity, op);
+	}
+
+	/**
+	 * 入力されたDoubleStreamの先頭からその要素までを累積した値を要素とするDoubleStreamを作る．
+	 * 浮動小数点数の加算は厳密には結合的でないため，並列に累積した結果は逐次の場合とわずかに異なることがある．
+	 * @see Tuple#scan(Stream, Object, BinaryOperator)
+	 * @param stream 入力Stream
+	 * @param identity 初期値
+	 * @param op 結合的な演算
+	 * @return 累積した値のStream
+	 */
+	public static DoubleStream scan(DoubleStream stream, double identity, DoubleBinaryOperator op) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(op);
+		return PrefixScan.scan(stream, identity, op);
+	}
+
 	/**
 	 * 指定したMapのkeyとvalueのペアを要素とするStreamを作る．
 	 * @param <T1> Tupleの1番目の要素の型
@@ -691,7 +1289,670 @@ public final class Tuple {
 				list.subList(3, list.size()),
 				list.subList(4, list.size()));
 	}
-	
+
+	/**
+	 * 入力したStreamの要素を先頭から決まった数ずつまとめたListを要素とするStreamを作る．
+	 * 例えば元のStreamの要素が['A', 'B', 'C', 'D', 'E']で，まとめる数が2であるとき，
+	 * 作られるStreamの要素は[['A', 'B'], ['C', 'D'], ['E']]となる．
+	 * 最後のList以外はすべて指定した数の要素を持つ．
+	 * 入力したStreamが{@link Spliterator#SIZED}，{@link Spliterator#SUBSIZED}であれば
+	 * Listの境界で分割されるため，並列に処理することができる．
+	 * 入力したStreamは消費される．
+	 *
+	 * @param stream もとになるStream
+	 * @param size まとめる要素の数
+	 * @param <T> 要素の型
+	 * @return 要素をまとめたListを要素とするStream
+	 * @exception IllegalArgumentException sizeが正でない場合
+	 */
+	public static <T> Stream<List<T>> chunked(Stream<T> stream, int size) {
+		Objects.requireNonNull(stream);
+		checkChunkSize(size);
+		return StreamSupport.stream(new ChunkSpliterator.OfRef<>(stream.spliterator(), size), stream.isParallel())
+				.onClose(stream::close);
+	}
+
+	/**
+	 * 入力したListの要素を先頭から決まった数ずつまとめた部分Listを要素とするStreamを作る．
+	 * 部分Listは{@link List#subList(int, int)}で作られる，もとのListのビューである．
+	 *
+	 * @see Tuple#chunked(Stream, int)
+	 * @param list もとになるList
+	 * @param size まとめる要素の数
+	 * @param <T> 要素の型
+	 * @return 部分Listを要素とするStream
+	 * @exception IllegalArgumentException sizeが正でない場合
+	 */
+	public static <T> Stream<List<T>> chunked(List<T> list, int size) {
+		Objects.requireNonNull(list);
+		checkChunkSize(size);
+		int chunks = (int) ((list.size() + (long) size - 1) / size);
+		return IntStream.range(0, chunks)
+				.mapToObj(i -> list.subList(i * size, (int) Math.min(list.size(), (long) (i + 1) * size)));
+	}
+
+	/**
+	 * 入力したIntStreamの要素を先頭から決まった数ずつまとめた配列を要素とするStreamを作る．
+	 *
+	 * @see Tuple#chunked(Stream, int)
+	 * @param stream もとになるStream
+	 * @param size まとめる要素の数
+	 * @return 要素をまとめた配列を要素とするStream
+	 * @exception IllegalArgumentException sizeが正でない場合
+	 */
+	public static Stream<int[]> chunked(IntStream stream, int size) {
+		Objects.requireNonNull(stream);
+		checkChunkSize(size);
+		return StreamSupport.stream(new ChunkSpliterator.OfInt(stream.spliterator(), size), stream.isParallel())
+				.onClose(stream::close);
+	}
+
+	/**
+	 * 入力したLongStreamの要素を先頭から決まった数ずつまとめた配列を要素とするStreamを作る．
+	 *
+	 * @see Tuple#chunked(Stream, int)
+	 * @param stream もとになるStream
+	 * @param size まとめる要素の数
+	 * @return 要素をまとめた配列を要素とするStream
+	 * @exception IllegalArgumentException sizeが正でない場合
+	 */
+	public static Stream<long[]> chunked(LongStream stream, int size) {
+		Objects.requireNonNull(stream);
+		checkChunkSize(size);
+		return StreamSupport.stream(new ChunkSpliterator.OfLong(stream.spliterator(), size), stream.isParallel())
+				.onClose(stream::close);
+	}
+
+	/**
+	 * 入力したDoubleStreamの要素を先頭から決まった数ずつまとめた配列を要素とするStreamを作る．
+	 *
+	 * @see Tuple#chunked(Stream, int)
+	 * @param stream もとになるStream
+	 * @param size まとめる要素の数
+	 * @return 要素をまとめた配列を要素とするStream
+	 * @exception IllegalArgumentException sizeが正でない場合
+	 */
+	public static Stream<double[]> chunked(DoubleStream stream, int size) {
+		Objects.requireNonNull(stream);
+		checkChunkSize(size);
+		return StreamSupport.stream(new ChunkSpliterator.OfDouble(stream.spliterator(), size), stream.isParallel())
+				.onClose(stream::close);
+	}
+
+	/**
+	 * 入力したStreamの要素を先頭から決まった数ずつまとめたListに対して処理を行う．
+	 * 入力したStreamが逐次であれば，Listは1つの配列をもとにしたビューを使い回すため要素ごとの割り当ては生じない．
+	 * 渡されたListは処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 * 入力したStreamが並列であれば{@link Tuple#chunked(Stream, int)}のListに対して処理を行う．
+	 *
+	 * @param stream もとになるStream
+	 * @param size まとめる要素の数
+	 * @param action Listに対する処理
+	 * @param <T> 要素の型
+	 * @exception IllegalArgumentException sizeが正でない場合
+	 */
+	public static <T> void forEachChunk(Stream<T> stream, int size, Consumer<? super List<T>> action) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(action);
+		checkChunkSize(size);
+		if(stream.isParallel()) {
+			chunked(stream, size).forEach(action);
+			return;
+		}
+		ChunkView<T> view = new ChunkView<>(size);
+		stream.forEachOrdered(t -> {
+			if(view.addElement(t)) {
+				action.accept(view);
+				view.reset();
+			}
+		});
+		if(!view.isEmpty()) {
+			action.accept(view);
+			view.reset();
+		}
+	}
+
+	/**
+	 * 2つのIterableの要素を先頭から順に組にして処理する．
+	 * 要素の組ごとにTupleを作らず，同じ{@link MutableTuple2}を書き換えて処理に渡す．
+	 * 渡されたMutableTuple2は処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 * いずれかのIterableの要素がなくなった時点で終了する．
+	 *
+	 * @param i1 1番目の要素の組のもとになるIterable
+	 * @param i2 2番目の要素の組のもとになるIterable
+	 * @param action 要素の組に対する処理
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 */
+	public static <T1, T2> void forEachZipped(
+			Iterable<T1> i1, Iterable<T2> i2,
+			Consumer<? super MutableTuple2<T1, T2>> action) {
+		Iterator<T1> it1 = i1.iterator();
+		Iterator<T2> it2 = i2.iterator();
+		Objects.requireNonNull(action);
+		MutableTuple2<T1, T2> cursor = new MutableTuple2<>();
+		while(it1.hasNext() && it2.hasNext()) {
+			action.accept(cursor.set(it1.next(), it2.next()));
+		}
+	}
+
+	/**
+	 * 3つのIterableの要素を先頭から順に組にして処理する．
+	 * 要素の組ごとにTupleを作らず，同じ{@link MutableTuple3}を書き換えて処理に渡す．
+	 * 渡されたMutableTuple3は処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 * いずれかのIterableの要素がなくなった時点で終了する．
+	 *
+	 * @param i1 1番目の要素の組のもとになるIterable
+	 * @param i2 2番目の要素の組のもとになるIterable
+	 * @param i3 3番目の要素の組のもとになるIterable
+	 * @param action 要素の組に対する処理
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 */
+	public static <T1, T2, T3> void forEachZipped(
+			Iterable<T1> i1, Iterable<T2> i2, Iterable<T3> i3,
+			Consumer<? super MutableTuple3<T1, T2, T3>> action) {
+		Iterator<T1> it1 = i1.iterator();
+		Iterator<T2> it2 = i2.iterator();
+		Iterator<T3> it3 = i3.iterator();
+		Objects.requireNonNull(action);
+		MutableTuple3<T1, T2, T3> cursor = new MutableTuple3<>();
+		while(it1.hasNext() && it2.hasNext() && it3.hasNext()) {
+			action.accept(cursor.set(it1.next(), it2.next(), it3.next()));
+		}
+	}
+
+	/**
+	 * 4つのIterableの要素を先頭から順に組にして処理する．
+	 * 要素の組ごとにTupleを作らず，同じ{@link MutableTuple4}を書き換えて処理に渡す．
+	 * 渡されたMutableTuple4は処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 * いずれかのIterableの要素がなくなった時点で終了する．
+	 *
+	 * @param i1 1番目の要素の組のもとになるIterable
+	 * @param i2 2番目の要素の組のもとになるIterable
+	 * @param i3 3番目の要素の組のもとになるIterable
+	 * @param i4 4番目の要素の組のもとになるIterable
+	 * @param action 要素の組に対する処理
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 */
+	public static <T1, T2, T3, T4> void forEachZipped(
+			Iterable<T1> i1, Iterable<T2> i2, Iterable<T3> i3, Iterable<T4> i4,
+			Consumer<? super MutableTuple4<T1, T2, T3, T4>> action) {
+		Iterator<T1> it1 = i1.iterator();
+		Iterator<T2> it2 = i2.iterator();
+		Iterator<T3> it3 = i3.iterator();
+		Iterator<T4> it4 = i4.iterator();
+		Objects.requireNonNull(action);
+		MutableTuple4<T1, T2, T3, T4> cursor = new MutableTuple4<>();
+		while(it1.hasNext() && it2.hasNext() && it3.hasNext() && it4.hasNext()) {
+			action.accept(cursor.set(it1.next(), it2.next(), it3.next(), it4.next()));
+		}
+	}
+
+	/**
+	 * 5つのIterableの要素を先頭から順に組にして処理する．
+	 * 要素の組ごとにTupleを作らず，同じ{@link MutableTuple5}を書き換えて処理に渡す．
+	 * 渡されたMutableTuple5は処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 * いずれかのIterableの要素がなくなった時点で終了する．
+	 *
+	 * @param i1 1番目の要素の組のもとになるIterable
+	 * @param i2 2番目の要素の組のもとになるIterable
+	 * @param i3 3番目の要素の組のもとになるIterable
+	 * @param i4 4番目の要素の組のもとになるIterable
+	 * @param i5 5番目の要素の組のもとになるIterable
+	 * @param action 要素の組に対する処理
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @param <T5> 5番目の要素の型
+	 */
+	public static <T1, T2, T3, T4, T5> void forEachZipped(
+			Iterable<T1> i1, Iterable<T2> i2, Iterable<T3> i3, Iterable<T4> i4, Iterable<T5> i5,
+			Consumer<? super MutableTuple5<T1, T2, T3, T4, T5>> action) {
+		Iterator<T1> it1 = i1.iterator();
+		Iterator<T2> it2 = i2.iterator();
+		Iterator<T3> it3 = i3.iterator();
+		Iterator<T4> it4 = i4.iterator();
+		Iterator<T5> it5 = i5.iterator();
+		Objects.requireNonNull(action);
+		MutableTuple5<T1, T2, T3, T4, T5> cursor = new MutableTuple5<>();
+		while(it1.hasNext() && it2.hasNext() && it3.hasNext() && it4.hasNext() && it5.hasNext()) {
+			action.accept(cursor.set(it1.next(), it2.next(), it3.next(), it4.next(), it5.next()));
+		}
+	}
+
+	/**
+	 * Iterableの前後2つの要素の組を順に処理する．
+	 * 要素の組ごとにTupleを作らず，同じ{@link MutableTuple2}を書き換えて処理に渡す．
+	 * 渡されたMutableTuple2は処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 * 要素が2つに満たない場合は何もしない．
+	 *
+	 * @see Tuple#window2Stream(List)
+	 * @param iterable もとになるIterable
+	 * @param action 要素の組に対する処理
+	 * @param <T> 要素の型
+	 */
+	public static <T> void forEachWindow2(Iterable<T> iterable, Consumer<? super MutableTuple2<T, T>> action) {
+		Objects.requireNonNull(action);
+		MutableTuple2<T, T> cursor = new MutableTuple2<>();
+		int count = 0;
+		for(T t : iterable) {
+			cursor.v1 = cursor.v2;
+			cursor.v2 = t;
+			if(count == 1) {
+				action.accept(cursor);
+			} else {
+				count++;
+			}
+		}
+	}
+
+	/**
+	 * Iterableの前後3つの要素の組を順に処理する．
+	 * 要素の組ごとにTupleを作らず，同じ{@link MutableTuple3}を書き換えて処理に渡す．
+	 * 渡されたMutableTuple3は処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 * 要素が3つに満たない場合は何もしない．
+	 *
+	 * @see Tuple#window3Stream(List)
+	 * @param iterable もとになるIterable
+	 * @param action 要素の組に対する処理
+	 * @param <T> 要素の型
+	 */
+	public static <T> void forEachWindow3(Iterable<T> iterable, Consumer<? super MutableTuple3<T, T, T>> action) {
+		Objects.requireNonNull(action);
+		MutableTuple3<T, T, T> cursor = new MutableTuple3<>();
+		int count = 0;
+		for(T t : iterable) {
+			cursor.v1 = cursor.v2;
+			cursor.v2 = cursor.v3;
+			cursor.v3 = t;
+			if(count == 2) {
+				action.accept(cursor);
+			} else {
+				count++;
+			}
+		}
+	}
+
+	/**
+	 * Iterableの前後4つの要素の組を順に処理する．
+	 * 要素の組ごとにTupleを作らず，同じ{@link MutableTuple4}を書き換えて処理に渡す．
+	 * 渡されたMutableTuple4は処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 * 要素が4つに満たない場合は何もしない．
+	 *
+	 * @see Tuple#window4Stream(List)
+	 * @param iterable もとになるIterable
+	 * @param action 要素の組に対する処理
+	 * @param <T> 要素の型
+	 */
+	public static <T> void forEachWindow4(Iterable<T> iterable, Consumer<? super MutableTuple4<T, T, T, T>> action) {
+		Objects.requireNonNull(action);
+		MutableTuple4<T, T, T, T> cursor = new MutableTuple4<>();
+		int count = 0;
+		for(T t : iterable) {
+			cursor.v1 = cursor.v2;
+			cursor.v2 = cursor.v3;
+			cursor.v3 = cursor.v4;
+			cursor.v4 = t;
+			if(count == 3) {
+				action.accept(cursor);
+			} else {
+				count++;
+			}
+		}
+	}
+
+	/**
+	 * Iterableの前後5つの要素の組を順に処理する．
+	 * 要素の組ごとにTupleを作らず，同じ{@link MutableTuple5}を書き換えて処理に渡す．
+	 * 渡されたMutableTuple5は処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 * 要素が5つに満たない場合は何もしない．
+	 *
+	 * @see Tuple#window5Stream(List)
+	 * @param iterable もとになるIterable
+	 * @param action 要素の組に対する処理
+	 * @param <T> 要素の型
+	 */
+	public static <T> void forEachWindow5(Iterable<T> iterable, Consumer<? super MutableTuple5<T, T, T, T, T>> action) {
+		Objects.requireNonNull(action);
+		MutableTuple5<T, T, T, T, T> cursor = new MutableTuple5<>();
+		int count = 0;
+		for(T t : iterable) {
+			cursor.v1 = cursor.v2;
+			cursor.v2 = cursor.v3;
+			cursor.v3 = cursor.v4;
+			cursor.v4 = cursor.v5;
+			cursor.v5 = t;
+			if(count == 4) {
+				action.accept(cursor);
+			} else {
+				count++;
+			}
+		}
+	}
+
+	/**
+	 * 2つのサプライヤを指定したExecutorで並行して実行し，結果を要素とするTupleで完了するCompletableFutureを返す．
+	 * いずれかのサプライヤが例外を投げると，CompletableFutureはその例外で完了し，他のサプライヤは割り込みで取り消される．
+	 * CompletableFutureを取り消した場合もすべてのサプライヤを取り消す．
+	 *
+	 * @param executor サプライヤを実行するExecutor
+	 * @param s1 1番目の要素を返すサプライヤ
+	 * @param s2 2番目の要素を返すサプライヤ
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @return 結果を要素とするTupleで完了するCompletableFuture
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2> CompletableFuture<Tuple2<T1, T2>> forkJoinAsync(Executor executor,
+			ThrowableSupplier<? extends T1, ?> s1,
+			ThrowableSupplier<? extends T2, ?> s2) {
+		return ForkJoinSuppliers.fork(executor,
+				r -> new Tuple2<>((T1) r[0], (T2) r[1]), s1, s2);
+	}
+
+	/**
+	 * 2つのサプライヤを指定したExecutorで並行して実行し，すべての結果を要素とするTupleを返す．
+	 * かかる時間は最も遅いサプライヤの時間となる．
+	 * いずれかのサプライヤが例外を投げると，他のサプライヤを割り込みで取り消し，その例外を原因とする
+	 * {@link ExecutionException}を投げる．待っている間に割り込まれた場合もすべてのサプライヤを取り消す．
+	 *
+	 * @see Tuple#forkJoinAsync(Executor, ThrowableSupplier, ThrowableSupplier)
+	 * @param executor サプライヤを実行するExecutor
+	 * @param s1 1番目の要素を返すサプライヤ
+	 * @param s2 2番目の要素を返すサプライヤ
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @return 結果を要素とするTuple
+	 * @throws ExecutionException いずれかのサプライヤが例外を投げた場合
+	 * @throws InterruptedException 待っている間に割り込まれた場合
+	 */
+	public static <T1, T2> Tuple2<T1, T2> forkJoin(Executor executor,
+			ThrowableSupplier<? extends T1, ?> s1,
+			ThrowableSupplier<? extends T2, ?> s2) throws ExecutionException, InterruptedException {
+		return join(forkJoinAsync(executor, s1, s2));
+	}
+
+	/**
+	 * 3つのサプライヤを指定したExecutorで並行して実行し，結果を要素とするTupleで完了するCompletableFutureを返す．
+	 * いずれかのサプライヤが例外を投げると，CompletableFutureはその例外で完了し，他のサプライヤは割り込みで取り消される．
+	 * CompletableFutureを取り消した場合もすべてのサプライヤを取り消す．
+	 *
+	 * @param executor サプライヤを実行するExecutor
+	 * @param s1 1番目の要素を返すサプライヤ
+	 * @param s2 2番目の要素を返すサプライヤ
+	 * @param s3 3番目の要素を返すサプライヤ
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @return 結果を要素とするTupleで完了するCompletableFuture
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2, T3> CompletableFuture<Tuple3<T1, T2, T3>> forkJoinAsync(Executor executor,
+			ThrowableSupplier<? extends T1, ?> s1,
+			ThrowableSupplier<? extends T2, ?> s2,
+			ThrowableSupplier<? extends T3, ?> s3) {
+		return ForkJoinSuppliers.fork(executor,
+				r -> new Tuple3<>((T1) r[0], (T2) r[1], (T3) r[2]), s1, s2, s3);
+	}
+
+	/**
+	 * 3つのサプライヤを指定したExecutorで並行して実行し，すべての結果を要素とするTupleを返す．
+	 * かかる時間は最も遅いサプライヤの時間となる．
+	 * いずれかのサプライヤが例外を投げると，他のサプライヤを割り込みで取り消し，その例外を原因とする
+	 * {@link ExecutionException}を投げる．待っている間に割り込まれた場合もすべてのサプライヤを取り消す．
+	 *
+	 * @see Tuple#forkJoinAsync(Executor, ThrowableSupplier, ThrowableSupplier, ThrowableSupplier)
+	 * @param executor サプライヤを実行するExecutor
+	 * @param s1 1番目の要素を返すサプライヤ
+	 * @param s2 2番目の要素を返すサプライヤ
+	 * @param s3 3番目の要素を返すサプライヤ
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @return 結果を要素とするTuple
+	 * @throws ExecutionException いずれかのサプライヤが例外を投げた場合
+	 * @throws InterruptedException 待っている間に割り込まれた場合
+	 */
+	public static <T1, T2, T3> Tuple3<T1, T2, T3> forkJoin(Executor executor,
+			ThrowableSupplier<? extends T1, ?> s1,
+			ThrowableSupplier<? extends T2, ?> s2,
+			ThrowableSupplier<? extends T3, ?> s3) throws ExecutionException, InterruptedException {
+		return join(forkJoinAsync(executor, s1, s2, s3));
+	}
+
+	/**
+	 * 4つのサプライヤを指定したExecutorで並行して実行し，結果を要素とするTupleで完了するCompletableFutureを返す．
+	 * いずれかのサプライヤが例外を投げると，CompletableFutureはその例外で完了し，他のサプライヤは割り込みで取り消される．
+	 * CompletableFutureを取り消した場合もすべてのサプライヤを取り消す．
+	 *
+	 * @param executor サプライヤを実行するExecutor
+	 * @param s1 1番目の要素を返すサプライヤ
+	 * @param s2 2番目の要素を返すサプライヤ
+	 * @param s3 3番目の要素を返すサプライヤ
+	 * @param s4 4番目の要素を返すサプライヤ
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @return 結果を要素とするTupleで完了するCompletableFuture
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2, T3, T4> CompletableFuture<Tuple4<T1, T2, T3, T4>> forkJoinAsync(Executor executor,
+			ThrowableSupplier<? extends T1, ?> s1,
+			ThrowableSupplier<? extends T2, ?> s2,
+			ThrowableSupplier<? extends T3, ?> s3,
+			ThrowableSupplier<? extends T4, ?> s4) {
+		return ForkJoinSuppliers.fork(executor,
+				r -> new Tuple4<>((T1) r[0], (T2) r[1], (T3) r[2], (T4) r[3]), s1, s2, s3, s4);
+	}
+
+	/**
+	 * 4つのサプライヤを指定したExecutorで並行して実行し，すべての結果を要素とするTupleを返す．
+	 * かかる時間は最も遅いサプライヤの時間となる．
+	 * いずれかのサプライヤが例外を投げると，他のサプライヤを割り込みで取り消し，その例外を原因とする
+	 * {@link ExecutionException}を投げる．待っている間に割り込まれた場合もすべてのサプライヤを取り消す．
+	 *
+	 * @see Tuple#forkJoinAsync(Executor, ThrowableSupplier, ThrowableSupplier, ThrowableSupplier, ThrowableSupplier)
+	 * @param executor サプライヤを実行するExecutor
+	 * @param s1 1番目の要素を返すサプライヤ
+	 * @param s2 2番目の要素を返すサプライヤ
+	 * @param s3 3番目の要素を返すサプライヤ
+	 * @param s4 4番目の要素を返すサプライヤ
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @return 結果を要素とするTuple
+	 * @throws ExecutionException いずれかのサプライヤが例外を投げた場合
+	 * @throws InterruptedException 待っている間に割り込まれた場合
+	 */
+	public static <T1, T2, T3, T4> Tuple4<T1, T2, T3, T4> forkJoin(Executor executor,
+			ThrowableSupplier<? extends T1, ?> s1,
+			ThrowableSupplier<? extends T2, ?> s2,
+			ThrowableSupplier<? extends T3, ?> s3,
+			ThrowableSupplier<? extends T4, ?> s4) throws ExecutionException, InterruptedException {
+		return join(forkJoinAsync(executor, s1, s2, s3, s4));
+	}
+
+	/**
+	 * 5つのサプライヤを指定したExecutorで並行して実行し，結果を要素とするTupleで完了するCompletableFutureを返す．
+	 * いずれかのサプライヤが例外を投げると，CompletableFutureはその例外で完了し，他のサプライヤは割り込みで取り消される．
+	 * CompletableFutureを取り消した場合もすべてのサプライヤを取り消す．
+	 *
+	 * @param executor サプライヤを実行するExecutor
+	 * @param s1 1番目の要素を返すサプライヤ
+	 * @param s2 2番目の要素を返すサプライヤ
+	 * @param s3 3番目の要素を返すサプライヤ
+	 * @param s4 4番目の要素を返すサプライヤ
+	 * @param s5 5番目の要素を返すサプライヤ
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @param <T5> 5番目の要素の型
+	 * @return 結果を要素とするTupleで完了するCompletableFuture
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2, T3, T4, T5> CompletableFuture<Tuple5<T1, T2, T3, T4, T5>> forkJoinAsync(Executor executor,
+			ThrowableSupplier<? extends T1, ?> s1,
+			ThrowableSupplier<? extends T2, ?> s2,
+			ThrowableSupplier<? extends T3, ?> s3,
+			ThrowableSupplier<? extends T4, ?> s4,
+			ThrowableSupplier<? extends T5, ?> s5) {
+		return ForkJoinSuppliers.fork(executor,
+				r -> new Tuple5<>((T1) r[0], (T2) r[1], (T3) r[2], (T4) r[3], (T5) r[4]), s1, s2, s3, s4, s5);
+	}
+
+	/**
+	 * 5つのサプライヤを指定したExecutorで並行して実行し，すべての結果を要素とするTupleを返す．
+	 * かかる時間は最も遅いサプライヤの時間となる．
+	 * いずれかのサプライヤが例外を投げると，他のサプライヤを割り込みで取り消し，その例外を原因とする
+	 * {@link ExecutionException}を投げる．待っている間に割り込まれた場合もすべてのサプライヤを取り消す．
+	 *
+	 * @see Tuple#forkJoinAsync(Executor, ThrowableSupplier, ThrowableSupplier, ThrowableSupplier, ThrowableSupplier, ThrowableSupplier)
+	 * @param executor サプライヤを実行するExecutor
+	 * @param s1 1番目の要素を返すサプライヤ
+	 * @param s2 2番目の要素を返すサプライヤ
+	 * @param s3 3番目の要素を返すサプライヤ
+	 * @param s4 4番目の要素を返すサプライヤ
+	 * @param s5 5番目の要素を返すサプライヤ
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @param <T5> 5番目の要素の型
+	 * @return 結果を要素とするTuple
+	 * @throws ExecutionException いずれかのサプライヤが例外を投げた場合
+	 * @throws InterruptedException 待っている間に割り込まれた場合
+	 */
+	public static <T1, T2, T3, T4, T5> Tuple5<T1, T2, T3, T4, T5> forkJoin(Executor executor,
+			ThrowableSupplier<? extends T1, ?> s1,
+			ThrowableSupplier<? extends T2, ?> s2,
+			ThrowableSupplier<? extends T3, ?> s3,
+			ThrowableSupplier<? extends T4, ?> s4,
+			ThrowableSupplier<? extends T5, ?> s5) throws ExecutionException, InterruptedException {
+		return join(forkJoinAsync(executor, s1, s2, s3, s4, s5));
+	}
+
+	private static <T> T join(CompletableFuture<T> future) throws ExecutionException, InterruptedException {
+		try {
+			return future.get();
+		} catch(InterruptedException e) {
+			future.cancel(true);
+			throw e;
+		}
+	}
+
+	private static void checkChunkSize(int size) {
+		if(size <= 0) {
+			throw new IllegalArgumentException("size must be positive: " + size);
+		}
+	}
+
+	/**
+	 * 時刻と値の組を要素とするStreamを，重ならない決まった幅の時間のウィンドウごとに集約する．
+	 * ウィンドウの開始時刻は幅の倍数である．
+	 * 作られるStreamの要素はウィンドウの開始時刻と集約結果の組であり，開始時刻の順に並ぶ．
+	 * <p>
+	 * 入力は要素が要求されるたびに読み進めるため，終わりのないStreamにも用いることができる．
+	 * それまでに現れた最大の時刻から許容する遅延を引いた時刻をウォーターマークとし，
+	 * 終了時刻がウォーターマーク以下になったウィンドウから順に集約結果を返す．
+	 * 保持するのは開いているウィンドウの集約途中の値のみである．
+	 * すでに集約結果を返したウィンドウに属する値は遅れて届いたものとして捨てる．
+	 * 入力が尽きると開いているウィンドウの集約結果をすべて返す．
+	 * 入力したStreamは消費される．
+	 *
+	 * @param stream 時刻と値の組を要素とするStream
+	 * @param size ウィンドウの幅
+	 * @param allowedLateness 許容する遅延
+	 * @param collector ウィンドウごとの集約に用いるCollector
+	 * @param <T> 値の型
+	 * @param <A> 集約途中の値の型
+	 * @param <R> 集約結果の型
+	 * @return ウィンドウの開始時刻と集約結果の組を要素とするStream
+	 * @exception IllegalArgumentException 幅が正でない場合，許容する遅延が負の場合
+	 */
+	public static <T, A, R> Stream<Tuple2<Long, R>> tumblingWindows(
+			Stream<Tuple2<Long, T>> stream, long size, long allowedLateness, Collector<? super T, A, R> collector) {
+		return slidingWindows(stream, size, size, allowedLateness, collector);
+	}
+
+	/**
+	 * 時刻と値の組を要素とするStreamを，決まった間隔で始まる決まった幅の時間のウィンドウごとに集約する．
+	 * ウィンドウの開始時刻は間隔の倍数である．間隔が幅より小さい場合，値は複数のウィンドウに属する．
+	 *
+	 * @see Tuple#tumblingWindows(Stream, long, long, Collector)
+	 * @param stream 時刻と値の組を要素とするStream
+	 * @param size ウィンドウの幅
+	 * @param slide ウィンドウの間隔
+	 * @param allowedLateness 許容する遅延
+	 * @param collector ウィンドウごとの集約に用いるCollector
+	 * @param <T> 値の型
+	 * @param <A> 集約途中の値の型
+	 * @param <R> 集約結果の型
+	 * @return ウィンドウの開始時刻と集約結果の組を要素とするStream
+	 * @exception IllegalArgumentException 幅か間隔が正でない場合，許容する遅延が負の場合
+	 */
+	public static <T, A, R> Stream<Tuple2<Long, R>> slidingWindows(
+			Stream<Tuple2<Long, T>> stream, long size, long slide, long allowedLateness,
+			Collector<? super T, A, R> collector) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(collector);
+		checkWindowLength("size", size);
+		checkWindowLength("slide", slide);
+		checkAllowedLateness(allowedLateness);
+		return StreamSupport.stream(new EventTimeWindowSpliterator.Aligned<>(
+				stream.spliterator(), size, slide, allowedLateness, collector), false)
+				.onClose(stream::close);
+	}
+
+	/**
+	 * 時刻と値の組を要素とするStreamを，値の時刻の間隔が一定以上空くまで続くセッションごとに集約する．
+	 * セッションは最初の値の時刻に始まり，最後の値の時刻に間隔を足した時刻に終わる．
+	 * 遅れて届いた値によってセッションがつながった場合は，集約途中の値を
+	 * {@link Collector#combiner()}で併合する．
+	 * 値の時刻から間隔の分の範囲がまだ閉じていないセッションに重なる場合は，遅延が許容する範囲を超えていても併合する．
+	 *
+	 * @see Tuple#tumblingWindows(Stream, long, long, Collector)
+	 * @param stream 時刻と値の組を要素とするStream
+	 * @param gap セッションを区切る間隔
+	 * @param allowedLateness 許容する遅延
+	 * @param collector セッションごとの集約に用いるCollector
+	 * @param <T> 値の型
+	 * @param <A> 集約途中の値の型
+	 * @param <R> 集約結果の型
+	 * @return セッションの開始時刻と集約結果の組を要素とするStream
+	 * @exception IllegalArgumentException 間隔が正でない場合，許容する遅延が負の場合
+	 */
+	public static <T, A, R> Stream<Tuple2<Long, R>> sessionWindows(
+			Stream<Tuple2<Long, T>> stream, long gap, long allowedLateness, Collector<? super T, A, R> collector) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(collector);
+		checkWindowLength("gap", gap);
+		checkAllowedLateness(allowedLateness);
+		return StreamSupport.stream(new EventTimeWindowSpliterator.Session<>(
+				stream.spliterator(), gap, allowedLateness, collector), false)
+				.onClose(stream::close);
+	}
+
+	private static void checkWindowLength(String name, long length) {
+		if(length <= 0) {
+			throw new IllegalArgumentException(name + " must be positive: " + length);
+		}
+	}
+
+	private static void checkAllowedLateness(long allowedLateness) {
+		if(allowedLateness < 0) {
+			throw new IllegalArgumentException("allowedLateness must not be negative: " + allowedLateness);
+		}
+	}
+
 	/**
 	 * 要素ごとのListに変換するCollectorを得る.
 	 * @param <T1> Tupleの1番目の要素の型
@@ -804,7 +2065,7 @@ public final class Tuple {
 				);
 	}
 	
-	private static int zipCharacteristics(int... c) {
+	static int zipCharacteristics(int... c) {
 		int dis = Arrays.stream(c).reduce((l, r) -> l | r).getAsInt();
 		int con = Arrays.stream(c).reduce((l, r) -> l & r).getAsInt();
 		return (Spliterator.CONCURRENT & (con))
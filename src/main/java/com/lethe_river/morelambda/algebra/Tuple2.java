@@ -17,11 +17,13 @@ import java.io.Serializable;
  * @param <T1>
  * @param <T2>
  */
-public final class Tuple2<T1,T2> implements Serializable {
+public final class Tuple2<T1,T2> implements Serializable, Hash64 {
 	private static final long serialVersionUID = 2752206660938385231L;
 	
 	public final T1 v1;
 	public final T2 v2;
+	/** ハッシュ値のキャッシュ．0は未計算をあらわす */
+	private transient int hash;
 	
 	public Tuple2(T1 v1, T2 v2) {
 		this.v1 = v1;
@@ -59,12 +61,37 @@ public final class Tuple2<T1,T2> implements Serializable {
 		return true;
 	}
 	
+	/**
+	 * 要素のハッシュ値をまとめて攪拌したハッシュ値を返す．
+	 * 要素の値が小さい整数であっても，ハッシュ表の下位ビットで偏らないように攪拌する．
+	 * 不変であるため最初に計算した値を保持して再利用する．
+	 * 複数のスレッドが同時に計算することがあるが，結果は常に同じである．
+	 * 要素が可変なオブジェクトの場合，要素を変更しても最初に計算した値を返す．
+	 *
+	 * @return ハッシュ値
+	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((v1 == null) ? 0 : v1.hashCode());
-		result = prime * result + ((v2 == null) ? 0 : v2.hashCode());
-		return result;
+		int h = hash;
+		if (h == 0) {
+			h = Hashing.hash(v1, v2);
+			hash = h;
+		}
+		return h;
+	}
+
+	/**
+	 * 64ビットのハッシュ値を返す．
+	 * 要素の数が多いハッシュ表など，32ビットのハッシュ値では衝突が多い場合に用いる．
+	 * LongとDoubleの要素は値の64ビット全体を，Tupleの要素はそのhash64()の値をまとめる．
+	 *
+	 * @return 64ビットのハッシュ値
+	 */
+	@Override
+	public long hash64() {
+		long h = Hashing.seed64(2);
+		h = Hashing.combine64(h, Hashing.hash64Of(v1));
+		h = Hashing.combine64(h, Hashing.hash64Of(v2));
+		return Hashing.mix64(h);
 	}
 }
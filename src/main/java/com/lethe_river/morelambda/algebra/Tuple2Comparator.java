@@ -0,0 +1,35 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Comparator;
+
+/**
+ * 要素ごとの比較関数を前の要素から順に適用するTuple2の比較関数
+ *
+ * {@link Comparator#thenComparing(Comparator)}を連ねた比較関数と異なり，
+ * 比較のたびに入れ子になった比較関数を呼び出したり，キーをボクシングしたりすることはない．
+ *
+ * @see Tuple#comparing(FieldComparator, FieldComparator)
+ * @author YuyaAizawa
+ *
+ * @param <T1> Tupleの1番目の要素の型
+ * @param <T2> Tupleの2番目の要素の型
+ */
+public final class Tuple2Comparator<T1, T2> implements Comparator<Tuple2<T1, T2>> {
+	private final FieldComparator<? super T1> f1;
+	private final FieldComparator<? super T2> f2;
+
+	Tuple2Comparator(FieldComparator<? super T1> f1, FieldComparator<? super T2> f2) {
+		this.f1 = f1;
+		this.f2 = f2;
+	}
+
+	@Override
+	public int compare(Tuple2<T1, T2> o1, Tuple2<T1, T2> o2) {
+		int c;
+		c = f1.compare(o1.v1, o2.v1);
+		if(c != 0) {
+			return c;
+		}
+		return f2.compare(o1.v2, o2.v2);
+	}
+}
@@ -0,0 +1,49 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Comparator;
+
+/**
+ * 要素ごとの比較関数を前の要素から順に適用するTuple4の比較関数
+ *
+ * {@link Comparator#thenComparing(Comparator)}を連ねた比較関数と異なり，
+ * 比較のたびに入れ子になった比較関数を呼び出したり，キーをボクシングしたりすることはない．
+ *
+ * @see Tuple#comparing(FieldComparator, FieldComparator, FieldComparator, FieldComparator)
+ * @author YuyaAizawa
+ *
+ * @param <T1> Tupleの1番目の要素の型
+ * @param <T2> Tupleの2番目の要素の型
+ * @param <T3> Tupleの3番目の要素の型
+ * @param <T4> Tupleの4番目の要素の型
+ */
+public final class Tuple4Comparator<T1, T2, T3, T4> implements Comparator<Tuple4<T1, T2, T3, T4>> {
+	private final FieldComparator<? super T1> f1;
+	private final FieldComparator<? super T2> f2;
+	private final FieldComparator<? super T3> f3;
+	private final FieldComparator<? super T4> f4;
+
+	Tuple4Comparator(FieldComparator<? super T1> f1, FieldComparator<? super T2> f2, FieldComparator<? super T3> f3, FieldComparator<? super T4> f4) {
+		this.f1 = f1;
+		this.f2 = f2;
+		this.f3 = f3;
+		this.f4 = f4;
+	}
+
+	@Override
+	public int compare(Tuple4<T1, T2, T3, T4> o1, Tuple4<T1, T2, T3, T4> o2) {
+		int c;
+		c = f1.compare(o1.v1, o2.v1);
+		if(c != 0) {
+			return c;
+		}
+		c = f2.compare(o1.v2, o2.v2);
+		if(c != 0) {
+			return c;
+		}
+		c = f3.compare(o1.v3, o2.v3);
+		if(c != 0) {
+			return c;
+		}
+		return f4.compare(o1.v4, o2.v4);
+	}
+}
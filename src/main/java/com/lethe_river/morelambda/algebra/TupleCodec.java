@@ -0,0 +1,288 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * 要素をバイト列に書き出し，読み戻すための符号化方式
+ *
+ * 一時ファイルへの退避などで用いる．
+ * 書き出した順に読み戻すので，要素の区切りを自身で判別できるように書き出さなければならない．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 要素の型
+ */
+public interface TupleCodec<T> {
+
+	/**
+	 * 要素を書き出す．
+	 *
+	 * @param out 書き出し先
+	 * @param value 要素
+	 * @throws IOException 書き出しに失敗した場合
+	 */
+	public void write(DataOutput out, T value) throws IOException;
+
+	/**
+	 * 要素を読み込む．
+	 *
+	 * @param in 読み込み元
+	 * @return 要素
+	 * @throws IOException 読み込みに失敗した場合
+	 */
+	public T read(DataInput in) throws IOException;
+
+	/**
+	 * Longの符号化方式を返す．nullは扱えない．
+	 *
+	 * @return Longの符号化方式
+	 */
+	public static TupleCodec<Long> longs() {
+		return new TupleCodec<Long>() {
+			@Override
+			public void write(DataOutput out, Long value) throws IOException {
+				out.writeLong(value);
+			}
+
+			@Override
+			public Long read(DataInput in) throws IOException {
+				return in.readLong();
+			}
+		};
+	}
+
+	/**
+	 * Integerの符号化方式を返す．nullは扱えない．
+	 *
+	 * @return Integerの符号化方式
+	 */
+	public static TupleCodec<Integer> ints() {
+		return new TupleCodec<Integer>() {
+			@Override
+			public void write(DataOutput out, Integer value) throws IOException {
+				out.writeInt(value);
+			}
+
+			@Override
+			public Integer read(DataInput in) throws IOException {
+				return in.readInt();
+			}
+		};
+	}
+
+	/**
+	 * Doubleの符号化方式を返す．nullは扱えない．
+	 *
+	 * @return Doubleの符号化方式
+	 */
+	public static TupleCodec<Double> doubles() {
+		return new TupleCodec<Double>() {
+			@Override
+			public void write(DataOutput out, Double value) throws IOException {
+				out.writeDouble(value);
+			}
+
+			@Override
+			public Double read(DataInput in) throws IOException {
+				return in.readDouble();
+			}
+		};
+	}
+
+	/**
+	 * Stringの符号化方式を返す．文字列はUTF-8で書き出される．nullは扱えない．
+	 *
+	 * @return Stringの符号化方式
+	 */
+	public static TupleCodec<String> strings() {
+		return new TupleCodec<String>() {
+			@Override
+			public void write(DataOutput out, String value) throws IOException {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+
+			@Override
+			public String read(DataInput in) throws IOException {
+				byte[] bytes = new byte[in.readInt()];
+				in.readFully(bytes);
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+		};
+	}
+
+	/**
+	 * 指定した符号化方式にnullを扱えるようにした符号化方式を返す．
+	 *
+	 * @param codec もとになる符号化方式
+	 * @param <T> 要素の型
+	 * @return nullを扱える符号化方式
+	 */
+	public static <T> TupleCodec<T> nullable(TupleCodec<T> codec) {
+		Objects.requireNonNull(codec);
+		return new TupleCodec<T>() {
+			@Override
+			public void write(DataOutput out, T value) throws IOException {
+				out.writeBoolean(value != null);
+				if(value != null) {
+					codec.write(out, value);
+				}
+			}
+
+			@Override
+			public T read(DataInput in) throws IOException {
+				return in.readBoolean() ? codec.read(in) : null;
+			}
+		};
+	}
+
+	/**
+	 * 要素ごとの符号化方式を組み合わせたTuple2の符号化方式を返す．
+	 *
+	 * @param c1 1番目の要素の符号化方式
+	 * @param c2 2番目の要素の符号化方式
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @return Tuple2の符号化方式
+	 */
+	public static <T1, T2> TupleCodec<Tuple2<T1, T2>> tuple2(TupleCodec<T1> c1, TupleCodec<T2> c2) {
+		Objects.requireNonNull(c1);
+		Objects.requireNonNull(c2);
+		return new TupleCodec<Tuple2<T1, T2>>() {
+			@Override
+			public void write(DataOutput out, Tuple2<T1, T2> value) throws IOException {
+				c1.write(out, value.v1);
+				c2.write(out, value.v2);
+			}
+
+			@Override
+			public Tuple2<T1, T2> read(DataInput in) throws IOException {
+				T1 v1 = c1.read(in);
+				T2 v2 = c2.read(in);
+				return Tuple.of(v1, v2);
+			}
+		};
+	}
+
+	/**
+	 * 要素ごとの符号化方式を組み合わせたTuple3の符号化方式を返す．
+	 *
+	 * @param c1 1番目の要素の符号化方式
+	 * @param c2 2番目の要素の符号化方式
+	 * @param c3 3番目の要素の符号化方式
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @return Tuple3の符号化方式
+	 */
+	public static <T1, T2, T3> TupleCodec<Tuple3<T1, T2, T3>> tuple3(
+			TupleCodec<T1> c1, TupleCodec<T2> c2, TupleCodec<T3> c3) {
+		Objects.requireNonNull(c1);
+		Objects.requireNonNull(c2);
+		Objects.requireNonNull(c3);
+		return new TupleCodec<Tuple3<T1, T2, T3>>() {
+			@Override
+			public void write(DataOutput out, Tuple3<T1, T2, T3> value) throws IOException {
+				c1.write(out, value.v1);
+				c2.write(out, value.v2);
+				c3.write(out, value.v3);
+			}
+
+			@Override
+			public Tuple3<T1, T2, T3> read(DataInput in) throws IOException {
+				T1 v1 = c1.read(in);
+				T2 v2 = c2.read(in);
+				T3 v3 = c3.read(in);
+				return Tuple.of(v1, v2, v3);
+			}
+		};
+	}
+
+	/**
+	 * 要素ごとの符号化方式を組み合わせたTuple4の符号化方式を返す．
+	 *
+	 * @param c1 1番目の要素の符号化方式
+	 * @param c2 2番目の要素の符号化方式
+	 * @param c3 3番目の要素の符号化方式
+	 * @param c4 4番目の要素の符号化方式
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @return Tuple4の符号化方式
+	 */
+	public static <T1, T2, T3, T4> TupleCodec<Tuple4<T1, T2, T3, T4>> tuple4(
+			TupleCodec<T1> c1, TupleCodec<T2> c2, TupleCodec<T3> c3, TupleCodec<T4> c4) {
+		Objects.requireNonNull(c1);
+		Objects.requireNonNull(c2);
+		Objects.requireNonNull(c3);
+		Objects.requireNonNull(c4);
+		return new TupleCodec<Tuple4<T1, T2, T3, T4>>() {
+			@Override
+			public void write(DataOutput out, Tuple4<T1, T2, T3, T4> value) throws IOException {
+				c1.write(out, value.v1);
+				c2.write(out, value.v2);
+				c3.write(out, value.v3);
+				c4.write(out, value.v4);
+			}
+
+			@Override
+			public Tuple4<T1, T2, T3, T4> read(DataInput in) throws IOException {
+				T1 v1 = c1.read(in);
+				T2 v2 = c2.read(in);
+				T3 v3 = c3.read(in);
+				T4 v4 = c4.read(in);
+				return Tuple.of(v1, v2, v3, v4);
+			}
+		};
+	}
+
+	/**
+	 * 要素ごとの符号化方式を組み合わせたTuple5の符号化方式を返す．
+	 *
+	 * @param c1 1番目の要素の符号化方式
+	 * @param c2 2番目の要素の符号化方式
+	 * @param c3 3番目の要素の符号化方式
+	 * @param c4 4番目の要素の符号化方式
+	 * @param c5 5番目の要素の符号化方式
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @param <T5> 5番目の要素の型
+	 * @return Tuple5の符号化方式
+	 */
+	public static <T1, T2, T3, T4, T5> TupleCodec<Tuple5<T1, T2, T3, T4, T5>> tuple5(
+			TupleCodec<T1> c1, TupleCodec<T2> c2, TupleCodec<T3> c3, TupleCodec<T4> c4, TupleCodec<T5> c5) {
+		Objects.requireNonNull(c1);
+		Objects.requireNonNull(c2);
+		Objects.requireNonNull(c3);
+		Objects.requireNonNull(c4);
+		Objects.requireNonNull(c5);
+		return new TupleCodec<Tuple5<T1, T2, T3, T4, T5>>() {
+			@Override
+			public void write(DataOutput out, Tuple5<T1, T2, T3, T4, T5> value) throws IOException {
+				c1.write(out, value.v1);
+				c2.write(out, value.v2);
+				c3.write(out, value.v3);
+				c4.write(out, value.v4);
+				c5.write(out, value.v5);
+			}
+
+			@Override
+			public Tuple5<T1, T2, T3, T4, T5> read(DataInput in) throws IOException {
+				T1 v1 = c1.read(in);
+				T2 v2 = c2.read(in);
+				T3 v3 = c3.read(in);
+				T4 v4 = c4.read(in);
+				T5 v5 = c5.read(in);
+				return Tuple.of(v1, v2, v3, v4, v5);
+			}
+		};
+	}
+}
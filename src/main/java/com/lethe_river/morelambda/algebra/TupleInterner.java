@@ -0,0 +1,319 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 等しいインスタンスを1つの正準なインスタンスにまとめるプール
+ *
+ * {@link #intern(Object)}は既に登録された等しいインスタンスがあればそれを返し，なければ引数を登録して返す．
+ * 登録したインスタンスは弱参照で保持するため，プールの外から参照されなくなれば回収される．
+ * 要素の値が等しくても型の位置が異なるUnionは別のものとして扱う．
+ * 要素を正準化するよう指定した場合は，登録するTuple2～Tuple5の要素も別のプールで正準化する．
+ * ハッシュ値の上位ビットで登録先を複数のストライプに振り分け，ストライプごとにロックを取るので，
+ * 複数のスレッドから同時に用いることができる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <T> 登録する値の型
+ */
+public final class TupleInterner<T> {
+	private static final ClassValue<Long> SHALLOW_SIZE = new ClassValue<Long>() {
+		@Override
+		protected Long computeValue(Class<?> type) {
+			return shallowSizeOf(type);
+		}
+	};
+
+	private final Stripe[] stripes;
+	private final int shift;
+	private final TupleInterner<Object> components;
+
+	private TupleInterner(int stripeCount, boolean internComponents) {
+		int count = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+		stripes = new Stripe[count];
+		for(int i = 0; i < count; i++) {
+			stripes[i] = new Stripe();
+		}
+		shift = 32 - Integer.numberOfTrailingZeros(count);
+		components = internComponents ? new TupleInterner<>(stripeCount, false) : null;
+	}
+
+	/**
+	 * 値そのものを正準化するプールを作る．
+	 *
+	 * @param <T> 登録する値の型
+	 * @return 作られたプール
+	 */
+	public static <T> TupleInterner<T> create() {
+		return create(false);
+	}
+
+	/**
+	 * プールを作る．
+	 *
+	 * @param internComponents Tuple2～Tuple5の要素も正準化する場合true
+	 * @param <T> 登録する値の型
+	 * @return 作られたプール
+	 */
+	public static <T> TupleInterner<T> create(boolean internComponents) {
+		return new TupleInterner<>(4 * Runtime.getRuntime().availableProcessors(), internComponents);
+	}
+
+	/**
+	 * 指定した値と等しい正準なインスタンスを返す．
+	 * 登録されていない場合は指定した値を登録して返す．
+	 *
+	 * @param value 値
+	 * @return 正準なインスタンス，valueがnullの場合はnull
+	 */
+	@SuppressWarnings("unchecked")
+	public T intern(T value) {
+		if(value == null) {
+			return null;
+		}
+		int hash = Hashing.mix(value.hashCode());
+		Stripe stripe = stripes[hash >>> shift];
+		Object canonical = stripe.find(value, hash);
+		if(canonical != null) {
+			return (T) canonical;
+		}
+		// 要素の正準化は別のプールのロックを取るので，このストライプのロックの外で行う
+		return (T) stripe.add(components == null ? value : internComponents(value), hash);
+	}
+
+	/**
+	 * ストリームの各要素を正準なインスタンスに置き換えるストリームを返す．
+	 *
+	 * @param stream 元のストリーム
+	 * @return 置き換えたストリーム
+	 */
+	public Stream<T> internAll(Stream<? extends T> stream) {
+		return stream.map(this::intern);
+	}
+
+	/**
+	 * 要素を正準なインスタンスに置き換えてから集めるCollectorを返す．
+	 *
+	 * @param downstream 置き換えた要素を集めるCollector
+	 * @param <A> downstreamの中間型
+	 * @param <R> 結果の型
+	 * @return Collector
+	 */
+	public <A, R> Collector<T, ?, R> collecting(Collector<? super T, A, R> downstream) {
+		return Collectors.mapping(this::intern, downstream);
+	}
+
+	/**
+	 * 値の正準化の統計を返す．
+	 *
+	 * @return 統計
+	 */
+	public InternStatistics statistics() {
+		long lookupCount = 0;
+		long hitCount = 0;
+		long savedBytes = 0;
+		long size = 0;
+		for(Stripe stripe : stripes) {
+			synchronized(stripe) {
+				stripe.expunge();
+				lookupCount += stripe.lookupCount;
+				hitCount += stripe.hitCount;
+				savedBytes += stripe.savedBytes;
+				size += stripe.size;
+			}
+		}
+		return new InternStatistics(lookupCount, hitCount, savedBytes, size);
+	}
+
+	/**
+	 * 要素の正準化の統計を返す．
+	 * 要素を正準化しないプールでは，すべての値が0の統計を返す．
+	 *
+	 * @return 統計
+	 */
+	public InternStatistics componentStatistics() {
+		return components == null ? new InternStatistics(0, 0, 0, 0) : components.statistics();
+	}
+
+	private Object internComponents(Object value) {
+		if(value instanceof Tuple2) {
+			Tuple2<?, ?> t = (Tuple2<?, ?>) value;
+			Object v1 = components.intern(t.v1);
+			Object v2 = components.intern(t.v2);
+			return v1 == t.v1 && v2 == t.v2 ? t : new Tuple2<>(v1, v2);
+		}
+		if(value instanceof Tuple3) {
+			Tuple3<?, ?, ?> t = (Tuple3<?, ?, ?>) value;
+			Object v1 = components.intern(t.v1);
+			Object v2 = components.intern(t.v2);
+			Object v3 = components.intern(t.v3);
+			return v1 == t.v1 && v2 == t.v2 && v3 == t.v3 ? t : new Tuple3<>(v1, v2, v3);
+		}
+		if(value instanceof Tuple4) {
+			Tuple4<?, ?, ?, ?> t = (Tuple4<?, ?, ?, ?>) value;
+			Object v1 = components.intern(t.v1);
+			Object v2 = components.intern(t.v2);
+			Object v3 = components.intern(t.v3);
+			Object v4 = components.intern(t.v4);
+			return v1 == t.v1 && v2 == t.v2 && v3 == t.v3 && v4 == t.v4 ? t : new Tuple4<>(v1, v2, v3, v4);
+		}
+		if(value instanceof Tuple5) {
+			Tuple5<?, ?, ?, ?, ?> t = (Tuple5<?, ?, ?, ?, ?>) value;
+			Object v1 = components.intern(t.v1);
+			Object v2 = components.intern(t.v2);
+			Object v3 = components.intern(t.v3);
+			Object v4 = components.intern(t.v4);
+			Object v5 = components.intern(t.v5);
+			return v1 == t.v1 && v2 == t.v2 && v3 == t.v3 && v4 == t.v4 && v5 == t.v5
+					? t : new Tuple5<>(v1, v2, v3, v4, v5);
+		}
+		return value;
+	}
+
+	private static boolean equivalent(Object canonical, Object value) {
+		if(!canonical.equals(value)) {
+			return false;
+		}
+		return !(canonical instanceof Alternative)
+				|| ((Alternative) canonical).index() == ((Alternative) value).index();
+	}
+
+	/**
+	 * 64ビットJVMで参照を圧縮した場合のインスタンス自身の大きさを見積もる．
+	 */
+	private static long shallowSizeOf(Class<?> type) {
+		long size = 12;
+		for(Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for(Field field : c.getDeclaredFields()) {
+				if(Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				Class<?> fieldType = field.getType();
+				if(fieldType == long.class || fieldType == double.class) {
+					size += 8;
+				} else if(fieldType == short.class || fieldType == char.class) {
+					size += 2;
+				} else if(fieldType == byte.class || fieldType == boolean.class) {
+					size += 1;
+				} else {
+					size += 4;
+				}
+			}
+		}
+		return (size + 7) & ~7L;
+	}
+
+	private static final class WeakEntry extends WeakReference<Object> {
+		final int hash;
+		WeakEntry next;
+
+		WeakEntry(Object referent, int hash, ReferenceQueue<Object> queue, WeakEntry next) {
+			super(referent, queue);
+			this.hash = hash;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * 弱参照の連鎖によるハッシュ表．操作はすべてこのオブジェクトのロックを取って行う．
+	 */
+	private static final class Stripe {
+		private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+		private WeakEntry[] table = new WeakEntry[16];
+		private int size;
+
+		private long lookupCount;
+		private long hitCount;
+		private long savedBytes;
+
+		synchronized Object find(Object value, int hash) {
+			expunge();
+			lookupCount++;
+			Object canonical = lookup(value, hash);
+			if(canonical != null) {
+				hit(canonical);
+			}
+			return canonical;
+		}
+
+		synchronized Object add(Object value, int hash) {
+			expunge();
+			// ロックを離している間に他のスレッドが登録した場合はそちらを用いる
+			Object canonical = lookup(value, hash);
+			if(canonical != null) {
+				hit(canonical);
+				return canonical;
+			}
+			int index = hash & (table.length - 1);
+			table[index] = new WeakEntry(value, hash, queue, table[index]);
+			if(++size > table.length - (table.length >> 2)) {
+				resize();
+			}
+			return value;
+		}
+
+		private Object lookup(Object value, int hash) {
+			for(WeakEntry e = table[hash & (table.length - 1)]; e != null; e = e.next) {
+				if(e.hash == hash) {
+					Object canonical = e.get();
+					if(canonical != null && equivalent(canonical, value)) {
+						return canonical;
+					}
+				}
+			}
+			return null;
+		}
+
+		private void hit(Object canonical) {
+			hitCount++;
+			savedBytes += SHALLOW_SIZE.get(canonical.getClass());
+		}
+
+		void expunge() {
+			Reference<?> ref;
+			while((ref = queue.poll()) != null) {
+				WeakEntry removed = (WeakEntry) ref;
+				int index = removed.hash & (table.length - 1);
+				WeakEntry prev = null;
+				for(WeakEntry e = table[index]; e != null; prev = e, e = e.next) {
+					if(e == removed) {
+						if(prev == null) {
+							table[index] = e.next;
+						} else {
+							prev.next = e.next;
+						}
+						size--;
+						break;
+					}
+				}
+			}
+		}
+
+		private void resize() {
+			WeakEntry[] newTable = new WeakEntry[table.length * 2];
+			for(WeakEntry head : table) {
+				WeakEntry e = head;
+				while(e != null) {
+					WeakEntry next = e.next;
+					int index = e.hash & (newTable.length - 1);
+					e.next = newTable[index];
+					newTable[index] = e;
+					e = next;
+				}
+			}
+			table = newTable;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TupleInterner" + statistics();
+	}
+}
@@ -0,0 +1,342 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * 2つの要素からなるキーで値を保持するマップ
+ *
+ * {@code Map<Tuple2<K1, K2>, V>}と同じ対応を保持するが，キーの要素を個別に受け取るため
+ * 検索の際に{@link Tuple2}を作る必要がない．キーの要素はTupleにまとめずに保持する．
+ * キーの要素と値にはnullを指定できる．
+ * 要素の走査順は追加した順であるが，削除を行うと最後の要素が削除した位置に移動する．
+ * このクラスはスレッドセーフではない．複数のスレッドから更新する場合は
+ * {@link ConcurrentTupleKeyMap2}を用いる．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <K1> キーの1番目の要素の型
+ * @param <K2> キーの2番目の要素の型
+ * @param <V> 値の型
+ */
+public final class TupleKeyMap2<K1, K2, V> {
+	private final TupleKeyTable table;
+	private Map<Tuple2<K1, K2>, V> map;
+
+	private TupleKeyMap2(int expectedSize) {
+		table = new TupleKeyTable(2, expectedSize);
+	}
+
+	/**
+	 * 空のマップを作る．
+	 *
+	 * @param <K1> キーの1番目の要素の型
+	 * @param <K2> キーの2番目の要素の型
+	 * @param <V> 値の型
+	 * @return 作られたマップ
+	 */
+	public static <K1, K2, V> TupleKeyMap2<K1, K2, V> create() {
+		return new TupleKeyMap2<>(16);
+	}
+
+	/**
+	 * 指定した数の要素を再配置なしで保持できる空のマップを作る．
+	 *
+	 * @param expectedSize 想定する要素数
+	 * @param <K1> キーの1番目の要素の型
+	 * @param <K2> キーの2番目の要素の型
+	 * @param <V> 値の型
+	 * @return 作られたマップ
+	 * @exception IllegalArgumentException expectedSizeが負の場合
+	 */
+	public static <K1, K2, V> TupleKeyMap2<K1, K2, V> create(int expectedSize) {
+		if(expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize must be non-negative");
+		}
+		return new TupleKeyMap2<>(expectedSize);
+	}
+
+	/**
+	 * 指定したキーに対応する値を返す．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @return 対応する値，存在しない場合はnull
+	 */
+	public V get(Object k1, Object k2) {
+		return getOrDefault(k1, k2, null);
+	}
+
+	/**
+	 * 指定したキーに対応する値を返す．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @param defaultValue 存在しない場合の値
+	 * @return 対応する値，存在しない場合はdefaultValue
+	 */
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(Object k1, Object k2, V defaultValue) {
+		int row = table.find(Hashing.hash(k1, k2), k1, k2, null);
+		return row == TupleKeyTable.NONE ? defaultValue : (V) table.value(row);
+	}
+
+	/**
+	 * 指定したキーが存在するか調べる．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @return 存在する場合true
+	 */
+	public boolean containsKey(Object k1, Object k2) {
+		return table.find(Hashing.hash(k1, k2), k1, k2, null) != TupleKeyTable.NONE;
+	}
+
+	/**
+	 * 指定したキーに値を対応付ける．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @param value 値
+	 * @return 以前に対応付けられていた値，存在しない場合はnull
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(K1 k1, K2 k2, V value) {
+		int hash = Hashing.hash(k1, k2);
+		int row = table.find(hash, k1, k2, null);
+		if(row == TupleKeyTable.NONE) {
+			table.insert(hash, k1, k2, null, value);
+			return null;
+		}
+		V old = (V) table.value(row);
+		table.setValue(row, value);
+		return old;
+	}
+
+	/**
+	 * 指定したキーが存在しない場合に値を対応付ける．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @param value 値
+	 * @return 既に対応付けられていた値，存在しない場合はnull
+	 */
+	@SuppressWarnings("unchecked")
+	public V putIfAbsent(K1 k1, K2 k2, V value) {
+		int hash = Hashing.hash(k1, k2);
+		int row = table.find(hash, k1, k2, null);
+		if(row == TupleKeyTable.NONE) {
+			table.insert(hash, k1, k2, null, value);
+			return null;
+		}
+		return (V) table.value(row);
+	}
+
+	/**
+	 * 指定したキーが存在しない場合に関数で値を求めて対応付ける．
+	 * 関数がnullを返した場合は何も対応付けない．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @param mappingFunction キーの要素から値を求める関数
+	 * @return 対応付けられている値
+	 */
+	@SuppressWarnings("unchecked")
+	public V computeIfAbsent(K1 k1, K2 k2, BiFunction<? super K1, ? super K2, ? extends V> mappingFunction) {
+		Objects.requireNonNull(mappingFunction);
+		int hash = Hashing.hash(k1, k2);
+		int row = table.find(hash, k1, k2, null);
+		if(row != TupleKeyTable.NONE) {
+			return (V) table.value(row);
+		}
+		V value = mappingFunction.apply(k1, k2);
+		if(value != null) {
+			table.insert(hash, k1, k2, null, value);
+		}
+		return value;
+	}
+
+	/**
+	 * 指定したキーを削除する．
+	 *
+	 * @param k1 キーの1番目の要素
+	 * @param k2 キーの2番目の要素
+	 * @return 対応付けられていた値，存在しない場合はnull
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(Object k1, Object k2) {
+		int row = table.find(Hashing.hash(k1, k2), k1, k2, null);
+		if(row == TupleKeyTable.NONE) {
+			return null;
+		}
+		V old = (V) table.value(row);
+		table.remove(row);
+		return old;
+	}
+
+	/**
+	 * 要素数を返す．
+	 *
+	 * @return 要素数
+	 */
+	public int size() {
+		return table.size();
+	}
+
+	/**
+	 * 要素が存在しないか調べる．
+	 *
+	 * @return 要素が存在しない場合true
+	 */
+	public boolean isEmpty() {
+		return table.size() == 0;
+	}
+
+	/**
+	 * すべての要素を削除する．
+	 */
+	public void clear() {
+		table.clear();
+	}
+
+	/**
+	 * このマップを{@code Map<Tuple2<K1, K2>, V>}として扱うビューを返す．
+	 * ビューへの変更はこのマップに反映される．
+	 * ビューのエントリのキーは走査の際に作られる．
+	 *
+	 * @return ビュー
+	 */
+	public Map<Tuple2<K1, K2>, V> asMap() {
+		Map<Tuple2<K1, K2>, V> m = map;
+		return m != null ? m : (map = new MapView());
+	}
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+
+	private final class MapView extends AbstractMap<Tuple2<K1, K2>, V> {
+		private Set<Entry<Tuple2<K1, K2>, V>> entrySet;
+
+		@Override
+		public V get(Object key) {
+			if(!(key instanceof Tuple2)) {
+				return null;
+			}
+			Tuple2<?, ?> t = (Tuple2<?, ?>) key;
+			return TupleKeyMap2.this.get(t.v1, t.v2);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			if(!(key instanceof Tuple2)) {
+				return false;
+			}
+			Tuple2<?, ?> t = (Tuple2<?, ?>) key;
+			return TupleKeyMap2.this.containsKey(t.v1, t.v2);
+		}
+
+		@Override
+		public V put(Tuple2<K1, K2> key, V value) {
+			return TupleKeyMap2.this.put(key.v1, key.v2, value);
+		}
+
+		@Override
+		public V remove(Object key) {
+			if(!(key instanceof Tuple2)) {
+				return null;
+			}
+			Tuple2<?, ?> t = (Tuple2<?, ?>) key;
+			return TupleKeyMap2.this.remove(t.v1, t.v2);
+		}
+
+		@Override
+		public int size() {
+			return table.size();
+		}
+
+		@Override
+		public void clear() {
+			table.clear();
+		}
+
+		@Override
+		public Set<Entry<Tuple2<K1, K2>, V>> entrySet() {
+			Set<Entry<Tuple2<K1, K2>, V>> s = entrySet;
+			return s != null ? s : (entrySet = new EntrySet());
+		}
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<Tuple2<K1, K2>, V>> {
+		@Override
+		public Iterator<Map.Entry<Tuple2<K1, K2>, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return table.size();
+		}
+
+		@Override
+		public void clear() {
+			table.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<Tuple2<K1, K2>, V>> {
+		private int next = 0;
+		private int last = TupleKeyTable.NONE;
+
+		@Override
+		public boolean hasNext() {
+			return next < table.size();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Map.Entry<Tuple2<K1, K2>, V> next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next++;
+			Tuple2<K1, K2> key = new Tuple2<>((K1) table.key(last, 0), (K2) table.key(last, 1));
+			return new Entry(key, last);
+		}
+
+		@Override
+		public void remove() {
+			if(last == TupleKeyTable.NONE) {
+				throw new IllegalStateException();
+			}
+			// 最後の要素が削除した位置に移動するので，同じ位置から走査を続ける
+			table.remove(last);
+			next = last;
+			last = TupleKeyTable.NONE;
+		}
+	}
+
+	private final class Entry extends AbstractMap.SimpleEntry<Tuple2<K1, K2>, V> {
+		private static final long serialVersionUID = 1L;
+		private final int row;
+
+		@SuppressWarnings("unchecked")
+		Entry(Tuple2<K1, K2> key, int row) {
+			super(key, (V) table.value(row));
+			this.row = row;
+		}
+
+		@Override
+		public V setValue(V value) {
+			table.setValue(row, value);
+			return super.setValue(value);
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 複数の要素からなるキーと値を保持する開番地法のハッシュ表
+ *
+ * キーの要素はTupleにまとめず，行ごとに連続した位置に並べて保持する．
+ * キーの要素の数は2か3で，2の場合は3番目の要素の引数を用いない．
+ * ハッシュ値は同じ要素を持つTupleの{@link Object#hashCode()}と一致する．
+ * 行は追加した順に並ぶ．ただし行を削除すると最後の行が削除した位置に移動する．
+ *
+ * @author YuyaAizawa
+ */
+final class TupleKeyTable {
+	static final int NONE = -1;
+
+	private final int arity;
+	private Object[] keys;
+	private Object[] values;
+	private int[] hashes;
+	private int size;
+
+	private int[] slots;
+	private int mask;
+
+	TupleKeyTable(int arity, int initialCapacity) {
+		int capacity = Math.max(initialCapacity, 4);
+		this.arity = arity;
+		keys = new Object[capacity * arity];
+		values = new Object[capacity];
+		hashes = new int[capacity];
+		slots = new int[Hashing.tableSizeFor(capacity)];
+		mask = slots.length - 1;
+	}
+
+	int hash(Object k1, Object k2, Object k3) {
+		return arity == 2 ? Hashing.hash(k1, k2) : Hashing.hash(k1, k2, k3);
+	}
+
+	/**
+	 * 指定したキーの行の位置を返す．
+	 * 更新と並行して呼ばれた場合も停止するが，結果は不定であり，例外を投げることもある．
+	 *
+	 * @return 行の位置，存在しない場合は{@link #NONE}
+	 */
+	int find(int hash, Object k1, Object k2, Object k3) {
+		// 並行して表が置き換えられても添字と長さが食い違わないよう，配列から求める
+		int[] slots = this.slots;
+		int mask = slots.length - 1;
+		int slot = hash & mask;
+		for(int probe = 0; probe <= mask; probe++) {
+			int row = slots[slot] - 1;
+			if(row == NONE) {
+				return NONE;
+			}
+			if(hashes[row] == hash && matches(row, k1, k2, k3)) {
+				return row;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return NONE;
+	}
+
+	private boolean matches(int row, Object k1, Object k2, Object k3) {
+		int base = row * arity;
+		return Objects.equals(keys[base], k1)
+				&& Objects.equals(keys[base + 1], k2)
+				&& (arity == 2 || Objects.equals(keys[base + 2], k3));
+	}
+
+	/**
+	 * 存在しないことを確かめたキーの行を追加する．
+	 *
+	 * @return 追加した行の位置
+	 */
+	int insert(int hash, Object k1, Object k2, Object k3, Object value) {
+		if(size == values.length) {
+			grow();
+		}
+		int slot = hash & mask;
+		while(slots[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		int row = size++;
+		int base = row * arity;
+		keys[base] = k1;
+		keys[base + 1] = k2;
+		if(arity == 3) {
+			keys[base + 2] = k3;
+		}
+		values[row] = value;
+		hashes[row] = hash;
+		slots[slot] = row + 1;
+		return row;
+	}
+
+	Object key(int row, int index) {
+		return keys[row * arity + index];
+	}
+
+	Object value(int row) {
+		return values[row];
+	}
+
+	void setValue(int row, Object value) {
+		values[row] = value;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * 指定した行を削除する．最後の行が削除した位置に移動する．
+	 *
+	 * @param row 行の位置
+	 */
+	void remove(int row) {
+		int hole = slotOf(row);
+		// 線形探索の列が途切れないよう，後続の要素を空いた位置に詰める
+		int slot = (hole + 1) & mask;
+		while(slots[slot] != 0) {
+			int ideal = hashes[slots[slot] - 1] & mask;
+			if(((slot - ideal) & mask) >= ((slot - hole) & mask)) {
+				slots[hole] = slots[slot];
+				hole = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		slots[hole] = 0;
+
+		int last = size - 1;
+		if(row != last) {
+			slots[slotOf(last)] = row + 1;
+			System.arraycopy(keys, last * arity, keys, row * arity, arity);
+			values[row] = values[last];
+			hashes[row] = hashes[last];
+		}
+		Arrays.fill(keys, last * arity, size * arity, null);
+		values[last] = null;
+		size = last;
+	}
+
+	void clear() {
+		Arrays.fill(keys, 0, size * arity, null);
+		Arrays.fill(values, 0, size, null);
+		Arrays.fill(slots, 0);
+		size = 0;
+	}
+
+	private int slotOf(int row) {
+		int slot = hashes[row] & mask;
+		while(slots[slot] != row + 1) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		if(size >= (1 << 29)) {
+			throw new IllegalStateException("too many entries");
+		}
+		int capacity = size + (size >> 1);
+		keys = Arrays.copyOf(keys, capacity * arity);
+		values = Arrays.copyOf(values, capacity);
+		hashes = Arrays.copyOf(hashes, capacity);
+
+		int tableSize = Hashing.tableSizeFor(capacity);
+		if(tableSize != slots.length) {
+			slots = new int[tableSize];
+			mask = tableSize - 1;
+			for(int row = 0; row < size; row++) {
+				int slot = hashes[row] & mask;
+				while(slots[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				slots[slot] = row + 1;
+			}
+		}
+	}
+}
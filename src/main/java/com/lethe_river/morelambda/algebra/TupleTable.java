@@ -0,0 +1,194 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Tupleを列ごとの配列に分けて保持する表の共通部分
+ *
+ * 行ごとのTupleやボクシングしたオブジェクトを作らずに保持するため，
+ * プリミティブの列を持つ大量の行をTupleのListより少ないメモリで保持できる．
+ * 行は追加した順に並ぶ．
+ * 列の値には{@link Column}を通して配列のまま，あるいは{@link Cursor}を通して行ごとに
+ * オブジェクトを作らずにアクセスできる．
+ * スレッドセーフではない．
+ *
+ * @author YuyaAizawa
+ */
+public abstract class TupleTable {
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final Column<?>[] columns;
+
+	TupleTable(ColumnType<?>... types) {
+		columns = new Column<?>[types.length];
+		for(int i = 0; i < types.length; i++) {
+			columns[i] = types[i].newColumn(DEFAULT_CAPACITY);
+		}
+	}
+
+	/**
+	 * 行の数を返す．
+	 *
+	 * @return 行の数
+	 */
+	public int size() {
+		return columns[0].size;
+	}
+
+	/**
+	 * 行がないかを返す．
+	 *
+	 * @return 行がなければtrue
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * 先頭の行の前に置かれたカーソルを返す．
+	 *
+	 * @return カーソル
+	 */
+	public Cursor cursor() {
+		return new Cursor(this);
+	}
+
+	/**
+	 * 各行に対して処理を行う．
+	 * 行ごとに同じ{@link Cursor}を進めて処理に渡すため，オブジェクトを作らない．
+	 * 渡されたCursorは処理の中でのみ有効であり，処理の外に持ち出してはならない．
+	 *
+	 * @param action 行に対する処理
+	 */
+	public void forEachRow(Consumer<? super Cursor> action) {
+		Objects.requireNonNull(action);
+		Cursor cursor = new Cursor(this);
+		while(cursor.next()) {
+			action.accept(cursor);
+		}
+	}
+
+	/**
+	 * 指定した行の数を保持できるように配列を確保する．
+	 *
+	 * @param rows 行の数
+	 */
+	public void ensureCapacity(int rows) {
+		for(Column<?> column : columns) {
+			column.ensureCapacity(rows);
+		}
+	}
+
+	Column<?> column(int index) {
+		if(index < 1 || index > columns.length) {
+			throw new IndexOutOfBoundsException("column: " + index);
+		}
+		return columns[index - 1];
+	}
+
+	void checkRow(int row) {
+		columns[0].checkRow(row);
+	}
+
+	/**
+	 * 要素の数が分かるSpliteratorであれば，その分の配列を先に確保する．
+	 */
+	void reserve(Spliterator<?> spliterator) {
+		long exact = spliterator.getExactSizeIfKnown();
+		if(exact >= 0 && size() + exact <= Integer.MAX_VALUE - 8) {
+			ensureCapacity((int) (size() + exact));
+		}
+	}
+
+	/**
+	 * 表の行を順にたどるカーソル
+	 *
+	 * 列は1から数え，Tupleの要素の番号に対応する．
+	 * 値を取り出す際にオブジェクトを作らない．
+	 *
+	 * @author YuyaAizawa
+	 */
+	public static final class Cursor {
+		private final TupleTable table;
+		private int row = -1;
+
+		Cursor(TupleTable table) {
+			this.table = table;
+		}
+
+		/**
+		 * 次の行に進む．
+		 *
+		 * @return 次の行があればtrue
+		 */
+		public boolean next() {
+			if(row + 1 >= table.size()) {
+				row = table.size();
+				return false;
+			}
+			row++;
+			return true;
+		}
+
+		/**
+		 * 現在の行の番号を返す．
+		 *
+		 * @return 行の番号
+		 */
+		public int row() {
+			return row;
+		}
+
+		/**
+		 * 先頭の行の前に戻る．
+		 */
+		public void reset() {
+			row = -1;
+		}
+
+		/**
+		 * 現在の行の指定した列の値を返す．
+		 *
+		 * @param column 列の番号
+		 * @return 値
+		 * @exception UnsupportedOperationException longの列でない場合
+		 */
+		public long getLong(int column) {
+			return table.column(column).getLong(row);
+		}
+
+		/**
+		 * 現在の行の指定した列の値を返す．
+		 *
+		 * @param column 列の番号
+		 * @return 値
+		 * @exception UnsupportedOperationException intの列でない場合
+		 */
+		public int getInt(int column) {
+			return table.column(column).getInt(row);
+		}
+
+		/**
+		 * 現在の行の指定した列の値を返す．
+		 *
+		 * @param column 列の番号
+		 * @return 値
+		 * @exception UnsupportedOperationException doubleの列でない場合
+		 */
+		public double getDouble(int column) {
+			return table.column(column).getDouble(row);
+		}
+
+		/**
+		 * 現在の行の指定した列の値を返す．プリミティブの列では値をボクシングする．
+		 *
+		 * @param column 列の番号
+		 * @return 値
+		 */
+		public Object get(int column) {
+			return table.column(column).get(row);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link Tuple2}を列ごとの配列に分けて保持する表
+ *
+ * @see TupleTable
+ * @author YuyaAizawa
+ *
+ * @param <T1> 1番目の列の値の型
+ * @param <T2> 2番目の列の値の型
+ */
+public final class TupleTable2<T1,T2> extends TupleTable {
+	private final Column<T1> column1;
+	private final Column<T2> column2;
+
+	@SuppressWarnings("unchecked")
+	private TupleTable2(ColumnType<T1> type1, ColumnType<T2> type2) {
+		super(type1, type2);
+		column1 = (Column<T1>) column(1);
+		column2 = (Column<T2>) column(2);
+	}
+
+	/**
+	 * 空の表を作る．
+	 *
+	 * @param type1 1番目の列の型
+	 * @param type2 2番目の列の型
+	 * @param <T1> 1番目の列の値の型
+	 * @param <T2> 2番目の列の値の型
+	 * @return 空の表
+	 */
+	public static <T1, T2> TupleTable2<T1, T2> create(ColumnType<T1> type1, ColumnType<T2> type2) {
+		Objects.requireNonNull(type1);
+		Objects.requireNonNull(type2);
+		return new TupleTable2<>(type1, type2);
+	}
+
+	/**
+	 * Streamの要素を行とする表を作るCollectorを返す．
+	 *
+	 * @param type1 1番目の列の型
+	 * @param type2 2番目の列の型
+	 * @param <T1> 1番目の列の値の型
+	 * @param <T2> 2番目の列の値の型
+	 * @return 表を作るCollector
+	 */
+	public static <T1, T2> Collector<Tuple2<? extends T1, ? extends T2>, ?, TupleTable2<T1, T2>> collector(ColumnType<T1> type1, ColumnType<T2> type2) {
+		Objects.requireNonNull(type1);
+		Objects.requireNonNull(type2);
+		return Collector.<Tuple2<? extends T1, ? extends T2>, TupleTable2<T1, T2>>of(
+				() -> new TupleTable2<>(type1, type2),
+				TupleTable2::add,
+				(left, right) -> {
+					left.addAll(right);
+					return left;
+				});
+	}
+
+	/**
+	 * 末尾に行を追加する．
+	 *
+	 * @param v1 1番目の値
+	 * @param v2 2番目の値
+	 * @exception NullPointerException プリミティブの列にnullを追加しようとした場合
+	 */
+	public void add(T1 v1, T2 v2) {
+		// 途中の列で失敗すると列の長さが揃わなくなるので，先にすべての値を確かめる
+		column1.checkValue(v1);
+		column2.checkValue(v2);
+		column1.add(v1);
+		column2.add(v2);
+	}
+
+	/**
+	 * 末尾にTupleの要素を値とする行を追加する．
+	 *
+	 * @param tuple 追加するTuple
+	 * @exception NullPointerException プリミティブの列にnullを追加しようとした場合
+	 */
+	public void add(Tuple2<? extends T1, ? extends T2> tuple) {
+		add(tuple.v1, tuple.v2);
+	}
+
+	/**
+	 * 末尾にStreamの要素を値とする行を順に追加する．
+	 * 要素の数が分かるStreamであれば，先にその分の配列を確保する．
+	 *
+	 * @param stream 追加するTupleのStream
+	 * @exception NullPointerException プリミティブの列にnullを追加しようとした場合
+	 */
+	public void addAll(Stream<? extends Tuple2<? extends T1, ? extends T2>> stream) {
+		Spliterator<? extends Tuple2<? extends T1, ? extends T2>> spliterator = stream.spliterator();
+		reserve(spliterator);
+		spliterator.forEachRemaining(this::add);
+	}
+
+	/**
+	 * 末尾に他の表の行をすべて追加する．
+	 *
+	 * @param other 追加する表
+	 */
+	public void addAll(TupleTable2<T1, T2> other) {
+		column1.addAll(other.column1);
+		column2.addAll(other.column2);
+	}
+
+	/**
+	 * 指定した行をTupleとして返す．
+	 *
+	 * @param row 行
+	 * @return 行の値を要素とするTuple
+	 * @exception IndexOutOfBoundsException 行が範囲外の場合
+	 */
+	public Tuple2<T1, T2> get(int row) {
+		checkRow(row);
+		return new Tuple2<>(column1.get(row), column2.get(row));
+	}
+
+	/**
+	 * 1番目の列を返す．
+	 *
+	 * @return 1番目の列
+	 */
+	public Column<T1> column1() {
+		return column1;
+	}
+
+	/**
+	 * 2番目の列を返す．
+	 *
+	 * @return 2番目の列
+	 */
+	public Column<T2> column2() {
+		return column2;
+	}
+
+	/**
+	 * 行を要素とするStreamを返す．
+	 * Tupleは要素が要求されたときに作られる．
+	 * Streamは{@link Spliterator#SIZED}，{@link Spliterator#SUBSIZED}であり，並列に処理できる．
+	 * Streamの処理中に表を変更してはならない．
+	 *
+	 * @return 行を要素とするStream
+	 */
+	public Stream<Tuple2<T1, T2>> rows() {
+		return IntStream.range(0, size()).mapToObj(this::get);
+	}
+
+	@Override
+	public String toString() {
+		return "{column1="+column1+", column2="+column2+"}";
+	}
+}
@@ -17,7 +17,7 @@ import java.util.stream.Collector;
  * @author YuyaAizawa
  *
  */
-public class Union {
+public class Union extends GeneratedUnions {
 	private Union(){}
 	
 	/**
@@ -18,7 +18,7 @@ import java.util.function.Function;
  *
  */
 
-public class Union2<T1, T2> implements Serializable {
+public class Union2<T1, T2> implements Serializable, Alternative {
 	private static final long serialVersionUID = -7873515642177205698L;
 
 	private interface Member<T1, T2> extends Serializable {
@@ -139,6 +139,16 @@ public class Union2<T1, T2> implements Serializable {
 		return match(T1::toString, T2::toString);
 	}
 
+	/**
+	 * 要素が何番目の型のものかを返す．
+	 *
+	 * @return 1から始まる型の位置
+	 */
+	@Override
+	public int index() {
+		return match(v -> 1, v -> 2);
+	}
+
 	/**
 	 * 要素に基づくハッシュを返す．
 	 *
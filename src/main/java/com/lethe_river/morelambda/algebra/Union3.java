@@ -20,7 +20,7 @@ import java.util.function.Function;
  *
  */
 
-public class Union3<T1, T2, T3> implements Serializable {
+public class Union3<T1, T2, T3> implements Serializable, Alternative {
 	private static final long serialVersionUID = -8438543581530795088L;
 
 	private interface Member<T1, T2, T3> extends Serializable {
@@ -181,6 +181,16 @@ public class Union3<T1, T2, T3> implements Serializable {
 		return match(T1::toString, T2::toString, T3::toString);
 	}
 
+	/**
+	 * 要素が何番目の型のものかを返す．
+	 *
+	 * @return 1から始まる型の位置
+	 */
+	@Override
+	public int index() {
+		return match(v -> 1, v -> 2, v -> 3);
+	}
+
 	/**
 	 * 要素に基づくハッシュを返す．
 	 *
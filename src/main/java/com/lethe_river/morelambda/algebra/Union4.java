@@ -21,7 +21,7 @@ import java.util.function.Function;
  *
  */
 
-public class Union4<T1, T2, T3, T4> implements Serializable {
+public class Union4<T1, T2, T3, T4> implements Serializable, Alternative {
 	private static final long serialVersionUID = 2634099534334851651L;
 
 	private interface Member<T1, T2, T3, T4> extends Serializable {
@@ -222,6 +222,16 @@ public class Union4<T1, T2, T3, T4> implements Serializable {
 		return match(T1::toString, T2::toString, T3::toString, T4::toString);
 	}
 
+	/**
+	 * 要素が何番目の型のものかを返す．
+	 *
+	 * @return 1から始まる型の位置
+	 */
+	@Override
+	public int index() {
+		return match(v -> 1, v -> 2, v -> 3, v -> 4);
+	}
+
 	/**
 	 * 要素に基づくハッシュを返す．
 	 *
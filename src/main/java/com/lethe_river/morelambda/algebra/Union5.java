@@ -22,7 +22,7 @@ import java.util.function.Function;
  *
  */
 
-public class Union5<T1, T2, T3, T4, T5> implements Serializable {
+public class Union5<T1, T2, T3, T4, T5> implements Serializable, Alternative {
 	private static final long serialVersionUID = 997856258190408690L;
 
 	private interface Member<T1, T2, T3, T4, T5> extends Serializable {
@@ -257,6 +257,16 @@ public class Union5<T1, T2, T3, T4, T5> implements Serializable {
 		return match(T1::toString, T2::toString, T3::toString, T4::toString, T5::toString);
 	}
 
+	/**
+	 * 要素が何番目の型のものかを返す．
+	 *
+	 * @return 1から始まる型の位置
+	 */
+	@Override
+	public int index() {
+		return match(v -> 1, v -> 2, v -> 3, v -> 4, v -> 5);
+	}
+
 	/**
 	 * 要素に基づくハッシュを返す．
 	 *
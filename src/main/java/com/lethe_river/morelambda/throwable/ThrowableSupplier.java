@@ -0,0 +1,143 @@
+package com.lethe_river.morelambda.throwable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.lethe_river.morelambda.algebra.Union2;
+
+/**
+ * 検査例外を発生させる可能性のあるサプライヤ
+ * @author YuyaAizawa
+ *
+ * @param <R> 戻り値の型
+ * @param <E> 例外の型
+ */
+@FunctionalInterface
+public interface ThrowableSupplier<R, E extends Exception> {
+
+	/**
+	 * 検査例外を発生させるサプライヤを指定し，実行時例外にラップしたサプライヤを生成する．
+	 * @param s 検査例外を発生させるサプライヤ
+	 * @param <R> 戻り値の型
+	 * @return 検査例外を発生させないサプライヤ
+	 */
+	public static <R> Supplier<R> unchecked(ThrowableSupplier<R, ?> s) {
+		return s.unchecked();
+	}
+
+	/**
+	 * 検査例外を発生させるサプライヤと，発生した例外を戻り値に変換する関数を指定し，例外を発生させないサプライヤを生成する．
+	 * @param s 検査例外を発生させるサプライヤ
+	 * @param c 発生した例外から戻り値を生成する関数
+	 * @param <R> 戻り値の型
+	 * @param <E> 例外の型
+	 * @return 例外を発生させないサプライヤ
+	 */
+	public static <R, E extends Exception> Supplier<R> complement(ThrowableSupplier<R, E> s, Function<E, R> c) {
+		return s.complement(c);
+	}
+
+	/**
+	 * 検査例外を発生させるサプライヤを指定し，結果または例外を返すサプライヤを生成する．
+	 * @param s 検査例外を発生させるサプライヤ
+	 * @param <R> 戻り値の型
+	 * @param <E> 例外の型
+	 * @return 結果または例外を返すサプライヤ
+	 */
+	public static <R, E extends Exception> Supplier<Union2<R, E>> includesToValue(ThrowableSupplier<R, E> s) {
+		return s.includesToValue();
+	}
+
+	/**
+	 * 検査例外を発生させるサプライヤを指定し，結果をOptional(例外発生時はempty)として返すサプライヤを生成する．
+	 * @param s 検査例外を発生させるサプライヤ
+	 * @param <R> 戻り値の型
+	 * @param <E> 例外の型
+	 * @return 結果をOptionalとして返すサプライヤ
+	 */
+	public static <R, E extends Exception> Supplier<Optional<R>> maybe(ThrowableSupplier<R, E> s) {
+		return s.maybe();
+	}
+
+	/**
+	 * 結果を返す．検査例外が発生する可能性がある.
+	 *
+	 * @return 結果
+	 * @throws E このサプライヤが発生させる例外
+	 */
+	public R get() throws E;
+
+	/**
+	 * 例外が発生したときの戻り値を与える関数を指定し，このサプライヤと合成したサプライヤを返す.
+	 *
+	 * @param complementer 発生した例外から戻り値を生成する関数
+	 * @return 検査例外を発生させないサプライヤ
+	 */
+	@SuppressWarnings("unchecked")
+	public default Supplier<R> complement(Function<? super E, ? extends R> complementer) {
+		return () -> {
+			try {
+				return get();
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Exception e) {
+				return complementer.apply((E) e);
+			}
+		};
+	}
+
+	/**
+	 * 発生した例外を実行時例外にラップするサプライヤを返す．
+	 * @return 検査例外を発生させないサプライヤ
+	 */
+	public default Supplier<R> unchecked() {
+		return () -> {
+			try {
+				return get();
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Exception e) {
+				if(e instanceof IOException) {
+					throw new UncheckedIOException((IOException) e);
+				}
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	/**
+	 * 結果か，発生した例外のどちらかを戻り値とするサプライヤを返す.
+	 * @return 検査例外を発生させないサプライヤ
+	 */
+	@SuppressWarnings("unchecked")
+	public default Supplier<Union2<R, E>> includesToValue() {
+		return () -> {
+			try {
+				return Union2.of1(get());
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Exception e) {
+				return Union2.of2(((E) e));
+			}
+		};
+	}
+
+	/**
+	 * 結果をOptionalでラップするサプライヤを返す．例外が発生した場合はempty.
+	 * @return 検査例外を発生させないサプライヤ
+	 */
+	public default Supplier<Optional<R>> maybe() {
+		return () -> {
+			try {
+				return Optional.ofNullable(get());
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Exception e) {
+				return Optional.empty();
+			}
+		};
+	}
+}
@@ -0,0 +1,390 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 複数のPublisherを購読し，それぞれの要素を組み合わせて下流に流す処理
+ *
+ * 各Publisherからは高々prefetch個の要素を先に要求し，下流に流して消費した分だけ追加で要求する．
+ * 上流と下流からのシグナルはどのスレッドから届いてもよく，下流へのシグナルは
+ * {@link #drain()}を最初に呼んだスレッドが逐次に送る．
+ *
+ * @author YuyaAizawa
+ *
+ * @param <R> 下流に流す要素の型
+ */
+abstract class FlowCombiner<R> implements Flow.Subscription {
+	static final int DEFAULT_PREFETCH = 16;
+
+	private static final Flow.Subscription CANCELLED = new Flow.Subscription() {
+		@Override
+		public void request(long n) {}
+
+		@Override
+		public void cancel() {}
+	};
+
+	final Flow.Subscriber<? super R> downstream;
+	final Function<Object[], ? extends R> finisher;
+	final Inner[] inners;
+
+	private final AtomicInteger wip = new AtomicInteger();
+	private final AtomicLong requested = new AtomicLong();
+	private final AtomicReference<Throwable> error = new AtomicReference<>();
+	private volatile boolean cancelled;
+
+	// 以下はdrainするスレッドのみが触る
+	private boolean terminated;
+	private long emitted;
+
+	FlowCombiner(Flow.Subscriber<? super R> downstream, Function<Object[], ? extends R> finisher,
+			int sourceCount, int prefetch) {
+		this.downstream = downstream;
+		this.finisher = finisher;
+		this.inners = new Inner[sourceCount];
+		for(int i = 0; i < sourceCount; i++) {
+			inners[i] = new Inner(this, i, prefetch);
+		}
+	}
+
+	/**
+	 * 各Publisherの要素を順に組み合わせるPublisherを返す．
+	 */
+	static <R> Flow.Publisher<R> zip(Function<Object[], ? extends R> finisher, Flow.Publisher<?>... sources) {
+		checkSources(sources);
+		return subscriber -> start(new Zip<>(Objects.requireNonNull(subscriber), finisher,
+				sources.length, DEFAULT_PREFETCH), sources);
+	}
+
+	/**
+	 * いずれかのPublisherが要素を流すたびに，各Publisherの最新の要素を組み合わせるPublisherを返す．
+	 */
+	static <R> Flow.Publisher<R> combineLatest(Function<Object[], ? extends R> finisher,
+			Flow.Publisher<?>... sources) {
+		checkSources(sources);
+		return subscriber -> start(new CombineLatest<>(Objects.requireNonNull(subscriber), finisher,
+				sources.length, DEFAULT_PREFETCH), sources);
+	}
+
+	private static void checkSources(Flow.Publisher<?>[] sources) {
+		for(Flow.Publisher<?> source : sources) {
+			Objects.requireNonNull(source);
+		}
+	}
+
+	private static void start(FlowCombiner<?> combiner, Flow.Publisher<?>[] sources) {
+		combiner.downstream.onSubscribe(combiner);
+		for(int i = 0; i < sources.length && !combiner.cancelled; i++) {
+			sources[i].subscribe(combiner.inners[i]);
+		}
+	}
+
+	@Override
+	public void request(long n) {
+		if(n <= 0) {
+			error.compareAndSet(null, new IllegalArgumentException("non-positive request: " + n));
+		} else {
+			requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+		}
+		drain();
+	}
+
+	@Override
+	public void cancel() {
+		cancelled = true;
+		cancelSources();
+		drain();
+	}
+
+	/**
+	 * 上流から要素を受け取る．
+	 */
+	abstract void received(Inner inner, Object item);
+
+	/**
+	 * 受け取った要素を要求された数まで下流に流す．
+	 *
+	 * @param requested これまでに要求された数
+	 * @param emitted これまでに流した数
+	 * @return 流した後の数，終了した場合は負数
+	 */
+	abstract long emit(long requested, long emitted);
+
+	/**
+	 * 保持している要素を捨てる．
+	 */
+	abstract void clear();
+
+	final void drain() {
+		if(wip.getAndIncrement() != 0) {
+			return;
+		}
+		int missed = 1;
+		do {
+			if(!terminated) {
+				long e = emit(requested.get(), emitted);
+				if(e < 0) {
+					terminated = true;
+				} else {
+					emitted = e;
+				}
+			}
+			missed = wip.addAndGet(-missed);
+		} while(missed != 0);
+	}
+
+	/**
+	 * 取り消されたかエラーが起きたか調べ，そうであれば後始末をして下流にエラーを流す．
+	 */
+	final boolean isTerminated() {
+		if(cancelled) {
+			clear();
+			return true;
+		}
+		Throwable e = error.get();
+		if(e != null) {
+			cancelled = true;
+			cancelSources();
+			clear();
+			downstream.onError(e);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 残りの購読を取り消して下流に完了を流す．
+	 * 完了したとみなした購読がエラーで終わっていた場合はエラーを流す．
+	 */
+	final void complete() {
+		cancelled = true;
+		cancelSources();
+		clear();
+		// エラーはdoneより先に記録されるので，doneを読んだ後であれば見落とさない
+		Throwable e = error.get();
+		if(e != null) {
+			downstream.onError(e);
+		} else {
+			downstream.onComplete();
+		}
+	}
+
+	private void cancelSources() {
+		for(Inner inner : inners) {
+			inner.cancel();
+		}
+	}
+
+	/**
+	 * 1つのPublisherの購読
+	 */
+	static final class Inner implements Flow.Subscriber<Object> {
+		private final FlowCombiner<?> parent;
+		final int index;
+		final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+		private final int prefetch;
+		private final int limit;
+		private final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+		volatile boolean hasValue;
+		volatile boolean done;
+		private int consumed;
+
+		Inner(FlowCombiner<?> parent, int index, int prefetch) {
+			this.parent = parent;
+			this.index = index;
+			this.prefetch = prefetch;
+			this.limit = prefetch - (prefetch >> 2);
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription s) {
+			Objects.requireNonNull(s);
+			if(subscription.compareAndSet(null, s)) {
+				s.request(prefetch);
+			} else {
+				s.cancel();
+			}
+		}
+
+		@Override
+		public void onNext(Object item) {
+			Objects.requireNonNull(item);
+			if(!hasValue) {
+				hasValue = true;
+			}
+			parent.received(this, item);
+			parent.drain();
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			parent.error.compareAndSet(null, Objects.requireNonNull(throwable));
+			done = true;
+			parent.drain();
+		}
+
+		@Override
+		public void onComplete() {
+			done = true;
+			parent.drain();
+		}
+
+		/**
+		 * 要素を1つ消費したことを記録し，まとまった数になれば追加で要求する．
+		 */
+		void consumed() {
+			if(++consumed == limit) {
+				consumed = 0;
+				subscription.get().request(limit);
+			}
+		}
+
+		void cancel() {
+			Flow.Subscription s = subscription.getAndSet(CANCELLED);
+			if(s != null) {
+				s.cancel();
+			}
+		}
+	}
+
+	/**
+	 * 各Publisherからn番目の要素が揃うたびに組み合わせる．
+	 * いずれかのPublisherが完了して要素が尽きると完了する．
+	 */
+	private static final class Zip<R> extends FlowCombiner<R> {
+
+		Zip(Flow.Subscriber<? super R> downstream, Function<Object[], ? extends R> finisher,
+				int sourceCount, int prefetch) {
+			super(downstream, finisher, sourceCount, prefetch);
+		}
+
+		@Override
+		void received(Inner inner, Object item) {
+			inner.queue.offer(item);
+		}
+
+		@Override
+		long emit(long requested, long emitted) {
+			for(;;) {
+				if(isTerminated()) {
+					return -1;
+				}
+				boolean ready = true;
+				for(Inner inner : inners) {
+					// 完了は最後の要素の後に届くので，完了を先に読めば空であることを確かめられる
+					boolean done = inner.done;
+					if(inner.queue.isEmpty()) {
+						if(done) {
+							complete();
+							return -1;
+						}
+						ready = false;
+					}
+				}
+				if(!ready || emitted == requested) {
+					return emitted;
+				}
+				Object[] values = new Object[inners.length];
+				for(Inner inner : inners) {
+					values[inner.index] = inner.queue.poll();
+					inner.consumed();
+				}
+				downstream.onNext(finisher.apply(values));
+				emitted++;
+			}
+		}
+
+		@Override
+		void clear() {
+			for(Inner inner : inners) {
+				inner.queue.clear();
+			}
+		}
+	}
+
+	/**
+	 * すべてのPublisherが1つ以上の要素を流した後，いずれかが要素を流すたびに最新の要素を組み合わせる．
+	 * 要素を流さずに完了したPublisherがあるか，すべてのPublisherが完了すると完了する．
+	 */
+	private static final class CombineLatest<R> extends FlowCombiner<R> {
+		private final Queue<Signal> signals = new ConcurrentLinkedQueue<>();
+		private final Object[] latest;
+		private int present;
+
+		CombineLatest(Flow.Subscriber<? super R> downstream, Function<Object[], ? extends R> finisher,
+				int sourceCount, int prefetch) {
+			super(downstream, finisher, sourceCount, prefetch);
+			latest = new Object[sourceCount];
+		}
+
+		@Override
+		void received(Inner inner, Object item) {
+			signals.offer(new Signal(inner, item));
+		}
+
+		@Override
+		long emit(long requested, long emitted) {
+			for(;;) {
+				if(isTerminated()) {
+					return -1;
+				}
+				boolean allDone = true;
+				for(Inner inner : inners) {
+					if(!inner.done) {
+						allDone = false;
+					} else if(!inner.hasValue) {
+						complete();
+						return -1;
+					}
+				}
+				Signal signal = signals.peek();
+				if(signal == null) {
+					if(allDone) {
+						complete();
+						return -1;
+					}
+					return emitted;
+				}
+				int index = signal.inner.index;
+				boolean emits = present + (latest[index] == null ? 1 : 0) == latest.length;
+				if(emits && emitted == requested) {
+					return emitted;
+				}
+				signals.poll();
+				if(latest[index] == null) {
+					present++;
+				}
+				latest[index] = signal.value;
+				signal.inner.consumed();
+				if(emits) {
+					downstream.onNext(finisher.apply(latest.clone()));
+					emitted++;
+				}
+			}
+		}
+
+		@Override
+		void clear() {
+			signals.clear();
+			Arrays.fill(latest, null);
+		}
+
+		private static final class Signal {
+			final Inner inner;
+			final Object value;
+
+			Signal(Inner inner, Object value) {
+				this.inner = inner;
+				this.value = value;
+			}
+		}
+	}
+}
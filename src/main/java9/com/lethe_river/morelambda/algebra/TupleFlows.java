@@ -0,0 +1,197 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.concurrent.Flow;
+
+/**
+ * 複数の{@link Flow.Publisher}が非同期に流す要素をTupleに組み合わせる操作
+ *
+ * 返されるPublisherは購読されるたびに元のPublisherをそれぞれ購読する．
+ * 元のPublisherからは16個ずつ先に要求し，下流に流して消費した分だけ追加で要求するので，
+ * 下流が要求しない限り要素を溜め込み続けることはない．
+ * いずれかのPublisherがエラーを流すと，残りの購読を取り消して下流にエラーを流す．
+ * 下流が購読を取り消した場合もすべての購読を取り消す．
+ *
+ * このクラスはJava 9以降でのみ利用できる．
+ *
+ * @author YuyaAizawa
+ */
+public final class TupleFlows {
+
+	private TupleFlows() {}
+
+	/**
+	 * 2つのPublisherが流す要素を先頭から順に組み合わせたTupleを流すPublisherを返す．
+	 * いずれかのPublisherが完了して要素が尽きると完了する．
+	 *
+	 * @param p1 1番目の要素を流すPublisher
+	 * @param p2 2番目の要素を流すPublisher
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @return 組み合わせたTupleを流すPublisher
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2> Flow.Publisher<Tuple2<T1, T2>> zip(
+			Flow.Publisher<? extends T1> p1,
+			Flow.Publisher<? extends T2> p2) {
+		return FlowCombiner.zip(v -> new Tuple2<>((T1) v[0], (T2) v[1]), p1, p2);
+	}
+
+	/**
+	 * 3つのPublisherが流す要素を先頭から順に組み合わせたTupleを流すPublisherを返す．
+	 * いずれかのPublisherが完了して要素が尽きると完了する．
+	 *
+	 * @param p1 1番目の要素を流すPublisher
+	 * @param p2 2番目の要素を流すPublisher
+	 * @param p3 3番目の要素を流すPublisher
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @return 組み合わせたTupleを流すPublisher
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2, T3> Flow.Publisher<Tuple3<T1, T2, T3>> zip(
+			Flow.Publisher<? extends T1> p1,
+			Flow.Publisher<? extends T2> p2,
+			Flow.Publisher<? extends T3> p3) {
+		return FlowCombiner.zip(v -> new Tuple3<>((T1) v[0], (T2) v[1], (T3) v[2]), p1, p2, p3);
+	}
+
+	/**
+	 * 4つのPublisherが流す要素を先頭から順に組み合わせたTupleを流すPublisherを返す．
+	 * いずれかのPublisherが完了して要素が尽きると完了する．
+	 *
+	 * @param p1 1番目の要素を流すPublisher
+	 * @param p2 2番目の要素を流すPublisher
+	 * @param p3 3番目の要素を流すPublisher
+	 * @param p4 4番目の要素を流すPublisher
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @return 組み合わせたTupleを流すPublisher
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2, T3, T4> Flow.Publisher<Tuple4<T1, T2, T3, T4>> zip(
+			Flow.Publisher<? extends T1> p1,
+			Flow.Publisher<? extends T2> p2,
+			Flow.Publisher<? extends T3> p3,
+			Flow.Publisher<? extends T4> p4) {
+		return FlowCombiner.zip(v -> new Tuple4<>((T1) v[0], (T2) v[1], (T3) v[2], (T4) v[3]), p1, p2, p3, p4);
+	}
+
+	/**
+	 * 5つのPublisherが流す要素を先頭から順に組み合わせたTupleを流すPublisherを返す．
+	 * いずれかのPublisherが完了して要素が尽きると完了する．
+	 *
+	 * @param p1 1番目の要素を流すPublisher
+	 * @param p2 2番目の要素を流すPublisher
+	 * @param p3 3番目の要素を流すPublisher
+	 * @param p4 4番目の要素を流すPublisher
+	 * @param p5 5番目の要素を流すPublisher
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @param <T5> 5番目の要素の型
+	 * @return 組み合わせたTupleを流すPublisher
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2, T3, T4, T5> Flow.Publisher<Tuple5<T1, T2, T3, T4, T5>> zip(
+			Flow.Publisher<? extends T1> p1,
+			Flow.Publisher<? extends T2> p2,
+			Flow.Publisher<? extends T3> p3,
+			Flow.Publisher<? extends T4> p4,
+			Flow.Publisher<? extends T5> p5) {
+		return FlowCombiner.zip(v -> new Tuple5<>((T1) v[0], (T2) v[1], (T3) v[2], (T4) v[3], (T5) v[4]), p1, p2, p3, p4, p5);
+	}
+
+	/**
+	 * 2つのPublisherのいずれかが要素を流すたびに，各Publisherが最後に流した要素を組み合わせたTupleを流すPublisherを返す．
+	 * すべてのPublisherが要素を流すまでは何も流さない．
+	 * 要素を流さずに完了したPublisherがあるか，すべてのPublisherが完了すると完了する．
+	 *
+	 * @param p1 1番目の要素を流すPublisher
+	 * @param p2 2番目の要素を流すPublisher
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @return 組み合わせたTupleを流すPublisher
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2> Flow.Publisher<Tuple2<T1, T2>> combineLatest(
+			Flow.Publisher<? extends T1> p1,
+			Flow.Publisher<? extends T2> p2) {
+		return FlowCombiner.combineLatest(v -> new Tuple2<>((T1) v[0], (T2) v[1]), p1, p2);
+	}
+
+	/**
+	 * 3つのPublisherのいずれかが要素を流すたびに，各Publisherが最後に流した要素を組み合わせたTupleを流すPublisherを返す．
+	 * すべてのPublisherが要素を流すまでは何も流さない．
+	 * 要素を流さずに完了したPublisherがあるか，すべてのPublisherが完了すると完了する．
+	 *
+	 * @param p1 1番目の要素を流すPublisher
+	 * @param p2 2番目の要素を流すPublisher
+	 * @param p3 3番目の要素を流すPublisher
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @return 組み合わせたTupleを流すPublisher
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2, T3> Flow.Publisher<Tuple3<T1, T2, T3>> combineLatest(
+			Flow.Publisher<? extends T1> p1,
+			Flow.Publisher<? extends T2> p2,
+			Flow.Publisher<? extends T3> p3) {
+		return FlowCombiner.combineLatest(v -> new Tuple3<>((T1) v[0], (T2) v[1], (T3) v[2]), p1, p2, p3);
+	}
+
+	/**
+	 * 4つのPublisherのいずれかが要素を流すたびに，各Publisherが最後に流した要素を組み合わせたTupleを流すPublisherを返す．
+	 * すべてのPublisherが要素を流すまでは何も流さない．
+	 * 要素を流さずに完了したPublisherがあるか，すべてのPublisherが完了すると完了する．
+	 *
+	 * @param p1 1番目の要素を流すPublisher
+	 * @param p2 2番目の要素を流すPublisher
+	 * @param p3 3番目の要素を流すPublisher
+	 * @param p4 4番目の要素を流すPublisher
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @return 組み合わせたTupleを流すPublisher
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2, T3, T4> Flow.Publisher<Tuple4<T1, T2, T3, T4>> combineLatest(
+			Flow.Publisher<? extends T1> p1,
+			Flow.Publisher<? extends T2> p2,
+			Flow.Publisher<? extends T3> p3,
+			Flow.Publisher<? extends T4> p4) {
+		return FlowCombiner.combineLatest(v -> new Tuple4<>((T1) v[0], (T2) v[1], (T3) v[2], (T4) v[3]), p1, p2, p3, p4);
+	}
+
+	/**
+	 * 5つのPublisherのいずれかが要素を流すたびに，各Publisherが最後に流した要素を組み合わせたTupleを流すPublisherを返す．
+	 * すべてのPublisherが要素を流すまでは何も流さない．
+	 * 要素を流さずに完了したPublisherがあるか，すべてのPublisherが完了すると完了する．
+	 *
+	 * @param p1 1番目の要素を流すPublisher
+	 * @param p2 2番目の要素を流すPublisher
+	 * @param p3 3番目の要素を流すPublisher
+	 * @param p4 4番目の要素を流すPublisher
+	 * @param p5 5番目の要素を流すPublisher
+	 * @param <T1> 1番目の要素の型
+	 * @param <T2> 2番目の要素の型
+	 * @param <T3> 3番目の要素の型
+	 * @param <T4> 4番目の要素の型
+	 * @param <T5> 5番目の要素の型
+	 * @return 組み合わせたTupleを流すPublisher
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1, T2, T3, T4, T5> Flow.Publisher<Tuple5<T1, T2, T3, T4, T5>> combineLatest(
+			Flow.Publisher<? extends T1> p1,
+			Flow.Publisher<? extends T2> p2,
+			Flow.Publisher<? extends T3> p3,
+			Flow.Publisher<? extends T4> p4,
+			Flow.Publisher<? extends T5> p5) {
+		return FlowCombiner.combineLatest(v -> new Tuple5<>((T1) v[0], (T2) v[1], (T3) v[2], (T4) v[3], (T5) v[4]), p1, p2, p3, p4, p5);
+	}
+}
@@ -0,0 +1,86 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class BloomFilterTest {
+
+	@Test
+	public void noFalseNegativeTest01() {
+		BloomFilter<Tuple2<String, Integer>> filter = BloomFilter.create(10000, 0.01);
+		IntStream.range(0, 10000).forEach(i -> filter.put(Tuple.of("k" + i, i)));
+		assertTrue(IntStream.range(0, 10000).allMatch(i -> filter.mightContain(Tuple.of("k" + i, i))));
+	}
+
+	@Test
+	public void fppTest01() {
+		BloomFilter<Long> filter = BloomFilter.create(100000, 0.01);
+		IntStream.range(0, 100000).forEach(i -> filter.put((long) i));
+		long falsePositives = IntStream.range(100000, 200000)
+				.filter(i -> filter.mightContain((long) i))
+				.count();
+		assertTrue(falsePositives < 2000);
+		assertTrue(filter.expectedFpp() < 0.02);
+	}
+
+	@Test
+	public void parallelTest01() {
+		List<Tuple2<Integer, String>> keys = IntStream.range(0, 50000)
+				.mapToObj(i -> Tuple.of(i * 3, "v"))
+				.collect(Collectors.toList());
+		BloomFilter<Integer> filter = Tuple.bloomFilter(keys.parallelStream(), keys.size(), 0.001);
+		assertTrue(keys.stream().allMatch(t -> filter.mightContain(t.v1)));
+
+		List<Tuple2<Integer, Integer>> probe = IntStream.range(0, 150000)
+				.mapToObj(i -> Tuple.of(i, i))
+				.collect(Collectors.toList());
+		List<Tuple2<Integer, Integer>> filtered = Tuple.approximateSemiJoin(probe.parallelStream(), filter)
+				.collect(Collectors.toList());
+		assertTrue(filtered.size() >= 50000);
+		assertTrue(filtered.size() < 50000 + 1000);
+		assertEquals(
+				Tuple.semiJoin(probe.stream(), keys.stream()).collect(Collectors.toList()),
+				Tuple.semiJoin(filtered.stream(), keys.stream()).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void serializeTest01() throws IOException, ClassNotFoundException {
+		BloomFilter<String> filter = BloomFilter.create(100, 0.01);
+		filter.put("a");
+		filter.put("b");
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(filter);
+		}
+		try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			@SuppressWarnings("unchecked")
+			BloomFilter<String> copy = (BloomFilter<String>) in.readObject();
+			assertTrue(copy.mightContain("a"));
+			assertTrue(copy.mightContain("b"));
+			copy.putAll(filter);
+		}
+	}
+
+	@Test
+	public void hasherTest01() {
+		// hashCodeが衝突する文字列も区別される
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		assertNotEquals(
+				KeyHasher.standard().hash64("Aa"),
+				KeyHasher.standard().hash64("BB"));
+		assertEquals(
+				KeyHasher.standard().hash64(Tuple.of("a", 1L)),
+				KeyHasher.standard().hash64(Tuple.of("a", 1L)));
+	}
+}
@@ -0,0 +1,145 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class EventTimeWindowTest {
+
+	private static List<Tuple2<Long, Long>> expected(List<Tuple2<Long, Long>> events, long size, long slide) {
+		Map<Long, Long> sums = new TreeMap<>();
+		for(Tuple2<Long, Long> e : events) {
+			for(long start = Math.floorDiv(e.v1, slide) * slide; start > e.v1 - size; start -= slide) {
+				sums.merge(start, e.v2, Long::sum);
+			}
+		}
+		return sums.entrySet().stream().map(e -> Tuple.of(e.getKey(), e.getValue())).collect(Collectors.toList());
+	}
+
+	@Test
+	public void tumblingTest01() {
+		SyntheticClock clock = new SyntheticClock(42, 3, 20);
+		List<Tuple2<Long, Long>> events = clock.take(10000);
+		// 遅延が許容範囲内であれば一括で集約した結果と一致する
+		assertEquals(
+				expected(events, 100, 100),
+				Tuple.tumblingWindows(events.stream(), 100, 20, Collectors.summingLong(v -> v))
+						.collect(Collectors.toList()));
+		assertEquals(
+				expected(events, 100, 25),
+				Tuple.slidingWindows(events.stream(), 100, 25, 20, Collectors.summingLong(v -> v))
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void tumblingTest02() {
+		// 終わりのない入力でもウィンドウが閉じるたびに集約結果を返す
+		SyntheticClock clock = new SyntheticClock(7, 1, 5);
+		List<Tuple2<Long, Long>> windows = Tuple.tumblingWindows(clock.events(), 10, 5, Collectors.summingLong(v -> v))
+				.limit(100)
+				.collect(Collectors.toList());
+		assertEquals(expected(clock.take(2000), 10, 10).subList(0, 100), windows);
+	}
+
+	@Test
+	public void tumblingTest03() {
+		// 集約結果を返したウィンドウに遅れて届いた値は捨てられる
+		List<Tuple2<Long, String>> events = Arrays.asList(
+				Tuple.of(1L, "a"), Tuple.of(12L, "b"), Tuple.of(9L, "c"), Tuple.of(15L, "d"), Tuple.of(23L, "e"));
+		assertEquals(
+				Arrays.asList(Tuple.of(0L, "a"), Tuple.of(10L, "bd"), Tuple.of(20L, "e")),
+				Tuple.tumblingWindows(events.stream(), 10, 0, Collectors.joining()).collect(Collectors.toList()));
+		assertEquals(
+				Arrays.asList(Tuple.of(0L, "ac"), Tuple.of(10L, "bd"), Tuple.of(20L, "e")),
+				Tuple.tumblingWindows(events.stream(), 10, 3, Collectors.joining()).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void sessionTest01() {
+		List<Tuple2<Long, String>> events = Arrays.asList(
+				Tuple.of(0L, "a"), Tuple.of(3L, "b"), Tuple.of(16L, "c"), Tuple.of(12L, "d"),
+				Tuple.of(8L, "e"), Tuple.of(40L, "f"), Tuple.of(44L, "g"));
+		// 遅れて届いた値が2つのセッションをつなぐ
+		assertEquals(
+				Arrays.asList(Tuple.of(0L, "abedc"), Tuple.of(40L, "fg")),
+				Tuple.sessionWindows(events.stream(), 5, 20, Collectors.joining()).collect(Collectors.toList()));
+		assertEquals(
+				Arrays.asList(Tuple.of(0L, "ab"), Tuple.of(8L, "edc"), Tuple.of(40L, "fg")),
+				Tuple.sessionWindows(events.stream(), 5, 2, Collectors.joining()).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void sessionTest02() {
+		// 開いているセッション[12, 21)に重なる，遅れて届いた値[11, 14)は捨てずに併合する
+		List<Tuple2<Long, String>> events = Arrays.asList(
+				Tuple.of(12L, "a"), Tuple.of(15L, "b"), Tuple.of(18L, "c"), Tuple.of(11L, "d"), Tuple.of(30L, "e"));
+		assertEquals(
+				Arrays.asList(Tuple.of(11L, "dabc"), Tuple.of(30L, "e")),
+				Tuple.sessionWindows(events.stream(), 3, 2, Collectors.joining()).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void sessionTest03() {
+		// 許容する遅延を超えて遅れた値が多くても，開いているセッションに重なる値は失われない
+		SyntheticClock clock = new SyntheticClock(11, 1, 10);
+		List<Tuple2<Long, Long>> events = clock.take(10000);
+		List<Tuple2<Long, Long>> expected = new ArrayList<>();
+		assertTrue(expectedSessions(events, 3, 2, expected) > 0);
+		assertEquals(
+				expected,
+				Tuple.sessionWindows(events.stream(), 3, 2, Collectors.summingLong(v -> v))
+						.collect(Collectors.toList()));
+	}
+
+	/**
+	 * 値を届いた順に1つずつ処理してセッションごとの合計を求め，遅れて届いたが併合された値の数を返す．
+	 */
+	private static int expectedSessions(List<Tuple2<Long, Long>> events, long gap, long allowedLateness,
+			List<Tuple2<Long, Long>> result) {
+		// 開始時刻から終了時刻と合計の組への対応
+		TreeMap<Long, long[]> open = new TreeMap<>();
+		long maxTimestamp = Long.MIN_VALUE;
+		int lateMerged = 0;
+		for(Tuple2<Long, Long> e : events) {
+			maxTimestamp = Math.max(maxTimestamp, e.v1);
+			long watermark = maxTimestamp - allowedLateness;
+			long start = e.v1;
+			long end = e.v1 + gap;
+			long sum = e.v2;
+			boolean overlapped = false;
+			Iterator<Map.Entry<Long, long[]>> it = open.headMap(end, false).descendingMap().entrySet().iterator();
+			while(it.hasNext()) {
+				Map.Entry<Long, long[]> session = it.next();
+				if(session.getValue()[0] < start) {
+					break;
+				}
+				start = Math.min(start, session.getKey());
+				end = Math.max(end, session.getValue()[0]);
+				sum += session.getValue()[1];
+				overlapped = true;
+				it.remove();
+			}
+			if(e.v1 + gap <= watermark) {
+				if(!overlapped) {
+					continue;
+				}
+				lateMerged++;
+			}
+			open.put(start, new long[] {end, sum});
+			while(!open.isEmpty() && open.firstEntry().getValue()[0] <= watermark) {
+				Map.Entry<Long, long[]> first = open.pollFirstEntry();
+				result.add(Tuple.of(first.getKey(), first.getValue()[1]));
+			}
+		}
+		open.forEach((start, session) -> result.add(Tuple.of(start, session[1])));
+		return lateMerged;
+	}
+}
@@ -0,0 +1,72 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class ExternalSorterTest {
+
+	@Test
+	public void sortTest01() throws IOException {
+		Path directory = Files.createTempDirectory("sort");
+		try {
+			Random random = new Random(42);
+			List<Tuple3<Integer, String, Long>> rows = random.ints(10000, 0, 100)
+					.mapToObj(i -> Tuple.of(i, i % 3 == 0 ? null : "s" + i, random.nextLong()))
+					.collect(Collectors.toList());
+			Comparator<Tuple3<Integer, String, Long>> comparator = Comparator.comparing(t -> t.v1);
+
+			ExternalSorter<Tuple3<Integer, String, Long>> sorter = ExternalSorter.of(
+					comparator,
+					TupleCodec.tuple3(TupleCodec.ints(), TupleCodec.nullable(TupleCodec.strings()), TupleCodec.longs()))
+					.memoryBudget(64 * 1000)
+					.directory(directory);
+
+			List<Tuple3<Integer, String, Long>> actual;
+			try(Stream<Tuple3<Integer, String, Long>> sorted = sorter.sort(rows.parallelStream())) {
+				actual = sorted.collect(Collectors.toList());
+			}
+			// 安定な整列と同じ結果になる
+			assertEquals(rows.stream().sorted(comparator).collect(Collectors.toList()), actual);
+
+			SpillStatistics statistics = sorter.statistics();
+			assertEquals(9, statistics.getFileCount());
+			assertEquals(9000, statistics.getRecordCount());
+			assertTrue(statistics.getByteCount() > 0);
+			try(Stream<Path> files = Files.list(directory)) {
+				assertEquals(0, files.count());
+			}
+		} finally {
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void sortTest02() throws IOException {
+		Path directory = Files.createTempDirectory("sort");
+		try {
+			ExternalSorter<Long> sorter = ExternalSorter.of(Comparator.<Long>naturalOrder(), TupleCodec.longs())
+					.recordSize(8)
+					.memoryBudget(80)
+					.directory(directory);
+			try(Stream<Long> sorted = sorter.sort(Stream.iterate(100L, i -> i - 1).limit(100))) {
+				assertEquals(Long.valueOf(1), sorted.findFirst().get());
+			}
+			// 最後まで読まずに閉じても一時ファイルは削除される
+			try(Stream<Path> files = Files.list(directory)) {
+				assertEquals(0, files.count());
+			}
+		} finally {
+			Files.delete(directory);
+		}
+	}
+}
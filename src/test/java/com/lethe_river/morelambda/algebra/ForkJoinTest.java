@@ -0,0 +1,97 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.lethe_river.morelambda.throwable.ThrowableSupplier;
+
+public class ForkJoinTest {
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@After
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void forkJoinTest01() throws ExecutionException, InterruptedException {
+		// すべてのサプライヤが同時に実行されなければ完了しない
+		CountDownLatch latch = new CountDownLatch(3);
+		ThrowableSupplier<Integer, InterruptedException> a = () -> await(latch, 1);
+		ThrowableSupplier<String, InterruptedException> b = () -> await(latch, 2).toString();
+		ThrowableSupplier<Long, InterruptedException> c = () -> (long) await(latch, 3);
+
+		assertEquals(Tuple.of(1, "2", 3L), Tuple.forkJoin(executor, a, b, c));
+		assertEquals(Tuple.of(1, 2, 3, 4, 5), Tuple.forkJoin(executor,
+				() -> 1, () -> 2, () -> 3, () -> 4, () -> 5));
+	}
+
+	@Test
+	public void forkJoinTest02() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		ThrowableSupplier<String, InterruptedException> slow = () -> {
+			started.countDown();
+			try {
+				Thread.sleep(60_000);
+				return "slow";
+			} catch(InterruptedException e) {
+				interrupted.countDown();
+				throw e;
+			}
+		};
+		// slowが始まる前に失敗すると，slowは実行されずに取り消されて割り込みが起きない
+		ThrowableSupplier<String, Exception> failing = () -> {
+			started.await();
+			throw new IOException("backend");
+		};
+
+		try {
+			Tuple.forkJoin(executor, slow, failing);
+			fail();
+		} catch(ExecutionException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+		// 失敗すると他のサプライヤは取り消される
+		assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void forkJoinTest03() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch interrupted = new CountDownLatch(2);
+		ThrowableSupplier<String, InterruptedException> slow = () -> {
+			started.countDown();
+			try {
+				Thread.sleep(60_000);
+				return "slow";
+			} catch(InterruptedException e) {
+				interrupted.countDown();
+				throw e;
+			}
+		};
+
+		CompletableFuture<Tuple2<String, String>> future = Tuple.forkJoinAsync(executor, slow, slow);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		assertTrue(future.cancel(true));
+		assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+	}
+
+	private static Integer await(CountDownLatch latch, int value) throws InterruptedException {
+		latch.countDown();
+		if(!latch.await(10, TimeUnit.SECONDS)) {
+			throw new IllegalStateException("not concurrent");
+		}
+		return value;
+	}
+}
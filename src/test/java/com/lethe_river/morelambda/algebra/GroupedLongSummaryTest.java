@@ -0,0 +1,94 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class GroupedLongSummaryTest {
+
+	public static List<Tuple2<String, Long>> rows = IntStream.range(0, 200000)
+			.mapToObj(i -> Tuple.of(i % 7 == 0 ? null : "k" + (i % 1013), (long) (i * 31 % 977) - 300))
+			.collect(Collectors.toList());
+
+	@Test
+	public void summarizingLongTest01() {
+		GroupedLongSummary<String> summary = Arrays.asList(
+				Tuple.of("a", 1L), Tuple.of("b", 5L), Tuple.of("a", -3L)).stream()
+				.collect(Tuple.summarizingLong());
+		assertEquals(Arrays.asList("a", "b"), summary.keys());
+		assertArrayEquals(new long[] {2, 1}, summary.counts());
+		assertArrayEquals(new long[] {-2, 5}, summary.sums());
+		assertArrayEquals(new long[] {-3, 5}, summary.mins());
+		assertArrayEquals(new long[] {1, 5}, summary.maxes());
+		assertEquals(new LongAggregate(2, -2, -3, 1), summary.get("a"));
+		assertNull(summary.get("c"));
+	}
+
+	@Test
+	public void summarizingLongTest02() {
+		Map<String, LongSummaryStatistics> expected = rows.stream()
+				.filter(t -> t.v1 != null)
+				.collect(Collectors.groupingBy(t -> t.v1, Collectors.summarizingLong(t -> t.v2)));
+
+		GroupedLongSummary<String> sequential = rows.stream().collect(Tuple.summarizingLong());
+		GroupedLongSummary<String> parallel = rows.parallelStream().collect(Tuple.summarizingLong());
+
+		for(GroupedLongSummary<String> summary : Arrays.asList(sequential, parallel)) {
+			assertEquals(expected.size() + 1, summary.size());
+			assertEquals(rows.stream().filter(t -> t.v1 == null).count(), summary.get(null).getCount());
+			summary.stream()
+					.filter(t -> t.v1 != null)
+					.forEach(t -> {
+						LongSummaryStatistics s = expected.get(t.v1);
+						assertEquals(s.getCount(), t.v2.getCount());
+						assertEquals(s.getSum(), t.v2.getSum());
+						assertEquals(s.getMin(), t.v2.getMin());
+						assertEquals(s.getMax(), t.v2.getMax());
+						assertEquals(s.getAverage(), t.v2.getAverage(), 1e-9);
+					});
+		}
+		// キーは最初に現れた順に並ぶ
+		assertEquals(sequential.keys(), parallel.keys());
+	}
+
+	@Test
+	public void spillingTest01() {
+		GroupedLongSummary<String> expected = rows.stream().collect(Tuple.summarizingLong());
+
+		SpillingLongAggregation<String> aggregation = SpillingLongAggregation
+				.create(TupleCodec.nullable(TupleCodec.strings()))
+				.memoryBudget(4096);
+		Map<String, LongAggregate> actual = new HashMap<>();
+		try(Stream<Tuple2<String, LongAggregate>> stream = aggregation.aggregate(rows.stream())) {
+			stream.forEach(t -> assertNull(actual.put(t.v1, t.v2)));
+		}
+		assertEquals(expected.size(), actual.size());
+		expected.stream().forEach(t -> assertEquals(t.v2, actual.get(t.v1)));
+
+		SpillStatistics statistics = aggregation.statistics();
+		assertTrue(statistics.getByteCount() > 0);
+		assertTrue(statistics.getDepth() >= 2);
+	}
+
+	@Test
+	public void spillingTest02() {
+		SpillingLongAggregation<String> aggregation = SpillingLongAggregation.create(TupleCodec.strings());
+		List<Tuple2<String, LongAggregate>> actual = aggregation.aggregate(rows.stream().filter(t -> t.v1 != null))
+				.collect(Collectors.toList());
+		// 退避しなければ結果の順序も一致する
+		assertEquals(
+				rows.stream().filter(t -> t.v1 != null).collect(Tuple.summarizingLong()).stream()
+						.collect(Collectors.toList()),
+				actual);
+		assertEquals(0, aggregation.statistics().getDepth());
+	}
+}
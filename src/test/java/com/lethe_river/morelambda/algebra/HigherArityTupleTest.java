@@ -0,0 +1,171 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class HigherArityTupleTest {
+
+	@Test
+	public void tupleTest01() {
+		Tuple12<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, String> t =
+				Tuple.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, "12");
+		assertEquals("12", t.v12);
+		assertEquals("(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12)", t.toString());
+		assertEquals(Tuple.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, "12"), t);
+		assertEquals(Tuple.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, "12").hashCode(), t.hashCode());
+		assertNotEquals(Tuple.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, null), t);
+	}
+
+	@Test
+	public void tupleTest02() {
+		List<Integer> list = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+		List<Tuple6<Integer, Integer, Integer, Integer, Integer, Integer>> windows =
+				Tuple.window6Stream(list).collect(Collectors.toList());
+		assertEquals(5, windows.size());
+		assertEquals(Tuple.of(4, 5, 6, 7, 8, 9), windows.get(4));
+
+		Tuple6<List<Integer>, List<Integer>, List<Integer>, List<Integer>, List<Integer>, List<Integer>> columns =
+				windows.stream().collect(Tuple.toList6());
+		assertEquals(Arrays.asList(5, 6, 7, 8, 9), columns.v6);
+
+		Tuple6Comparator<Integer, Integer, Integer, Integer, Integer, Integer> comparator = Tuple.comparing(
+				FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural(),
+				FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural(),
+				FieldComparator.<Integer>natural().reversed());
+		assertTrue(comparator.compare(Tuple.of(0, 0, 0, 0, 0, 2), Tuple.of(0, 0, 0, 0, 0, 1)) < 0);
+		assertTrue(comparator.compare(Tuple.of(0, 0, 0, 0, 1, 0), Tuple.of(0, 0, 0, 0, 0, 1)) > 0);
+	}
+
+	@Test
+	public void unionTest01() {
+		List<Union7<Integer, String, Long, Double, Character, Boolean, Short>> unions = Arrays.asList(
+				Union7.of1(1), Union7.of2("a"), Union7.of7((short) 3), Union7.of1(2));
+		assertEquals(Arrays.asList(1, 2), unions.stream().collect(Union.toList7()).v1);
+		assertEquals("a", unions.get(1).get2().get());
+		assertFalse(unions.get(1).get1().isPresent());
+		assertEquals(Integer.valueOf(3), unions.get(2).match(
+				v -> 0, v -> 0, v -> 0, v -> 0, v -> 0, v -> 0, v -> (int) v));
+		assertEquals(Union7.of1(1), unions.get(0));
+	}
+
+	@Test
+	public void consistencyTest01() throws ReflectiveOperationException {
+		// 手で書いたTuple2..Tuple5も，テンプレートから生成したTuple6..Tuple12と同じ規則でハッシュ値を計算する
+		Random random = new Random(42);
+		for(int n = 2; n <= 12; n++) {
+			for(int k = 0; k < 100; k++) {
+				Object[] values = new Object[n];
+				for(int i = 0; i < n; i++) {
+					values[i] = randomValue(random, 2);
+				}
+				Object tuple = tupleOf(values);
+				assertEquals(templateHashCode(values), tuple.hashCode());
+				assertEquals(templateHash64(values), ((Hash64) tuple).hash64());
+			}
+		}
+
+		// 入れ子にしたTupleと平坦なTupleは，要素が同じでも区別する
+		Tuple6<Integer, Integer, Integer, Integer, Integer, Integer> flat = Tuple.of(1, 2, 3, 4, 5, 6);
+		Tuple2<Integer, Tuple5<Integer, Integer, Integer, Integer, Integer>> nested = Tuple.of(1, Tuple.of(2, 3, 4, 5, 6));
+		assertEquals(templateHashCode(1, Tuple.of(2, 3, 4, 5, 6)), nested.hashCode());
+		assertNotEquals(flat.hashCode(), nested.hashCode());
+		assertNotEquals(flat.hash64(), nested.hash64());
+	}
+
+	@Test
+	public void consistencyTest02() {
+		// 入れ子にしたTupleの比較関数は，平坦なTupleの比較関数と同じ順序を与える
+		Tuple6Comparator<Integer, Integer, Integer, Integer, Integer, Integer> flat = Tuple.comparing(
+				FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural(),
+				FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural());
+		Tuple5Comparator<Integer, Integer, Integer, Integer, Integer> tail = Tuple.comparing(
+				FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural(),
+				FieldComparator.<Integer>natural(), FieldComparator.<Integer>natural());
+		Comparator<Tuple2<Integer, Tuple5<Integer, Integer, Integer, Integer, Integer>>> nested = Tuple.comparing(
+				FieldComparator.<Integer>natural(), FieldComparator.of(tail));
+
+		Random random = new Random(7);
+		for(int k = 0; k < 10000; k++) {
+			int[] a = random.ints(6, 0, 2).toArray();
+			int[] b = random.ints(6, 0, 2).toArray();
+			assertEquals(
+					Integer.signum(flat.compare(
+							Tuple.of(a[0], a[1], a[2], a[3], a[4], a[5]), Tuple.of(b[0], b[1], b[2], b[3], b[4], b[5]))),
+					Integer.signum(nested.compare(
+							Tuple.of(a[0], Tuple.of(a[1], a[2], a[3], a[4], a[5])),
+							Tuple.of(b[0], Tuple.of(b[1], b[2], b[3], b[4], b[5])))));
+		}
+	}
+
+	@Test
+	public void consistencyTest03() throws ReflectiveOperationException {
+		// 手で書いたUnion2..Union5も，生成したUnion6..Union8と同じ位置とハッシュ値を返す
+		for(int n = 2; n <= 8; n++) {
+			Class<?> type = Class.forName("com.lethe_river.morelambda.algebra.Union" + n);
+			for(int i = 1; i <= n; i++) {
+				Object union = type.getMethod("of" + i, Object.class).invoke(null, "v" + i);
+				assertEquals(i, type.getMethod("index").invoke(union));
+				assertEquals(("v" + i).hashCode(), union.hashCode());
+			}
+		}
+	}
+
+	/**
+	 * テンプレートのhashCode()と同じ規則で計算したハッシュ値を返す．
+	 */
+	private static int templateHashCode(Object... values) {
+		int result = 0;
+		for(Object v : values) {
+			result = Hashing.combine(result, (v == null) ? 0 : v.hashCode());
+		}
+		return Hashing.mix(result ^ values.length);
+	}
+
+	/**
+	 * テンプレートのhash64()と同じ規則で計算したハッシュ値を返す．
+	 */
+	private static long templateHash64(Object... values) {
+		long h = Hashing.seed64(values.length);
+		for(Object v : values) {
+			h = Hashing.combine64(h, Hashing.hash64Of(v));
+		}
+		return Hashing.mix64(h);
+	}
+
+	private static Object tupleOf(Object... values) throws ReflectiveOperationException {
+		return Class.forName("com.lethe_river.morelambda.algebra.Tuple" + values.length)
+				.getConstructors()[0].newInstance(values);
+	}
+
+	/**
+	 * null，Integer，Long，Double，String，または要素の数が2から12のTupleを返す．
+	 */
+	private static Object randomValue(Random random, int depth) throws ReflectiveOperationException {
+		switch(random.nextInt(depth > 0 ? 6 : 5)) {
+		case 0:
+			return null;
+		case 1:
+			return random.nextInt();
+		case 2:
+			return random.nextLong();
+		case 3:
+			return random.nextDouble();
+		case 4:
+			return Long.toString(random.nextLong(), 36);
+		default:
+			Object[] values = new Object[2 + random.nextInt(11)];
+			for(int i = 0; i < values.length; i++) {
+				values[i] = randomValue(random, depth - 1);
+			}
+			return tupleOf(values);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class IncrementalLongAggregationTest {
+
+	@Test
+	public void applyTest01() {
+		IncrementalLongAggregation<String> aggregation = IncrementalLongAggregation.create();
+		aggregation.apply(
+				Stream.of(Tuple.of("a", 3L), Tuple.of("a", 1L), Tuple.of("b", 7L), Tuple.of("a", 5L)),
+				Stream.empty());
+		assertEquals(new LongAggregate(3, 9, 1, 5), aggregation.get("a"));
+
+		GroupedLongSummary<String> before = aggregation.snapshot();
+		assertSame(before, aggregation.snapshot());
+
+		aggregation.apply(
+				Stream.of(Tuple.of("c", 2L)),
+				Stream.of(Tuple.of("a", 1L), Tuple.of("a", 5L), Tuple.of("b", 7L)));
+		assertEquals(new LongAggregate(1, 3, 3, 3), aggregation.get("a"));
+		assertNull(aggregation.get("b"));
+		assertEquals(2, aggregation.size());
+
+		// 以前のスナップショットは変更されない
+		assertEquals(new LongAggregate(1, 7, 7, 7), before.get("b"));
+		assertNotSame(before, aggregation.snapshot());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void retractTest01() {
+		IncrementalLongAggregation<String> aggregation = IncrementalLongAggregation.create();
+		aggregation.insert("a", 1L);
+		aggregation.retract("a", 2L);
+	}
+
+	@Test
+	public void randomTest01() {
+		Random random = new Random(42);
+		IncrementalLongAggregation<Integer> aggregation = IncrementalLongAggregation.create();
+		List<Tuple2<Integer, Long>> live = new ArrayList<>();
+
+		for(int round = 0; round < 200; round++) {
+			List<Tuple2<Integer, Long>> insertions = new ArrayList<>();
+			for(int i = 0; i < 50; i++) {
+				insertions.add(Tuple.of(random.nextInt(40), (long) random.nextInt(1000) - 500));
+			}
+			live.addAll(insertions);
+			List<Tuple2<Integer, Long>> retractions = new ArrayList<>();
+			for(int i = 0; i < 45 && !live.isEmpty(); i++) {
+				retractions.add(live.remove(random.nextInt(live.size())));
+			}
+			aggregation.apply(insertions.stream(), retractions.stream());
+
+			GroupedLongSummary<Integer> expected = live.stream().collect(Tuple.summarizingLong());
+			GroupedLongSummary<Integer> actual = aggregation.snapshot();
+			assertEquals(expected.size(), actual.size());
+			expected.stream().forEach(t -> assertEquals(t.v2, actual.get(t.v1)));
+		}
+	}
+
+	@Test
+	public void withoutExtremaTest01() {
+		IncrementalLongAggregation<String> aggregation = IncrementalLongAggregation.create(false);
+		aggregation.apply(
+				Stream.of(Tuple.of("a", 3L), Tuple.of("a", 1L)),
+				Stream.of(Tuple.of("a", 3L)));
+		LongAggregate a = aggregation.get("a");
+		assertEquals(1, a.getCount());
+		assertEquals(1, a.getSum());
+		assertEquals(
+				Arrays.asList("a"),
+				aggregation.snapshot().stream().map(t -> t.v1).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void snapshotTest01() {
+		// 小さな更新のたびに作ったスナップショットは，その後の更新の影響を受けない
+		Random random = new Random(7);
+		IncrementalLongAggregation<Integer> aggregation = IncrementalLongAggregation.create();
+		List<Tuple2<Integer, Long>> live = new ArrayList<>();
+		for(int i = 0; i < 5000; i++) {
+			live.add(Tuple.of(i, (long) i));
+		}
+		aggregation.apply(live.stream(), Stream.empty());
+
+		List<GroupedLongSummary<Integer>> snapshots = new ArrayList<>();
+		List<GroupedLongSummary<Integer>> expectations = new ArrayList<>();
+		for(int round = 0; round < 300; round++) {
+			Tuple2<Integer, Long> inserted = Tuple.of(random.nextInt(6000), (long) random.nextInt(100));
+			Tuple2<Integer, Long> retracted = live.remove(random.nextInt(live.size()));
+			live.add(inserted);
+			aggregation.apply(Stream.of(inserted), Stream.of(retracted));
+			snapshots.add(aggregation.snapshot());
+			expectations.add(live.stream().collect(Tuple.summarizingLong()));
+		}
+		for(int i = 0; i < snapshots.size(); i += 37) {
+			GroupedLongSummary<Integer> expected = expectations.get(i);
+			GroupedLongSummary<Integer> actual = snapshots.get(i);
+			assertEquals(expected.size(), actual.size());
+			expected.stream().forEach(t -> assertEquals(t.v2, actual.get(t.v1)));
+			assertEquals(expected.stream().collect(Collectors.toSet()), actual.stream().collect(Collectors.toSet()));
+			assertEquals(actual.size(), actual.keys().size());
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class IndexedTupleCollectionTest {
+
+	@Test
+	public void indexedTupleCollectionTest01() {
+		IndexedTupleCollection<Tuple3<String, Integer, Long>> rows = IndexedTupleCollection.create();
+		rows.add(Tuple.of("a", 3, 0L));
+		IndexedTupleCollection.HashIndex<Tuple3<String, Integer, Long>, String> byName = rows.addHashIndex(t -> t.v1);
+		IndexedTupleCollection.SortedIndex<Tuple3<String, Integer, Long>, Integer> byAge = rows.addSortedIndex(t -> t.v2);
+		rows.addAll(Arrays.asList(Tuple.of("b", 1, 1L), Tuple.of("a", 2, 2L), Tuple.of(null, 5, 3L)));
+
+		assertEquals(Arrays.asList(Tuple.of("a", 3, 0L), Tuple.of("a", 2, 2L)),
+				byName.lookup("a").collect(Collectors.toList()));
+		assertEquals(Arrays.asList(Tuple.of(null, 5, 3L)),
+				byName.lookup(null).collect(Collectors.toList()));
+		assertEquals(Arrays.asList(Tuple.of("a", 2, 2L), Tuple.of("a", 3, 0L)),
+				byAge.range(2, 5).collect(Collectors.toList()));
+		assertEquals(Arrays.asList(1, 2, 3, 5),
+				byAge.stream().map(t -> t.v2).collect(Collectors.toList()));
+		assertEquals(Arrays.asList(5), byAge.atLeast(4).map(t -> t.v2).collect(Collectors.toList()));
+		assertEquals(0, byAge.range(5, 1).count());
+
+		assertTrue(rows.remove(Tuple.of("a", 3, 0L)));
+		assertFalse(rows.remove(Tuple.of("a", 3, 0L)));
+		assertEquals(3, rows.size());
+		assertEquals(1, byName.lookup("a").count());
+	}
+
+	@Test
+	public void indexedTupleCollectionTest02() {
+		IndexedTupleCollection<Tuple2<Integer, Integer>> rows = IndexedTupleCollection.create();
+		IndexedTupleCollection.HashIndex<Tuple2<Integer, Integer>, Integer> byKey = rows.addHashIndex(t -> t.v1 % 10);
+		rows.addAll(IntStream.range(0, 100).mapToObj(i -> Tuple.of(i, i)));
+
+		IndexedTupleCollection.Snapshot<Tuple2<Integer, Integer>> snapshot = rows.snapshot();
+		rows.add(Tuple.of(10, -1));
+		for(int i = 0; i < 100; i++) {
+			rows.remove(Tuple.of(i, i));
+		}
+		IndexedTupleCollection.SortedIndex<Tuple2<Integer, Integer>, Integer> byValue = rows.addSortedIndex(t -> t.v2);
+
+		// スナップショットからは作った時点の要素が見える
+		assertEquals(100, snapshot.size());
+		assertEquals(100, snapshot.stream().count());
+		assertEquals(10, snapshot.lookup(byKey, 0).count());
+		assertEquals(Arrays.asList(Tuple.of(3, 3), Tuple.of(4, 4)),
+				snapshot.range(byValue, 3, true, 4, true).collect(Collectors.toList()));
+
+		assertEquals(1, rows.size());
+		assertEquals(Arrays.asList(Tuple.of(10, -1)), byKey.lookup(0).collect(Collectors.toList()));
+		assertEquals(Arrays.asList(Tuple.of(10, -1)), byValue.stream().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void indexedTupleCollectionTest03() throws InterruptedException {
+		// 並行する検索は，常に同じ版に属する2つの要素を揃って見る
+		IndexedTupleCollection<Tuple2<Integer, Integer>> rows = IndexedTupleCollection.create();
+		IndexedTupleCollection.SortedIndex<Tuple2<Integer, Integer>, Integer> byValue = rows.addSortedIndex(t -> t.v2);
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicBoolean broken = new AtomicBoolean();
+		Thread reader = new Thread(() -> {
+			while(!done.get()) {
+				List<Integer> found = byValue.range(0, 1000).map(t -> t.v1).collect(Collectors.toList());
+				if(found.size() % 2 != 0) {
+					broken.set(true);
+				}
+			}
+		});
+		reader.start();
+		for(int i = 0; i < 2000; i++) {
+			rows.addAll(Arrays.asList(Tuple.of(i, i % 1000), Tuple.of(-i, 999 - i % 1000)));
+			if(i % 3 == 0) {
+				rows.clear();
+			}
+		}
+		done.set(true);
+		reader.join();
+		assertFalse(broken.get());
+	}
+
+	@Test
+	public void indexedTupleCollectionTest04() {
+		// キーを取り出す関数が例外を投げた場合，まとめて追加しようとした要素はどれも追加されない
+		IndexedTupleCollection<Tuple2<String, Integer>> rows = IndexedTupleCollection.create();
+		IndexedTupleCollection.HashIndex<Tuple2<String, Integer>, Integer> byLength = rows.addHashIndex(t -> t.v1.length());
+		try {
+			rows.addAll(Arrays.asList(Tuple.of("a", 1), Tuple.of(null, 2)));
+			fail();
+		} catch(NullPointerException e) {
+			// 期待どおり
+		}
+		rows.add(Tuple.of("b", 3));
+
+		assertEquals(1, rows.size());
+		assertEquals(Arrays.asList(Tuple.of("b", 3)), rows.stream().collect(Collectors.toList()));
+		assertEquals(Arrays.asList(Tuple.of("b", 3)), byLength.lookup(1).collect(Collectors.toList()));
+	}
+}
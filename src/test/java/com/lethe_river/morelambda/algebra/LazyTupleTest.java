@@ -0,0 +1,82 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class LazyTupleTest {
+
+	@Test
+	public void lazyTupleTest01() {
+		AtomicInteger calls = new AtomicInteger();
+		LazyTuple3<String, Integer, Long> t = LazyTuple3.of(
+				() -> { calls.incrementAndGet(); return "a"; },
+				() -> { throw new AssertionError("must not be computed"); },
+				() -> { calls.incrementAndGet(); return 3L; });
+		assertEquals("a", t.v1());
+		assertEquals("a", t.v1());
+		assertEquals(1, calls.get());
+		assertFalse(t.isForced());
+		assertEquals("(a, ?, ?)", t.toString());
+	}
+
+	@Test
+	public void lazyTupleTest02() throws InterruptedException {
+		// 計算されていない要素は並行して計算される
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			CountDownLatch latch = new CountDownLatch(3);
+			Set<Thread> threads = ConcurrentHashMap.newKeySet();
+			LazyTuple4<Integer, Integer, Integer, Integer> t = LazyTuple4.of(
+					() -> 1,
+					() -> awaitAll(latch, threads, 2),
+					() -> awaitAll(latch, threads, 3),
+					() -> awaitAll(latch, threads, 4));
+			assertEquals(Integer.valueOf(1), t.v1());
+			assertEquals(Tuple.of(1, 2, 3, 4), t.forceAll(executor));
+			assertTrue(t.isForced());
+			assertEquals(3, threads.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void lazyTupleTest03() {
+		AtomicInteger attempts = new AtomicInteger();
+		LazyTuple2<Integer, Integer> t = LazyTuple2.of(
+				() -> 1,
+				() -> {
+					if(attempts.incrementAndGet() == 1) {
+						throw new IllegalStateException("first");
+					}
+					return 2;
+				});
+		try {
+			t.forceAll();
+			fail();
+		} catch(IllegalStateException e) {
+			assertEquals("first", e.getMessage());
+		}
+		// 例外を投げた要素は再び計算される
+		assertEquals(Tuple.of(1, 2), t.toTuple());
+	}
+
+	private static int awaitAll(CountDownLatch latch, Set<Thread> threads, int value) {
+		threads.add(Thread.currentThread());
+		latch.countDown();
+		try {
+			latch.await();
+		} catch(InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+		return value;
+	}
+}
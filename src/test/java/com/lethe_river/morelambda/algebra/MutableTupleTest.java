@@ -0,0 +1,61 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+public class MutableTupleTest {
+
+	@Test
+	public void mutableTupleTest01() {
+		List<Tuple3<String, Integer, Character>> zipped = new ArrayList<>();
+		List<MutableTuple3<String, Integer, Character>> cursors = new ArrayList<>();
+		Tuple.forEachZipped(
+				Arrays.asList("a", "b", "c"), Arrays.asList(1, 2), Arrays.asList('x', 'y', 'z'),
+				t -> {
+					zipped.add(t.toTuple());
+					cursors.add(t);
+				});
+		assertEquals(Arrays.asList(Tuple.of("a", 1, 'x'), Tuple.of("b", 2, 'y')), zipped);
+		// 同じインスタンスが書き換えられて渡される
+		assertSame(cursors.get(0), cursors.get(1));
+	}
+
+	@Test
+	public void mutableTupleTest02() {
+		List<Integer> list = Arrays.asList(1, 2, 3, 4, 5, 6);
+		List<Tuple4<Integer, Integer, Integer, Integer>> windows = new ArrayList<>();
+		Tuple.forEachWindow4(list, t -> windows.add(t.toTuple()));
+		assertEquals(Tuple.window4Stream(list).collect(Collectors.toList()), windows);
+
+		List<Tuple2<Integer, Integer>> pairs = new ArrayList<>();
+		Tuple.forEachWindow2(Collections.singletonList(1), t -> pairs.add(t.toTuple()));
+		assertTrue(pairs.isEmpty());
+	}
+
+	@Test
+	public void mutableTupleTest03() {
+		TupleTable2<Long, Double> table = LongStream.range(0, 1000)
+				.mapToObj(i -> LongDoubleTuple.of(i, i * 0.5))
+				.collect(LongDoubleTuple.toTable());
+		double[] sum = new double[1];
+		table.forEachRow(c -> sum[0] += c.getLong(1) * c.getDouble(2));
+		assertEquals(LongStream.range(0, 1000).mapToDouble(i -> i * i * 0.5).sum(), sum[0], 1e-6);
+
+		long[] diffs = new long[1];
+		int[] count = new int[1];
+		table.column1().forEachWindow(3, w -> {
+			diffs[0] += w.getLong(2) - w.getLong(0);
+			count[0]++;
+		});
+		assertEquals(998, count[0]);
+		assertEquals(2 * 998, diffs[0]);
+	}
+}
@@ -0,0 +1,58 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class PrimitiveTupleTest {
+
+	@Test
+	public void primitiveTupleTest01() {
+		IntDoubleTuple t = IntDoubleTuple.of(3, 0.5);
+		assertEquals(Tuple.of(3, 0.5), t.toTuple());
+		assertEquals(t, IntDoubleTuple.from(Tuple.of(3, 0.5)));
+		assertEquals(Tuple.of(3, 0.5).hashCode(), t.hashCode());
+		assertEquals(Tuple.of(3, 0.5).toString(), t.toString());
+		// doubleはボクシングした場合と同じく比較する
+		assertEquals(IntDoubleTuple.of(1, Double.NaN), IntDoubleTuple.of(1, Double.NaN));
+		assertNotEquals(IntDoubleTuple.of(1, 0.0), IntDoubleTuple.of(1, -0.0));
+
+		ObjLongTuple<String> o = ObjLongTuple.of("a", 1L << 40);
+		assertEquals(Tuple.of("a", 1L << 40).hashCode(), o.hashCode());
+		assertEquals(Tuple.of(null, 2L).hashCode(), ObjLongTuple.of(null, 2L).hashCode());
+		assertEquals(o, ObjLongTuple.from(o.toTuple()));
+	}
+
+	@Test
+	public void primitiveTupleTest02() {
+		List<LongIntTuple> tuples = new ArrayList<>(Arrays.asList(
+				LongIntTuple.of(2, 1), LongIntTuple.of(1, 5), LongIntTuple.of(2, -1)));
+		Collections.sort(tuples, LongIntTuple.comparator());
+		assertEquals(Arrays.asList(LongIntTuple.of(1, 5), LongIntTuple.of(2, -1), LongIntTuple.of(2, 1)), tuples);
+
+		List<IntObjTuple<String>> named = new ArrayList<>(Arrays.asList(
+				IntObjTuple.of(1, "b"), IntObjTuple.of(0, "z"), IntObjTuple.of(1, "a")));
+		Collections.sort(named, IntObjTuple.comparator(Comparator.<String>naturalOrder()));
+		assertEquals(Arrays.asList(IntObjTuple.of(0, "z"), IntObjTuple.of(1, "a"), IntObjTuple.of(1, "b")), named);
+	}
+
+	@Test
+	public void primitiveTupleTest03() {
+		TupleTable2<Integer, Double> table = IntStream.range(0, 10000).parallel()
+				.mapToObj(i -> IntDoubleTuple.of(i, i * 0.25))
+				.collect(IntDoubleTuple.toTable());
+		assertEquals(10000, table.size());
+		assertEquals(9999, table.column1().intArray()[9999]);
+		assertEquals(
+				IntStream.range(0, 10000).mapToObj(i -> Tuple.of(i, i * 0.25)).collect(Collectors.toList()),
+				table.rows().collect(Collectors.toList()));
+	}
+}
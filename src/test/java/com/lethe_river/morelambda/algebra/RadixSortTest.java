@@ -0,0 +1,46 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RadixSortTest {
+
+	@Test
+	public void sortTest01() {
+		Random random = new Random(42);
+		List<Tuple3<Long, Integer, Double>> rows = new ArrayList<>();
+		double[] doubles = {-0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, 1.5, -1.5};
+		for(int i = 0; i < 200000; i++) {
+			rows.add(Tuple.of(
+					random.nextInt(50) - 25L + (i % 1000 == 0 ? Long.MIN_VALUE / 2 : 0),
+					random.nextInt(),
+					doubles[random.nextInt(doubles.length)]));
+		}
+		List<Tuple3<Long, Integer, Double>> expected = new ArrayList<>(rows);
+		expected.sort(Comparator.<Tuple3<Long, Integer, Double>>comparingLong(t -> t.v1)
+				.thenComparing(Comparator.<Tuple3<Long, Integer, Double>>comparingDouble(t -> t.v3).reversed())
+				.thenComparingInt(t -> t.v2));
+
+		RadixSort.<Tuple3<Long, Integer, Double>>comparingLong(t -> t.v1)
+				.thenComparingDouble(t -> t.v3).reversed()
+				.thenComparingInt(t -> t.v2)
+				.sort(rows);
+		assertEquals(expected, rows);
+	}
+
+	@Test
+	public void sortTest02() {
+		// 安定である
+		String[] values = {"b1", "a1", "b2", "a2", "c1", "a3"};
+		RadixSort.<String>comparingInt(s -> s.charAt(0)).sort(values);
+		assertArrayEquals(new String[] {"a1", "a2", "a3", "b1", "b2", "c1"}, values);
+		assertArrayEquals(new int[0], RadixSort.<String>comparingInt(String::length).permutation(new String[0]));
+	}
+}
@@ -0,0 +1,61 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class SketchTest {
+
+	@Test
+	public void approximateDistinctTest01() {
+		HyperLogLog<Tuple2<String, Integer>> sketch = IntStream.range(0, 1000000).parallel()
+				.mapToObj(i -> Tuple.of("k" + (i % 300000), i % 300000))
+				.collect(Tuple.approximateDistinct(14));
+		assertEquals(300000, sketch.cardinality(), 300000 * sketch.relativeError() * 4);
+
+		HyperLogLog<String> small = IntStream.range(0, 1000)
+				.mapToObj(i -> Tuple.of("k" + (i % 100), i))
+				.collect(Tuple.approximateDistinct(t -> t.v1, 12));
+		assertEquals(100, small.cardinality(), 3);
+	}
+
+	@Test
+	public void approximateQuantilesTest01() throws IOException, ClassNotFoundException {
+		int n = 1000000;
+		double[] values = new Random(42).doubles(n).map(d -> d * d).toArray();
+		QuantileSketch sketch = Arrays.stream(values).parallel()
+				.boxed()
+				.collect(Tuple.approximateQuantiles(d -> d));
+		assertEquals(n, sketch.count());
+		assertTrue(sketch.retained() < 2000);
+
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		for(double q : new double[] {0.01, 0.25, 0.5, 0.9, 0.99}) {
+			double estimate = sketch.quantile(q);
+			int rank = Arrays.binarySearch(sorted, estimate);
+			assertEquals(q, (double) rank / n, 0.02);
+			assertEquals(q, sketch.rank(estimate), 0.02);
+		}
+		assertEquals(sorted[0], sketch.quantile(0), 0);
+		assertEquals(sorted[n - 1], sketch.quantile(1), 0);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(sketch);
+		}
+		try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			QuantileSketch copy = (QuantileSketch) in.readObject();
+			assertEquals(sketch.quantile(0.5), copy.quantile(0.5), 0);
+		}
+	}
+}
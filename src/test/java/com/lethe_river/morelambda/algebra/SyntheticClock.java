@@ -0,0 +1,38 @@
+package com.lethe_river.morelambda.algebra;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * 時刻つきの値を決まった順に再生する合成時計
+ *
+ * 到着時刻は間隔ごとに進み，値の時刻は到着時刻から最大の遅延までの乱数だけ遡る．
+ * 値は到着の順番である．同じシードからは同じ列が作られる．
+ */
+final class SyntheticClock {
+	private final long seed;
+	private final long interval;
+	private final long maxDelay;
+
+	SyntheticClock(long seed, long interval, long maxDelay) {
+		this.seed = seed;
+		this.interval = interval;
+		this.maxDelay = maxDelay;
+	}
+
+	/**
+	 * 終わりのない時刻と値の組のStreamを返す．
+	 */
+	Stream<Tuple2<Long, Long>> events() {
+		Random random = new Random(seed);
+		return LongStream.iterate(0, i -> i + 1)
+				.mapToObj(i -> Tuple.of(i * interval - (long) (random.nextDouble() * (maxDelay + 1)), i));
+	}
+
+	List<Tuple2<Long, Long>> take(int n) {
+		return events().limit(n).collect(Collectors.toList());
+	}
+}
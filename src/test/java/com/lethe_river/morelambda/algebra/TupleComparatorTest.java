@@ -0,0 +1,88 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class TupleComparatorTest {
+
+	@Test
+	public void comparingTest01() {
+		List<Tuple3<Long, String, Double>> rows = Arrays.asList(
+				Tuple.of(2L, "b", 1.0),
+				Tuple.of(1L, null, 2.0),
+				Tuple.of(2L, null, 3.0),
+				Tuple.of(1L, "a", 4.0),
+				Tuple.of(2L, "b", 5.0));
+		Tuple3Comparator<Long, String, Double> comparator = Tuple.comparing(
+				FieldComparator.<Long>comparingLong(v -> v),
+				FieldComparator.<String>natural().reversed().nullsLast(),
+				FieldComparator.<Double>comparingDouble(v -> v).reversed());
+		assertEquals(
+				Arrays.asList(4.0, 2.0, 5.0, 1.0, 3.0),
+				rows.stream().sorted(comparator).map(t -> t.v3).collect(Collectors.toList()));
+
+		Comparator<Tuple3<Long, String, Double>> chained = Comparator
+				.<Tuple3<Long, String, Double>>comparingLong(t -> t.v1)
+				.thenComparing(t -> t.v2, Comparator.nullsLast(Comparator.<String>reverseOrder()))
+				.thenComparing(t -> t.v3, Comparator.reverseOrder());
+		for(Tuple3<Long, String, Double> a : rows) {
+			for(Tuple3<Long, String, Double> b : rows) {
+				assertEquals(Integer.signum(chained.compare(a, b)), Integer.signum(comparator.compare(a, b)));
+			}
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void comparingTest02() {
+		Tuple.comparing(FieldComparator.<String>natural(), FieldComparator.<String>natural())
+				.compare(Tuple.of("a", null), Tuple.of("a", "b"));
+	}
+
+	@Test
+	public void topKTest01() {
+		List<Tuple2<Integer, Long>> rows = IntStream.range(0, 100000)
+				.mapToObj(i -> Tuple.of(i, (long) (i * 7919 % 100003)))
+				.collect(Collectors.toList());
+		Comparator<Tuple2<Integer, Long>> byValue = Comparator.comparingLong(t -> t.v2);
+
+		List<Tuple2<Integer, Long>> top = rows.stream().sorted(byValue.reversed()).limit(100).collect(Collectors.toList());
+		assertEquals(top, rows.parallelStream().collect(Tuple.topK(100, byValue)));
+		assertEquals(top, rows.parallelStream().collect(Tuple.topKByLong(100, t -> t.v2)));
+
+		List<Tuple2<Integer, Long>> bottom = rows.stream().sorted(byValue).limit(100).collect(Collectors.toList());
+		assertEquals(bottom, rows.parallelStream().collect(Tuple.bottomK(100, byValue)));
+		assertEquals(bottom, rows.parallelStream().collect(Tuple.bottomKByLong(100, t -> t.v2)));
+
+		assertEquals(rows.size(), rows.stream().collect(Tuple.topK(Integer.MAX_VALUE, byValue)).size());
+		assertTrue(rows.stream().collect(Tuple.topKByLong(0, t -> t.v2)).isEmpty());
+	}
+
+	@Test
+	public void topKTest02() {
+		// 比較結果が等しい要素は前にあるものが残り，前にあったものが先に並ぶ
+		List<Tuple2<Integer, String>> ties = Arrays.asList(Tuple.of(1, "a"), Tuple.of(1, "b"), Tuple.of(2, "c"));
+		List<Tuple2<Integer, String>> expected = Arrays.asList(Tuple.of(2, "c"), Tuple.of(1, "a"));
+		assertEquals(expected, ties.stream().collect(Tuple.topK(2, Comparator.comparing(t -> t.v1))));
+		assertEquals(expected, ties.stream().collect(Tuple.topKByLong(2, t -> t.v1)));
+
+		List<Tuple2<Integer, Long>> rows = IntStream.range(0, 100000)
+				.mapToObj(i -> Tuple.of(i, (long) (i * 7919 % 10)))
+				.collect(Collectors.toList());
+		Comparator<Tuple2<Integer, Long>> byValue = Comparator.comparingLong(t -> t.v2);
+
+		List<Tuple2<Integer, Long>> top = rows.stream().sorted(byValue.reversed()).limit(25000).collect(Collectors.toList());
+		assertEquals(top, rows.parallelStream().collect(Tuple.topK(25000, byValue)));
+		assertEquals(top, rows.parallelStream().collect(Tuple.topKByLong(25000, t -> t.v2)));
+
+		List<Tuple2<Integer, Long>> bottom = rows.stream().sorted(byValue).limit(25000).collect(Collectors.toList());
+		assertEquals(bottom, rows.parallelStream().collect(Tuple.bottomK(25000, byValue)));
+		assertEquals(bottom, rows.parallelStream().collect(Tuple.bottomKByLong(25000, t -> t.v2)));
+	}
+}
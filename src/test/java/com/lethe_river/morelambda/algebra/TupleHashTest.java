@@ -0,0 +1,55 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TupleHashTest {
+
+	@Test
+	public void hashTest01() {
+		// 小さい整数の組でも表の下位ビットに偏らない
+		int size = 1 << 12;
+		boolean[] used = new boolean[size];
+		int buckets = 0;
+		for(int a = 0; a < 64; a++) {
+			for(int b = 0; b < 64; b++) {
+				int index = Tuple.of(a, b).hashCode() & (size - 1);
+				if(!used[index]) {
+					used[index] = true;
+					buckets++;
+				}
+			}
+		}
+		// 一様な場合の期待値はおよそ63%
+		assertTrue("buckets: " + buckets, buckets > size * 0.6);
+
+		Set<Long> hashes = new HashSet<>();
+		for(long a = 0; a < 1000; a++) {
+			for(long b = 0; b < 1000; b++) {
+				hashes.add(Tuple.of(a << 32, b).hash64());
+			}
+		}
+		assertEquals(1000000, hashes.size());
+	}
+
+	@Test
+	public void hashTest02() {
+		Tuple3<String, Tuple2<Integer, Long>, Double> t = Tuple.of("a", Tuple.of(1, 2L), 0.5);
+		Tuple3<String, Tuple2<Integer, Long>, Double> u = Tuple.of("a", Tuple.of(1, 2L), 0.5);
+		assertEquals(t, u);
+		assertEquals(t.hashCode(), u.hashCode());
+		assertEquals(t.hashCode(), t.hashCode());
+		assertEquals(t.hash64(), u.hash64());
+		assertNotEquals(Tuple.of(1, 2).hash64(), Tuple.of(2, 1).hash64());
+		assertEquals(Tuple.of(null, null).hashCode(), Tuple.of(null, null).hashCode());
+
+		// プリミティブの要素を持つTupleと一致する
+		assertEquals(Tuple.of(3L, "x").hash64(), LongObjTuple.of(3L, "x").hash64());
+		assertEquals(Tuple.of(3, 0.25).hash64(), IntDoubleTuple.of(3, 0.25).hash64());
+		assertEquals(Tuple.of(3, 0.25).hashCode(), IntDoubleTuple.of(3, 0.25).hashCode());
+	}
+}
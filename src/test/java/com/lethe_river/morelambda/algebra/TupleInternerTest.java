@@ -0,0 +1,85 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class TupleInternerTest {
+
+	@Test
+	public void tupleInternerTest01() {
+		TupleInterner<Tuple2<String, String>> interner = TupleInterner.create();
+		Tuple2<String, String> first = interner.intern(Tuple.of("JP", "JPY"));
+		assertSame(first, interner.intern(Tuple.of("JP", "JPY")));
+		assertNotSame(first, interner.intern(Tuple.of("US", "USD")));
+		assertNull(interner.intern(null));
+
+		InternStatistics statistics = interner.statistics();
+		assertEquals(3, statistics.getLookupCount());
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(1.0 / 3, statistics.getHitRate(), 1e-9);
+		assertTrue(statistics.getSavedBytes() > 0);
+		assertEquals(2, statistics.getSize());
+	}
+
+	@Test
+	public void tupleInternerTest02() {
+		// 値が等しくても型の位置が異なるUnionはまとめない
+		TupleInterner<Union2<String, String>> interner = TupleInterner.create();
+		Union2<String, String> left = interner.intern(Union2.of1("a"));
+		Union2<String, String> right = interner.intern(Union2.of2("a"));
+		assertNotSame(left, right);
+		assertEquals(Integer.valueOf(2), right.match(v -> 1, v -> 2));
+		assertSame(right, interner.intern(Union2.of2("a")));
+	}
+
+	@Test
+	public void tupleInternerTest03() {
+		TupleInterner<Tuple2<String, Integer>> interner = TupleInterner.create(true);
+		List<Tuple2<String, Integer>> tuples = IntStream.range(0, 100000).parallel()
+				.mapToObj(i -> Tuple.of(new String("k" + (i % 10)), i % 3))
+				.collect(interner.collecting(Collectors.toList()));
+		Set<Tuple2<String, Integer>> distinct = identitySet(tuples);
+		assertEquals(30, distinct.size());
+
+		// 要素も正準化されている
+		Set<String> keys = identitySet(
+				distinct.stream().map(t -> t.v1).collect(Collectors.toList()));
+		assertEquals(10, keys.size());
+		assertTrue(interner.componentStatistics().getHitCount() > 0);
+		assertEquals(100000, interner.statistics().getLookupCount());
+	}
+
+	@Test
+	public void tupleInternerTest04() throws InterruptedException {
+		TupleInterner<Tuple3<Integer, Integer, Integer>> interner = TupleInterner.create();
+		// count()はサイズのわかるStreamの途中の処理を省くことがあるので，要素を集めて正準化させる
+		List<Tuple3<Integer, Integer, Integer>> tuples = interner.internAll(
+				IntStream.range(0, 10000).mapToObj(i -> Tuple.of(i, i, i))).collect(Collectors.toList());
+		// 参照されている間は回収されない
+		System.gc();
+		assertEquals(10000, interner.statistics().getSize());
+		assertEquals(10000, identitySet(tuples).size());
+
+		// 外から参照されなくなったインスタンスは回収される
+		tuples = null;
+		for(int i = 0; i < 50 && interner.statistics().getSize() > 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertTrue(interner.statistics().getSize() < 10000);
+	}
+
+	private static <E> Set<E> identitySet(List<E> list) {
+		Set<E> set = Collections.newSetFromMap(new IdentityHashMap<>());
+		set.addAll(list);
+		return set;
+	}
+}
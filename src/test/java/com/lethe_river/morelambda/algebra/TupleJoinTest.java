@@ -0,0 +1,185 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class TupleJoinTest {
+
+	public static List<Tuple2<Integer, String>> left = Arrays.asList(
+			Tuple.of(1, "a"), Tuple.of(2, "b"), Tuple.of(3, "c"), Tuple.of(null, "d"), Tuple.of(2, "e"));
+	public static List<Tuple2<Integer, String>> right = Arrays.asList(
+			Tuple.of(2, "x"), Tuple.of(3, "y"), Tuple.of(2, "z"), Tuple.of(4, "w"), Tuple.of(null, "v"));
+
+	@Test
+	public void hashJoinTest01() {
+		assertEquals(
+				Arrays.asList(
+						Tuple.of(2, "b", "x"),
+						Tuple.of(2, "b", "z"),
+						Tuple.of(3, "c", "y"),
+						Tuple.of(2, "e", "x"),
+						Tuple.of(2, "e", "z")),
+				Tuple.hashJoin(left.stream(), right.stream())
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void hashJoinTest02() {
+		// 左側の方が小さい場合は左側からハッシュ表を構築し，右側の順に結果が並ぶ
+		assertEquals(
+				Arrays.asList(
+						Tuple.of(2, "b", "x"),
+						Tuple.of(3, "c", "y"),
+						Tuple.of(2, "b", "z")),
+				Tuple.hashJoin(left.subList(0, 3).stream(), right.stream())
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void hashJoinTest03() {
+		List<Tuple2<Integer, Integer>> l = IntStream.range(0, 100000)
+				.mapToObj(i -> Tuple.of(i % 1000, i))
+				.collect(Collectors.toList());
+		List<Tuple2<Integer, Integer>> r = IntStream.range(0, 500)
+				.mapToObj(i -> Tuple.of(i * 2, -i))
+				.collect(Collectors.toList());
+		List<Tuple3<Integer, Integer, Integer>> expected = l.stream()
+				.filter(t -> t.v1 % 2 == 0)
+				.map(t -> Tuple.of(t.v1, t.v2, -t.v1 / 2))
+				.collect(Collectors.toList());
+
+		assertEquals(
+				expected,
+				Tuple.hashJoin(l.stream(), r.stream())
+						.collect(Collectors.toList()));
+		assertEquals(
+				expected,
+				Tuple.hashJoin(l.parallelStream(), r.stream())
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void leftHashJoinTest01() {
+		assertEquals(
+				Arrays.asList(
+						Tuple.of(1, "a", null),
+						Tuple.of(2, "b", "x"),
+						Tuple.of(2, "b", "z"),
+						Tuple.of(3, "c", "y"),
+						Tuple.of(null, "d", null),
+						Tuple.of(2, "e", "x"),
+						Tuple.of(2, "e", "z")),
+				Tuple.leftHashJoin(left.stream(), right.stream())
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void semiJoinTest01() {
+		assertEquals(
+				Arrays.asList(Tuple.of(2, "b"), Tuple.of(3, "c"), Tuple.of(2, "e")),
+				Tuple.semiJoin(left.stream(), right.stream())
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void antiJoinTest01() {
+		assertEquals(
+				Arrays.asList(Tuple.of(1, "a"), Tuple.of(null, "d")),
+				Tuple.antiJoin(left.stream(), right.stream())
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void antiJoinTest02() {
+		assertEquals(
+				left,
+				Tuple.antiJoin(left.stream(), Stream.<Tuple2<Integer, String>>empty())
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void mergeJoinTest01() {
+		Comparator<Integer> c = Comparator.naturalOrder();
+		assertEquals(
+				Arrays.asList(
+						Tuple.of(2, "b", "x"),
+						Tuple.of(2, "b", "z"),
+						Tuple.of(2, "e", "x"),
+						Tuple.of(2, "e", "z"),
+						Tuple.of(3, "c", "y")),
+				Tuple.mergeJoin(
+						left.stream().filter(t -> t.v1 != null).sorted((t1, t2) -> c.compare(t1.v1, t2.v1)),
+						right.stream().filter(t -> t.v1 != null).sorted((t1, t2) -> c.compare(t1.v1, t2.v1)),
+						c)
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void mergeJoinTest02() {
+		assertEquals(
+				Arrays.asList(
+						Tuple.of(1, "a", null),
+						Tuple.of(3, "b", "x"),
+						Tuple.of(5, "c", null)),
+				Tuple.leftMergeJoin(
+						Stream.of(Tuple.of(1, "a"), Tuple.of(3, "b"), Tuple.of(5, "c")),
+						Stream.of(Tuple.of(0, "w"), Tuple.of(3, "x"), Tuple.of(4, "y")),
+						Comparator.<Integer>naturalOrder())
+						.collect(Collectors.toList()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void mergeJoinTest03() {
+		Tuple.mergeJoin(
+				Stream.of(Tuple.of(3, "a"), Tuple.of(1, "b")),
+				Stream.of(Tuple.of(1, "x")),
+				Comparator.<Integer>naturalOrder())
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void mergeTest01() {
+		List<Stream<Integer>> streams = Arrays.asList(
+				Stream.of(1, 4, 7, 10),
+				Stream.of(2, 5, 8),
+				Stream.empty(),
+				Stream.of(0, 3, 6, 9, 11));
+		assertEquals(
+				IntStream.range(0, 12).boxed().collect(Collectors.toList()),
+				Tuple.merge(streams, Comparator.<Integer>naturalOrder())
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void mergeTest02() {
+		// 等しい要素は前にあるStreamのものが先に並ぶ
+		assertEquals(
+				Arrays.asList(Tuple.of(1, "a"), Tuple.of(1, "b"), Tuple.of(1, "c"), Tuple.of(2, "a"), Tuple.of(2, "c")),
+				Tuple.merge(
+						Arrays.asList(
+								Stream.of(Tuple.of(1, "a"), Tuple.of(2, "a")),
+								Stream.of(Tuple.of(1, "b")),
+								Stream.of(Tuple.of(1, "c"), Tuple.of(2, "c"))),
+						Comparator.comparing((Tuple2<Integer, String> t) -> t.v1))
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void mergeTest03() {
+		List<Stream<Integer>> streams = IntStream.range(0, 37)
+				.mapToObj(i -> IntStream.range(0, 100).map(j -> j * 37 + i).boxed())
+				.collect(Collectors.toList());
+		assertEquals(
+				IntStream.range(0, 3700).boxed().collect(Collectors.toList()),
+				Tuple.merge(streams, Comparator.<Integer>naturalOrder())
+						.collect(Collectors.toList()));
+	}
+}
@@ -0,0 +1,124 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class TupleKeyMapTest {
+
+	@Test
+	public void tupleKeyMapTest01() {
+		TupleKeyMap2<String, Integer, String> map = TupleKeyMap2.create();
+		assertNull(map.put("a", 1, "x"));
+		assertNull(map.put(null, null, "n"));
+		assertEquals("x", map.put("a", 1, "y"));
+		assertEquals("y", map.get("a", 1));
+		assertEquals("n", map.get(null, null));
+		assertNull(map.get("a", 2));
+		assertEquals(2, map.size());
+
+		assertEquals("y", map.asMap().get(Tuple.of("a", 1)));
+		assertEquals(Tuple.of("a", 1).hashCode(), Hashing.hash("a", 1));
+		assertEquals(Tuple.of("a", 1, 2).hashCode(), Hashing.hash("a", 1, 2));
+
+		assertEquals("z", map.computeIfAbsent("b", 2, (k1, k2) -> "z"));
+		assertEquals("z", map.computeIfAbsent("b", 2, (k1, k2) -> { throw new AssertionError(); }));
+		assertEquals("z", map.remove("b", 2));
+		assertNull(map.remove("b", 2));
+	}
+
+	@Test
+	public void tupleKeyMapTest02() {
+		// 削除を交えた無作為な操作の結果がHashMapと一致する
+		TupleKeyMap3<Integer, Integer, Integer, Integer> map = TupleKeyMap3.create(0);
+		Map<Tuple3<Integer, Integer, Integer>, Integer> expected = new HashMap<>();
+		Random random = new Random(42);
+		for(int i = 0; i < 100000; i++) {
+			int k1 = random.nextInt(20);
+			int k2 = random.nextInt(20);
+			int k3 = random.nextInt(20);
+			if(random.nextInt(3) == 0) {
+				assertEquals(expected.remove(Tuple.of(k1, k2, k3)), map.remove(k1, k2, k3));
+			} else {
+				assertEquals(expected.put(Tuple.of(k1, k2, k3), i), map.put(k1, k2, k3, i));
+			}
+		}
+		assertEquals(expected, map.asMap());
+
+		Iterator<Map.Entry<Tuple3<Integer, Integer, Integer>, Integer>> it = map.asMap().entrySet().iterator();
+		while(it.hasNext()) {
+			Map.Entry<Tuple3<Integer, Integer, Integer>, Integer> e = it.next();
+			if(e.getKey().v1 % 2 == 0) {
+				it.remove();
+			} else {
+				e.setValue(-1);
+			}
+		}
+		expected.keySet().removeIf(k -> k.v1 % 2 == 0);
+		expected.replaceAll((k, v) -> -1);
+		assertEquals(expected, map.asMap());
+	}
+
+	@Test
+	public void tupleKeyMapTest03() {
+		ConcurrentTupleKeyMap2<Integer, Integer, Integer> map = ConcurrentTupleKeyMap2.create(8);
+		IntStream.range(0, 200000).parallel().forEach(i ->
+				map.computeIfAbsent(i % 1000, i % 7, (k1, k2) -> k1 * 7 + k2));
+		assertEquals(7000, map.size());
+		assertEquals(Integer.valueOf(999 * 7 + 6), map.get(999, 6));
+
+		ConcurrentMap<Tuple2<Integer, Integer>, Integer> view = map.asMap();
+		assertFalse(view.remove(Tuple.of(0, 0), 1));
+		assertTrue(view.replace(Tuple.of(0, 0), 0, 5));
+		assertEquals(Integer.valueOf(5), view.get(Tuple.of(0, 0)));
+		assertEquals(7000, view.entrySet().stream().count());
+
+		IntStream.range(0, 1000).parallel().forEach(i -> map.remove(i, 3));
+		assertEquals(6000, map.size());
+		map.clear();
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void tupleKeyMapTest04() throws InterruptedException {
+		// ロックを取らない検索は，同じストライプの拡張や削除と並行しても正しい値を返す
+		ConcurrentTupleKeyMap2<Integer, Integer, Integer> map = ConcurrentTupleKeyMap2.create(1);
+		for(int i = 0; i < 1000; i++) {
+			map.put(i, -1, i);
+		}
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicBoolean broken = new AtomicBoolean();
+		Thread writer = new Thread(() -> {
+			for(int round = 0; round < 20; round++) {
+				for(int i = 0; i < 20000; i++) {
+					map.put(i, round, i);
+				}
+				for(int i = 0; i < 20000; i++) {
+					map.remove(i, round);
+				}
+			}
+			done.set(true);
+		});
+		writer.start();
+		IntStream.range(0, 4).parallel().forEach(t -> {
+			Random random = new Random(t);
+			while(!done.get()) {
+				int i = random.nextInt(1000);
+				if(!Integer.valueOf(i).equals(map.get(i, -1)) || map.containsKey(i, -2)) {
+					broken.set(true);
+				}
+			}
+		});
+		writer.join();
+		assertFalse(broken.get());
+		assertEquals(1000, map.size());
+	}
+}
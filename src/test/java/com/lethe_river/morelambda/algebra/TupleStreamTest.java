@@ -0,0 +1,83 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class TupleStreamTest {
+
+	@Test
+	public void scanTest01() {
+		long[] expected = new long[1000000];
+		long sum = 0;
+		for(int i = 0; i < expected.length; i++) {
+			sum += i;
+			expected[i] = sum;
+		}
+		assertArrayEquals(expected, Tuple.scan(LongStream.range(0, 1000000).parallel(), 0, Long::sum).toArray());
+		assertArrayEquals(expected, Tuple.scan(LongStream.range(0, 1000000), 0, Long::sum).toArray());
+		// 並列でもSIZEDでない場合は逐次に累積する
+		assertArrayEquals(
+				Arrays.copyOf(expected, 1000),
+				Tuple.scan(LongStream.iterate(0, i -> i + 1).parallel().limit(1000), 0, Long::sum).toArray());
+		assertArrayEquals(new int[] {1, 3, 6}, Tuple.scan(IntStream.of(1, 2, 3), 0, Integer::sum).toArray());
+	}
+
+	@Test
+	public void scanTest02() {
+		List<String> words = IntStream.range(0, 10000).mapToObj(i -> "w" + i).collect(Collectors.toList());
+		List<Tuple2<String, Integer>> expected = Tuple.scanWithElements(
+				words.stream().map(String::length), 0, Integer::sum)
+				.map(t -> Tuple.of("w", t.v2))
+				.collect(Collectors.toList());
+		List<Tuple2<String, Integer>> actual = Tuple.scanWithElements(
+				words.parallelStream().map(String::length), 0, Integer::sum)
+				.map(t -> Tuple.of("w", t.v2))
+				.collect(Collectors.toList());
+		assertEquals(expected, actual);
+		assertEquals(
+				Arrays.asList("a", "ab", "abc"),
+				Tuple.scan(Stream.of("a", "b", "c"), "", String::concat).collect(Collectors.toList()));
+		assertEquals(
+				Arrays.asList(Tuple.of(1, 1), Tuple.of(2, 3), Tuple.of(3, 6)),
+				Tuple.scanWithElements(Stream.of(1, 2, 3).parallel(), 0, Integer::sum).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void chunkedTest01() {
+		List<Integer> list = IntStream.range(0, 100003).boxed().collect(Collectors.toList());
+		List<List<Integer>> expected = Tuple.chunked(list, 100).collect(Collectors.toList());
+		assertEquals(1001, expected.size());
+		assertEquals(Arrays.asList(100000, 100001, 100002), expected.get(1000));
+
+		// 並列でも最後以外はすべて指定した数の要素を持つ
+		assertEquals(expected, Tuple.chunked(list.parallelStream(), 100).collect(Collectors.toList()));
+		assertEquals(expected, Tuple.chunked(list.stream(), 100).collect(Collectors.toList()));
+		assertEquals(expected, Tuple.chunked(list.stream().filter(i -> true).parallel(), 100)
+				.collect(Collectors.toList()));
+
+		List<long[]> longs = Tuple.chunked(LongStream.range(0, 1000).parallel(), 7).collect(Collectors.toList());
+		assertEquals(143, longs.size());
+		for(int i = 0; i < longs.size(); i++) {
+			long[] chunk = longs.get(i);
+			assertEquals(i < 142 ? 7 : 6, chunk.length);
+			assertEquals(i * 7L, chunk[0]);
+		}
+	}
+
+	@Test
+	public void forEachChunkTest01() {
+		List<Integer> sums = new ArrayList<>();
+		Tuple.forEachChunk(IntStream.range(0, 10).boxed(), 4,
+				chunk -> sums.add(chunk.stream().mapToInt(i -> i).sum()));
+		assertEquals(Arrays.asList(6, 22, 17), sums);
+	}
+}
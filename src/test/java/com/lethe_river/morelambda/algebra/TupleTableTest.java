@@ -0,0 +1,77 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class TupleTableTest {
+
+	@Test
+	public void tableTest01() {
+		List<Tuple3<Long, Integer, String>> tuples = IntStream.range(0, 100000)
+				.mapToObj(i -> Tuple.of((long) i * 3, i % 7, "s" + i))
+				.collect(Collectors.toList());
+		TupleTable3<Long, Integer, String> table = TupleTable3.create(
+				ColumnType.longs(), ColumnType.ints(), ColumnType.objects());
+		table.addAll(tuples.stream());
+
+		assertEquals(tuples.size(), table.size());
+		assertEquals(tuples.get(12345), table.get(12345));
+		assertEquals(tuples, table.rows().collect(Collectors.toList()));
+		assertEquals(tuples, table.rows().parallel().collect(Collectors.toList()));
+
+		// 列の配列はコピーされない
+		long[] longs = table.column1().longArray();
+		assertSame(longs, table.column1().longArray());
+		assertEquals(3L * 99999, longs[99999]);
+
+		long sum = 0;
+		TupleTable.Cursor cursor = table.cursor();
+		while(cursor.next()) {
+			sum += cursor.getLong(1) * cursor.getInt(2);
+		}
+		assertEquals(tuples.stream().mapToLong(t -> t.v1 * t.v2).sum(), sum);
+	}
+
+	@Test
+	public void tableTest02() {
+		TupleTable2<Double, String> table = IntStream.range(0, 10000).parallel()
+				.mapToObj(i -> Tuple.of(i / 2.0, "v" + i))
+				.collect(TupleTable2.collector(ColumnType.doubles(), ColumnType.objects()));
+		assertEquals(10000, table.size());
+		assertEquals(Tuple.of(4999.5, "v9999"), table.get(9999));
+		assertArrayEquals(new double[] {0.0, 0.5, 1.0}, Arrays.copyOf(table.column1().doubleArray(), 3), 0.0);
+
+		try {
+			table.column2().getLong(0);
+			fail();
+		} catch (UnsupportedOperationException e) {}
+		try {
+			table.get(10000);
+			fail();
+		} catch (IndexOutOfBoundsException e) {}
+	}
+
+	@Test
+	public void tableTest03() {
+		// プリミティブの列にnullを追加しようとしても，どの列にも追加されない
+		TupleTable2<Long, Long> table = TupleTable2.create(ColumnType.longs(), ColumnType.longs());
+		table.add(1L, 2L);
+		try {
+			table.add(3L, null);
+			fail();
+		} catch(NullPointerException e) {
+			// 期待どおり
+		}
+		table.add(5L, 6L);
+		assertEquals(2, table.size());
+		assertEquals(2, table.column1().size());
+		assertEquals(2, table.column2().size());
+		assertEquals(Tuple.of(5L, 6L), table.get(1));
+	}
+}
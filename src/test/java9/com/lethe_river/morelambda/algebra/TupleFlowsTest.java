@@ -0,0 +1,212 @@
+package com.lethe_river.morelambda.algebra;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class TupleFlowsTest {
+
+	@Test
+	public void tupleFlowsTest01() throws InterruptedException {
+		RecordingSubscriber<Tuple3<Integer, String, Long>> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+		SubmissionPublisher<String> p2 = new SubmissionPublisher<>(ForkJoinPool.commonPool(), 4);
+		try(SubmissionPublisher<Integer> p1 = new SubmissionPublisher<>(ForkJoinPool.commonPool(), 4);
+				SubmissionPublisher<Long> p3 = new SubmissionPublisher<>(ForkJoinPool.commonPool(), 4)) {
+			TupleFlows.zip(p1, p2, p3).subscribe(subscriber);
+			for(int i = 0; i < 50; i++) {
+				p1.submit(i);
+				p2.submit("s" + i);
+				p3.submit((long) i);
+			}
+			// 1つでも完了すれば，他に要素が残っていても完了する
+			p2.close();
+			p1.submit(50);
+		}
+		assertTrue(subscriber.terminated.await(10, TimeUnit.SECONDS));
+		assertNull(subscriber.error);
+		assertEquals(IntStream.range(0, 50).mapToObj(i -> Tuple.of(i, "s" + i, (long) i)).collect(Collectors.toList()),
+				subscriber.items);
+	}
+
+	@Test
+	public void tupleFlowsTest02() {
+		// 下流の要求を超えて上流から先読みしない
+		ManualPublisher<Integer> p1 = new ManualPublisher<>();
+		ManualPublisher<Integer> p2 = new ManualPublisher<>();
+		RecordingSubscriber<Tuple2<Integer, Integer>> subscriber = new RecordingSubscriber<>(2);
+		TupleFlows.zip(p1, p2).subscribe(subscriber);
+		assertEquals(16, p1.requested);
+		for(int i = 0; i < 16; i++) {
+			p1.next(i);
+			p2.next(-i);
+		}
+		assertEquals(Arrays.asList(Tuple.of(0, 0), Tuple.of(1, -1)), subscriber.items);
+		assertEquals(16, p1.requested);
+
+		subscriber.subscription.request(12);
+		assertEquals(14, subscriber.items.size());
+		assertEquals(16 + 12, p1.requested);
+
+		p1.complete();
+		assertEquals(1, subscriber.terminated.getCount());
+		subscriber.subscription.request(10);
+		assertEquals(16, subscriber.items.size());
+		assertEquals(0, subscriber.terminated.getCount());
+		assertTrue(p2.cancelled);
+	}
+
+	@Test
+	public void tupleFlowsTest03() {
+		ManualPublisher<String> p1 = new ManualPublisher<>();
+		ManualPublisher<Integer> p2 = new ManualPublisher<>();
+		RecordingSubscriber<Tuple2<String, Integer>> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+		TupleFlows.combineLatest(p1, p2).subscribe(subscriber);
+		p1.next("a");
+		p1.next("b");
+		assertTrue(subscriber.items.isEmpty());
+		p2.next(1);
+		p2.next(2);
+		p1.next("c");
+		p1.complete();
+		p2.next(3);
+		assertEquals(Arrays.asList(Tuple.of("b", 1), Tuple.of("b", 2), Tuple.of("c", 2), Tuple.of("c", 3)),
+				subscriber.items);
+		p2.complete();
+		assertEquals(0, subscriber.terminated.getCount());
+	}
+
+	@Test
+	public void tupleFlowsTest04() {
+		ManualPublisher<String> p1 = new ManualPublisher<>();
+		ManualPublisher<String> p2 = new ManualPublisher<>();
+		ManualPublisher<String> p3 = new ManualPublisher<>();
+		RecordingSubscriber<Tuple3<String, String, String>> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+		TupleFlows.combineLatest(p1, p2, p3).subscribe(subscriber);
+		p1.next("a");
+		p2.error(new IOException("backend"));
+		// エラーは下流に流れ，残りの購読は取り消される
+		assertTrue(subscriber.error instanceof IOException);
+		assertTrue(p1.cancelled);
+		assertTrue(p3.cancelled);
+
+		ManualPublisher<String> p4 = new ManualPublisher<>();
+		RecordingSubscriber<Tuple2<String, String>> another = new RecordingSubscriber<>(1);
+		TupleFlows.zip(p4, new ManualPublisher<String>()).subscribe(another);
+		another.subscription.request(0);
+		assertTrue(another.error instanceof IllegalArgumentException);
+		assertTrue(p4.cancelled);
+	}
+
+	@Test
+	public void tupleFlowsTest05() throws InterruptedException {
+		// 要素を流さずにエラーで終わったPublisherは，下流の要求と競合しても完了ではなくエラーとして伝わる
+		for(int i = 0; i < 2000; i++) {
+			ManualPublisher<String> p1 = new ManualPublisher<>();
+			ManualPublisher<String> p2 = new ManualPublisher<>();
+			RecordingSubscriber<Tuple2<String, String>> subscriber = new RecordingSubscriber<>(1);
+			(i % 2 == 0 ? TupleFlows.zip(p1, p2) : TupleFlows.combineLatest(p1, p2)).subscribe(subscriber);
+			CountDownLatch start = new CountDownLatch(1);
+			Thread requester = new Thread(() -> {
+				try {
+					start.await();
+				} catch(InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+				for(int j = 0; j < 100; j++) {
+					subscriber.subscription.request(1);
+				}
+			});
+			requester.start();
+			start.countDown();
+			p2.error(new IOException("backend"));
+			requester.join();
+
+			assertTrue(subscriber.terminated.await(10, TimeUnit.SECONDS));
+			assertTrue(subscriber.error instanceof IOException);
+			assertTrue(subscriber.items.isEmpty());
+		}
+	}
+
+	/**
+	 * 呼び出したスレッドで同期的にシグナルを送るPublisher
+	 */
+	private static final class ManualPublisher<T> implements Flow.Publisher<T> {
+		private Flow.Subscriber<? super T> subscriber;
+		long requested;
+		boolean cancelled;
+
+		@Override
+		public void subscribe(Flow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n) {
+					requested += n;
+				}
+
+				@Override
+				public void cancel() {
+					cancelled = true;
+				}
+			});
+		}
+
+		void next(T item) {
+			subscriber.onNext(item);
+		}
+
+		void complete() {
+			subscriber.onComplete();
+		}
+
+		void error(Throwable e) {
+			subscriber.onError(e);
+		}
+	}
+
+	private static final class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+		private final long initialRequest;
+		final List<T> items = new ArrayList<>();
+		final CountDownLatch terminated = new CountDownLatch(1);
+		Flow.Subscription subscription;
+		volatile Throwable error;
+
+		RecordingSubscriber(long initialRequest) {
+			this.initialRequest = initialRequest;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(initialRequest);
+		}
+
+		@Override
+		public void onNext(T item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+			terminated.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			terminated.countDown();
+		}
+	}
+}